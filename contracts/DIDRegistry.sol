@@ -19,15 +19,28 @@ contract DIDRegistry {
     
     // Mapping from DID to list of historical timestamps
     mapping(string => uint256[]) private didHistory;
+
+    struct RevocationAnchor {
+        bytes32 root;         // Merkle root over the issuer's revocation change log
+        uint64 fromSeq;       // Change log range covered: (fromSeq, toSeq]
+        uint64 toSeq;
+        uint256 timestamp;    // Anchoring timestamp
+    }
+
+    // Mapping from DID hash to the revocation roots it anchored, oldest first
+    mapping(bytes32 => RevocationAnchor[]) private revocationAnchors;
     
     // Events
     event DIDRegistered(bytes32 indexed didHash, string did, string publicKeyJWK, uint256 timestamp);
     event DIDUpdated(bytes32 indexed didHash, string did, string newPublicKeyJWK, uint256 timestamp);
+    event RevocationRootAnchored(bytes32 indexed didHash, bytes32 root, uint64 fromSeq, uint64 toSeq, uint256 timestamp);
     
     // Errors
     error DIDAlreadyRegistered(bytes32 didHash);
     error DIDNotRegistered(bytes32 didHash);
     error InvalidPublicKey(string publicKey);
+    error DIDNotActive(bytes32 didHash);
+    error InvalidAnchorRange(uint64 fromSeq, uint64 toSeq);
     
     /**
      * @dev Register a new DID with its public key
@@ -154,4 +167,64 @@ contract DIDRegistry {
         
         didRegistry[didHash].active = true;
     }
+
+    /**
+     * @dev Anchor the Merkle root of a range of an issuer's revocation change log, so any
+     * revocation in the range can be proven against it
+     * @param didHash Hash of the issuer DID
+     * @param root Merkle root over the changes in (fromSeq, toSeq]
+     * @param fromSeq Last change sequence number of the previous anchor
+     * @param toSeq Last change sequence number covered by this root
+     */
+    function anchorRevocationRoot(
+        bytes32 didHash,
+        bytes32 root,
+        uint64 fromSeq,
+        uint64 toSeq
+    ) external {
+        if (didRegistry[didHash].timestamp == 0) {
+            revert DIDNotRegistered(didHash);
+        }
+        if (!didRegistry[didHash].active) {
+            revert DIDNotActive(didHash);
+        }
+        if (toSeq <= fromSeq) {
+            revert InvalidAnchorRange(fromSeq, toSeq);
+        }
+
+        revocationAnchors[didHash].push(RevocationAnchor({
+            root: root,
+            fromSeq: fromSeq,
+            toSeq: toSeq,
+            timestamp: block.timestamp
+        }));
+
+        emit RevocationRootAnchored(didHash, root, fromSeq, toSeq, block.timestamp);
+    }
+
+    /**
+     * @dev Get the number of revocation roots an issuer anchored
+     * @param didHash Hash of the issuer DID
+     * @return Number of anchors
+     */
+    function getRevocationAnchorCount(bytes32 didHash) external view returns (uint256) {
+        return revocationAnchors[didHash].length;
+    }
+
+    /**
+     * @dev Get one anchored revocation root
+     * @param didHash Hash of the issuer DID
+     * @param index Anchor index, oldest first
+     * @return root Merkle root
+     * @return fromSeq Exclusive start of the covered change range
+     * @return toSeq Inclusive end of the covered change range
+     * @return timestamp Anchoring timestamp
+     */
+    function getRevocationAnchor(
+        bytes32 didHash,
+        uint256 index
+    ) external view returns (bytes32 root, uint64 fromSeq, uint64 toSeq, uint256 timestamp) {
+        RevocationAnchor memory anchor = revocationAnchors[didHash][index];
+        return (anchor.root, anchor.fromSeq, anchor.toSeq, anchor.timestamp);
+    }
 }
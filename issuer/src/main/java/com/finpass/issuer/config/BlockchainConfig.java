@@ -24,6 +24,9 @@ public class BlockchainConfig {
     @Value("${blockchain.gas.price:20000000000}")
     private Long gasPrice;
     
+    @Value("${blockchain.chain.id:80001}")
+    private Long chainId;
+    
     public String getRpcUrl() {
         return rpcUrl;
     }
@@ -43,4 +46,8 @@ public class BlockchainConfig {
     public Long getGasPrice() {
         return gasPrice;
     }
+    
+    public Long getChainId() {
+        return chainId;
+    }
 }
@@ -118,7 +118,7 @@ public class OpenApiConfig {
                         .type("object")
                         .description("Additional error details")
                         .example("{\"field\": \"did\", \"message\": \"Invalid DID format\"}"))
-                .required("error", "error_description", "timestamp");
+                .required(java.util.List.of("error", "error_description", "timestamp"));
     }
 
     private ApiResponse createBadRequestResponse() {
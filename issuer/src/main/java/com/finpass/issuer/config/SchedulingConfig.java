@@ -0,0 +1,12 @@
+package com.finpass.issuer.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled maintenance jobs (audit partitions, retention, etc.)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,14 +1,24 @@
 package com.finpass.issuer.controller;
 
+import com.finpass.issuer.dto.AuditEventFilter;
+import com.finpass.issuer.dto.AuditEventPage;
 import com.finpass.issuer.entity.AuditEventEntity;
+import com.finpass.issuer.exception.ValidationException;
+import com.finpass.issuer.repository.AuditRollupRepository;
+import com.finpass.issuer.service.AuditChainVerifier;
+import com.finpass.issuer.service.AuditExportService;
+import com.finpass.issuer.service.AuditRollupService;
 import com.finpass.issuer.service.AuditService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.Instant;
 import java.util.HashMap;
@@ -25,10 +35,17 @@ public class AuditController {
     private static final Logger logger = LoggerFactory.getLogger(AuditController.class);
 
     private final AuditService auditService;
+    private final AuditExportService auditExportService;
+    private final AuditRollupService auditRollupService;
+    private final AuditChainVerifier auditChainVerifier;
 
     @Autowired
-    public AuditController(AuditService auditService) {
+    public AuditController(AuditService auditService, AuditExportService auditExportService,
+                           AuditRollupService auditRollupService, AuditChainVerifier auditChainVerifier) {
         this.auditService = auditService;
+        this.auditExportService = auditExportService;
+        this.auditRollupService = auditRollupService;
+        this.auditChainVerifier = auditChainVerifier;
     }
 
     /**
@@ -47,60 +64,46 @@ public class AuditController {
     }
 
     /**
-     * Get filtered audit events
+     * Get filtered audit events, one keyset page at a time.
+     * Defaults to the last 24 hours when no time range is given; pass next_cursor
+     * from the previous response as cursor to fetch the following page.
      */
     @GetMapping("/events")
     @PreAuthorize("hasRole('ADMIN') or hasRole('AUDITOR')")
-    public ResponseEntity<List<AuditEventEntity>> getFilteredEvents(
+    public ResponseEntity<AuditEventPage> getFilteredEvents(
             @RequestParam(required = false) String type,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
             @RequestParam(required = false) String severity,
             @RequestParam(required = false) String outcome,
-            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) String tenant,
+            @RequestParam(required = false) String resourceId,
+            @RequestParam(required = false) String resourceType,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "100") int size) {
         
         try {
-            List<AuditEventEntity> events;
-            
-            if (type != null && from != null && to != null) {
-                // Get events by type and date range
-                AuditEventEntity.EventType eventType = AuditEventEntity.EventType.valueOf(type.toUpperCase());
-                events = auditService.getEventsByTypeAndDateRange(eventType, from, to);
-            } else if (from != null && to != null) {
-                // Get events by date range only
-                events = auditService.getEventsCreatedBetween(from, to);
-            } else {
-                // Default to recent events (last 24 hours)
-                Instant since = Instant.now().minusSeconds(86400);
-                events = auditService.getRecentEvents(since);
-            }
-            
-            // Apply additional filters
-            if (severity != null) {
-                events = events.stream()
-                        .filter(event -> severity.equals(event.getSeverity()))
-                        .collect(java.util.stream.Collectors.toList());
-            }
-            
-            if (outcome != null) {
-                events = events.stream()
-                        .filter(event -> outcome.equals(event.getOutcome()))
-                        .collect(java.util.stream.Collectors.toList());
+            AuditEventFilter filter = new AuditEventFilter();
+            if (type != null) {
+                filter.setEventType(AuditEventEntity.EventType.valueOf(type.toUpperCase()).name());
             }
-            
-            // Apply pagination
-            int start = page * size;
-            int end = Math.min(start + size, events.size());
-            
-            if (start >= events.size()) {
-                events = List.of();
-            } else {
-                events = events.subList(start, end);
+            if (from == null && to == null) {
+                // Default to recent events (last 24 hours)
+                from = Instant.now().minusSeconds(86400);
             }
-            
-            return ResponseEntity.ok(events);
-            
+            filter.setFrom(from);
+            filter.setTo(to);
+            filter.setSeverity(severity);
+            filter.setOutcome(outcome);
+            filter.setTenantId(tenant);
+            filter.setResourceId(resourceId);
+            filter.setResourceType(resourceType);
+            
+            return ResponseEntity.ok(auditService.queryEvents(filter, cursor, size));
+            
+        } catch (ValidationException | IllegalArgumentException e) {
+            logger.warn("Rejected audit event query: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             logger.error("Failed to get filtered events", e);
             return ResponseEntity.internalServerError().build();
@@ -108,25 +111,43 @@ public class AuditController {
     }
 
     /**
-     * Get audit metrics and statistics
+     * Full-text search over event descriptions and details, best match first.
+     * Defaults to the last 30 days; pass next_cursor as cursor for the following page.
+     */
+    @GetMapping("/search")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('AUDITOR')")
+    public ResponseEntity<AuditEventPage> searchEvents(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+
+        if (query.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            Instant end = to != null ? to : Instant.now();
+            Instant start = from != null ? from : end.minusSeconds(30L * 86400);
+            return ResponseEntity.ok(auditService.searchEvents(query, start, end, cursor, size));
+        } catch (ValidationException e) {
+            logger.warn("Rejected audit search: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Failed to search audit events", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Get audit metrics and statistics, answered from the rollup buckets
      */
     @GetMapping("/metrics")
     @PreAuthorize("hasRole('ADMIN') or hasRole('AUDITOR')")
     public ResponseEntity<Map<String, Object>> getAuditMetrics() {
         try {
-            Object[] stats = auditService.getAuditStatistics();
-            
-            Map<String, Object> metrics = new HashMap<>();
-            metrics.put("totalEvents", stats[0]);
-            metrics.put("errorEvents", stats[1]);
-            metrics.put("warningEvents", stats[2]);
-            metrics.put("criticalEvents", stats[3]);
-            metrics.put("failedEvents", stats[4]);
-            
-            // Add additional metrics
-            metrics.put("eventTypes", getEventTypeCounts());
-            metrics.put("severityBreakdown", getSeverityBreakdown());
-            metrics.put("recentActivity", getRecentActivity());
+            Map<String, Object> metrics = new HashMap<>(auditRollupService.getMetrics(Instant.now()));
             metrics.put("topUsers", getTopUsers());
             
             return ResponseEntity.ok(metrics);
@@ -137,6 +158,105 @@ public class AuditController {
         }
     }
 
+    /**
+     * Get event counts per hour or day for a time range (defaults to the last 24 hours by hour)
+     */
+    @GetMapping("/metrics/timeseries")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('AUDITOR')")
+    public ResponseEntity<List<Map<String, Object>>> getMetricsTimeSeries(
+            @RequestParam(defaultValue = "HOUR") String granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        try {
+            AuditRollupRepository.Granularity width = AuditRollupRepository.Granularity.valueOf(granularity.toUpperCase());
+            Instant end = to != null ? to : Instant.now();
+            Instant start = from != null ? from : end.minusSeconds(86400);
+            return ResponseEntity.ok(auditRollupService.getTimeSeries(width, start, end));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Failed to get audit metrics time series", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Compare rollup totals with raw event counts for a time window
+     */
+    @GetMapping("/metrics/consistency")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('AUDITOR')")
+    public ResponseEntity<Map<String, Object>> checkMetricsConsistency(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        if (!from.isBefore(to)) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(auditRollupService.checkConsistency(from, to));
+        } catch (Exception e) {
+            logger.error("Failed to check audit rollup consistency", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Get audit write pipeline metrics
+     */
+    @GetMapping("/pipeline")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('AUDITOR')")
+    public ResponseEntity<Map<String, Object>> getPipelineStats() {
+        try {
+            return ResponseEntity.ok(auditService.getPipelineStats());
+        } catch (Exception e) {
+            logger.error("Failed to get audit pipeline stats", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Stream a compliance export of all events in [from, to) as NDJSON or CSV,
+     * optionally gzip-compressed. Rows are written as they are read from the database.
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('AUDITOR')")
+    public ResponseEntity<StreamingResponseBody> exportEvents(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) String type,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+
+        AuditExportService.Format exportFormat;
+        String eventType;
+        try {
+            exportFormat = AuditExportService.Format.valueOf(format.toUpperCase());
+            eventType = type != null ? AuditEventEntity.EventType.valueOf(type.toUpperCase()).name() : null;
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (!from.isBefore(to)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        String filename = "audit-export-" + from.getEpochSecond() + "-" + to.getEpochSecond()
+                + "." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+
+        StreamingResponseBody body = out -> {
+            try {
+                auditExportService.export(from, to, eventType, exportFormat, gzip, out);
+            } catch (Exception e) {
+                // Headers are already committed; the client sees a truncated body
+                logger.error("Audit export failed for range {} - {}", from, to, e);
+                throw e;
+            }
+        };
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : exportFormat.getContentType()))
+                .body(body);
+    }
+
     /**
      * Get events by specific event type
      */
@@ -309,6 +429,76 @@ public class AuditController {
         }
     }
 
+    /**
+     * Get live failed-authentication detector state, optionally checking a single IP
+     */
+    @GetMapping("/security/detector")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SECURITY')")
+    public ResponseEntity<Map<String, Object>> getDetectorStatus(@RequestParam(required = false) String ip) {
+        try {
+            Map<String, Object> status = new HashMap<>(auditService.getDetectorStats());
+            if (ip != null) {
+                status.put("ip", ip);
+                status.put("suspicious", auditService.isSuspiciousIp(ip));
+            }
+            return ResponseEntity.ok(status);
+        } catch (Exception e) {
+            logger.error("Failed to get detector status", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Get cold archive segment count, rows, bytes and covered time range
+     */
+    @GetMapping("/archive")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('AUDITOR')")
+    public ResponseEntity<Map<String, Object>> getArchiveStats() {
+        try {
+            return ResponseEntity.ok(auditService.getArchiveStats());
+        } catch (Exception e) {
+            logger.error("Failed to get archive stats", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Verify the audit hash chain for a time range (defaults to the last 24 hours)
+     */
+    @GetMapping("/chain/verify")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('AUDITOR')")
+    public ResponseEntity<Map<String, Object>> verifyChain(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minusSeconds(86400);
+        if (!start.isBefore(end)) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            AuditChainVerifier.VerificationResult result = auditChainVerifier.verify(start, end);
+            Map<String, Object> response = new HashMap<>();
+            response.put("from", result.from());
+            response.put("to", result.to());
+            response.put("valid", result.isValid());
+            response.put("eventsVerified", result.eventsVerified());
+            response.put("durationMs", result.durationMs());
+            if (!result.isValid()) {
+                AuditChainVerifier.ChainBreak broken = result.firstBreak();
+                Map<String, Object> firstBreak = new HashMap<>();
+                firstBreak.put("partition", broken.partition().toString());
+                firstBreak.put("chainSeq", broken.chainSeq());
+                firstBreak.put("eventId", broken.eventId());
+                firstBreak.put("reason", broken.reason().name());
+                response.put("firstBreak", firstBreak);
+            }
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            logger.error("Failed to verify audit hash chain", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
     /**
      * Get user activity timeline
      */
@@ -326,39 +516,6 @@ public class AuditController {
 
     // Helper methods for metrics
 
-    private Map<String, Long> getEventTypeCounts() {
-        // This would typically query the repository for event type counts
-        Map<String, Long> counts = new HashMap<>();
-        counts.put("CREDENTIAL_ISSUED", 0L);
-        counts.put("CREDENTIAL_REVOKED", 0L);
-        counts.put("PRESENTATION_VERIFIED", 0L);
-        counts.put("PAYMENT_INITIATED", 0L);
-        counts.put("PAYMENT_COMPLETED", 0L);
-        counts.put("PAYMENT_FAILED", 0L);
-        counts.put("USER_LOGIN", 0L);
-        counts.put("AUTHENTICATION_FAILED", 0L);
-        return counts;
-    }
-
-    private Map<String, Long> getSeverityBreakdown() {
-        // This would typically query the repository for severity counts
-        Map<String, Long> breakdown = new HashMap<>();
-        breakdown.put("INFO", 0L);
-        breakdown.put("WARNING", 0L);
-        breakdown.put("ERROR", 0L);
-        breakdown.put("CRITICAL", 0L);
-        return breakdown;
-    }
-
-    private Map<String, Object> getRecentActivity() {
-        // This would typically query for recent activity metrics
-        Map<String, Object> activity = new HashMap<>();
-        activity.put("lastHour", 0);
-        activity.put("last24Hours", 0);
-        activity.put("last7Days", 0);
-        return activity;
-    }
-
     private List<Map<String, Object>> getTopUsers() {
         // This would typically query for most active users
         return List.of();
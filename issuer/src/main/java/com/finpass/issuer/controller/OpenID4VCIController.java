@@ -130,6 +130,147 @@ public class OpenID4VCIController {
         }
     }
     
+    /**
+     * Batch credential endpoint
+     * POST /batch_credential
+     */
+    @PostMapping("/batch_credential")
+    public ResponseEntity<BatchCredentialResponse> getBatchCredential(
+            @RequestBody BatchCredentialRequest batchRequest,
+            @RequestHeader(value = "Authorization", required = false) String authorization) {
+        try {
+            String accessToken = null;
+            if (authorization != null && authorization.startsWith("Bearer ")) {
+                accessToken = authorization.substring(7);
+            }
+            
+            if (accessToken == null) {
+                BatchCredentialResponse errorResponse = BatchCredentialResponse.error(
+                    "invalid_token", 
+                    "Missing or invalid Authorization header"
+                );
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
+            }
+            
+            BatchCredentialResponse response = openID4VCIService.processBatchCredentialRequest(
+                batchRequest, 
+                accessToken
+            );
+            
+            if (response.isError()) {
+                logger.warn("Batch credential request failed: {} - {}", response.getError(), response.getErrorDescription());
+                
+                HttpStatus status = HttpStatus.BAD_REQUEST;
+                if ("invalid_token".equals(response.getError())) {
+                    status = HttpStatus.UNAUTHORIZED;
+                } else if ("invalid_proof".equals(response.getError())) {
+                    status = HttpStatus.FORBIDDEN;
+                } else if ("server_error".equals(response.getError())) {
+                    status = HttpStatus.INTERNAL_SERVER_ERROR;
+                }
+                
+                return ResponseEntity.status(status).body(response);
+            }
+            
+            return ResponseEntity.ok(response);
+            
+        } catch (Exception e) {
+            logger.error("Error processing batch credential request", e);
+            
+            BatchCredentialResponse errorResponse = BatchCredentialResponse.error(
+                "server_error", 
+                "Internal server error"
+            );
+            
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+    
+    /**
+     * Deferred credential endpoint
+     * POST /deferred_credential
+     */
+    @PostMapping("/deferred_credential")
+    public ResponseEntity<CredentialResponse> getDeferredCredential(
+            @RequestBody DeferredCredentialRequest deferredRequest,
+            @RequestHeader(value = "Authorization", required = false) String authorization) {
+        try {
+            String accessToken = null;
+            if (authorization != null && authorization.startsWith("Bearer ")) {
+                accessToken = authorization.substring(7);
+            }
+            
+            if (accessToken == null) {
+                CredentialResponse errorResponse = CredentialResponse.error(
+                    "invalid_token", 
+                    "Missing or invalid Authorization header"
+                );
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
+            }
+            
+            CredentialResponse response = openID4VCIService.processDeferredCredentialRequest(
+                deferredRequest, 
+                accessToken
+            );
+            
+            if (response.isError()) {
+                // issuance_pending is the expected answer while the credential is queued
+                if (!"issuance_pending".equals(response.getError())) {
+                    logger.warn("Deferred credential request failed: {} - {}", response.getError(), response.getErrorDescription());
+                }
+                
+                HttpStatus status = HttpStatus.BAD_REQUEST;
+                if ("invalid_token".equals(response.getError())) {
+                    status = HttpStatus.UNAUTHORIZED;
+                } else if ("server_error".equals(response.getError())) {
+                    status = HttpStatus.INTERNAL_SERVER_ERROR;
+                }
+                
+                return ResponseEntity.status(status).body(response);
+            }
+            
+            return ResponseEntity.ok(response);
+            
+        } catch (Exception e) {
+            logger.error("Error processing deferred credential request", e);
+            
+            CredentialResponse errorResponse = CredentialResponse.error(
+                "server_error", 
+                "Internal server error"
+            );
+            
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+    
+    /**
+     * Access token cache metrics
+     * GET /openid4vci/access-token-stats
+     */
+    @GetMapping("/openid4vci/access-token-stats")
+    public ResponseEntity<java.util.Map<String, Object>> getAccessTokenStats() {
+        try {
+            return ResponseEntity.ok(openID4VCIService.getAccessTokenStats());
+        } catch (Exception e) {
+            logger.error("Failed to get access token stats", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    /**
+     * c_nonce store metrics
+     * GET /openid4vci/c-nonce-stats
+     */
+    @GetMapping("/openid4vci/c-nonce-stats")
+    public ResponseEntity<java.util.Map<String, Object>> getCNonceStats() {
+        try {
+            return ResponseEntity.ok(openID4VCIService.getCNonceStats());
+        } catch (Exception e) {
+            logger.error("Failed to get c_nonce stats", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
     /**
      * Health check endpoint for OpenID4VCI service
      * GET /openid4vci/health
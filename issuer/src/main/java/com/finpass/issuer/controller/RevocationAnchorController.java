@@ -0,0 +1,57 @@
+package com.finpass.issuer.controller;
+
+import com.finpass.issuer.dto.RevocationProof;
+import com.finpass.issuer.service.RevocationAnchorService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * REST controller serving inclusion proofs of credential status changes in the Merkle roots
+ * anchored on-chain
+ */
+@RestController
+@RequestMapping("/api/v1/revocation-anchors")
+public class RevocationAnchorController {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevocationAnchorController.class);
+
+    private final RevocationAnchorService revocationAnchorService;
+
+    @Autowired
+    public RevocationAnchorController(RevocationAnchorService revocationAnchorService) {
+        this.revocationAnchorService = revocationAnchorService;
+    }
+
+    /**
+     * Get the proof of a credential's latest anchored status change; 404 when none of its
+     * changes is anchored yet
+     */
+    @GetMapping("/proof/{credentialId}")
+    public ResponseEntity<RevocationProof> getProof(@PathVariable UUID credentialId) {
+        try {
+            RevocationProof proof = revocationAnchorService.getProof(credentialId);
+            if (proof == null) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(proof);
+        } catch (Exception e) {
+            logger.error("Error building revocation proof for credential {}: {}", credentialId, e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Get anchoring progress
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(revocationAnchorService.getStats());
+    }
+}
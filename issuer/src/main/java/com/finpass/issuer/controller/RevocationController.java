@@ -1,17 +1,27 @@
 package com.finpass.issuer.controller;
 
+import com.finpass.issuer.dto.BulkStatusRequest;
+import com.finpass.issuer.dto.BulkStatusResponse;
+import com.finpass.issuer.dto.CredentialStatusChange;
 import com.finpass.issuer.dto.CredentialStatusResponse;
 import com.finpass.issuer.dto.RevocationRequest;
+import com.finpass.issuer.entity.CredentialStatusEntity;
+import com.finpass.issuer.service.BulkRevocationService;
 import com.finpass.issuer.service.RevocationService;
+import com.finpass.issuer.util.NdjsonIdReader;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.BufferedReader;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -26,11 +36,17 @@ public class RevocationController {
 
     private static final Logger logger = LoggerFactory.getLogger(RevocationController.class);
 
+    private static final int MAX_CHANGES_LIMIT = 1000;
+
+    static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
     private final RevocationService revocationService;
+    private final BulkRevocationService bulkRevocationService;
 
     @Autowired
-    public RevocationController(RevocationService revocationService) {
+    public RevocationController(RevocationService revocationService, BulkRevocationService bulkRevocationService) {
         this.revocationService = revocationService;
+        this.bulkRevocationService = bulkRevocationService;
     }
 
     /**
@@ -179,6 +195,97 @@ public class RevocationController {
         }
     }
 
+    /**
+     * Revoke, suspend or reinstate a list of credentials (admin only). Every ID gets a
+     * result; the response counts them and lists the ones that were not updated.
+     */
+    @PostMapping(value = "/bulk-status/{action}", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkStatusResponse> bulkStatusChange(
+            @PathVariable String action,
+            @RequestHeader(value = "Authorization", required = false) String authorization,
+            @Valid @RequestBody BulkStatusRequest request) {
+
+        return bulkStatusChange(action, authorization, request.getCredentialIds().iterator(),
+                request.getPerformedBy(), request.getRevocationReason(), request.getReasonDescription());
+    }
+
+    /**
+     * Bulk status change with the credential IDs streamed as NDJSON, one per line (admin only)
+     */
+    @PostMapping(value = "/bulk-status/{action}", consumes = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<BulkStatusResponse> bulkStatusChangeStream(
+            @PathVariable String action,
+            @RequestHeader(value = "Authorization", required = false) String authorization,
+            @RequestParam("performed_by") String performedBy,
+            @RequestParam(value = "revocation_reason", required = false) CredentialStatusEntity.RevocationReason reason,
+            @RequestParam(value = "reason_description", required = false) String reasonDescription,
+            BufferedReader body) {
+
+        return bulkStatusChange(action, authorization, new NdjsonIdReader(body), performedBy, reason, reasonDescription);
+    }
+
+    private ResponseEntity<BulkStatusResponse> bulkStatusChange(String action, String authorization,
+                                                                Iterator<String> credentialIds, String performedBy,
+                                                                CredentialStatusEntity.RevocationReason reason,
+                                                                String reasonDescription) {
+        BulkRevocationService.Action bulkAction;
+        try {
+            bulkAction = BulkRevocationService.Action.fromValue(action);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+
+        logger.info("Bulk {} request by admin: {}", bulkAction.value(), performedBy);
+
+        if (!validateAdminAuthorization(authorization)) {
+            logger.warn("Unauthorized bulk {} attempt", bulkAction.value());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        try {
+            BulkStatusResponse response = bulkRevocationService.apply(bulkAction, credentialIds, performedBy,
+                    reason, reasonDescription);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid bulk {} request: {}", bulkAction.value(), e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Error in bulk {}: {}", bulkAction.value(), e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Get status changes after a feed position (public endpoint). Verifiers keep a local
+     * mirror by polling with the returned next_cursor until has_more is false.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<Map<String, Object>> getStatusChanges(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "500") int limit) {
+
+        if (after < 0 || limit < 1 || limit > MAX_CHANGES_LIMIT) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            // Fetch one extra row to tell whether another page follows
+            List<CredentialStatusChange> changes = revocationService.getStatusChanges(after, limit + 1);
+            boolean hasMore = changes.size() > limit;
+            if (hasMore) {
+                changes = changes.subList(0, limit);
+            }
+            Map<String, Object> response = new HashMap<>();
+            response.put("changes", changes);
+            response.put("next_cursor", changes.isEmpty() ? after : changes.get(changes.size() - 1).getSeq());
+            response.put("has_more", hasMore);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            logger.error("Error getting credential status changes: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     /**
      * Get all revoked credentials (admin only)
      */
@@ -217,8 +324,8 @@ public class RevocationController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
-        // Cache clearing would be handled by @CacheEvict annotations
-        // This endpoint provides a way to manually trigger cache clearing if needed
+        // Drops the credential from the status index; its next lookup re-reads the database
+        revocationService.evictCredentialStatus(credentialId);
         logger.info("Cache cleared for credential {}", credentialId);
         return ResponseEntity.ok().build();
     }
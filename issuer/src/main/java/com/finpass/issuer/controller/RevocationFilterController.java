@@ -0,0 +1,93 @@
+package com.finpass.issuer.controller;
+
+import com.finpass.issuer.dto.RevocationFilterPatch;
+import com.finpass.issuer.service.RevocationFilterService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * REST controller publishing the cuckoo filter of revoked and suspended credentials, with
+ * incremental patches between versions
+ */
+@RestController
+@RequestMapping("/api/v1/revocation-filter")
+public class RevocationFilterController {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevocationFilterController.class);
+
+    private final RevocationFilterService revocationFilterService;
+
+    @Autowired
+    public RevocationFilterController(RevocationFilterService revocationFilterService) {
+        this.revocationFilterService = revocationFilterService;
+    }
+
+    /**
+     * Download the whole filter (binary; epoch and version also in X-Filter-Epoch and
+     * X-Filter-Version); answers 304 when If-None-Match carries the current ETag and 503
+     * while the filter is being built
+     */
+    @GetMapping
+    public ResponseEntity<byte[]> getFilter(
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        try {
+            RevocationFilterService.Snapshot snapshot = revocationFilterService.getSnapshot();
+            if (snapshot == null) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+            }
+            if (StatusListController.matches(ifNoneMatch, snapshot.etag())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(snapshot.etag())
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+            }
+            return ResponseEntity.ok()
+                .eTag(snapshot.etag())
+                .cacheControl(CacheControl.noCache())
+                .header("X-Filter-Epoch", String.valueOf(snapshot.epoch()))
+                .header("X-Filter-Version", String.valueOf(snapshot.version()))
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(snapshot.bytes());
+        } catch (Exception e) {
+            logger.error("Error serializing revocation filter: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Get the slots changed since a version; 410 when the caller must download the filter
+     * again (the filter was rebuilt, or the version is too old)
+     */
+    @GetMapping("/patch")
+    public ResponseEntity<RevocationFilterPatch> getPatch(@RequestParam long epoch,
+                                                          @RequestParam("since") long sinceVersion) {
+        try {
+            RevocationFilterPatch patch = revocationFilterService.getPatch(epoch, sinceVersion);
+            if (patch == null) {
+                return ResponseEntity.status(HttpStatus.GONE).build();
+            }
+            return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(patch);
+        } catch (Exception e) {
+            logger.error("Error building revocation filter patch: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Get filter size, memory use and false positive rate
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(revocationFilterService.getStats());
+    }
+}
@@ -0,0 +1,76 @@
+package com.finpass.issuer.controller;
+
+import com.finpass.issuer.service.StatusEventBroadcaster;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+
+/**
+ * REST controller streaming credential status changes to verifiers as server-sent events,
+ * so they can keep long-lived caches of revocation answers
+ */
+@RestController
+@RequestMapping("/api/v1/credentials")
+public class StatusEventController {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatusEventController.class);
+
+    private final StatusEventBroadcaster statusEventBroadcaster;
+
+    @Autowired
+    public StatusEventController(StatusEventBroadcaster statusEventBroadcaster) {
+        this.statusEventBroadcaster = statusEventBroadcaster;
+    }
+
+    /**
+     * Stream status changes (public endpoint). Each event's id is its change feed seq;
+     * reconnecting with Last-Event-ID (or last_event_id) replays the changes missed since.
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamStatusEvents(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+            @RequestParam(value = "last_event_id", required = false) Long lastEventIdParam) {
+
+        Long lastEventId = lastEventIdParam;
+        if (lastEventIdHeader != null && !lastEventIdHeader.isBlank()) {
+            try {
+                lastEventId = Long.parseLong(lastEventIdHeader.trim());
+            } catch (NumberFormatException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        if (lastEventId != null && lastEventId < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            SseEmitter emitter = statusEventBroadcaster.subscribe(lastEventId);
+            return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+        } catch (IllegalStateException e) {
+            logger.warn("Rejected status event subscriber: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        } catch (Exception e) {
+            logger.error("Error subscribing to status events: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Get subscriber count and slow-consumer disconnects
+     */
+    @GetMapping("/events/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(statusEventBroadcaster.getStats());
+    }
+}
@@ -0,0 +1,101 @@
+package com.finpass.issuer.controller;
+
+import com.finpass.issuer.service.StatusListService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * REST controller publishing StatusList2021 credentials, so verifiers can check the
+ * revocation or suspension of any number of credentials from one cached download
+ */
+@RestController
+@RequestMapping("/api/v1/status-lists")
+public class StatusListController {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatusListController.class);
+
+    static final MediaType VC_JWT = MediaType.parseMediaType("application/vc+jwt");
+
+    private final StatusListService statusListService;
+    private final long maxAgeSeconds;
+
+    @Autowired
+    public StatusListController(StatusListService statusListService,
+                                @Value("${status-list.max-age-seconds:300}") long maxAgeSeconds) {
+        this.statusListService = statusListService;
+        this.maxAgeSeconds = maxAgeSeconds;
+    }
+
+    /**
+     * Get the signed status list credential for a purpose (revocation or suspension);
+     * answers 304 when If-None-Match carries the current ETag
+     */
+    @GetMapping("/{purpose}")
+    public ResponseEntity<String> getStatusList(
+            @PathVariable String purpose,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+
+        StatusListService.Purpose listPurpose;
+        try {
+            listPurpose = StatusListService.Purpose.fromValue(purpose);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+
+        try {
+            StatusListService.StatusListDocument document = statusListService.getDocument(listPurpose);
+            CacheControl cacheControl = CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).cachePublic();
+            if (matches(ifNoneMatch, document.etag())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(document.etag())
+                    .cacheControl(cacheControl)
+                    .build();
+            }
+            return ResponseEntity.ok()
+                .eTag(document.etag())
+                .cacheControl(cacheControl)
+                .contentType(VC_JWT)
+                .body(document.jwt());
+        } catch (Exception e) {
+            logger.error("Error getting {} status list: {}", purpose, e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Get status list sizes and memory use
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(statusListService.getStats());
+    }
+
+    /**
+     * Whether an If-None-Match header (a list of tags, possibly weak, or *) matches
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals("*") || candidate.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
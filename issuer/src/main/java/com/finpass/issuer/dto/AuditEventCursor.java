@@ -0,0 +1,97 @@
+package com.finpass.issuer.dto;
+
+import com.finpass.issuer.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Keyset position in the (created_at DESC, id DESC) ordering of audit events, or in the
+ * (rank DESC, created_at DESC, id DESC) ordering of ranked search results.
+ * Clients only ever see the opaque base64url token.
+ */
+public final class AuditEventCursor {
+
+    private final Float rank;
+    private final Instant createdAt;
+    private final UUID id;
+
+    public AuditEventCursor(Instant createdAt, UUID id) {
+        this(null, createdAt, id);
+    }
+
+    public AuditEventCursor(Float rank, Instant createdAt, UUID id) {
+        this.rank = rank;
+        this.createdAt = Objects.requireNonNull(createdAt, "createdAt");
+        this.id = Objects.requireNonNull(id, "id");
+    }
+
+    /**
+     * Search rank of the last row, or null for plain time-ordered pages
+     */
+    public Float getRank() {
+        return rank;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    /**
+     * Encode as an opaque token: base64url("[rankBits~]epochSecond.nanos:uuid").
+     * The rank is carried as its exact float bits so keyset comparisons see the same value.
+     */
+    public String encode() {
+        String raw = (rank != null ? Integer.toHexString(Float.floatToIntBits(rank)) + "~" : "")
+                + createdAt.getEpochSecond() + "." + createdAt.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token produced by {@link #encode()}
+     *
+     * @throws ValidationException if the token is malformed
+     */
+    public static AuditEventCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            Float rank = null;
+            int tilde = raw.indexOf('~');
+            if (tilde >= 0) {
+                rank = Float.intBitsToFloat(Integer.parseUnsignedInt(raw.substring(0, tilde), 16));
+                raw = raw.substring(tilde + 1);
+            }
+            int colon = raw.indexOf(':');
+            int dot = raw.indexOf('.');
+            if (dot < 0 || colon < dot) {
+                throw new IllegalArgumentException("Unexpected cursor layout");
+            }
+            Instant createdAt = Instant.ofEpochSecond(
+                    Long.parseLong(raw.substring(0, dot)),
+                    Integer.parseInt(raw.substring(dot + 1, colon)));
+            return new AuditEventCursor(rank, createdAt, UUID.fromString(raw.substring(colon + 1)));
+        } catch (RuntimeException e) {
+            throw new ValidationException("INVALID_CURSOR", "Invalid pagination cursor", e);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof AuditEventCursor)) return false;
+        AuditEventCursor that = (AuditEventCursor) o;
+        return Objects.equals(rank, that.rank) && createdAt.equals(that.createdAt) && id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(rank, createdAt, id);
+    }
+}
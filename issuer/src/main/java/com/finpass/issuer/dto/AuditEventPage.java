@@ -0,0 +1,66 @@
+package com.finpass.issuer.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.finpass.issuer.entity.AuditEventEntity;
+
+import java.util.List;
+
+/**
+ * One keyset page of audit events
+ */
+public class AuditEventPage {
+
+    @JsonProperty("events")
+    private List<AuditEventEntity> events;
+
+    @JsonProperty("next_cursor")
+    private String nextCursor;
+
+    @JsonProperty("has_more")
+    private boolean hasMore;
+
+    @JsonProperty("size")
+    private int size;
+
+    public AuditEventPage() {}
+
+    public AuditEventPage(List<AuditEventEntity> events, String nextCursor) {
+        this.events = events;
+        this.nextCursor = nextCursor;
+        this.hasMore = nextCursor != null;
+        this.size = events.size();
+    }
+
+    // Getters and Setters
+    public List<AuditEventEntity> getEvents() {
+        return events;
+    }
+
+    public void setEvents(List<AuditEventEntity> events) {
+        this.events = events;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+}
@@ -0,0 +1,26 @@
+package com.finpass.issuer.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * OpenID4VCI Batch Credential Request
+ * Several credential requests, each with its own proof, issued in one round trip
+ */
+public class BatchCredentialRequest {
+
+    @JsonProperty("credential_requests")
+    private List<CredentialRequest> credentialRequests;
+
+    // Constructors
+    public BatchCredentialRequest() {}
+
+    public BatchCredentialRequest(List<CredentialRequest> credentialRequests) {
+        this.credentialRequests = credentialRequests;
+    }
+
+    // Getters and Setters
+    public List<CredentialRequest> getCredentialRequests() { return credentialRequests; }
+    public void setCredentialRequests(List<CredentialRequest> credentialRequests) { this.credentialRequests = credentialRequests; }
+}
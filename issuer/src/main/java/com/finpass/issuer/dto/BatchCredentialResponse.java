@@ -0,0 +1,62 @@
+package com.finpass.issuer.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * OpenID4VCI Batch Credential Response
+ * One credential response per request, in request order
+ */
+public class BatchCredentialResponse {
+
+    @JsonProperty("credential_responses")
+    private List<CredentialResponse> credentialResponses;
+
+    @JsonProperty("c_nonce")
+    private String cNonce;
+
+    @JsonProperty("c_nonce_expires_in")
+    private Long cNonceExpiresIn;
+
+    @JsonProperty("error")
+    private String error;
+
+    @JsonProperty("error_description")
+    private String errorDescription;
+
+    // Constructors
+    public BatchCredentialResponse() {}
+
+    public BatchCredentialResponse(List<CredentialResponse> credentialResponses) {
+        this.credentialResponses = credentialResponses;
+    }
+
+    // Static factory methods
+    public static BatchCredentialResponse error(String error, String errorDescription) {
+        BatchCredentialResponse response = new BatchCredentialResponse();
+        response.setError(error);
+        response.setErrorDescription(errorDescription);
+        return response;
+    }
+
+    // Getters and Setters
+    public List<CredentialResponse> getCredentialResponses() { return credentialResponses; }
+    public void setCredentialResponses(List<CredentialResponse> credentialResponses) { this.credentialResponses = credentialResponses; }
+
+    public String getCNonce() { return cNonce; }
+    public void setCNonce(String cNonce) { this.cNonce = cNonce; }
+
+    public Long getCNonceExpiresIn() { return cNonceExpiresIn; }
+    public void setCNonceExpiresIn(Long cNonceExpiresIn) { this.cNonceExpiresIn = cNonceExpiresIn; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
+    public String getErrorDescription() { return errorDescription; }
+    public void setErrorDescription(String errorDescription) { this.errorDescription = errorDescription; }
+
+    public boolean isError() {
+        return error != null && !error.trim().isEmpty();
+    }
+}
@@ -0,0 +1,72 @@
+package com.finpass.issuer.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.finpass.issuer.entity.CredentialStatusEntity;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+/**
+ * Request to revoke, suspend or reinstate many credentials at once
+ */
+public class BulkStatusRequest {
+
+    @NotEmpty(message = "Credential IDs are required")
+    @JsonProperty("credential_ids")
+    private List<String> credentialIds;
+
+    @NotBlank(message = "Performed by is required")
+    @JsonProperty("performed_by")
+    private String performedBy;
+
+    @JsonProperty("revocation_reason")
+    private CredentialStatusEntity.RevocationReason revocationReason;
+
+    @JsonProperty("reason_description")
+    private String reasonDescription;
+
+    // Constructors
+    public BulkStatusRequest() {}
+
+    public BulkStatusRequest(List<String> credentialIds, String performedBy,
+                             CredentialStatusEntity.RevocationReason revocationReason, String reasonDescription) {
+        this.credentialIds = credentialIds;
+        this.performedBy = performedBy;
+        this.revocationReason = revocationReason;
+        this.reasonDescription = reasonDescription;
+    }
+
+    // Getters and Setters
+    public List<String> getCredentialIds() {
+        return credentialIds;
+    }
+
+    public void setCredentialIds(List<String> credentialIds) {
+        this.credentialIds = credentialIds;
+    }
+
+    public String getPerformedBy() {
+        return performedBy;
+    }
+
+    public void setPerformedBy(String performedBy) {
+        this.performedBy = performedBy;
+    }
+
+    public CredentialStatusEntity.RevocationReason getRevocationReason() {
+        return revocationReason;
+    }
+
+    public void setRevocationReason(CredentialStatusEntity.RevocationReason revocationReason) {
+        this.revocationReason = revocationReason;
+    }
+
+    public String getReasonDescription() {
+        return reasonDescription;
+    }
+
+    public void setReasonDescription(String reasonDescription) {
+        this.reasonDescription = reasonDescription;
+    }
+}
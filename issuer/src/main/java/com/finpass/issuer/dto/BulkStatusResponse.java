@@ -0,0 +1,90 @@
+package com.finpass.issuer.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of a bulk status change: counts per result, and the IDs that were not updated
+ */
+public class BulkStatusResponse {
+
+    /**
+     * Result for a single credential ID in a bulk request
+     */
+    public enum Result {
+        UPDATED,
+        NOT_FOUND,
+        ALREADY_REVOKED,
+        NOT_SUSPENDED,
+        DUPLICATE,
+        INVALID_ID
+    }
+
+    /**
+     * A credential ID that was not updated, and why
+     */
+    public record Failure(@JsonProperty("credential_id") String credentialId,
+                          @JsonProperty("result") Result result) {}
+
+    @JsonProperty("action")
+    private final String action;
+
+    @JsonProperty("requested")
+    private final long requested;
+
+    @JsonProperty("updated")
+    private final long updated;
+
+    @JsonProperty("results")
+    private final Map<Result, Long> results;
+
+    @JsonProperty("failures")
+    private final List<Failure> failures;
+
+    @JsonProperty("duration_ms")
+    private final long durationMs;
+
+    @JsonProperty("per_second")
+    private final long perSecond;
+
+    public BulkStatusResponse(String action, long requested, Map<Result, Long> results,
+                              List<Failure> failures, long durationMs) {
+        this.action = action;
+        this.requested = requested;
+        this.updated = results.getOrDefault(Result.UPDATED, 0L);
+        this.results = results;
+        this.failures = failures;
+        this.durationMs = durationMs;
+        this.perSecond = durationMs > 0 ? updated * 1000 / durationMs : updated;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public long getRequested() {
+        return requested;
+    }
+
+    public long getUpdated() {
+        return updated;
+    }
+
+    public Map<Result, Long> getResults() {
+        return results;
+    }
+
+    public List<Failure> getFailures() {
+        return failures;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public long getPerSecond() {
+        return perSecond;
+    }
+}
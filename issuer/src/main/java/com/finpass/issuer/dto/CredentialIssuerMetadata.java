@@ -18,6 +18,12 @@ public class CredentialIssuerMetadata {
     @JsonProperty("credential_endpoint")
     private String credentialEndpoint;
     
+    @JsonProperty("batch_credential_endpoint")
+    private String batchCredentialEndpoint;
+    
+    @JsonProperty("deferred_credential_endpoint")
+    private String deferredCredentialEndpoint;
+    
     @JsonProperty("token_endpoint")
     private String tokenEndpoint;
     
@@ -48,6 +54,12 @@ public class CredentialIssuerMetadata {
     public String getCredentialEndpoint() { return credentialEndpoint; }
     public void setCredentialEndpoint(String credentialEndpoint) { this.credentialEndpoint = credentialEndpoint; }
     
+    public String getBatchCredentialEndpoint() { return batchCredentialEndpoint; }
+    public void setBatchCredentialEndpoint(String batchCredentialEndpoint) { this.batchCredentialEndpoint = batchCredentialEndpoint; }
+    
+    public String getDeferredCredentialEndpoint() { return deferredCredentialEndpoint; }
+    public void setDeferredCredentialEndpoint(String deferredCredentialEndpoint) { this.deferredCredentialEndpoint = deferredCredentialEndpoint; }
+    
     public String getTokenEndpoint() { return tokenEndpoint; }
     public void setTokenEndpoint(String tokenEndpoint) { this.tokenEndpoint = tokenEndpoint; }
     
@@ -28,6 +28,9 @@ public class CredentialRequest {
     @JsonProperty("types")
     private java.util.List<String> types;
     
+    @JsonProperty("liveness_proof")
+    private LivenessProof livenessProof;
+    
     // Constructors
     public CredentialRequest() {}
     
@@ -56,6 +59,9 @@ public class CredentialRequest {
     public java.util.List<String> getTypes() { return types; }
     public void setTypes(java.util.List<String> types) { this.types = types; }
     
+    public LivenessProof getLivenessProof() { return livenessProof; }
+    public void setLivenessProof(LivenessProof livenessProof) { this.livenessProof = livenessProof; }
+    
     /**
      * Credential definition for the request
      */
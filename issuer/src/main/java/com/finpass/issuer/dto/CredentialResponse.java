@@ -26,6 +26,12 @@ public class CredentialResponse {
     @JsonProperty("acceptance_token")
     private String acceptanceToken;
     
+    @JsonProperty("transaction_id")
+    private String transactionId;
+    
+    @JsonProperty("interval")
+    private Long interval;
+    
     @JsonProperty("key_proofs")
     private Object keyProofs;
     
@@ -77,6 +83,12 @@ public class CredentialResponse {
     public String getAcceptanceToken() { return acceptanceToken; }
     public void setAcceptanceToken(String acceptanceToken) { this.acceptanceToken = acceptanceToken; }
     
+    public String getTransactionId() { return transactionId; }
+    public void setTransactionId(String transactionId) { this.transactionId = transactionId; }
+    
+    public Long getInterval() { return interval; }
+    public void setInterval(Long interval) { this.interval = interval; }
+    
     public Object getKeyProofs() { return keyProofs; }
     public void setKeyProofs(Object keyProofs) { this.keyProofs = keyProofs; }
     
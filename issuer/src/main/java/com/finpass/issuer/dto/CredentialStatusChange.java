@@ -0,0 +1,68 @@
+package com.finpass.issuer.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.finpass.issuer.entity.CredentialStatusEntity;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One entry of the credential status change feed: the status a credential moved to
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CredentialStatusChange {
+
+    @JsonProperty("seq")
+    private final long seq;
+
+    @JsonProperty("credential_id")
+    private final UUID credentialId;
+
+    @JsonProperty("status_list_index")
+    private final Integer statusListIndex;
+
+    @JsonProperty("status")
+    private final CredentialStatusEntity.Status status;
+
+    @JsonProperty("reason")
+    private final CredentialStatusEntity.RevocationReason reason;
+
+    @JsonProperty("changed_at")
+    private final Instant changedAt;
+
+    public CredentialStatusChange(long seq, UUID credentialId, Integer statusListIndex,
+                                  CredentialStatusEntity.Status status,
+                                  CredentialStatusEntity.RevocationReason reason, Instant changedAt) {
+        this.seq = seq;
+        this.credentialId = credentialId;
+        this.statusListIndex = statusListIndex;
+        this.status = status;
+        this.reason = reason;
+        this.changedAt = changedAt;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public UUID getCredentialId() {
+        return credentialId;
+    }
+
+    public Integer getStatusListIndex() {
+        return statusListIndex;
+    }
+
+    public CredentialStatusEntity.Status getStatus() {
+        return status;
+    }
+
+    public CredentialStatusEntity.RevocationReason getReason() {
+        return reason;
+    }
+
+    public Instant getChangedAt() {
+        return changedAt;
+    }
+}
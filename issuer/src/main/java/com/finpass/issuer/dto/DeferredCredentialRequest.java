@@ -0,0 +1,24 @@
+package com.finpass.issuer.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * OpenID4VCI Deferred Credential Request
+ * Polls for a credential whose issuance was deferred
+ */
+public class DeferredCredentialRequest {
+
+    @JsonProperty("transaction_id")
+    private String transactionId;
+
+    // Constructors
+    public DeferredCredentialRequest() {}
+
+    public DeferredCredentialRequest(String transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    // Getters and Setters
+    public String getTransactionId() { return transactionId; }
+    public void setTransactionId(String transactionId) { this.transactionId = transactionId; }
+}
@@ -0,0 +1,62 @@
+package com.finpass.issuer.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Slots of the revocation filter that changed between two versions of the same epoch;
+ * writing {@code values[i]} into slot {@code slots[i]} brings a copy at
+ * {@code fromVersion} up to {@code version}
+ */
+public class RevocationFilterPatch {
+
+    @JsonProperty("epoch")
+    private final long epoch;
+
+    @JsonProperty("from_version")
+    private final long fromVersion;
+
+    @JsonProperty("version")
+    private final long version;
+
+    @JsonProperty("size")
+    private final int size;
+
+    @JsonProperty("slots")
+    private final int[] slots;
+
+    @JsonProperty("values")
+    private final long[] values;
+
+    public RevocationFilterPatch(long epoch, long fromVersion, long version, int size, int[] slots, long[] values) {
+        this.epoch = epoch;
+        this.fromVersion = fromVersion;
+        this.version = version;
+        this.size = size;
+        this.slots = slots;
+        this.values = values;
+    }
+
+    public long getEpoch() {
+        return epoch;
+    }
+
+    public long getFromVersion() {
+        return fromVersion;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int[] getSlots() {
+        return slots;
+    }
+
+    public long[] getValues() {
+        return values;
+    }
+}
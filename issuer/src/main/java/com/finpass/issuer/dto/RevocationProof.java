@@ -0,0 +1,120 @@
+package com.finpass.issuer.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Inclusion proof of a credential's latest anchored status change in an anchored Merkle root.
+ *
+ * The leaf is {@code SHA-256(0x00 || seq || credential_id || status_list_index || changed_at ||
+ * status ":" reason)}: seq as int64, the credential id as its 16 bytes, the index as int32
+ * (-1 when absent), changed_at as int64 epoch microseconds, all big-endian, then the status
+ * and reason names in ASCII (reason empty when absent). Hashes are 0x-prefixed hex; see
+ * {@code MerkleTree} for how {@code proof} combines with the leaf up to {@code root}.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RevocationProof {
+
+    @JsonProperty("change")
+    private final CredentialStatusChange change;
+
+    @JsonProperty("leaf_hash")
+    private final String leafHash;
+
+    @JsonProperty("leaf_index")
+    private final int leafIndex;
+
+    @JsonProperty("leaf_count")
+    private final int leafCount;
+
+    @JsonProperty("proof")
+    private final List<String> proof;
+
+    @JsonProperty("root")
+    private final String root;
+
+    @JsonProperty("anchor_id")
+    private final long anchorId;
+
+    @JsonProperty("from_seq")
+    private final long fromSeq;
+
+    @JsonProperty("to_seq")
+    private final long toSeq;
+
+    @JsonProperty("anchor_status")
+    private final String anchorStatus;
+
+    @JsonProperty("transaction_hash")
+    private final String transactionHash;
+
+    @JsonProperty("block_number")
+    private final Long blockNumber;
+
+    public RevocationProof(CredentialStatusChange change, String leafHash, int leafIndex, int leafCount,
+                           List<String> proof, String root, long anchorId, long fromSeq, long toSeq,
+                           String anchorStatus, String transactionHash, Long blockNumber) {
+        this.change = change;
+        this.leafHash = leafHash;
+        this.leafIndex = leafIndex;
+        this.leafCount = leafCount;
+        this.proof = proof;
+        this.root = root;
+        this.anchorId = anchorId;
+        this.fromSeq = fromSeq;
+        this.toSeq = toSeq;
+        this.anchorStatus = anchorStatus;
+        this.transactionHash = transactionHash;
+        this.blockNumber = blockNumber;
+    }
+
+    public CredentialStatusChange getChange() {
+        return change;
+    }
+
+    public String getLeafHash() {
+        return leafHash;
+    }
+
+    public int getLeafIndex() {
+        return leafIndex;
+    }
+
+    public int getLeafCount() {
+        return leafCount;
+    }
+
+    public List<String> getProof() {
+        return proof;
+    }
+
+    public String getRoot() {
+        return root;
+    }
+
+    public long getAnchorId() {
+        return anchorId;
+    }
+
+    public long getFromSeq() {
+        return fromSeq;
+    }
+
+    public long getToSeq() {
+        return toSeq;
+    }
+
+    public String getAnchorStatus() {
+        return anchorStatus;
+    }
+
+    public String getTransactionHash() {
+        return transactionHash;
+    }
+
+    public Long getBlockNumber() {
+        return blockNumber;
+    }
+}
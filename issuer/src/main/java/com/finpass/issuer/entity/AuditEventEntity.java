@@ -4,8 +4,9 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Index;
-import jakarta.persistence.Lob;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -31,6 +32,7 @@ public class AuditEventEntity {
         CREDENTIAL_REVOKED,
         CREDENTIAL_SUSPENDED,
         CREDENTIAL_REINSTATED,
+        CREDENTIAL_EXPIRED,
         CREDENTIAL_VERIFIED,
         CREDENTIAL_PRESENTED,
         PRESENTATION_VERIFIED,
@@ -68,6 +70,7 @@ public class AuditEventEntity {
         CONFIGURATION_CHANGED,
         DATA_EXPORTED,
         DATA_IMPORTED,
+        DATA_ARCHIVED,
         
         // Admin Events
         ADMIN_LOGIN,
@@ -116,14 +119,16 @@ public class AuditEventEntity {
     @Column(name = "description", length = 1000)
     private String description;
 
-    @Lob
-    @Column(name = "details", columnDefinition = "TEXT")
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "details", columnDefinition = "jsonb")
     private String details;
 
-    @Column(name = "previous_values", columnDefinition = "TEXT")
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "previous_values", columnDefinition = "jsonb")
     private String previousValues;
 
-    @Column(name = "new_values", columnDefinition = "TEXT")
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "new_values", columnDefinition = "jsonb")
     private String newValues;
 
     @Column(name = "performed_by", length = 255)
@@ -174,6 +179,16 @@ public class AuditEventEntity {
     @Column(name = "created_at", nullable = false)
     private Instant createdAt;
 
+    // Hash chain, assigned by the audit writer (see V9)
+    @Column(name = "chain_seq")
+    private Long chainSeq;
+
+    @Column(name = "prev_hash", columnDefinition = "bytea")
+    private byte[] prevHash;
+
+    @Column(name = "hash", columnDefinition = "bytea")
+    private byte[] hash;
+
     // Constructors
     public AuditEventEntity() {
         this.createdAt = Instant.now();
@@ -499,6 +514,30 @@ public class AuditEventEntity {
         this.createdAt = createdAt;
     }
 
+    public Long getChainSeq() {
+        return chainSeq;
+    }
+
+    public void setChainSeq(Long chainSeq) {
+        this.chainSeq = chainSeq;
+    }
+
+    public byte[] getPrevHash() {
+        return prevHash;
+    }
+
+    public void setPrevHash(byte[] prevHash) {
+        this.prevHash = prevHash;
+    }
+
+    public byte[] getHash() {
+        return hash;
+    }
+
+    public void setHash(byte[] hash) {
+        this.hash = hash;
+    }
+
     // Business methods
     public boolean isError() {
         return "ERROR".equals(this.severity);
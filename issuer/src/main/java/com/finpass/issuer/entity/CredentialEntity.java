@@ -31,6 +31,9 @@ public class CredentialEntity {
 	@Column(nullable = false)
 	private String status;
 
+	@Column(name = "expires_at")
+	private Instant expiresAt;
+
 	public UUID getId() {
 		return id;
 	}
@@ -70,4 +73,12 @@ public class CredentialEntity {
 	public void setStatus(String status) {
 		this.status = status;
 	}
+
+	public Instant getExpiresAt() {
+		return expiresAt;
+	}
+
+	public void setExpiresAt(Instant expiresAt) {
+		this.expiresAt = expiresAt;
+	}
 }
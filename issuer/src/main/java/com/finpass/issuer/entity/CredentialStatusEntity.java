@@ -57,6 +57,9 @@ public class CredentialStatusEntity {
     @Column(name = "reason_description", length = 1000)
     private String reasonDescription;
 
+    @Column(name = "status_list_index", unique = true)
+    private Integer statusListIndex;
+
     @Column(name = "created_at", nullable = false)
     private Instant createdAt;
 
@@ -160,6 +163,14 @@ public class CredentialStatusEntity {
         this.updatedAt = updatedAt;
     }
 
+    public Integer getStatusListIndex() {
+        return statusListIndex;
+    }
+
+    public void setStatusListIndex(Integer statusListIndex) {
+        this.statusListIndex = statusListIndex;
+    }
+
     /**
      * Revoke this credential
      */
@@ -0,0 +1,216 @@
+package com.finpass.issuer.repository;
+
+import com.finpass.issuer.dto.AuditEventCursor;
+import com.finpass.issuer.dto.AuditEventFilter;
+import com.finpass.issuer.entity.AuditEventEntity;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cold tier of the audit log: a directory of immutable {@link AuditSegmentFile}s.
+ *
+ * Segment headers (row count, min/max created_at) are kept in memory as the segment
+ * index, so a time-range query only opens the columns of segments that overlap it.
+ */
+@Repository
+public class AuditArchiveStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditArchiveStore.class);
+
+    static final String SEGMENT_SUFFIX = ".seg";
+
+    private static final Comparator<AuditSegmentFile> BY_MAX_CREATED_AT =
+            Comparator.comparing(AuditSegmentFile::getMaxCreatedAt);
+
+    private final Path directory;
+
+    // Copy-on-write: readers take the current list without locking, append swaps in a new one
+    private volatile List<AuditSegmentFile> segments = List.of();
+    private volatile AuditSegmentFile latest;
+    private long nextSequence = 1;
+
+    public AuditArchiveStore(@Value("${audit.archive.directory:data/audit-archive}") String directory) {
+        this.directory = Paths.get(directory);
+    }
+
+    /**
+     * Open every segment in the archive directory and drop temp files left by a crashed write
+     */
+    @PostConstruct
+    public void load() throws IOException {
+        Files.createDirectories(directory);
+        List<AuditSegmentFile> loaded = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(SEGMENT_SUFFIX + ".tmp")) {
+                    Files.deleteIfExists(file);
+                } else if (name.endsWith(SEGMENT_SUFFIX)) {
+                    try {
+                        loaded.add(AuditSegmentFile.open(file));
+                    } catch (IOException | RuntimeException e) {
+                        logger.error("Skipping unreadable audit segment {}", file, e);
+                    }
+                }
+            }
+        }
+        // Names carry a zero-padded write sequence, so the greatest name is the last write
+        latest = loaded.stream().max(Comparator.comparing(s -> s.getPath().getFileName().toString())).orElse(null);
+        if (latest != null) {
+            String name = latest.getPath().getFileName().toString();
+            nextSequence = Long.parseLong(name.substring("audit-".length(), name.indexOf(SEGMENT_SUFFIX))) + 1;
+        }
+        loaded.sort(BY_MAX_CREATED_AT);
+        segments = List.copyOf(loaded);
+        if (!loaded.isEmpty()) {
+            logger.info("Audit archive loaded: {} segments, {} rows", loaded.size(), getRowCount());
+        }
+    }
+
+    /**
+     * Write the events as a new segment
+     */
+    public synchronized AuditSegmentFile append(List<AuditEventEntity> events) throws IOException {
+        Path path = directory.resolve(String.format("audit-%012d%s", nextSequence, SEGMENT_SUFFIX));
+        AuditSegmentFile segment = AuditSegmentFile.write(path, events);
+        nextSequence++;
+        latest = segment;
+
+        List<AuditSegmentFile> updated = new ArrayList<>(segments);
+        updated.add(segment);
+        updated.sort(BY_MAX_CREATED_AT);
+        segments = List.copyOf(updated);
+        return segment;
+    }
+
+    /**
+     * Most recently written segment, or null when the archive is empty
+     */
+    public AuditSegmentFile getLatestSegment() {
+        return latest;
+    }
+
+    /**
+     * Whether any archived event can fall in [from, to); null bounds are open
+     */
+    public boolean overlaps(Instant from, Instant to) {
+        for (AuditSegmentFile segment : segments) {
+            if (segment.overlaps(from, to)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Archived events matching the filter and strictly after the cursor, in keyset order
+     * (newest first), at most limit
+     */
+    public List<AuditEventEntity> query(AuditEventFilter filter, AuditEventCursor after, int limit) {
+        List<AuditSegmentFile> current = segments;
+        List<AuditEventEntity> result = new ArrayList<>();
+
+        // Newest segments first; once limit rows are held, a segment that ends before the
+        // oldest of them cannot contribute
+        for (int i = current.size() - 1; i >= 0; i--) {
+            AuditSegmentFile segment = current.get(i);
+            if (result.size() >= limit
+                    && segment.getMaxCreatedAt().isBefore(result.get(limit - 1).getCreatedAt())) {
+                break;
+            }
+            List<AuditEventEntity> rows = segment.query(filter, after, limit);
+            if (!rows.isEmpty()) {
+                result.addAll(rows);
+                result.sort(AuditEventSpecifications.KEYSET_COMPARATOR);
+                if (result.size() > limit) {
+                    result.subList(limit, result.size()).clear();
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Lowest and highest archived chain_seq created in [from, to), or null when none
+     */
+    public long[] chainSeqRange(Instant from, Instant to) {
+        long[] range = null;
+        for (AuditSegmentFile segment : segments) {
+            long[] segmentRange = segment.chainSeqRange(from, to);
+            if (segmentRange == null) {
+                continue;
+            }
+            if (range == null) {
+                range = segmentRange;
+            } else {
+                range[0] = Math.min(range[0], segmentRange[0]);
+                range[1] = Math.max(range[1], segmentRange[1]);
+            }
+        }
+        return range;
+    }
+
+    /**
+     * Archived events created in [from, to) with chain_seq in [loSeq, hiSeq], in no
+     * particular order
+     */
+    public List<AuditEventEntity> readChain(Instant from, Instant to, long loSeq, long hiSeq) {
+        List<AuditEventEntity> result = new ArrayList<>();
+        for (AuditSegmentFile segment : segments) {
+            result.addAll(segment.readChain(from, to, loSeq, hiSeq));
+        }
+        return result;
+    }
+
+    /**
+     * Whether a segment written before the chain columns existed can hold events from
+     * [from, to); those events cannot be verified
+     */
+    public boolean hasUnchainedSegments(Instant from, Instant to) {
+        for (AuditSegmentFile segment : segments) {
+            if (!segment.hasChain() && segment.overlaps(from, to)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    public long getRowCount() {
+        return segments.stream().mapToLong(AuditSegmentFile::getRowCount).sum();
+    }
+
+    /**
+     * Archive size and coverage
+     */
+    public Map<String, Object> getStats() {
+        List<AuditSegmentFile> current = segments;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("directory", directory.toAbsolutePath().toString());
+        stats.put("segments", current.size());
+        stats.put("rows", current.stream().mapToLong(AuditSegmentFile::getRowCount).sum());
+        stats.put("bytes", current.stream().mapToLong(AuditSegmentFile::getSizeBytes).sum());
+        stats.put("oldest", current.stream().map(AuditSegmentFile::getMinCreatedAt)
+                .min(Comparator.naturalOrder()).orElse(null));
+        stats.put("newest", current.isEmpty() ? null : current.get(current.size() - 1).getMaxCreatedAt());
+        return stats;
+    }
+}
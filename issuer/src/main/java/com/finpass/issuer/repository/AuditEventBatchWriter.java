@@ -0,0 +1,150 @@
+package com.finpass.issuer.repository;
+
+import com.finpass.issuer.entity.AuditEventEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC batch writer for audit events.
+ * Bypasses the JPA persistence context so the audit pipeline can insert
+ * hundreds of rows per round trip without dirty checking or flush overhead.
+ */
+@Repository
+public class AuditEventBatchWriter {
+
+    static final String INSERT_SQL = "INSERT INTO audit_events (" +
+            "id, event_type, user_id_hash, session_id, ip_address, user_agent, tenant_id, " +
+            "resource_id, resource_type, action, outcome, severity, description, details, " +
+            "previous_values, new_values, performed_by, performed_by_role, source_system, " +
+            "correlation_id, request_id, duration_ms, error_code, error_message, stack_trace, " +
+            "client_version, api_version, geolocation, device_fingerprint, compliance_flags, " +
+            "retention_days, created_at, chain_seq, prev_hash, hash) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT DO NOTHING";
+
+    static final String RELINK_SQL =
+            "UPDATE audit_events SET chain_seq = ?, prev_hash = ?, hash = ? WHERE id = ? AND created_at = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditRollupRepository rollupRepository;
+    private final AuditHashChain hashChain;
+
+    @Autowired
+    public AuditEventBatchWriter(JdbcTemplate jdbcTemplate, AuditRollupRepository rollupRepository,
+                                 AuditHashChain hashChain) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.rollupRepository = rollupRepository;
+        this.hashChain = hashChain;
+    }
+
+    /**
+     * Insert a batch of audit events in a single JDBC batch, linking them into the hash
+     * chain in list order, and add the newly inserted rows to the per-minute rollups in the
+     * same transaction.
+     * Rows whose id already exists are skipped, so replaying a batch is safe.
+     * @return Number of rows inserted, excluding skipped rows
+     */
+    @Transactional
+    public int insertBatch(List<AuditEventEntity> events) {
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        AuditHashChain.Links links = hashChain.link(events);
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), this::bind);
+        List<AuditEventEntity> inserted = inserted(events, counts);
+
+        if (inserted.size() < events.size()) {
+            // Replayed rows that already existed were skipped; relink the rows that did go in
+            // from the same heads, so the chain has no gaps where the skipped rows were counted
+            hashChain.relink(inserted, links);
+            jdbcTemplate.batchUpdate(RELINK_SQL, inserted, inserted.size(), (ps, event) -> {
+                ps.setLong(1, event.getChainSeq());
+                ps.setBytes(2, event.getPrevHash());
+                ps.setBytes(3, event.getHash());
+                ps.setObject(4, event.getId());
+                ps.setObject(5, toUtc(event.getCreatedAt()));
+            });
+        }
+
+        rollupRepository.addEvents(inserted);
+        return inserted.size();
+    }
+
+    /**
+     * Events that were actually inserted, i.e. not skipped by ON CONFLICT DO NOTHING
+     */
+    static List<AuditEventEntity> inserted(List<AuditEventEntity> events, int[][] counts) {
+        List<AuditEventEntity> inserted = new ArrayList<>(events.size());
+        int index = 0;
+        for (int[] chunk : counts) {
+            for (int count : chunk) {
+                // SUCCESS_NO_INFO (-2) means the driver could not tell; assume the row was inserted
+                if (count != 0) {
+                    inserted.add(events.get(index));
+                }
+                index++;
+            }
+        }
+        return inserted;
+    }
+
+    private void bind(PreparedStatement ps, AuditEventEntity event) throws SQLException {
+        int i = 1;
+        ps.setObject(i++, event.getId());
+        ps.setString(i++, event.getEventType());
+        ps.setString(i++, event.getUserIdHash());
+        ps.setString(i++, event.getSessionId());
+        ps.setString(i++, event.getIpAddress());
+        ps.setString(i++, event.getUserAgent());
+        ps.setString(i++, event.getTenantId());
+        ps.setString(i++, event.getResourceId());
+        ps.setString(i++, event.getResourceType());
+        ps.setString(i++, event.getAction());
+        ps.setString(i++, event.getOutcome());
+        ps.setString(i++, event.getSeverity());
+        ps.setString(i++, event.getDescription());
+        // JSONB columns: bound untyped so the server parses the text as jsonb
+        ps.setObject(i++, event.getDetails(), Types.OTHER);
+        ps.setObject(i++, event.getPreviousValues(), Types.OTHER);
+        ps.setObject(i++, event.getNewValues(), Types.OTHER);
+        ps.setString(i++, event.getPerformedBy());
+        ps.setString(i++, event.getPerformedByRole());
+        ps.setString(i++, event.getSourceSystem());
+        ps.setString(i++, event.getCorrelationId());
+        ps.setString(i++, event.getRequestId());
+        ps.setObject(i++, event.getDurationMs(), Types.BIGINT);
+        ps.setString(i++, event.getErrorCode());
+        ps.setString(i++, event.getErrorMessage());
+        ps.setString(i++, event.getStackTrace());
+        ps.setString(i++, event.getClientVersion());
+        ps.setString(i++, event.getApiVersion());
+        ps.setString(i++, event.getGeolocation());
+        ps.setString(i++, event.getDeviceFingerprint());
+        ps.setString(i++, event.getComplianceFlags());
+        ps.setObject(i++, event.getRetentionDays(), Types.INTEGER);
+        ps.setObject(i++, toUtc(event.getCreatedAt()));
+        ps.setObject(i++, event.getChainSeq(), Types.BIGINT);
+        ps.setBytes(i++, event.getPrevHash());
+        ps.setBytes(i, event.getHash());
+    }
+
+    /**
+     * created_at is TIMESTAMP WITHOUT TIME ZONE and Hibernate writes it in UTC
+     * (hibernate.jdbc.time_zone), so the batch path must do the same.
+     */
+    private static LocalDateTime toUtc(Instant instant) {
+        return instant != null ? LocalDateTime.ofInstant(instant, ZoneOffset.UTC) : null;
+    }
+}
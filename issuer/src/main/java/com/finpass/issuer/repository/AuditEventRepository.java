@@ -2,20 +2,35 @@ package com.finpass.issuer.repository;
 
 import com.finpass.issuer.entity.AuditEventEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
 import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 /**
  * AuditEventRepository for comprehensive audit logging and compliance
  */
 @Repository
-public interface AuditEventRepository extends JpaRepository<AuditEventEntity, UUID> {
+public interface AuditEventRepository extends JpaRepository<AuditEventEntity, UUID>,
+        JpaSpecificationExecutor<AuditEventEntity> {
+
+    /**
+     * Rows fetched per round trip by the export streams
+     */
+    int EXPORT_FETCH_SIZE = 1000;
 
     /**
      * Find audit events by event type
@@ -79,6 +94,34 @@ public interface AuditEventRepository extends JpaRepository<AuditEventEntity, UU
     List<AuditEventEntity> findEventsCreatedBetween(@Param("startDate") Instant startDate, 
                                                     @Param("endDate") Instant endDate);
 
+    /**
+     * Stream audit events in [startDate, endDate) in (created_at, id) order over a
+     * forward-only cursor. Must be consumed inside a read-only transaction and closed.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT a FROM AuditEventEntity a WHERE a.createdAt >= :startDate AND a.createdAt < :endDate " +
+           "ORDER BY a.createdAt, a.id")
+    Stream<AuditEventEntity> streamEventsCreatedBetween(@Param("startDate") Instant startDate,
+                                                        @Param("endDate") Instant endDate);
+
+    /**
+     * Stream audit events of one type in [startDate, endDate); see {@link #streamEventsCreatedBetween}
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT a FROM AuditEventEntity a WHERE a.eventType = :eventType " +
+           "AND a.createdAt >= :startDate AND a.createdAt < :endDate ORDER BY a.createdAt, a.id")
+    Stream<AuditEventEntity> streamEventsByTypeCreatedBetween(@Param("eventType") String eventType,
+                                                              @Param("startDate") Instant startDate,
+                                                              @Param("endDate") Instant endDate);
+
     /**
      * Find audit events created after a specific time
      */
@@ -183,11 +226,42 @@ public interface AuditEventRepository extends JpaRepository<AuditEventEntity, UU
     List<AuditEventEntity> findByErrorCode(String errorCode);
 
     /**
-     * Find events by compliance flags
+     * Find events by compliance flag recorded in details, either as the single value
+     * (e.g. SECURITY on security events) or as one entry of a list of flags.
+     * Both arms are containment queries, served by the jsonb_path_ops index on details.
      */
-    @Query("SELECT a FROM AuditEventEntity a WHERE a.complianceFlags LIKE %:flag%")
+    @Query(value = "SELECT * FROM audit_events " +
+                   "WHERE details @> jsonb_build_object('complianceFlags', CAST(:flag AS text)) " +
+                   "   OR details @> jsonb_build_object('complianceFlags', jsonb_build_array(CAST(:flag AS text))) " +
+                   "ORDER BY created_at DESC, id DESC", nativeQuery = true)
     List<AuditEventEntity> findByComplianceFlag(@Param("flag") String flag);
 
+    /**
+     * Latest events whose details contain key = value, e.g. ("resourceId", "cred-123").
+     * Matches top-level string values; use {@link #findByDetailsContaining} for nested
+     * or non-string values.
+     */
+    @Query(value = "SELECT * FROM audit_events WHERE details @> jsonb_build_object(CAST(:key AS text), CAST(:value AS text)) " +
+                   "ORDER BY created_at DESC, id DESC LIMIT :limit", nativeQuery = true)
+    List<AuditEventEntity> findByDetail(@Param("key") String key, @Param("value") String value, @Param("limit") int limit);
+
+    /**
+     * Latest events whose details contain the given JSON document, e.g. {"amount": 100}
+     * or {"credential": {"type": "KYC"}}
+     */
+    @Query(value = "SELECT * FROM audit_events WHERE details @> CAST(:json AS jsonb) " +
+                   "ORDER BY created_at DESC, id DESC LIMIT :limit", nativeQuery = true)
+    List<AuditEventEntity> findByDetailsContaining(@Param("json") String json, @Param("limit") int limit);
+
+    /**
+     * Latest change events where key had the given value before or after the change
+     */
+    @Query(value = "SELECT * FROM audit_events " +
+                   "WHERE previous_values @> jsonb_build_object(CAST(:key AS text), CAST(:value AS text)) " +
+                   "   OR new_values @> jsonb_build_object(CAST(:key AS text), CAST(:value AS text)) " +
+                   "ORDER BY created_at DESC, id DESC LIMIT :limit", nativeQuery = true)
+    List<AuditEventEntity> findByChangedValue(@Param("key") String key, @Param("value") String value, @Param("limit") int limit);
+
     /**
      * Find events by source system
      */
@@ -216,15 +290,19 @@ public interface AuditEventRepository extends JpaRepository<AuditEventEntity, UU
     List<AuditEventEntity> findEventsForBatchProcessing(@Param("lastId") UUID lastId);
 
     /**
-     * Search events by description
+     * Search events by description.
+     * Substring match, so it cannot use an index; prefer {@link AuditSearchRepository}.
      */
+    @Deprecated
     @Query("SELECT a FROM AuditEventEntity a WHERE LOWER(a.description) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
     List<AuditEventEntity> searchEventsByDescription(@Param("searchTerm") String searchTerm);
 
     /**
-     * Search events by details content
+     * Search events by details content.
+     * Substring match, so it cannot use an index; prefer {@link AuditSearchRepository}.
      */
-    @Query("SELECT a FROM AuditEventEntity a WHERE a.details LIKE %:searchTerm%")
+    @Deprecated
+    @Query(value = "SELECT * FROM audit_events WHERE CAST(details AS text) LIKE CONCAT('%', :searchTerm, '%')", nativeQuery = true)
     List<AuditEventEntity> searchEventsByDetails(@Param("searchTerm") String searchTerm);
 
     /**
@@ -249,7 +327,8 @@ public interface AuditEventRepository extends JpaRepository<AuditEventEntity, UU
     List<Object[]> findSuspiciousActivities(@Param("since") Instant since, @Param("threshold") int threshold);
 
     /**
-     * Delete old audit events based on retention policy
+     * Delete old audit events based on retention policy.
+     * Row-by-row; bulk retention is handled by AuditPartitionManager dropping whole partitions.
      */
     @Modifying
     @Query("DELETE FROM AuditEventEntity a WHERE a.createdAt < :cutoff AND " +
@@ -0,0 +1,72 @@
+package com.finpass.issuer.repository;
+
+import com.finpass.issuer.entity.AuditEventEntity;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Maps an audit_events row to AuditEventEntity for JDBC queries that JPQL cannot express.
+ * Mirrors the column binding in {@link AuditEventBatchWriter}; created_at is read as UTC.
+ */
+public class AuditEventRowMapper implements RowMapper<AuditEventEntity> {
+
+    public static final AuditEventRowMapper INSTANCE = new AuditEventRowMapper();
+
+    /**
+     * Column list matching this mapper, for use in SELECTs
+     */
+    public static final String COLUMNS =
+            "id, event_type, user_id_hash, session_id, ip_address, user_agent, tenant_id, " +
+            "resource_id, resource_type, action, outcome, severity, description, details, " +
+            "previous_values, new_values, performed_by, performed_by_role, source_system, " +
+            "correlation_id, request_id, duration_ms, error_code, error_message, stack_trace, " +
+            "client_version, api_version, geolocation, device_fingerprint, compliance_flags, " +
+            "retention_days, created_at, chain_seq, prev_hash, hash";
+
+    @Override
+    public AuditEventEntity mapRow(ResultSet rs, int rowNum) throws SQLException {
+        AuditEventEntity event = new AuditEventEntity();
+        event.setId(rs.getObject("id", UUID.class));
+        event.setEventType(rs.getString("event_type"));
+        event.setUserIdHash(rs.getString("user_id_hash"));
+        event.setSessionId(rs.getString("session_id"));
+        event.setIpAddress(rs.getString("ip_address"));
+        event.setUserAgent(rs.getString("user_agent"));
+        event.setTenantId(rs.getString("tenant_id"));
+        event.setResourceId(rs.getString("resource_id"));
+        event.setResourceType(rs.getString("resource_type"));
+        event.setAction(rs.getString("action"));
+        event.setOutcome(rs.getString("outcome"));
+        event.setSeverity(rs.getString("severity"));
+        event.setDescription(rs.getString("description"));
+        event.setDetails(rs.getString("details"));
+        event.setPreviousValues(rs.getString("previous_values"));
+        event.setNewValues(rs.getString("new_values"));
+        event.setPerformedBy(rs.getString("performed_by"));
+        event.setPerformedByRole(rs.getString("performed_by_role"));
+        event.setSourceSystem(rs.getString("source_system"));
+        event.setCorrelationId(rs.getString("correlation_id"));
+        event.setRequestId(rs.getString("request_id"));
+        event.setDurationMs(rs.getObject("duration_ms", Long.class));
+        event.setErrorCode(rs.getString("error_code"));
+        event.setErrorMessage(rs.getString("error_message"));
+        event.setStackTrace(rs.getString("stack_trace"));
+        event.setClientVersion(rs.getString("client_version"));
+        event.setApiVersion(rs.getString("api_version"));
+        event.setGeolocation(rs.getString("geolocation"));
+        event.setDeviceFingerprint(rs.getString("device_fingerprint"));
+        event.setComplianceFlags(rs.getString("compliance_flags"));
+        event.setRetentionDays(rs.getObject("retention_days", Integer.class));
+        LocalDateTime createdAt = rs.getObject("created_at", LocalDateTime.class);
+        event.setCreatedAt(createdAt != null ? createdAt.toInstant(ZoneOffset.UTC) : null);
+        event.setChainSeq(rs.getObject("chain_seq", Long.class));
+        event.setPrevHash(rs.getBytes("prev_hash"));
+        event.setHash(rs.getBytes("hash"));
+        return event;
+    }
+}
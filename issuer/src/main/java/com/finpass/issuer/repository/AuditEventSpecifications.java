@@ -0,0 +1,88 @@
+package com.finpass.issuer.repository;
+
+import com.finpass.issuer.dto.AuditEventCursor;
+import com.finpass.issuer.dto.AuditEventFilter;
+import com.finpass.issuer.entity.AuditEventEntity;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Criteria predicates for audit event queries, so filtering happens in SQL
+ */
+public final class AuditEventSpecifications {
+
+    /**
+     * Keyset order; backed by idx_audit_events_created_at_id
+     */
+    public static final Sort KEYSET_ORDER = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
+    /**
+     * In-memory equivalent of {@link #KEYSET_ORDER}, for merging rows from several sources
+     */
+    public static final Comparator<AuditEventEntity> KEYSET_COMPARATOR =
+            Comparator.comparing(AuditEventEntity::getCreatedAt, Comparator.reverseOrder())
+                    .thenComparing(AuditEventEntity::getId, (a, b) -> compareIds(b, a));
+
+    private AuditEventSpecifications() {}
+
+    /**
+     * Compare UUIDs the way Postgres orders the uuid type (unsigned bytes), which differs
+     * from UUID.compareTo for ids with the high bit set
+     */
+    public static int compareIds(UUID a, UUID b) {
+        int result = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return result != 0 ? result : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+
+    /**
+     * AND of every non-null field of the filter. The time range is [from, to).
+     */
+    public static Specification<AuditEventEntity> matching(AuditEventFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (filter.getEventType() != null) {
+                predicates.add(cb.equal(root.get("eventType"), filter.getEventType()));
+            }
+            if (filter.getSeverity() != null) {
+                predicates.add(cb.equal(root.get("severity"), filter.getSeverity()));
+            }
+            if (filter.getOutcome() != null) {
+                predicates.add(cb.equal(root.get("outcome"), filter.getOutcome()));
+            }
+            if (filter.getFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("createdAt"), filter.getFrom()));
+            }
+            if (filter.getTo() != null) {
+                predicates.add(cb.lessThan(root.get("createdAt"), filter.getTo()));
+            }
+            if (filter.getTenantId() != null) {
+                predicates.add(cb.equal(root.get("tenantId"), filter.getTenantId()));
+            }
+            if (filter.getResourceId() != null) {
+                predicates.add(cb.equal(root.get("resourceId"), filter.getResourceId()));
+            }
+            if (filter.getResourceType() != null) {
+                predicates.add(cb.equal(root.get("resourceType"), filter.getResourceType()));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Rows strictly after the cursor in {@link #KEYSET_ORDER}:
+     * created_at &lt; c OR (created_at = c AND id &lt; cid)
+     */
+    public static Specification<AuditEventEntity> after(AuditEventCursor cursor) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("createdAt"), cursor.getCreatedAt()),
+                cb.and(
+                        cb.equal(root.get("createdAt"), cursor.getCreatedAt()),
+                        cb.lessThan(root.get("id"), cursor.getId())));
+    }
+}
@@ -0,0 +1,230 @@
+package com.finpass.issuer.repository;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.finpass.issuer.entity.AuditEventEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-partition SHA-256 hash chain over audit events (see V9).
+ *
+ * Every event gets the next chain_seq of the UTC month it falls in, prev_hash = hash of
+ * the previous event in that month, and hash = SHA-256(prev_hash || canonical form).
+ *
+ * Linking is serialized in the database, not in the JVM: for each month in the batch the
+ * caller's transaction takes a transaction-scoped advisory lock and then reads the month's
+ * head, so concurrent writers (inline writes after pipeline shutdown, other nodes) queue
+ * on the lock and each continues from the head the previous one committed. The per-partition
+ * unique (month, chain_seq) index from V9 rejects any fork that gets past this.
+ * Requires READ COMMITTED, so the head read after the lock sees the previous writer's rows.
+ */
+@Component
+public class AuditHashChain {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditHashChain.class);
+
+    /**
+     * prev_hash of the first event of every month
+     */
+    public static final byte[] GENESIS = new byte[32];
+
+    static final String LOCK_SQL = "SELECT pg_advisory_xact_lock(?, ?)";
+
+    // First key of the two-key advisory lock, the second being the month
+    static final int LOCK_CLASS = 0x61636863; // "achc"
+
+    static final String HEAD_SQL =
+            "SELECT chain_seq, hash FROM audit_events " +
+            "WHERE created_at >= ? AND created_at < ? AND chain_seq IS NOT NULL " +
+            "ORDER BY chain_seq DESC LIMIT 1";
+
+    // jsonb reorders keys and drops whitespace, so details are hashed in a canonical form
+    // that is the same whether computed from the text we wrote or the text Postgres returns
+    private static final ObjectMapper JSON_READER = new ObjectMapper()
+            .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+    private static final ObjectWriter CANONICAL_JSON = new ObjectMapper()
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+            .enable(JsonGenerator.Feature.WRITE_BIGDECIMAL_AS_PLAIN)
+            .writer();
+
+    /**
+     * Last linked position of one month's chain
+     */
+    record Head(long seq, byte[] hash) {}
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AuditHashChain(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Heads of the months a batch was linked from, for {@link #relink}
+     */
+    public static final class Links {
+        private final Map<YearMonth, Head> heads;
+
+        private Links(Map<YearMonth, Head> heads) {
+            this.heads = heads;
+        }
+    }
+
+    /**
+     * Lock the chain of every month in the batch for the rest of the current transaction
+     * and assign chain_seq, prev_hash and hash to the events in list order, continuing from
+     * each month's committed head.
+     * @throws IllegalStateException if no transaction is active, as the locks would not be held
+     */
+    public Links link(List<AuditEventEntity> events) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Audit hash chain must be linked inside a transaction");
+        }
+        // Lock months in order, so writers with overlapping batches cannot deadlock
+        Map<YearMonth, Head> heads = new TreeMap<>();
+        for (AuditEventEntity event : events) {
+            // Postgres keeps microseconds; hash exactly what will be stored
+            event.setCreatedAt(event.getCreatedAt().truncatedTo(ChronoUnit.MICROS));
+            heads.put(month(event), null);
+        }
+        for (YearMonth month : heads.keySet()) {
+            jdbcTemplate.queryForList(LOCK_SQL, LOCK_CLASS, month.getYear() * 12 + month.getMonthValue() - 1);
+            heads.put(month, head(month));
+        }
+        Links links = new Links(heads);
+        relink(events, links);
+        return links;
+    }
+
+    /**
+     * Link a subset of a batch again from the heads it was first linked from, e.g. the rows
+     * that were not skipped as duplicates; the month locks are still held by the transaction
+     */
+    public void relink(List<AuditEventEntity> events, Links links) {
+        Map<YearMonth, Head> pending = new HashMap<>(links.heads);
+        for (AuditEventEntity event : events) {
+            YearMonth month = month(event);
+            Head head = pending.get(month);
+
+            event.setChainSeq(head.seq() + 1);
+            event.setPrevHash(head.hash());
+            event.setHash(hash(head.hash(), event));
+            pending.put(month, new Head(event.getChainSeq(), event.getHash()));
+        }
+    }
+
+    private static YearMonth month(AuditEventEntity event) {
+        return YearMonth.from(event.getCreatedAt().atOffset(ZoneOffset.UTC));
+    }
+
+    private Head head(YearMonth month) {
+        List<Head> rows = jdbcTemplate.query(HEAD_SQL,
+                (rs, rowNum) -> new Head(rs.getLong("chain_seq"), rs.getBytes("hash")),
+                LocalDateTime.of(month.atDay(1), LocalTime.MIDNIGHT),
+                LocalDateTime.of(month.plusMonths(1).atDay(1), LocalTime.MIDNIGHT));
+        Head head = rows.isEmpty() ? new Head(0, GENESIS) : rows.get(0);
+        logger.debug("Audit hash chain for {} resumes at seq {}", month, head.seq());
+        return head;
+    }
+
+    /**
+     * SHA-256 over prev_hash, chain_seq and every stored column of the event in a fixed
+     * order, each value length-prefixed so that field boundaries cannot be shifted
+     */
+    public static byte[] hash(byte[] prevHash, AuditEventEntity event) {
+        MessageDigest digest = sha256();
+        digest.update(prevHash);
+        ByteBuffer fixed = ByteBuffer.allocate(8 + 16 + 8);
+        fixed.putLong(event.getChainSeq());
+        fixed.putLong(event.getId().getMostSignificantBits()).putLong(event.getId().getLeastSignificantBits());
+        fixed.putLong(ChronoUnit.MICROS.between(Instant.EPOCH, event.getCreatedAt()));
+        digest.update(fixed.array());
+
+        update(digest, event.getEventType());
+        update(digest, event.getUserIdHash());
+        update(digest, event.getSessionId());
+        update(digest, event.getIpAddress());
+        update(digest, event.getUserAgent());
+        update(digest, event.getTenantId());
+        update(digest, event.getResourceId());
+        update(digest, event.getResourceType());
+        update(digest, event.getAction());
+        update(digest, event.getOutcome());
+        update(digest, event.getSeverity());
+        update(digest, event.getDescription());
+        update(digest, canonicalJson(event.getDetails()));
+        update(digest, canonicalJson(event.getPreviousValues()));
+        update(digest, canonicalJson(event.getNewValues()));
+        update(digest, event.getPerformedBy());
+        update(digest, event.getPerformedByRole());
+        update(digest, event.getSourceSystem());
+        update(digest, event.getCorrelationId());
+        update(digest, event.getRequestId());
+        update(digest, event.getDurationMs() != null ? event.getDurationMs().toString() : null);
+        update(digest, event.getErrorCode());
+        update(digest, event.getErrorMessage());
+        update(digest, event.getStackTrace());
+        update(digest, event.getClientVersion());
+        update(digest, event.getApiVersion());
+        update(digest, event.getGeolocation());
+        update(digest, event.getDeviceFingerprint());
+        update(digest, event.getComplianceFlags());
+        update(digest, event.getRetentionDays() != null ? event.getRetentionDays().toString() : null);
+        return digest.digest();
+    }
+
+    /**
+     * JSON with object keys sorted and numbers in plain notation; text that is not JSON
+     * is returned unchanged
+     */
+    static String canonicalJson(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return CANONICAL_JSON.writeValueAsString(JSON_READER.readValue(json, Object.class));
+        } catch (JsonProcessingException e) {
+            return json;
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        if (value == null) {
+            digest.update(new byte[] {-1, -1, -1, -1});
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update(ByteBuffer.allocate(4).putInt(bytes.length).array());
+        digest.update(bytes);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.finpass.issuer.repository;
+
+import com.finpass.issuer.entity.AuditEventEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * JDBC access to audit_event_rollups, the pre-aggregated event counts behind /audit/metrics.
+ *
+ * Buckets are keyed by (granularity, bucket_start, event_type, severity, outcome).
+ * The audit writer adds MINUTE buckets; compaction folds them into HOUR and DAY buckets.
+ * Missing severity/outcome values are stored as '' so they can be part of the key.
+ */
+@Repository
+public class AuditRollupRepository {
+
+    public enum Granularity {
+        MINUTE(ChronoUnit.MINUTES, "minute"),
+        HOUR(ChronoUnit.HOURS, "hour"),
+        DAY(ChronoUnit.DAYS, "day");
+
+        private final ChronoUnit unit;
+        private final String truncField;
+
+        Granularity(ChronoUnit unit, String truncField) {
+            this.unit = unit;
+            this.truncField = truncField;
+        }
+
+        public Instant truncate(Instant instant) {
+            return instant.truncatedTo(unit);
+        }
+    }
+
+    static final String UPSERT_SQL = "INSERT INTO audit_event_rollups " +
+            "(granularity, bucket_start, event_type, severity, outcome, event_count) " +
+            "VALUES (?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (granularity, bucket_start, event_type, severity, outcome) " +
+            "DO UPDATE SET event_count = audit_event_rollups.event_count + EXCLUDED.event_count";
+
+    private static final String FOLD_SQL = "WITH moved AS (" +
+            "DELETE FROM audit_event_rollups WHERE granularity = ? AND bucket_start < ? " +
+            "RETURNING bucket_start, event_type, severity, outcome, event_count) " +
+            "INSERT INTO audit_event_rollups (granularity, bucket_start, event_type, severity, outcome, event_count) " +
+            "SELECT ?, date_trunc('%s', bucket_start), event_type, severity, outcome, SUM(event_count) " +
+            "FROM moved GROUP BY 2, 3, 4, 5 " +
+            "ON CONFLICT (granularity, bucket_start, event_type, severity, outcome) " +
+            "DO UPDATE SET event_count = audit_event_rollups.event_count + EXCLUDED.event_count";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public AuditRollupRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Add the given events to their MINUTE buckets; one upsert per distinct bucket.
+     * Keys are applied in sorted order so concurrent writers cannot deadlock.
+     */
+    public void addEvents(Collection<AuditEventEntity> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        Map<BucketKey, Long> counts = new TreeMap<>();
+        for (AuditEventEntity event : events) {
+            BucketKey key = new BucketKey(
+                    Granularity.MINUTE.truncate(event.getCreatedAt()),
+                    event.getEventType(),
+                    nullToEmpty(event.getSeverity()),
+                    nullToEmpty(event.getOutcome()));
+            counts.merge(key, 1L, Long::sum);
+        }
+
+        List<Map.Entry<BucketKey, Long>> rows = new ArrayList<>(counts.entrySet());
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows, rows.size(), (ps, row) -> {
+            BucketKey key = row.getKey();
+            ps.setString(1, Granularity.MINUTE.name());
+            ps.setObject(2, toUtc(key.bucketStart));
+            ps.setString(3, key.eventType);
+            ps.setString(4, key.severity);
+            ps.setString(5, key.outcome);
+            ps.setLong(6, row.getValue());
+        });
+    }
+
+    /**
+     * Move every bucket of the source granularity that starts before the cutoff into the
+     * target granularity, adding to existing target buckets. Runs as a single statement.
+     *
+     * @return number of target buckets inserted or updated
+     */
+    public int fold(Granularity source, Granularity target, Instant cutoff) {
+        return jdbcTemplate.update(String.format(FOLD_SQL, target.truncField),
+                source.name(), toUtc(cutoff), target.name());
+    }
+
+    /**
+     * Totals per (event_type, severity, outcome) for buckets starting in [from, to)
+     */
+    public List<Object[]> sumByKey(Instant from, Instant to) {
+        return jdbcTemplate.query(
+                "SELECT event_type, severity, outcome, SUM(event_count) FROM audit_event_rollups " +
+                "WHERE bucket_start >= ? AND bucket_start < ? GROUP BY event_type, severity, outcome",
+                (rs, i) -> new Object[]{rs.getString(1), rs.getString(2), rs.getString(3), rs.getLong(4)},
+                toUtc(from), toUtc(to));
+    }
+
+    /**
+     * Total event count of all buckets starting at or after the given instant
+     */
+    public long sumSince(Instant since) {
+        Long total = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(event_count), 0) FROM audit_event_rollups WHERE bucket_start >= ?",
+                Long.class, toUtc(since));
+        return total != null ? total : 0L;
+    }
+
+    /**
+     * Totals per (event_type, severity, outcome) counted from the raw audit_events in [from, to)
+     */
+    public List<Object[]> rawCountByKey(Instant from, Instant to) {
+        return jdbcTemplate.query(
+                "SELECT event_type, COALESCE(severity, ''), COALESCE(outcome, ''), COUNT(*) FROM audit_events " +
+                "WHERE created_at >= ? AND created_at < ? GROUP BY 1, 2, 3",
+                (rs, i) -> new Object[]{rs.getString(1), rs.getString(2), rs.getString(3), rs.getLong(4)},
+                toUtc(from), toUtc(to));
+    }
+
+    /**
+     * Event counts per bucket of the given width for buckets starting in [from, to).
+     * Finer buckets are rolled up to the requested width; coarser ones are reported at their own start.
+     */
+    public List<Object[]> countPerBucket(Granularity width, Instant from, Instant to) {
+        return jdbcTemplate.query(String.format(
+                "SELECT date_trunc('%s', bucket_start) AS b, SUM(event_count) FROM audit_event_rollups " +
+                "WHERE bucket_start >= ? AND bucket_start < ? GROUP BY b ORDER BY b", width.truncField),
+                (rs, i) -> new Object[]{rs.getObject(1, LocalDateTime.class).toInstant(ZoneOffset.UTC), rs.getLong(2)},
+                toUtc(from), toUtc(to));
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    private static LocalDateTime toUtc(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    private record BucketKey(Instant bucketStart, String eventType, String severity, String outcome)
+            implements Comparable<BucketKey> {
+
+        private static final Comparator<BucketKey> ORDER = Comparator
+                .comparing(BucketKey::bucketStart)
+                .thenComparing(BucketKey::eventType)
+                .thenComparing(BucketKey::severity)
+                .thenComparing(BucketKey::outcome);
+
+        @Override
+        public int compareTo(BucketKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+}
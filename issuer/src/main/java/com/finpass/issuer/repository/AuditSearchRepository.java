@@ -0,0 +1,75 @@
+package com.finpass.issuer.repository;
+
+import com.finpass.issuer.dto.AuditEventCursor;
+import com.finpass.issuer.entity.AuditEventEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ranked full-text search over audit_events.search_vector (GIN indexed, see V6/V7).
+ *
+ * The query text is parsed with websearch_to_tsquery under both the english and simple
+ * configurations, matching the way the vector was built, so both stemmed words in
+ * descriptions and verbatim tokens in details are found.
+ */
+@Repository
+public class AuditSearchRepository {
+
+    /**
+     * A matching event and its ts_rank
+     */
+    public record SearchHit(AuditEventEntity event, float rank) {}
+
+    private static final String SEARCH_SQL =
+            "WITH q AS (SELECT websearch_to_tsquery('english', ?) || websearch_to_tsquery('simple', ?) AS query) " +
+            "SELECT " + AuditEventRowMapper.COLUMNS + ", ts_rank(search_vector, q.query) AS rank " +
+            "FROM audit_events, q " +
+            "WHERE search_vector @@ q.query AND created_at >= ? AND created_at < ? %s" +
+            "ORDER BY rank DESC, created_at DESC, id DESC LIMIT ?";
+
+    private static final String AFTER_CURSOR =
+            "AND (ts_rank(search_vector, q.query), created_at, id) < (?::real, ?, ?::uuid) ";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public AuditSearchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Events in [from, to) matching the query, best match first, strictly after the cursor
+     * in (rank DESC, created_at DESC, id DESC) order.
+     *
+     * @param after cursor carrying the last rank, or null for the first page
+     */
+    public List<SearchHit> search(String query, Instant from, Instant to, AuditEventCursor after, int limit) {
+        List<Object> args = new ArrayList<>();
+        args.add(query);
+        args.add(query);
+        args.add(toUtc(from));
+        args.add(toUtc(to));
+        if (after != null) {
+            args.add(after.getRank());
+            args.add(toUtc(after.getCreatedAt()));
+            args.add(after.getId().toString());
+        }
+        args.add(limit);
+
+        String sql = String.format(SEARCH_SQL, after != null ? AFTER_CURSOR : "");
+        return jdbcTemplate.query(sql,
+                (rs, rowNum) -> new SearchHit(AuditEventRowMapper.INSTANCE.mapRow(rs, rowNum), rs.getFloat("rank")),
+                args.toArray());
+    }
+
+    private static LocalDateTime toUtc(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+}
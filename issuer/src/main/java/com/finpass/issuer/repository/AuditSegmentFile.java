@@ -0,0 +1,806 @@
+package com.finpass.issuer.repository;
+
+import com.finpass.issuer.dto.AuditEventCursor;
+import com.finpass.issuer.dto.AuditEventFilter;
+import com.finpass.issuer.entity.AuditEventEntity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Immutable, compressed, columnar file of archived audit events.
+ *
+ * Layout (big-endian):
+ * <pre>
+ *   header     magic, version, row count, min/max created_at (epoch micros), id of the last row
+ *   directory  offset, stored length and raw length of every column block
+ *   blocks     one per column, in directory order
+ * </pre>
+ * Rows are sorted by (created_at, id). created_at is stored as varint deltas, low-cardinality
+ * strings (event_type, severity, outcome, ...) as a dictionary plus varint codes, and the
+ * remaining strings as length-prefixed UTF-8. Every block is deflated, except that a
+ * dictionary is stored plain in front of its codes so a filter on it can rule out the
+ * whole segment without inflating anything.
+ *
+ * Version 2 appends the hash chain columns (chain_seq as zigzag deltas, prev_hash and hash
+ * as length-prefixed bytes), so archived events stay verifiable by {@link AuditHashChain}.
+ * Version 1 segments are still readable; their events come back without chain data.
+ *
+ * Readers memory-map the file and only inflate the columns a query touches.
+ */
+public final class AuditSegmentFile {
+
+    static final int MAGIC = 0x46504153; // "FPAS"
+    static final int VERSION = 2;
+    static final int VERSION_WITHOUT_CHAIN = 1;
+
+    private static final int HEADER_BYTES = 4 + 4 + 4 + 8 + 8 + 16;
+    private static final int DIRECTORY_ENTRY_BYTES = 8 + 4 + 4;
+
+    private record StringColumn(String name,
+                                Function<AuditEventEntity, String> getter,
+                                BiConsumer<AuditEventEntity, String> setter) {}
+
+    private static final List<StringColumn> DICTIONARY_COLUMNS = List.of(
+            new StringColumn("event_type", AuditEventEntity::getEventType, AuditEventEntity::setEventType),
+            new StringColumn("severity", AuditEventEntity::getSeverity, AuditEventEntity::setSeverity),
+            new StringColumn("outcome", AuditEventEntity::getOutcome, AuditEventEntity::setOutcome),
+            new StringColumn("tenant_id", AuditEventEntity::getTenantId, AuditEventEntity::setTenantId),
+            new StringColumn("resource_type", AuditEventEntity::getResourceType, AuditEventEntity::setResourceType),
+            new StringColumn("action", AuditEventEntity::getAction, AuditEventEntity::setAction),
+            new StringColumn("performed_by_role", AuditEventEntity::getPerformedByRole, AuditEventEntity::setPerformedByRole),
+            new StringColumn("source_system", AuditEventEntity::getSourceSystem, AuditEventEntity::setSourceSystem),
+            new StringColumn("client_version", AuditEventEntity::getClientVersion, AuditEventEntity::setClientVersion),
+            new StringColumn("api_version", AuditEventEntity::getApiVersion, AuditEventEntity::setApiVersion));
+
+    private static final List<StringColumn> PLAIN_COLUMNS = List.of(
+            new StringColumn("user_id_hash", AuditEventEntity::getUserIdHash, AuditEventEntity::setUserIdHash),
+            new StringColumn("session_id", AuditEventEntity::getSessionId, AuditEventEntity::setSessionId),
+            new StringColumn("ip_address", AuditEventEntity::getIpAddress, AuditEventEntity::setIpAddress),
+            new StringColumn("user_agent", AuditEventEntity::getUserAgent, AuditEventEntity::setUserAgent),
+            new StringColumn("resource_id", AuditEventEntity::getResourceId, AuditEventEntity::setResourceId),
+            new StringColumn("description", AuditEventEntity::getDescription, AuditEventEntity::setDescription),
+            new StringColumn("details", AuditEventEntity::getDetails, AuditEventEntity::setDetails),
+            new StringColumn("previous_values", AuditEventEntity::getPreviousValues, AuditEventEntity::setPreviousValues),
+            new StringColumn("new_values", AuditEventEntity::getNewValues, AuditEventEntity::setNewValues),
+            new StringColumn("performed_by", AuditEventEntity::getPerformedBy, AuditEventEntity::setPerformedBy),
+            new StringColumn("correlation_id", AuditEventEntity::getCorrelationId, AuditEventEntity::setCorrelationId),
+            new StringColumn("request_id", AuditEventEntity::getRequestId, AuditEventEntity::setRequestId),
+            new StringColumn("error_code", AuditEventEntity::getErrorCode, AuditEventEntity::setErrorCode),
+            new StringColumn("error_message", AuditEventEntity::getErrorMessage, AuditEventEntity::setErrorMessage),
+            new StringColumn("stack_trace", AuditEventEntity::getStackTrace, AuditEventEntity::setStackTrace),
+            new StringColumn("geolocation", AuditEventEntity::getGeolocation, AuditEventEntity::setGeolocation),
+            new StringColumn("device_fingerprint", AuditEventEntity::getDeviceFingerprint, AuditEventEntity::setDeviceFingerprint),
+            new StringColumn("compliance_flags", AuditEventEntity::getComplianceFlags, AuditEventEntity::setComplianceFlags));
+
+    // Block indexes: fixed columns first, then dictionary columns, then plain strings
+    private static final int CREATED_AT = 0;
+    private static final int ID = 1;
+    private static final int DURATION_MS = 2;
+    private static final int RETENTION_DAYS = 3;
+    private static final int FIRST_DICTIONARY = 4;
+    private static final int FIRST_PLAIN = FIRST_DICTIONARY + DICTIONARY_COLUMNS.size();
+    private static final int COLUMN_COUNT_WITHOUT_CHAIN = FIRST_PLAIN + PLAIN_COLUMNS.size();
+    // Added in version 2, after every version 1 block so the older layout is a prefix
+    private static final int CHAIN_SEQ = COLUMN_COUNT_WITHOUT_CHAIN;
+    private static final int PREV_HASH = CHAIN_SEQ + 1;
+    private static final int HASH = CHAIN_SEQ + 2;
+    private static final int COLUMN_COUNT = HASH + 1;
+
+    private final Path path;
+    private final ByteBuffer buffer;
+    private final int version;
+    private final int rowCount;
+    private final long minMicros;
+    private final long maxMicros;
+    private final UUID lastId;
+    private final long[] blockOffsets = new long[COLUMN_COUNT];
+    private final int[] blockLengths = new int[COLUMN_COUNT];
+    private final int[] rawLengths = new int[COLUMN_COUNT];
+
+    private AuditSegmentFile(Path path, ByteBuffer buffer) {
+        this.path = path;
+        this.buffer = buffer;
+        this.version = buffer.getInt(4);
+        if (buffer.getInt(0) != MAGIC || (version != VERSION && version != VERSION_WITHOUT_CHAIN)) {
+            throw new IllegalStateException("Not an audit segment (or unsupported version): " + path);
+        }
+        this.rowCount = buffer.getInt(8);
+        this.minMicros = buffer.getLong(12);
+        this.maxMicros = buffer.getLong(20);
+        this.lastId = new UUID(buffer.getLong(28), buffer.getLong(36));
+        for (int i = 0; i < columnCount(version); i++) {
+            int entry = HEADER_BYTES + i * DIRECTORY_ENTRY_BYTES;
+            blockOffsets[i] = buffer.getLong(entry);
+            blockLengths[i] = buffer.getInt(entry + 8);
+            rawLengths[i] = buffer.getInt(entry + 12);
+        }
+    }
+
+    /**
+     * Memory-map an existing segment and read its header and column directory
+     */
+    public static AuditSegmentFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new AuditSegmentFile(path, buffer);
+        }
+    }
+
+    /**
+     * Write the events as a new segment at path and open it. The file is written to a
+     * temporary sibling, forced to disk and renamed, so a crash never leaves a partial
+     * segment under the final name.
+     */
+    public static AuditSegmentFile write(Path path, List<AuditEventEntity> events) throws IOException {
+        return write(path, events, VERSION);
+    }
+
+    /**
+     * Write in the given format version; version 1 drops the chain columns
+     */
+    static AuditSegmentFile write(Path path, List<AuditEventEntity> events, int version) throws IOException {
+        if (events.isEmpty()) {
+            throw new IllegalArgumentException("Cannot write an empty audit segment");
+        }
+        List<AuditEventEntity> rows = new ArrayList<>(events);
+        rows.sort(AuditEventSpecifications.KEYSET_COMPARATOR.reversed());
+
+        int columnCount = columnCount(version);
+        byte[][] blocks = new byte[columnCount][];
+        int[] raw = new int[columnCount];
+
+        long[] micros = new long[rows.size()];
+        for (int i = 0; i < micros.length; i++) {
+            micros[i] = toMicros(rows.get(i).getCreatedAt());
+        }
+        Encoder encoder = new Encoder();
+        long previous = 0;
+        for (long value : micros) {
+            encoder.writeVarLong(value - previous);
+            previous = value;
+        }
+        raw[CREATED_AT] = encoder.size();
+        blocks[CREATED_AT] = deflate(encoder.toByteArray());
+
+        encoder = new Encoder();
+        for (AuditEventEntity row : rows) {
+            encoder.writeLong(row.getId().getMostSignificantBits());
+            encoder.writeLong(row.getId().getLeastSignificantBits());
+        }
+        raw[ID] = encoder.size();
+        blocks[ID] = deflate(encoder.toByteArray());
+
+        encoder = new Encoder();
+        for (AuditEventEntity row : rows) {
+            encoder.writeNullableLong(row.getDurationMs());
+        }
+        raw[DURATION_MS] = encoder.size();
+        blocks[DURATION_MS] = deflate(encoder.toByteArray());
+
+        encoder = new Encoder();
+        for (AuditEventEntity row : rows) {
+            encoder.writeNullableLong(row.getRetentionDays() != null ? row.getRetentionDays().longValue() : null);
+        }
+        raw[RETENTION_DAYS] = encoder.size();
+        blocks[RETENTION_DAYS] = deflate(encoder.toByteArray());
+
+        for (int c = 0; c < DICTIONARY_COLUMNS.size(); c++) {
+            Function<AuditEventEntity, String> getter = DICTIONARY_COLUMNS.get(c).getter();
+            Map<String, Integer> dictionary = new LinkedHashMap<>();
+            Encoder codes = new Encoder();
+            for (AuditEventEntity row : rows) {
+                String value = getter.apply(row);
+                codes.writeVarLong(value == null ? 0 : dictionary.computeIfAbsent(value, v -> dictionary.size()) + 1);
+            }
+            Encoder block = new Encoder();
+            block.writeInt(dictionary.size());
+            for (String value : dictionary.keySet()) {
+                block.writeString(value);
+            }
+            block.writeBytes(deflate(codes.toByteArray()));
+            raw[FIRST_DICTIONARY + c] = codes.size();
+            blocks[FIRST_DICTIONARY + c] = block.toByteArray();
+        }
+
+        for (int c = 0; c < PLAIN_COLUMNS.size(); c++) {
+            Function<AuditEventEntity, String> getter = PLAIN_COLUMNS.get(c).getter();
+            encoder = new Encoder();
+            for (AuditEventEntity row : rows) {
+                encoder.writeString(getter.apply(row));
+            }
+            raw[FIRST_PLAIN + c] = encoder.size();
+            blocks[FIRST_PLAIN + c] = deflate(encoder.toByteArray());
+        }
+
+        if (version >= VERSION) {
+            // Sequence numbers mostly step by one within a month and restart at the next
+            encoder = new Encoder();
+            long previousSeq = 0;
+            for (AuditEventEntity row : rows) {
+                Long seq = row.getChainSeq();
+                encoder.writeNullableLong(seq != null ? seq - previousSeq : null);
+                previousSeq = seq != null ? seq : previousSeq;
+            }
+            raw[CHAIN_SEQ] = encoder.size();
+            blocks[CHAIN_SEQ] = deflate(encoder.toByteArray());
+
+            encoder = new Encoder();
+            for (AuditEventEntity row : rows) {
+                encoder.writeNullableBytes(row.getPrevHash());
+            }
+            raw[PREV_HASH] = encoder.size();
+            blocks[PREV_HASH] = deflate(encoder.toByteArray());
+
+            encoder = new Encoder();
+            for (AuditEventEntity row : rows) {
+                encoder.writeNullableBytes(row.getHash());
+            }
+            raw[HASH] = encoder.size();
+            blocks[HASH] = deflate(encoder.toByteArray());
+        }
+
+        AuditEventEntity last = rows.get(rows.size() - 1);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES + columnCount * DIRECTORY_ENTRY_BYTES);
+        header.putInt(MAGIC).putInt(version).putInt(rows.size())
+                .putLong(micros[0]).putLong(micros[micros.length - 1])
+                .putLong(last.getId().getMostSignificantBits()).putLong(last.getId().getLeastSignificantBits());
+        long offset = header.capacity();
+        for (int i = 0; i < columnCount; i++) {
+            header.putLong(offset).putInt(blocks[i].length).putInt(raw[i]);
+            offset += blocks[i].length;
+        }
+        header.flip();
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeFully(channel, header);
+            for (byte[] block : blocks) {
+                writeFully(channel, ByteBuffer.wrap(block));
+            }
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE);
+        return open(path);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public Instant getMinCreatedAt() {
+        return fromMicros(minMicros);
+    }
+
+    public Instant getMaxCreatedAt() {
+        return fromMicros(maxMicros);
+    }
+
+    /**
+     * Keyset position of the newest row in the segment
+     */
+    public AuditEventCursor getLastKey() {
+        return new AuditEventCursor(fromMicros(maxMicros), lastId);
+    }
+
+    public long getSizeBytes() {
+        return buffer.capacity();
+    }
+
+    /**
+     * Whether the segment carries the hash chain columns (version 2 and later)
+     */
+    public boolean hasChain() {
+        return version >= VERSION;
+    }
+
+    /**
+     * Whether any row can fall in [from, to); null bounds are open
+     */
+    public boolean overlaps(Instant from, Instant to) {
+        return (from == null || maxMicros >= toMicros(from)) && (to == null || minMicros < toMicros(to));
+    }
+
+    /**
+     * Ids of every row, e.g. to delete the archived rows from the hot table
+     */
+    public UUID[] readIds() {
+        ByteBuffer ids = ByteBuffer.wrap(inflate(ID));
+        UUID[] result = new UUID[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            result[i] = new UUID(ids.getLong(), ids.getLong());
+        }
+        return result;
+    }
+
+    /**
+     * Rows matching the filter and strictly after the cursor, newest first, at most limit.
+     * Uses the same ordering and [from, to) semantics as the database query.
+     */
+    public List<AuditEventEntity> query(AuditEventFilter filter, AuditEventCursor after, int limit) {
+        if (limit <= 0 || !overlaps(filter.getFrom(), filter.getTo())) {
+            return List.of();
+        }
+
+        // Dictionary pruning: a value absent from the dictionary cannot match any row
+        String[] wanted = {filter.getEventType(), filter.getSeverity(), filter.getOutcome(),
+                filter.getTenantId(), filter.getResourceType()};
+        int[] wantedColumns = {0, 1, 2, 3, 4};
+        int[][] codes = new int[wanted.length][];
+        int[] wantedCodes = new int[wanted.length];
+        for (int f = 0; f < wanted.length; f++) {
+            if (wanted[f] == null) {
+                continue;
+            }
+            int code = readDictionary(FIRST_DICTIONARY + wantedColumns[f]).indexOf(wanted[f]);
+            if (code < 0) {
+                return List.of();
+            }
+            wantedCodes[f] = code + 1;
+        }
+
+        long[] micros = readCreatedAt();
+        int lo = filter.getFrom() != null ? lowerBound(micros, toMicros(filter.getFrom())) : 0;
+        int hi = filter.getTo() != null ? lowerBound(micros, toMicros(filter.getTo())) : rowCount;
+        if (after != null) {
+            hi = Math.min(hi, upperBound(micros, toMicros(after.getCreatedAt())));
+        }
+        if (lo >= hi) {
+            return List.of();
+        }
+
+        UUID[] ids = readIds();
+        for (int f = 0; f < wanted.length; f++) {
+            if (wanted[f] != null) {
+                codes[f] = readCodes(FIRST_DICTIONARY + wantedColumns[f]);
+            }
+        }
+        String[] resourceIds = filter.getResourceId() != null
+                ? readStrings(FIRST_PLAIN + plainIndex("resource_id"), lo, hi) : null;
+
+        List<Integer> matches = new ArrayList<>(Math.min(limit, hi - lo));
+        for (int i = hi - 1; i >= lo && matches.size() < limit; i--) {
+            if (after != null && micros[i] == toMicros(after.getCreatedAt())
+                    && AuditEventSpecifications.compareIds(ids[i], after.getId()) >= 0) {
+                continue;
+            }
+            boolean match = true;
+            for (int f = 0; f < wanted.length && match; f++) {
+                match = codes[f] == null || codes[f][i] == wantedCodes[f];
+            }
+            if (match && resourceIds != null) {
+                match = filter.getResourceId().equals(resourceIds[i - lo]);
+            }
+            if (match) {
+                matches.add(i);
+            }
+        }
+        if (matches.isEmpty()) {
+            return List.of();
+        }
+
+        int first = matches.get(matches.size() - 1);
+        int end = matches.get(0) + 1;
+        List<AuditEventEntity> events = new ArrayList<>(matches.size());
+        for (int i : matches) {
+            AuditEventEntity event = new AuditEventEntity();
+            event.setId(ids[i]);
+            event.setCreatedAt(fromMicros(micros[i]));
+            events.add(event);
+        }
+        materialize(events, matches, first, end);
+        return events;
+    }
+
+    /**
+     * Lowest and highest chain_seq of rows created in [from, to), or null when there are
+     * none or the segment has no chain columns
+     */
+    public long[] chainSeqRange(Instant from, Instant to) {
+        if (!hasChain() || !overlaps(from, to)) {
+            return null;
+        }
+        long[] micros = readCreatedAt();
+        Long[] seqs = readChainSeqs();
+        long[] range = null;
+        for (int i = lowerBound(micros, toMicros(from)), end = lowerBound(micros, toMicros(to)); i < end; i++) {
+            if (seqs[i] == null) {
+                continue;
+            }
+            if (range == null) {
+                range = new long[] {seqs[i], seqs[i]};
+            } else {
+                range[0] = Math.min(range[0], seqs[i]);
+                range[1] = Math.max(range[1], seqs[i]);
+            }
+        }
+        return range;
+    }
+
+    /**
+     * Fully materialized rows created in [from, to) whose chain_seq is in [loSeq, hiSeq],
+     * for chain verification; empty when the segment has no chain columns
+     */
+    public List<AuditEventEntity> readChain(Instant from, Instant to, long loSeq, long hiSeq) {
+        if (!hasChain() || !overlaps(from, to)) {
+            return List.of();
+        }
+        long[] micros = readCreatedAt();
+        Long[] seqs = readChainSeqs();
+        List<Integer> matches = new ArrayList<>();
+        for (int i = lowerBound(micros, toMicros(from)), end = lowerBound(micros, toMicros(to)); i < end; i++) {
+            if (seqs[i] != null && seqs[i] >= loSeq && seqs[i] <= hiSeq) {
+                matches.add(i);
+            }
+        }
+        if (matches.isEmpty()) {
+            return List.of();
+        }
+
+        UUID[] ids = readIds();
+        List<AuditEventEntity> events = new ArrayList<>(matches.size());
+        for (int i : matches) {
+            AuditEventEntity event = new AuditEventEntity();
+            event.setId(ids[i]);
+            event.setCreatedAt(fromMicros(micros[i]));
+            events.add(event);
+        }
+        materialize(events, matches, matches.get(0), matches.get(matches.size() - 1) + 1);
+        return events;
+    }
+
+    /**
+     * Fill the remaining columns of events, whose row indexes are rows (all within [first, end))
+     */
+    private void materialize(List<AuditEventEntity> events, List<Integer> rows, int first, int end) {
+        Long[] durations = readNullableLongs(DURATION_MS, end);
+        Long[] retention = readNullableLongs(RETENTION_DAYS, end);
+        for (int e = 0; e < events.size(); e++) {
+            int row = rows.get(e);
+            events.get(e).setDurationMs(durations[row]);
+            events.get(e).setRetentionDays(retention[row] != null ? retention[row].intValue() : null);
+        }
+
+        for (int c = 0; c < DICTIONARY_COLUMNS.size(); c++) {
+            List<String> dictionary = readDictionary(FIRST_DICTIONARY + c);
+            int[] columnCodes = readCodes(FIRST_DICTIONARY + c);
+            BiConsumer<AuditEventEntity, String> setter = DICTIONARY_COLUMNS.get(c).setter();
+            for (int e = 0; e < events.size(); e++) {
+                int code = columnCodes[rows.get(e)];
+                setter.accept(events.get(e), code == 0 ? null : dictionary.get(code - 1));
+            }
+        }
+
+        for (int c = 0; c < PLAIN_COLUMNS.size(); c++) {
+            String[] values = readStrings(FIRST_PLAIN + c, first, end);
+            BiConsumer<AuditEventEntity, String> setter = PLAIN_COLUMNS.get(c).setter();
+            for (int e = 0; e < events.size(); e++) {
+                setter.accept(events.get(e), values[rows.get(e) - first]);
+            }
+        }
+
+        if (hasChain()) {
+            Long[] seqs = readChainSeqs();
+            byte[][] prevHashes = readBytes(PREV_HASH, end);
+            byte[][] hashes = readBytes(HASH, end);
+            for (int e = 0; e < events.size(); e++) {
+                int row = rows.get(e);
+                events.get(e).setChainSeq(seqs[row]);
+                events.get(e).setPrevHash(prevHashes[row]);
+                events.get(e).setHash(hashes[row]);
+            }
+        }
+    }
+
+    private long[] readCreatedAt() {
+        Decoder decoder = new Decoder(inflate(CREATED_AT));
+        long[] micros = new long[rowCount];
+        long value = 0;
+        for (int i = 0; i < rowCount; i++) {
+            value += decoder.readVarLong();
+            micros[i] = value;
+        }
+        return micros;
+    }
+
+    private Long[] readChainSeqs() {
+        Decoder decoder = new Decoder(inflate(CHAIN_SEQ));
+        Long[] seqs = new Long[rowCount];
+        long previous = 0;
+        for (int i = 0; i < rowCount; i++) {
+            Long delta = decoder.readNullableLong();
+            if (delta != null) {
+                previous += delta;
+                seqs[i] = previous;
+            }
+        }
+        return seqs;
+    }
+
+    private byte[][] readBytes(int column, int end) {
+        Decoder decoder = new Decoder(inflate(column));
+        byte[][] values = new byte[end][];
+        for (int i = 0; i < end; i++) {
+            values[i] = decoder.readNullableBytes();
+        }
+        return values;
+    }
+
+    private Long[] readNullableLongs(int column, int end) {
+        Decoder decoder = new Decoder(inflate(column));
+        Long[] values = new Long[end];
+        for (int i = 0; i < end; i++) {
+            values[i] = decoder.readNullableLong();
+        }
+        return values;
+    }
+
+    private List<String> readDictionary(int column) {
+        Decoder decoder = new Decoder(buffer.duplicate().position((int) blockOffsets[column]));
+        int size = decoder.readInt();
+        List<String> dictionary = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            dictionary.add(decoder.readString());
+        }
+        return dictionary;
+    }
+
+    private int[] readCodes(int column) {
+        Decoder decoder = new Decoder(inflate(column));
+        int[] codes = new int[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            codes[i] = (int) decoder.readVarLong();
+        }
+        return codes;
+    }
+
+    /**
+     * Values of rows [first, end); earlier rows are skipped without decoding
+     */
+    private String[] readStrings(int column, int first, int end) {
+        Decoder decoder = new Decoder(inflate(column));
+        for (int i = 0; i < first; i++) {
+            decoder.skipString();
+        }
+        String[] values = new String[end - first];
+        for (int i = first; i < end; i++) {
+            values[i - first] = decoder.readString();
+        }
+        return values;
+    }
+
+    private byte[] inflate(int column) {
+        ByteBuffer block = buffer.duplicate();
+        block.position((int) blockOffsets[column]).limit((int) blockOffsets[column] + blockLengths[column]);
+        if (column >= FIRST_DICTIONARY && column < FIRST_PLAIN) {
+            // Skip the plain dictionary in front of the deflated codes
+            Decoder dictionary = new Decoder(block);
+            int size = dictionary.readInt();
+            for (int i = 0; i < size; i++) {
+                dictionary.skipString();
+            }
+        }
+
+        byte[] raw = new byte[rawLengths[column]];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(block);
+            int read = 0;
+            while (read < raw.length && !inflater.finished()) {
+                read += inflater.inflate(raw, read, raw.length - read);
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt audit segment " + path, e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static int plainIndex(String name) {
+        for (int c = 0; c < PLAIN_COLUMNS.size(); c++) {
+            if (PLAIN_COLUMNS.get(c).name().equals(name)) {
+                return c;
+            }
+        }
+        throw new IllegalArgumentException(name);
+    }
+
+    /**
+     * First index whose value is &gt;= key
+     */
+    private static int lowerBound(long[] values, long key) {
+        int lo = 0;
+        int hi = values.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (values[mid] < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * First index whose value is &gt; key
+     */
+    private static int upperBound(long[] values, long key) {
+        return key == Long.MAX_VALUE ? values.length : lowerBound(values, key + 1);
+    }
+
+    private static int columnCount(int version) {
+        return version >= VERSION ? COLUMN_COUNT : COLUMN_COUNT_WITHOUT_CHAIN;
+    }
+
+    static long toMicros(Instant instant) {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, instant);
+    }
+
+    static Instant fromMicros(long micros) {
+        return Instant.EPOCH.plus(micros, ChronoUnit.MICROS);
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater();
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+
+    /**
+     * Append-only byte sink with varint and string encodings
+     */
+    private static final class Encoder extends ByteArrayOutputStream {
+
+        void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        /**
+         * Zigzag-encoded, shifted by one so that 0 can mean null
+         */
+        void writeNullableLong(Long value) {
+            writeVarLong(value == null ? 0 : ((value << 1) ^ (value >> 63)) + 1);
+        }
+
+        void writeInt(int value) {
+            write(value >>> 24);
+            write(value >>> 16);
+            write(value >>> 8);
+            write(value);
+        }
+
+        void writeLong(long value) {
+            writeInt((int) (value >>> 32));
+            writeInt((int) value);
+        }
+
+        /**
+         * Varint length + 1 (0 for null) followed by UTF-8 bytes
+         */
+        void writeString(String value) {
+            if (value == null) {
+                writeVarLong(0);
+                return;
+            }
+            writeNullableBytes(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /**
+         * Varint length + 1 (0 for null) followed by the bytes
+         */
+        void writeNullableBytes(byte[] value) {
+            if (value == null) {
+                writeVarLong(0);
+                return;
+            }
+            writeVarLong(value.length + 1L);
+            writeBytes(value);
+        }
+    }
+
+    private static final class Decoder {
+        private final ByteBuffer in;
+
+        Decoder(byte[] bytes) {
+            this(ByteBuffer.wrap(bytes));
+        }
+
+        Decoder(ByteBuffer in) {
+            this.in = in;
+        }
+
+        long readVarLong() {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = in.get();
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+
+        Long readNullableLong() {
+            long encoded = readVarLong();
+            if (encoded == 0) {
+                return null;
+            }
+            long zigzag = encoded - 1;
+            return (zigzag >>> 1) ^ -(zigzag & 1);
+        }
+
+        int readInt() {
+            return in.getInt();
+        }
+
+        String readString() {
+            byte[] bytes = readNullableBytes();
+            return bytes != null ? new String(bytes, StandardCharsets.UTF_8) : null;
+        }
+
+        byte[] readNullableBytes() {
+            int length = (int) readVarLong();
+            if (length == 0) {
+                return null;
+            }
+            byte[] bytes = new byte[length - 1];
+            in.get(bytes);
+            return bytes;
+        }
+
+        void skipString() {
+            int length = (int) readVarLong();
+            if (length > 0) {
+                in.position(in.position() + length - 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.finpass.issuer.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Set-based writes for batch credential issuance.
+ *
+ * Credentials are written with one JDBC batch, so a batch costs the same few round trips
+ * whatever its size. Callers run it in the issuance transaction, with the user upsert
+ * ({@link UserUpsertRepository#upsertAll}) and the status records
+ * ({@link CredentialStatusBulkRepository#createMissing}).
+ */
+@Repository
+public class CredentialBatchRepository {
+
+    /**
+     * A credential to insert
+     */
+    public record NewCredential(UUID id, UUID userId, String credentialJwt, Instant issuedAt, Instant expiresAt) {}
+
+    static final String INSERT_CREDENTIAL_SQL =
+            "INSERT INTO credentials (id, user_id, credential_jwt, issued_at, status, expires_at) " +
+            "VALUES (?, ?, ?, ?, 'VALID', ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public CredentialBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Insert VALID credentials in one JDBC batch
+     */
+    public void insertCredentials(List<NewCredential> credentials) {
+        jdbcTemplate.batchUpdate(INSERT_CREDENTIAL_SQL, credentials, credentials.size(), (ps, credential) -> {
+            ps.setObject(1, credential.id());
+            ps.setObject(2, credential.userId());
+            ps.setString(3, credential.credentialJwt());
+            ps.setObject(4, OffsetDateTime.ofInstant(credential.issuedAt(), ZoneOffset.UTC));
+            if (credential.expiresAt() != null) {
+                ps.setObject(5, LocalDateTime.ofInstant(credential.expiresAt(), ZoneOffset.UTC));
+            } else {
+                ps.setNull(5, Types.TIMESTAMP);
+            }
+        });
+    }
+}
@@ -0,0 +1,70 @@
+package com.finpass.issuer.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Claims expired credentials for the expiry sweeper.
+ *
+ * A claim locks the next batch of due credentials in (expires_at, id) order with
+ * FOR NO KEY UPDATE SKIP LOCKED, so sweepers on several nodes take disjoint batches
+ * instead of queueing on each other, and flips them to EXPIRED in the same statement.
+ * NO KEY UPDATE rather than UPDATE keeps the claim from blocking foreign key checks of
+ * concurrent status record inserts.
+ */
+@Repository
+public class CredentialExpiryRepository {
+
+    /**
+     * A credential flipped to EXPIRED; also the keyset position of the next claim
+     */
+    public record Claimed(UUID credentialId, UUID userId, Instant expiresAt) {}
+
+    private static final String CLAIM_SQL =
+            "WITH claimed AS (SELECT id FROM credentials " +
+            "WHERE status = 'VALID' AND expires_at IS NOT NULL AND expires_at < ? %s" +
+            "ORDER BY expires_at, id LIMIT ? FOR NO KEY UPDATE SKIP LOCKED) " +
+            "UPDATE credentials c SET status = 'EXPIRED', updated_at = ? FROM claimed WHERE c.id = claimed.id " +
+            "RETURNING c.id, c.user_id, c.expires_at";
+
+    static final String CLAIM_FIRST_SQL = String.format(CLAIM_SQL, "");
+
+    static final String CLAIM_NEXT_SQL = String.format(CLAIM_SQL, "AND (expires_at, id) > (?, ?) ");
+
+    private static final RowMapper<Claimed> ROW_MAPPER = (rs, rowNum) -> new Claimed(
+            rs.getObject(1, UUID.class),
+            rs.getObject(2, UUID.class),
+            rs.getObject(3, LocalDateTime.class).toInstant(ZoneOffset.UTC));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public CredentialExpiryRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Claim and expire up to {@code limit} credentials that expired before {@code cutoff},
+     * after the keyset position {@code after} (null for the start); must run in a
+     * transaction, which holds the claim until it commits
+     */
+    public List<Claimed> claimExpired(Instant cutoff, Claimed after, int limit, Instant now) {
+        if (after == null) {
+            return jdbcTemplate.query(CLAIM_FIRST_SQL, ROW_MAPPER, toUtc(cutoff), limit, toUtc(now));
+        }
+        return jdbcTemplate.query(CLAIM_NEXT_SQL, ROW_MAPPER,
+                toUtc(cutoff), toUtc(after.expiresAt()), after.credentialId(), limit, toUtc(now));
+    }
+
+    private static LocalDateTime toUtc(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+}
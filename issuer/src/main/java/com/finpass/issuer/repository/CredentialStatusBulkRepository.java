@@ -0,0 +1,196 @@
+package com.finpass.issuer.repository;
+
+import com.finpass.issuer.entity.CredentialStatusEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Set-based status changes for bulk revoke/suspend/reinstate.
+ *
+ * Each call handles one chunk of credential IDs with a single UPDATE ... WHERE
+ * credential_id = ANY(?), which also appends the change feed rows in the same statement.
+ * Callers run each chunk in a transaction and take the change feed lock first
+ * ({@link CredentialStatusChangeRepository#lockForAppend()}).
+ */
+@Repository
+public class CredentialStatusBulkRepository {
+
+    /**
+     * A status record changed by a bulk update
+     */
+    public record Updated(UUID credentialId, Integer statusListIndex) {}
+
+    static final String CREATE_MISSING_SQL =
+            "INSERT INTO credential_status (id, credential_id, status, status_list_index, created_at, updated_at) " +
+            "SELECT gen_random_uuid(), c.id, 'VALID', nextval('credential_status_list_index_seq'), ?, ? " +
+            "FROM credentials c WHERE c.id = ANY(?) " +
+            "AND NOT EXISTS (SELECT 1 FROM credential_status cs WHERE cs.credential_id = c.id) " +
+            "ON CONFLICT (credential_id) DO NOTHING " +
+            "RETURNING status_list_index";
+
+    static final String CREATE_SQL =
+            "INSERT INTO credential_status (id, credential_id, status, status_list_index, created_at, updated_at) " +
+            "SELECT gen_random_uuid(), t.credential_id, 'VALID', t.status_list_index, ?, ? " +
+            "FROM unnest(?::uuid[], ?::int[]) AS t(credential_id, status_list_index) " +
+            "ON CONFLICT (credential_id) DO NOTHING";
+
+    static final String REVOKE_SET =
+            "status = 'REVOKED', revocation_reason = ?, revoked_by = ?, reason_description = ?, " +
+            "revoked_at = ?, updated_at = ? WHERE credential_id = ANY(?) AND status <> 'REVOKED'";
+
+    static final String SUSPEND_SET =
+            "status = 'SUSPENDED', revoked_by = ?, reason_description = ?, updated_at = ? " +
+            "WHERE credential_id = ANY(?) AND status <> 'REVOKED'";
+
+    static final String REINSTATE_SET =
+            "status = 'VALID', revoked_by = ?, reason_description = ?, updated_at = ? " +
+            "WHERE credential_id = ANY(?) AND status = 'SUSPENDED'";
+
+    private static final String UPDATE_AND_LOG_SQL =
+            "WITH updated AS (UPDATE credential_status SET %s " +
+            "RETURNING credential_id, status_list_index, status, revocation_reason, updated_at), " +
+            "logged AS (INSERT INTO credential_status_changes " +
+            "(credential_id, status_list_index, status, revocation_reason, changed_at) " +
+            "SELECT credential_id, status_list_index, status, " +
+            "CASE WHEN status = 'REVOKED' THEN revocation_reason END, updated_at " +
+            "FROM updated ORDER BY credential_id) " +
+            "SELECT credential_id, status_list_index FROM updated";
+
+    static final String CURRENT_STATUS_SQL =
+            "SELECT c.id, cs.status FROM credentials c " +
+            "LEFT JOIN credential_status cs ON cs.credential_id = c.id WHERE c.id = ANY(?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public CredentialStatusBulkRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Create VALID status records for existing credentials that have none, as the single
+     * revoke/suspend path does; returns the status list indexes allocated
+     */
+    public List<Integer> createMissing(Collection<UUID> credentialIds, Instant now) {
+        LocalDateTime timestamp = toUtc(now);
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(CREATE_MISSING_SQL);
+            ps.setObject(1, timestamp);
+            ps.setObject(2, timestamp);
+            ps.setArray(3, uuidArray(con, credentialIds));
+            return ps;
+        }, (rs, rowNum) -> rs.getInt(1));
+    }
+
+    /**
+     * Create VALID status records for newly inserted credentials at the status list indexes
+     * already allocated for them, pairwise
+     */
+    public void create(List<UUID> credentialIds, List<Integer> statusListIndexes, Instant now) {
+        LocalDateTime timestamp = toUtc(now);
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(CREATE_SQL);
+            ps.setObject(1, timestamp);
+            ps.setObject(2, timestamp);
+            ps.setArray(3, uuidArray(con, credentialIds));
+            ps.setArray(4, con.createArrayOf("integer", statusListIndexes.toArray()));
+            return ps;
+        });
+    }
+
+    /**
+     * Revoke every listed credential that is not already revoked
+     */
+    public List<Updated> revoke(Collection<UUID> credentialIds, CredentialStatusEntity.RevocationReason reason,
+                                String revokedBy, String description, Instant now) {
+        LocalDateTime timestamp = toUtc(now);
+        return update(REVOKE_SET, credentialIds, ps -> {
+            ps.setString(1, reason.name());
+            ps.setString(2, revokedBy);
+            ps.setString(3, description);
+            ps.setObject(4, timestamp);
+            ps.setObject(5, timestamp);
+            return 6;
+        });
+    }
+
+    /**
+     * Suspend every listed credential that is not revoked
+     */
+    public List<Updated> suspend(Collection<UUID> credentialIds, String suspendedBy, String description, Instant now) {
+        return update(SUSPEND_SET, credentialIds, ps -> {
+            ps.setString(1, suspendedBy);
+            ps.setString(2, description);
+            ps.setObject(3, toUtc(now));
+            return 4;
+        });
+    }
+
+    /**
+     * Reinstate every listed credential that is suspended
+     */
+    public List<Updated> reinstate(Collection<UUID> credentialIds, String reinstatedBy, Instant now) {
+        return update(REINSTATE_SET, credentialIds, ps -> {
+            ps.setString(1, reinstatedBy);
+            ps.setString(2, "Credential reinstated by " + reinstatedBy);
+            ps.setObject(3, toUtc(now));
+            return 4;
+        });
+    }
+
+    /**
+     * Current status of the listed credentials that exist; null when a credential has no
+     * status record
+     */
+    public Map<UUID, String> findCurrentStatus(Collection<UUID> credentialIds) {
+        Map<UUID, String> statuses = new HashMap<>();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(CURRENT_STATUS_SQL);
+            ps.setArray(1, uuidArray(con, credentialIds));
+            return ps;
+        }, rs -> {
+            statuses.put(rs.getObject(1, UUID.class), rs.getString(2));
+        });
+        return statuses;
+    }
+
+    /**
+     * Binds the SET parameters and returns the index of the ids array parameter
+     */
+    @FunctionalInterface
+    private interface SetBinder {
+        int bind(PreparedStatement ps) throws SQLException;
+    }
+
+    private List<Updated> update(String set, Collection<UUID> credentialIds, SetBinder binder) {
+        String sql = String.format(UPDATE_AND_LOG_SQL, set);
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            int idsIndex = binder.bind(ps);
+            ps.setArray(idsIndex, uuidArray(con, credentialIds));
+            return ps;
+        }, (rs, rowNum) -> new Updated(rs.getObject(1, UUID.class), rs.getObject(2, Integer.class)));
+    }
+
+    private static Array uuidArray(Connection con, Collection<UUID> ids) throws SQLException {
+        return con.createArrayOf("uuid", ids.toArray());
+    }
+
+    private static LocalDateTime toUtc(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,92 @@
+package com.finpass.issuer.repository;
+
+import com.finpass.issuer.dto.CredentialStatusChange;
+import com.finpass.issuer.entity.CredentialStatusEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * JDBC access to credential_status_changes, the append-only status change feed (see V11).
+ *
+ * Appends take a transaction-scoped advisory lock first, so concurrent status changes
+ * commit in seq order and a reader polling "after the last seq I saw" never skips a row.
+ * Status changes are rare enough that serializing them costs nothing noticeable.
+ */
+@Repository
+public class CredentialStatusChangeRepository {
+
+    /**
+     * Advisory lock key serializing feed appends ("FPSC")
+     */
+    static final long APPEND_LOCK_KEY = 0x46505343L;
+
+    static final String APPEND_SQL = "INSERT INTO credential_status_changes " +
+            "(credential_id, status_list_index, status, revocation_reason, changed_at) " +
+            "VALUES (?, ?, ?, ?, ?) RETURNING seq";
+
+    static final String FIND_AFTER_SQL = "SELECT seq, credential_id, status_list_index, status, " +
+            "revocation_reason, changed_at FROM credential_status_changes " +
+            "WHERE seq > ? ORDER BY seq LIMIT ?";
+
+    private static final RowMapper<CredentialStatusChange> ROW_MAPPER = (rs, rowNum) -> {
+        String reason = rs.getString("revocation_reason");
+        return new CredentialStatusChange(
+                rs.getLong("seq"),
+                rs.getObject("credential_id", UUID.class),
+                rs.getObject("status_list_index", Integer.class),
+                CredentialStatusEntity.Status.valueOf(rs.getString("status")),
+                reason != null ? CredentialStatusEntity.RevocationReason.valueOf(reason) : null,
+                rs.getObject("changed_at", LocalDateTime.class).toInstant(ZoneOffset.UTC));
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public CredentialStatusChangeRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Record the new status of a credential; must run inside the transaction that changes it
+     */
+    public long append(CredentialStatusEntity status) {
+        lockForAppend();
+        Long seq = jdbcTemplate.queryForObject(APPEND_SQL, Long.class,
+                status.getCredential().getId(),
+                status.getStatusListIndex(),
+                status.getStatus().name(),
+                status.isRevoked() && status.getRevocationReason() != null ? status.getRevocationReason().name() : null,
+                LocalDateTime.ofInstant(status.getUpdatedAt(), ZoneOffset.UTC));
+        return seq != null ? seq : 0L;
+    }
+
+    /**
+     * Serialize feed appends until the current transaction ends; any code inserting into
+     * credential_status_changes directly must call this first
+     */
+    public void lockForAppend() {
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", rs -> null, APPEND_LOCK_KEY);
+    }
+
+    /**
+     * Changes with seq greater than {@code after}, oldest first
+     */
+    public List<CredentialStatusChange> findAfter(long after, int limit) {
+        return jdbcTemplate.query(FIND_AFTER_SQL, ROW_MAPPER, after, limit);
+    }
+
+    /**
+     * Highest seq in the feed, or 0 when it is empty
+     */
+    public long findLastSeq() {
+        Long seq = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(seq), 0) FROM credential_status_changes", Long.class);
+        return seq != null ? seq : 0L;
+    }
+}
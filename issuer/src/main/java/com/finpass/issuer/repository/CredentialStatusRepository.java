@@ -59,4 +59,29 @@ public interface CredentialStatusRepository extends JpaRepository<CredentialStat
      */
     @Query("SELECT cs FROM CredentialStatusEntity cs WHERE cs.credential.id = :credentialId")
     Optional<CredentialStatusEntity> getCredentialStatusForVerification(@Param("credentialId") UUID credentialId);
+
+    /**
+     * Allocate the next StatusList2021 index
+     */
+    @Query(value = "SELECT nextval('credential_status_list_index_seq')", nativeQuery = true)
+    long nextStatusListIndex();
+
+    /**
+     * Allocate the next count StatusList2021 indexes in one round trip
+     */
+    @Query(value = "SELECT nextval('credential_status_list_index_seq') FROM generate_series(1, :count)", nativeQuery = true)
+    List<Long> nextStatusListIndexes(@Param("count") int count);
+
+    /**
+     * Highest allocated StatusList2021 index, or -1 if none
+     */
+    @Query(value = "SELECT coalesce(max(status_list_index), -1) FROM credential_status", nativeQuery = true)
+    int findMaxStatusListIndex();
+
+    /**
+     * Status list index and status of every credential that is not valid
+     */
+    @Query(value = "SELECT status_list_index, status FROM credential_status " +
+                   "WHERE status <> 'VALID' AND status_list_index IS NOT NULL", nativeQuery = true)
+    List<Object[]> findNonValidStatusListEntries();
 }
@@ -0,0 +1,156 @@
+package com.finpass.issuer.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * JDBC access to deferred_credential_requests, the durable deferred issuance queue (see V14)
+ */
+@Repository
+public class DeferredCredentialRepository {
+
+    /**
+     * A queued issuance request; passport data and liveness proof are JSON
+     */
+    public record DeferredRequest(UUID transactionId, String holderDid, String format, String passportData,
+                                  String livenessProof, String status, int attempts, UUID credentialId,
+                                  String credentialJwt, String errorCode, String errorDescription) {
+
+        public boolean isPending() {
+            return "PENDING".equals(status);
+        }
+
+        public boolean isIssued() {
+            return "ISSUED".equals(status);
+        }
+
+        public boolean isDelivered() {
+            return "DELIVERED".equals(status);
+        }
+    }
+
+    private static final String COLUMNS = "transaction_id, holder_did, format, passport_data, liveness_proof, " +
+            "status, attempts, credential_id, credential_jwt, error_code, error_description";
+
+    static final String INSERT_SQL = "INSERT INTO deferred_credential_requests " +
+            "(transaction_id, token_subject, holder_did, format, passport_data, liveness_proof, available_at, " +
+            "created_at, updated_at) VALUES (?, ?, ?, ?, ?::jsonb, ?::jsonb, ?, ?, ?)";
+
+    // The lock is held until the claiming transaction, which issues the credential, ends
+    static final String CLAIM_NEXT_SQL = "SELECT " + COLUMNS + " FROM deferred_credential_requests " +
+            "WHERE status = 'PENDING' AND available_at <= ? ORDER BY available_at LIMIT 1 FOR UPDATE SKIP LOCKED";
+
+    // Only one poll can move the row out of ISSUED; it gets the credential, which is not kept
+    static final String DELIVER_SQL = "UPDATE deferred_credential_requests d " +
+            "SET status = 'DELIVERED', credential_jwt = NULL, updated_at = ? " +
+            "FROM deferred_credential_requests issued " +
+            "WHERE d.transaction_id = ? AND d.token_subject = ? AND d.status = 'ISSUED' " +
+            "AND issued.transaction_id = d.transaction_id " +
+            "RETURNING issued.credential_jwt";
+
+    static final String PURGE_FINISHED_SQL = "DELETE FROM deferred_credential_requests WHERE transaction_id IN " +
+            "(SELECT transaction_id FROM deferred_credential_requests WHERE status <> 'PENDING' AND updated_at < ? LIMIT ?)";
+
+    private static final RowMapper<DeferredRequest> ROW_MAPPER = (rs, rowNum) -> new DeferredRequest(
+            rs.getObject("transaction_id", UUID.class),
+            rs.getString("holder_did"),
+            rs.getString("format"),
+            rs.getString("passport_data"),
+            rs.getString("liveness_proof"),
+            rs.getString("status"),
+            rs.getInt("attempts"),
+            rs.getObject("credential_id", UUID.class),
+            rs.getString("credential_jwt"),
+            rs.getString("error_code"),
+            rs.getString("error_description"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public DeferredCredentialRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insert(UUID transactionId, String tokenSubject, String holderDid, String format, String passportData,
+                       String livenessProof, Instant now) {
+        LocalDateTime timestamp = toUtc(now);
+        jdbcTemplate.update(INSERT_SQL, transactionId, tokenSubject, holderDid, format, passportData, livenessProof,
+                timestamp, timestamp, timestamp);
+    }
+
+    /**
+     * Lock the oldest due pending request, skipping ones other workers hold; must run in a
+     * transaction
+     */
+    public DeferredRequest claimNext(Instant now) {
+        List<DeferredRequest> claimed = jdbcTemplate.query(CLAIM_NEXT_SQL, ROW_MAPPER, toUtc(now));
+        return claimed.isEmpty() ? null : claimed.get(0);
+    }
+
+    /**
+     * The request queued under the token subject; null if unknown or queued under another
+     */
+    public DeferredRequest find(UUID transactionId, String tokenSubject) {
+        List<DeferredRequest> found = jdbcTemplate.query("SELECT " + COLUMNS +
+                " FROM deferred_credential_requests WHERE transaction_id = ? AND token_subject = ?",
+                ROW_MAPPER, transactionId, tokenSubject);
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    /**
+     * Mark an issued request delivered
+     * @return The credential, or null if the request is not issued to this token subject or
+     * was already delivered
+     */
+    public String deliver(UUID transactionId, String tokenSubject, Instant now) {
+        List<String> delivered = jdbcTemplate.query(DELIVER_SQL, (rs, rowNum) -> rs.getString(1),
+                toUtc(now), transactionId, tokenSubject);
+        return delivered.isEmpty() ? null : delivered.get(0);
+    }
+
+    public void markIssued(UUID transactionId, UUID credentialId, String credentialJwt, Instant now) {
+        jdbcTemplate.update("UPDATE deferred_credential_requests SET status = 'ISSUED', attempts = attempts + 1, " +
+                "credential_id = ?, credential_jwt = ?, error_code = NULL, error_description = NULL, updated_at = ? " +
+                "WHERE transaction_id = ? AND status = 'PENDING'", credentialId, credentialJwt, toUtc(now), transactionId);
+    }
+
+    /**
+     * Count a failed attempt and put the request back in line from {@code retryAt}
+     */
+    public void markRetry(UUID transactionId, String errorCode, String errorDescription, Instant retryAt, Instant now) {
+        jdbcTemplate.update("UPDATE deferred_credential_requests SET attempts = attempts + 1, available_at = ?, " +
+                "error_code = ?, error_description = ?, updated_at = ? WHERE transaction_id = ? AND status = 'PENDING'",
+                toUtc(retryAt), errorCode, errorDescription, toUtc(now), transactionId);
+    }
+
+    public void markFailed(UUID transactionId, String errorCode, String errorDescription, Instant now) {
+        jdbcTemplate.update("UPDATE deferred_credential_requests SET status = 'FAILED', attempts = attempts + 1, " +
+                "error_code = ?, error_description = ?, updated_at = ? WHERE transaction_id = ? AND status = 'PENDING'",
+                errorCode, errorDescription, toUtc(now), transactionId);
+    }
+
+    /**
+     * Delete up to {@code limit} issued or failed requests finished before {@code before}
+     */
+    public int purgeFinished(Instant before, int limit) {
+        return jdbcTemplate.update(PURGE_FINISHED_SQL, toUtc(before), limit);
+    }
+
+    public long countPending() {
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM deferred_credential_requests WHERE status = 'PENDING'", Long.class);
+        return count != null ? count : 0L;
+    }
+
+    private static LocalDateTime toUtc(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,187 @@
+package com.finpass.issuer.repository;
+
+import com.finpass.issuer.dto.CredentialStatusChange;
+import com.finpass.issuer.entity.CredentialStatusEntity;
+import com.finpass.issuer.util.MerkleTree;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * JDBC access to revocation_anchors, the Merkle roots over ranges of the status change
+ * feed (see V13)
+ */
+@Repository
+public class RevocationAnchorRepository {
+
+    /**
+     * An anchored range of the feed, without its tree
+     */
+    public record Anchor(long id, long fromSeq, long toSeq, int leafCount, byte[] root, long[] seqGaps,
+                         String status, String transactionHash, Long blockNumber, Instant submittedAt) {
+
+        /**
+         * Position of the change with {@code seq} among this anchor's leaves
+         */
+        public int leafIndex(long seq) {
+            long index = seq - fromSeq - 1;
+            for (int i = 0; i < seqGaps.length && seqGaps[i] < seq; i += 2) {
+                index -= seqGaps[i + 1] - seqGaps[i] + 1;
+            }
+            return (int) index;
+        }
+    }
+
+    /**
+     * A feed entry and the anchor covering it
+     */
+    public record AnchoredChange(CredentialStatusChange change, Anchor anchor) {}
+
+    private static final String ANCHOR_COLUMNS = "a.id, a.from_seq, a.to_seq, a.leaf_count, a.root, a.seq_gaps, a.status, " +
+            "a.transaction_hash, a.block_number, a.submitted_at";
+
+    // Either unique constraint firing means another node recorded this range first
+    static final String INSERT_SQL = "INSERT INTO revocation_anchors (from_seq, to_seq, leaf_count, root, nodes, seq_gaps) " +
+            "VALUES (?, ?, ?, ?, ?, ?::bigint[]) ON CONFLICT DO NOTHING RETURNING id";
+
+    static final String CLAIM_PENDING_SQL = "SELECT " + ANCHOR_COLUMNS + " FROM revocation_anchors a " +
+            "WHERE a.status = 'PENDING' ORDER BY a.id LIMIT 1 FOR UPDATE SKIP LOCKED";
+
+    static final String FIND_SUBMITTED_SQL = "SELECT " + ANCHOR_COLUMNS + " FROM revocation_anchors a " +
+            "WHERE a.status = 'SUBMITTED' ORDER BY a.id LIMIT ?";
+
+    static final String FIND_LATEST_SQL = "SELECT " + ANCHOR_COLUMNS + " FROM revocation_anchors a " +
+            "ORDER BY a.to_seq DESC LIMIT 1";
+
+    static final String FIND_ANCHORED_CHANGE_SQL = "SELECT c.seq, c.credential_id, c.status_list_index, c.status, " +
+            "c.revocation_reason, c.changed_at, " + ANCHOR_COLUMNS + " FROM credential_status_changes c " +
+            "JOIN LATERAL (SELECT * FROM revocation_anchors r WHERE r.to_seq >= c.seq ORDER BY r.to_seq LIMIT 1) a " +
+            "ON a.from_seq < c.seq WHERE c.credential_id = ? ORDER BY c.seq DESC LIMIT 1";
+
+    static final String FIND_NODES_SQL = "SELECT substring(a.nodes FROM n.node * " + MerkleTree.HASH_BYTES +
+            " + 1 FOR " + MerkleTree.HASH_BYTES + ") FROM revocation_anchors a " +
+            "CROSS JOIN unnest(?::int[]) WITH ORDINALITY AS n(node, ord) WHERE a.id = ? ORDER BY n.ord";
+
+    private static final RowMapper<Anchor> ANCHOR_MAPPER = (rs, rowNum) -> mapAnchor(rs);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public RevocationAnchorRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Feed position covered by the newest anchor, or 0 when nothing is anchored yet
+     */
+    public long findLastAnchoredSeq() {
+        Long seq = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(to_seq), 0) FROM revocation_anchors", Long.class);
+        return seq != null ? seq : 0L;
+    }
+
+    /**
+     * Record the tree over the changes in (fromSeq, toSeq], whose seqs skip the start/end
+     * ranges in {@code seqGaps}; returns its id, or null when another node already anchored
+     * an overlapping range
+     */
+    public Long insert(long fromSeq, long toSeq, MerkleTree tree, long[] seqGaps) {
+        Long[] gaps = Arrays.stream(seqGaps).boxed().toArray(Long[]::new);
+        List<Long> ids = jdbcTemplate.queryForList(INSERT_SQL, Long.class,
+                fromSeq, toSeq, tree.leafCount(), tree.root(), tree.nodes(), gaps);
+        return ids.isEmpty() ? null : ids.get(0);
+    }
+
+    /**
+     * Lock the oldest anchor not yet submitted, skipping one another node is submitting;
+     * must run in a transaction
+     */
+    public Anchor claimPending() {
+        List<Anchor> anchors = jdbcTemplate.query(CLAIM_PENDING_SQL, ANCHOR_MAPPER);
+        return anchors.isEmpty() ? null : anchors.get(0);
+    }
+
+    public List<Anchor> findSubmitted(int limit) {
+        return jdbcTemplate.query(FIND_SUBMITTED_SQL, ANCHOR_MAPPER, limit);
+    }
+
+    public Anchor findLatest() {
+        List<Anchor> anchors = jdbcTemplate.query(FIND_LATEST_SQL, ANCHOR_MAPPER);
+        return anchors.isEmpty() ? null : anchors.get(0);
+    }
+
+    public void markSubmitted(long id, String transactionHash, Instant now) {
+        jdbcTemplate.update("UPDATE revocation_anchors SET status = 'SUBMITTED', transaction_hash = ?, " +
+                "submitted_at = ? WHERE id = ?", transactionHash, toUtc(now), id);
+    }
+
+    public void markConfirmed(long id, long blockNumber, Instant now) {
+        jdbcTemplate.update("UPDATE revocation_anchors SET status = 'CONFIRMED', block_number = ?, " +
+                "confirmed_at = ? WHERE id = ? AND status = 'SUBMITTED'", blockNumber, toUtc(now), id);
+    }
+
+    /**
+     * Put a submitted anchor back in line for submission (its transaction failed or was
+     * dropped)
+     */
+    public void markPending(long id) {
+        jdbcTemplate.update("UPDATE revocation_anchors SET status = 'PENDING', transaction_hash = NULL, " +
+                "submitted_at = NULL WHERE id = ? AND status = 'SUBMITTED'", id);
+    }
+
+    /**
+     * The newest anchored change of a credential, with its anchor; null when none is
+     * anchored yet
+     */
+    public AnchoredChange findLatestAnchoredChange(UUID credentialId) {
+        List<AnchoredChange> found = jdbcTemplate.query(FIND_ANCHORED_CHANGE_SQL, (rs, rowNum) -> {
+            String reason = rs.getString("revocation_reason");
+            CredentialStatusChange change = new CredentialStatusChange(
+                    rs.getLong("seq"),
+                    rs.getObject("credential_id", UUID.class),
+                    rs.getObject("status_list_index", Integer.class),
+                    CredentialStatusEntity.Status.valueOf(rs.getString("status")),
+                    reason != null ? CredentialStatusEntity.RevocationReason.valueOf(reason) : null,
+                    rs.getObject("changed_at", LocalDateTime.class).toInstant(ZoneOffset.UTC));
+            return new AnchoredChange(change, mapAnchor(rs));
+        }, credentialId);
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    /**
+     * Nodes of an anchor's tree at the given positions, read without loading the tree
+     */
+    public List<byte[]> findNodes(long anchorId, int[] nodeIndexes) {
+        Integer[] indexes = Arrays.stream(nodeIndexes).boxed().toArray(Integer[]::new);
+        return jdbcTemplate.query(FIND_NODES_SQL, (rs, rowNum) -> rs.getBytes(1), indexes, anchorId);
+    }
+
+    private static Anchor mapAnchor(ResultSet rs) throws SQLException {
+        LocalDateTime submittedAt = rs.getObject("submitted_at", LocalDateTime.class);
+        Long[] seqGaps = (Long[]) rs.getArray("seq_gaps").getArray();
+        return new Anchor(
+                rs.getLong("id"),
+                rs.getLong("from_seq"),
+                rs.getLong("to_seq"),
+                rs.getInt("leaf_count"),
+                rs.getBytes("root"),
+                Arrays.stream(seqGaps).mapToLong(Long::longValue).toArray(),
+                rs.getString("status"),
+                rs.getString("transaction_hash"),
+                rs.getObject("block_number", Long.class),
+                submittedAt != null ? submittedAt.toInstant(ZoneOffset.UTC) : null);
+    }
+
+    private static LocalDateTime toUtc(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+}
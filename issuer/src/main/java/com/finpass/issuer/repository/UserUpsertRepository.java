@@ -0,0 +1,72 @@
+package com.finpass.issuer.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Resolves holder DIDs to user ids, creating missing users, in a single statement.
+ *
+ * ON CONFLICT ... DO UPDATE (a no-op update) rather than DO NOTHING makes RETURNING yield
+ * the existing row too, and waits out a concurrent insert of the same DID instead of
+ * failing on the unique constraint. {@code xmax = 0} tells whether the row was inserted by
+ * this statement, i.e. is not visible to others until the transaction commits.
+ */
+@Repository
+public class UserUpsertRepository {
+
+    /**
+     * A user id, and whether this statement created the user
+     */
+    public record Upserted(UUID id, boolean inserted) {}
+
+    static final String UPSERT_SQL =
+            "INSERT INTO users (id, did, created_at) VALUES (gen_random_uuid(), ?, ?) " +
+            "ON CONFLICT (did) DO UPDATE SET did = EXCLUDED.did " +
+            "RETURNING id, (xmax = 0) AS inserted";
+
+    // Sorted so concurrent batches lock existing users in the same order
+    static final String UPSERT_ALL_SQL =
+            "INSERT INTO users (id, did, created_at) " +
+            "SELECT gen_random_uuid(), did, ? FROM (SELECT DISTINCT unnest(?::text[]) AS did) input ORDER BY did " +
+            "ON CONFLICT (did) DO UPDATE SET did = EXCLUDED.did " +
+            "RETURNING id, did, (xmax = 0) AS inserted";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public UserUpsertRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Upserted upsert(String did, Instant now) {
+        List<Upserted> upserted = jdbcTemplate.query(UPSERT_SQL,
+                (rs, rowNum) -> new Upserted(rs.getObject(1, UUID.class), rs.getBoolean(2)),
+                did, OffsetDateTime.ofInstant(now, ZoneOffset.UTC));
+        return upserted.get(0);
+    }
+
+    public Map<String, Upserted> upsertAll(Collection<String> dids, Instant now) {
+        Map<String, Upserted> users = new HashMap<>();
+        OffsetDateTime createdAt = OffsetDateTime.ofInstant(now, ZoneOffset.UTC);
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(UPSERT_ALL_SQL);
+            ps.setObject(1, createdAt);
+            ps.setArray(2, con.createArrayOf("text", dids.toArray()));
+            return ps;
+        }, rs -> {
+            users.put(rs.getString(2), new Upserted(rs.getObject(1, UUID.class), rs.getBoolean(3)));
+        });
+        return users;
+    }
+}
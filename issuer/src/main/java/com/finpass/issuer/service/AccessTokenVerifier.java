@@ -0,0 +1,211 @@
+package com.finpass.issuer.service;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Verifies OpenID4VCI access tokens against the issuer's public key, with a cache of
+ * verified tokens.
+ *
+ * A wallet presents the same access token on every credential, batch and deferred
+ * request for the token's lifetime, so each token is parsed and its Ed25519 signature
+ * checked once; later presentations cost a SHA-256 of the token and one map lookup until
+ * the token expires. Only tokens that verified are cached, keyed by the token hash, in a
+ * bounded LRU map.
+ */
+@Component
+public class AccessTokenVerifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccessTokenVerifier.class);
+
+    static final String SCOPE = "credential_request";
+
+    /**
+     * A verified token's claims, valid until the token expires
+     */
+    private record Verified(JWTClaimsSet claims, long expiresAtMillis) {}
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final IssuerKeyProvider keyProvider;
+    private final JWSVerifier verifier;
+    private final String issuerDid;
+    private final String issuerUrl;
+    private final int maxEntries;
+    private final LongSupplier clock;
+    private final LinkedHashMap<ByteBuffer, Verified> verified;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder verifications = new LongAdder();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong totalVerifyNanos = new AtomicLong();
+    private final AtomicLong maxVerifyNanos = new AtomicLong();
+
+    @Autowired
+    public AccessTokenVerifier(IssuerKeyProvider keyProvider,
+                               @Value("${issuer.did}") String issuerDid,
+                               @Value("${issuer.url:http://localhost:8080}") String issuerUrl,
+                               @Value("${openid4vci.access-token-cache.max-entries:10000}") int maxEntries) {
+        this(keyProvider, issuerDid, issuerUrl, maxEntries, System::currentTimeMillis);
+    }
+
+    AccessTokenVerifier(IssuerKeyProvider keyProvider, String issuerDid, String issuerUrl, int maxEntries,
+                        LongSupplier clock) {
+        this.keyProvider = keyProvider;
+        this.verifier = keyProvider.verifier();
+        this.issuerDid = issuerDid;
+        this.issuerUrl = issuerUrl;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+        this.verified = new LinkedHashMap<>(Math.min(maxEntries, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ByteBuffer, Verified> eldest) {
+                if (size() > AccessTokenVerifier.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Claims of a valid access token
+     * @return Claims, or null if the token is malformed, forged, expired or not ours
+     */
+    public JWTClaimsSet verify(String accessToken) {
+        if (accessToken == null || accessToken.isBlank()) {
+            rejected.increment();
+            return null;
+        }
+        long now = clock.getAsLong();
+        ByteBuffer key = hash(accessToken);
+        Verified cached;
+        synchronized (verified) {
+            cached = verified.get(key);
+            if (cached != null && cached.expiresAtMillis() <= now) {
+                verified.remove(key);
+            }
+        }
+        if (cached != null) {
+            if (cached.expiresAtMillis() > now) {
+                hits.increment();
+                return cached.claims();
+            }
+            expired.increment();
+            rejected.increment();
+            return null;
+        }
+
+        misses.increment();
+        long start = System.nanoTime();
+        JWTClaimsSet claims = verifySignedToken(accessToken, now);
+        recordVerify(System.nanoTime() - start);
+        if (claims == null) {
+            rejected.increment();
+            return null;
+        }
+        synchronized (verified) {
+            verified.put(key, new Verified(claims, claims.getExpirationTime().getTime()));
+        }
+        return claims;
+    }
+
+    /**
+     * Cache and verification metrics
+     */
+    public Map<String, Object> getStats() {
+        long hitCount = hits.sum();
+        long lookups = hitCount + misses.sum();
+        long verifyCount = verifications.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (verified) {
+            stats.put("size", verified.size());
+        }
+        stats.put("maxEntries", maxEntries);
+        stats.put("hits", hitCount);
+        stats.put("misses", misses.sum());
+        stats.put("hitRate", lookups > 0 ? (double) hitCount / lookups : 0.0);
+        stats.put("expired", expired.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("evictions", evictions.get());
+        stats.put("verifications", verifyCount);
+        stats.put("maxVerifyLatencyMs", nanosToMillis(maxVerifyNanos.get()));
+        stats.put("avgVerifyLatencyMs", verifyCount > 0 ? nanosToMillis(totalVerifyNanos.get() / verifyCount) : 0.0);
+        return stats;
+    }
+
+    private JWTClaimsSet verifySignedToken(String accessToken, long now) {
+        try {
+            SignedJWT jwt = SignedJWT.parse(accessToken);
+            if (!JWSAlgorithm.EdDSA.equals(jwt.getHeader().getAlgorithm())) {
+                return null;
+            }
+            String keyId = jwt.getHeader().getKeyID();
+            if (keyId != null && !keyId.equals(keyProvider.getKeyId())) {
+                return null;
+            }
+            if (!jwt.verify(verifier)) {
+                logger.warn("Access token signature verification failed");
+                return null;
+            }
+            JWTClaimsSet claims = jwt.getJWTClaimsSet();
+            Date expiration = claims.getExpirationTime();
+            if (expiration == null || expiration.getTime() <= now) {
+                return null;
+            }
+            List<String> audience = claims.getAudience();
+            if (!issuerDid.equals(claims.getIssuer()) || audience == null || !audience.contains(issuerUrl)
+                    || !SCOPE.equals(claims.getClaim("scope"))) {
+                return null;
+            }
+            return claims;
+        } catch (Exception e) {
+            logger.warn("Access token validation failed: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void recordVerify(long elapsedNanos) {
+        verifications.increment();
+        totalVerifyNanos.addAndGet(elapsedNanos);
+        maxVerifyNanos.accumulateAndGet(elapsedNanos, Math::max);
+    }
+
+    private static ByteBuffer hash(String accessToken) {
+        MessageDigest digest = SHA256.get();
+        return ByteBuffer.wrap(digest.digest(accessToken.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    private static double nanosToMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,221 @@
+package com.finpass.issuer.service;
+
+import com.finpass.issuer.entity.AuditEventEntity;
+import com.finpass.issuer.repository.AuditArchiveStore;
+import com.finpass.issuer.repository.AuditEventRowMapper;
+import com.finpass.issuer.repository.AuditSegmentFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Moves audit events older than the hot window from Postgres into compressed segment
+ * files in {@link AuditArchiveStore}.
+ *
+ * Each batch is written and fsynced as a segment before its rows are deleted, so a crash
+ * can at worst leave rows in both tiers; the next run deletes the last segment's rows
+ * again before archiving anything new, and query merging drops duplicates meanwhile.
+ *
+ * Runs hold a transaction-scoped advisory lock on a connection of their own for their
+ * whole duration, so overlapping runs on one node or across issuer nodes never archive
+ * the same rows twice: a run that finds the lock taken skips. The lock goes with the
+ * connection if the node dies mid-run.
+ */
+@Component
+public class AuditArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditArchiver.class);
+
+    static final String SELECT_OLDEST_SQL =
+            "SELECT " + AuditEventRowMapper.COLUMNS + " FROM audit_events " +
+            "WHERE created_at < ? ORDER BY created_at, id LIMIT ?";
+
+    // The created_at bounds let Postgres prune to the partitions the segment spans
+    static final String DELETE_ARCHIVED_SQL =
+            "DELETE FROM audit_events WHERE created_at >= ? AND created_at <= ? AND id = ANY(?)";
+
+    static final String TRY_LOCK_SQL = "SELECT pg_try_advisory_xact_lock(?, 0)";
+
+    // First key of the two-key advisory lock; distinct from the hash chain's
+    static final int LOCK_CLASS = 0x61617263; // "aarc"
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditArchiveStore archiveStore;
+    private final AuditService auditService;
+    private final boolean enabled;
+    private final int hotDays;
+    private final int segmentRows;
+    private final int maxSegmentsPerRun;
+
+    public AuditArchiver(
+            JdbcTemplate jdbcTemplate,
+            AuditArchiveStore archiveStore,
+            AuditService auditService,
+            @Value("${audit.archive.enabled:false}") boolean enabled,
+            @Value("${audit.archive.hot-days:90}") int hotDays,
+            @Value("${audit.archive.segment-rows:100000}") int segmentRows,
+            @Value("${audit.archive.max-segments-per-run:50}") int maxSegmentsPerRun
+    ) {
+        if (hotDays <= 0 || segmentRows <= 0) {
+            throw new IllegalArgumentException("audit.archive.hot-days and segment-rows must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.archiveStore = archiveStore;
+        this.auditService = auditService;
+        this.enabled = enabled;
+        this.hotDays = hotDays;
+        this.segmentRows = segmentRows;
+        this.maxSegmentsPerRun = maxSegmentsPerRun;
+    }
+
+    /**
+     * Nightly archive run
+     */
+    @Scheduled(cron = "${audit.archive.cron:0 45 0 * * *}", zone = "UTC")
+    public void scheduledArchive() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            archive(Instant.now());
+        } catch (Exception e) {
+            logger.error("Audit archive run failed", e);
+        }
+    }
+
+    /**
+     * Archive events created before now - hot-days, oldest first, up to max-segments-per-run
+     * segments
+     *
+     * @return number of events moved to the archive; 0 if another run holds the lock
+     */
+    public long archive(Instant now) throws IOException {
+        try {
+            return jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+                boolean autoCommit = connection.getAutoCommit();
+                connection.setAutoCommit(false);
+                try {
+                    if (!tryLock(connection)) {
+                        logger.info("Skipping audit archive run: another run holds the archive lock");
+                        return 0L;
+                    }
+                    return archiveLocked(now);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } finally {
+                    // Nothing is written on this connection; ending the transaction releases the lock
+                    connection.rollback();
+                    connection.setAutoCommit(autoCommit);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static boolean tryLock(Connection connection) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(TRY_LOCK_SQL)) {
+            ps.setInt(1, LOCK_CLASS);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private long archiveLocked(Instant now) throws IOException {
+        Instant cutoff = now.minus(Duration.ofDays(hotDays));
+        long started = System.currentTimeMillis();
+
+        AuditSegmentFile latest = archiveStore.getLatestSegment();
+        if (latest != null) {
+            int leftover = deleteArchived(latest);
+            if (leftover > 0) {
+                logger.warn("Deleted {} audit events left behind by an interrupted archive run", leftover);
+            }
+        }
+
+        long archived = 0;
+        int segments = 0;
+        while (segments < maxSegmentsPerRun) {
+            List<AuditEventEntity> batch = jdbcTemplate.query(SELECT_OLDEST_SQL, AuditEventRowMapper.INSTANCE,
+                    toUtc(cutoff), segmentRows);
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            AuditSegmentFile segment = archiveStore.append(batch);
+            deleteArchived(segment);
+            archived += batch.size();
+            segments++;
+            logger.info("Archived {} audit events to {} ({} bytes)",
+                    segment.getRowCount(), segment.getPath().getFileName(), segment.getSizeBytes());
+
+            if (batch.size() < segmentRows) {
+                break;
+            }
+        }
+
+        if (archived > 0) {
+            long elapsedMs = System.currentTimeMillis() - started;
+            Map<String, Object> details = new HashMap<>();
+            details.put("action", "ARCHIVE");
+            details.put("cutoff", cutoff.toString());
+            details.put("rows", archived);
+            details.put("segments", segments);
+            details.put("durationMs", elapsedMs);
+            auditService.logEvent(AuditEventEntity.EventType.DATA_ARCHIVED, null, details);
+        }
+        return archived;
+    }
+
+    /**
+     * Delete the segment's rows from the hot table
+     *
+     * @return rows deleted
+     */
+    int deleteArchived(AuditSegmentFile segment) {
+        UUID[] ids = segment.readIds();
+        return jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(DELETE_ARCHIVED_SQL)) {
+                Array idArray = connection.createArrayOf("uuid", ids);
+                ps.setObject(1, toUtc(segment.getMinCreatedAt()));
+                ps.setObject(2, toUtc(segment.getMaxCreatedAt()));
+                ps.setArray(3, idArray);
+                int deleted = ps.executeUpdate();
+                idArray.free();
+                return deleted;
+            }
+        });
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>(archiveStore.getStats());
+        stats.put("enabled", enabled);
+        stats.put("hotDays", hotDays);
+        return stats;
+    }
+
+    private static LocalDateTime toUtc(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+}
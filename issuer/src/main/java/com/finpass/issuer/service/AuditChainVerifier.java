@@ -0,0 +1,302 @@
+package com.finpass.issuer.service;
+
+import com.finpass.issuer.entity.AuditEventEntity;
+import com.finpass.issuer.repository.AuditArchiveStore;
+import com.finpass.issuer.repository.AuditEventRowMapper;
+import com.finpass.issuer.repository.AuditEventSpecifications;
+import com.finpass.issuer.repository.AuditHashChain;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Verifies the audit hash chain (see {@link AuditHashChain}).
+ *
+ * The chain_seq range covering the requested time window is split into segments that
+ * are fetched and checked in parallel on a dedicated ForkJoinPool. Each segment also
+ * reads the row just before it, so links across segment boundaries are checked too.
+ * The earliest break is reported: a missing or duplicated sequence number, a prev_hash
+ * that does not match the previous row, or a hash that does not match the row contents.
+ *
+ * Events moved to {@link AuditArchiveStore} are read back from their segments and merged
+ * with the hot rows, so the chain is checked continuously across the archive boundary.
+ * Only a month that has events in segments written before the chain columns existed is
+ * checked from its first event that still carries chain data.
+ */
+@Service
+public class AuditChainVerifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditChainVerifier.class);
+
+    static final String SEQ_RANGE_SQL =
+            "SELECT min(chain_seq), max(chain_seq) FROM audit_events " +
+            "WHERE created_at >= ? AND created_at < ? AND chain_seq IS NOT NULL";
+
+    static final String FIRST_SEQ_SQL =
+            "SELECT min(chain_seq) FROM audit_events " +
+            "WHERE created_at >= ? AND created_at < ? AND chain_seq IS NOT NULL";
+
+    static final String SEGMENT_SQL =
+            "SELECT " + AuditEventRowMapper.COLUMNS + " FROM audit_events " +
+            "WHERE created_at >= ? AND created_at < ? AND chain_seq >= ? AND chain_seq <= ? " +
+            "ORDER BY chain_seq, id";
+
+    public enum Reason { MISSING_EVENT, DUPLICATE_SEQ, BROKEN_LINK, HASH_MISMATCH }
+
+    /**
+     * First broken link of a month's chain
+     */
+    public record ChainBreak(YearMonth partition, long chainSeq, UUID eventId, Reason reason) {}
+
+    /**
+     * Outcome of a verification run; firstBreak is null when the chain is intact
+     */
+    public record VerificationResult(Instant from, Instant to, long eventsVerified,
+                                     ChainBreak firstBreak, long durationMs) {
+        public boolean isValid() {
+            return firstBreak == null;
+        }
+    }
+
+    private static final Comparator<AuditEventEntity> BY_SEQ =
+            Comparator.comparing(AuditEventEntity::getChainSeq)
+                    .thenComparing(AuditEventEntity::getId, AuditEventSpecifications::compareIds);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditArchiveStore archiveStore;
+    private final AuditService auditService;
+    private final int segmentSize;
+    private final ForkJoinPool pool;
+
+    public AuditChainVerifier(
+            JdbcTemplate jdbcTemplate,
+            AuditArchiveStore archiveStore,
+            AuditService auditService,
+            @Value("${audit.chain.verify-segment-size:50000}") int segmentSize,
+            @Value("${audit.chain.verify-parallelism:4}") int parallelism
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.archiveStore = archiveStore;
+        this.auditService = auditService;
+        this.segmentSize = segmentSize;
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Daily check of the previous UTC day; a break is raised as a critical security event
+     */
+    @Scheduled(cron = "${audit.chain.verify-cron:0 30 1 * * *}", zone = "UTC")
+    public void verifyPreviousDay() {
+        try {
+            Instant to = Instant.now().truncatedTo(ChronoUnit.DAYS);
+            VerificationResult result = verify(to.minus(Duration.ofDays(1)), to);
+            if (!result.isValid()) {
+                ChainBreak broken = result.firstBreak();
+                auditService.logSecurityEvent(null, "AUDIT_CHAIN_BROKEN",
+                        String.format("Audit hash chain broken in %s at seq %d (%s, event %s)",
+                                broken.partition(), broken.chainSeq(), broken.reason(), broken.eventId()),
+                        "CRITICAL");
+            }
+        } catch (Exception e) {
+            logger.error("Audit chain verification failed", e);
+        }
+    }
+
+    /**
+     * Verify every chained event created in [from, to), plus the link into the first one
+     */
+    public VerificationResult verify(Instant from, Instant to) {
+        long started = System.currentTimeMillis();
+        long verified = 0;
+        ChainBreak firstBreak = null;
+
+        YearMonth month = YearMonth.from(from.atOffset(ZoneOffset.UTC));
+        YearMonth last = YearMonth.from(to.minusNanos(1).atOffset(ZoneOffset.UTC));
+        for (; !month.isAfter(last) && firstBreak == null; month = month.plusMonths(1)) {
+            LocalDateTime monthStart = LocalDateTime.of(month.atDay(1), LocalTime.MIDNIGHT);
+            LocalDateTime monthEnd = LocalDateTime.of(month.plusMonths(1).atDay(1), LocalTime.MIDNIGHT);
+            LocalDateTime rangeStart = max(monthStart, toUtc(from));
+            LocalDateTime rangeEnd = min(monthEnd, toUtc(to));
+
+            Map<String, Object> range = jdbcTemplate.queryForMap(SEQ_RANGE_SQL, rangeStart, rangeEnd);
+            Long lo = (Long) range.get("min");
+            Long hi = (Long) range.get("max");
+            long[] archived = archiveStore.chainSeqRange(toInstant(rangeStart), toInstant(rangeEnd));
+            if (archived != null) {
+                lo = lo == null ? archived[0] : Math.min(lo, archived[0]);
+                hi = hi == null ? archived[1] : Math.max(hi, archived[1]);
+            }
+            if (lo == null) {
+                continue;
+            }
+
+            long firstVerifiable = 1;
+            if (archiveStore.hasUnchainedSegments(toInstant(monthStart), toInstant(monthEnd))) {
+                // Rows before the first one with chain data cannot be linked to
+                Long firstHot = jdbcTemplate.queryForObject(FIRST_SEQ_SQL, Long.class, monthStart, monthEnd);
+                long[] archivedMonth = archiveStore.chainSeqRange(toInstant(monthStart), toInstant(monthEnd));
+                firstVerifiable = Math.min(firstHot != null ? firstHot : Long.MAX_VALUE,
+                        archivedMonth != null ? archivedMonth[0] : Long.MAX_VALUE);
+            }
+
+            Segment result = pool.invoke(new SegmentTask(month, monthStart, monthEnd, lo, hi, firstVerifiable));
+            verified += result.verified;
+            firstBreak = result.firstBreak;
+        }
+
+        long elapsedMs = System.currentTimeMillis() - started;
+        logger.info("Audit chain verification of [{}, {}): {} events in {} ms, {}",
+                from, to, verified, elapsedMs, firstBreak == null ? "intact" : "broken at " + firstBreak);
+        return new VerificationResult(from, to, verified, firstBreak, elapsedMs);
+    }
+
+    /**
+     * Result of verifying one seq range; firstBreak is the lowest-seq break in it
+     */
+    private record Segment(long verified, ChainBreak firstBreak) {}
+
+    private final class SegmentTask extends RecursiveTask<Segment> {
+        private final YearMonth month;
+        private final LocalDateTime monthStart;
+        private final LocalDateTime monthEnd;
+        private final long lo;
+        private final long hi;
+        private final long firstVerifiable;
+
+        SegmentTask(YearMonth month, LocalDateTime monthStart, LocalDateTime monthEnd,
+                    long lo, long hi, long firstVerifiable) {
+            this.month = month;
+            this.monthStart = monthStart;
+            this.monthEnd = monthEnd;
+            this.lo = lo;
+            this.hi = hi;
+            this.firstVerifiable = firstVerifiable;
+        }
+
+        @Override
+        protected Segment compute() {
+            if (hi - lo < segmentSize) {
+                return verifySegment();
+            }
+            long mid = lo + (hi - lo) / 2;
+            SegmentTask left = new SegmentTask(month, monthStart, monthEnd, lo, mid, firstVerifiable);
+            SegmentTask right = new SegmentTask(month, monthStart, monthEnd, mid + 1, hi, firstVerifiable);
+            right.fork();
+            Segment leftResult = left.compute();
+            Segment rightResult = right.join();
+            return new Segment(leftResult.verified + rightResult.verified,
+                    leftResult.firstBreak != null ? leftResult.firstBreak : rightResult.firstBreak);
+        }
+
+        private Segment verifySegment() {
+            // Include the predecessor of lo so the link into this segment is checked
+            List<AuditEventEntity> rows = jdbcTemplate.query(SEGMENT_SQL, AuditEventRowMapper.INSTANCE,
+                    monthStart, monthEnd, Math.max(lo - 1, 1), hi);
+            List<AuditEventEntity> archived = archiveStore.readChain(toInstant(monthStart), toInstant(monthEnd),
+                    Math.max(lo - 1, 1), hi);
+            if (!archived.isEmpty()) {
+                rows = merge(rows, archived);
+            }
+
+            byte[] expectedPrev;
+            int start = 0;
+            if (lo == 1) {
+                expectedPrev = AuditHashChain.GENESIS;
+            } else if (lo <= firstVerifiable) {
+                expectedPrev = null;
+            } else if (!rows.isEmpty() && rows.get(0).getChainSeq() == lo - 1) {
+                expectedPrev = rows.get(0).getHash();
+                start = 1;
+            } else {
+                return new Segment(0, new ChainBreak(month, lo - 1, null, Reason.MISSING_EVENT));
+            }
+
+            long expectedSeq = lo;
+            long verified = 0;
+            for (int i = start; i < rows.size(); i++) {
+                AuditEventEntity row = rows.get(i);
+                long seq = row.getChainSeq();
+                if (seq < expectedSeq) {
+                    return new Segment(verified, new ChainBreak(month, seq, row.getId(), Reason.DUPLICATE_SEQ));
+                }
+                if (seq > expectedSeq) {
+                    return new Segment(verified, new ChainBreak(month, expectedSeq, null, Reason.MISSING_EVENT));
+                }
+                if (expectedPrev != null && !Arrays.equals(expectedPrev, row.getPrevHash())) {
+                    return new Segment(verified, new ChainBreak(month, seq, row.getId(), Reason.BROKEN_LINK));
+                }
+                if (row.getPrevHash() == null
+                        || !Arrays.equals(AuditHashChain.hash(row.getPrevHash(), row), row.getHash())) {
+                    return new Segment(verified, new ChainBreak(month, seq, row.getId(), Reason.HASH_MISMATCH));
+                }
+                expectedPrev = row.getHash();
+                expectedSeq++;
+                verified++;
+            }
+            if (expectedSeq <= hi) {
+                return new Segment(verified, new ChainBreak(month, expectedSeq, null, Reason.MISSING_EVENT));
+            }
+            return new Segment(verified, null);
+        }
+    }
+
+    /**
+     * Hot and archived rows in chain order. An interrupted archive run can leave a row in
+     * both tiers; it is kept once, as the hot copy.
+     */
+    private static List<AuditEventEntity> merge(List<AuditEventEntity> hot, List<AuditEventEntity> archived) {
+        List<AuditEventEntity> all = new ArrayList<>(hot);
+        all.addAll(archived);
+        all.sort(BY_SEQ);
+        List<AuditEventEntity> merged = new ArrayList<>(all.size());
+        for (AuditEventEntity row : all) {
+            AuditEventEntity previous = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (previous == null || !previous.getId().equals(row.getId())
+                    || !previous.getChainSeq().equals(row.getChainSeq())) {
+                merged.add(row);
+            }
+        }
+        return merged;
+    }
+
+    private static Instant toInstant(LocalDateTime utc) {
+        return utc.toInstant(ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime toUtc(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
@@ -0,0 +1,395 @@
+package com.finpass.issuer.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.finpass.issuer.entity.AuditEventEntity;
+import com.finpass.issuer.repository.AuditEventBatchWriter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Write-behind pipeline for audit events.
+ *
+ * Callers hand a fully built event to {@link #enqueue(AuditEventEntity)} and return
+ * immediately; the event must not be modified afterwards. A single writer thread
+ * drains the bounded ring buffer and persists events through JDBC batch inserts,
+ * so audit I/O no longer sits inside the caller's transaction.
+ */
+@Component
+public class AuditEventPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditEventPipeline.class);
+
+    static final String SPILL_FILE = "audit-spill.ndjson";
+    static final String REPLAY_FILE = "audit-spill.ndjson.replay";
+
+    /**
+     * What to do when the ring buffer is full
+     */
+    public enum OverflowPolicy {
+        /** Block the caller until the writer frees a slot */
+        BLOCK,
+        /** Drop INFO events, block for everything more severe */
+        DROP_INFO,
+        /** Append overflowing events to a local NDJSON file, replayed when the writer is idle */
+        SPILL_TO_DISK
+    }
+
+    private final AuditEventBatchWriter batchWriter;
+    private final ArrayBlockingQueue<AuditEventEntity> queue;
+    private final int capacity;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final OverflowPolicy overflowPolicy;
+    private final Path spillDirectory;
+    private final long shutdownTimeoutMs;
+    private final ObjectMapper spillMapper;
+    private final Object spillLock = new Object();
+
+    // Producers check running and offer under the read lock, and shutdown clears running
+    // under the write lock, so nothing can be queued after the final drain
+    private final ReentrantReadWriteLock stateLock = new ReentrantReadWriteLock();
+    private volatile boolean running;
+    private Thread writerThread;
+
+    // Metrics
+    private final LongAdder enqueuedEvents = new LongAdder();
+    private final LongAdder droppedEvents = new LongAdder();
+    private final LongAdder spilledEvents = new LongAdder();
+    private final LongAdder writtenEvents = new LongAdder();
+    private final LongAdder failedEvents = new LongAdder();
+    private final LongAdder batchesWritten = new LongAdder();
+    private final AtomicLong lastBatchSize = new AtomicLong();
+    private final AtomicLong maxBatchSize = new AtomicLong();
+    private final AtomicLong lastWriteNanos = new AtomicLong();
+    private final AtomicLong maxWriteNanos = new AtomicLong();
+    private final AtomicLong totalWriteNanos = new AtomicLong();
+
+    public AuditEventPipeline(
+            AuditEventBatchWriter batchWriter,
+            @Value("${audit.pipeline.capacity:8192}") int capacity,
+            @Value("${audit.pipeline.batch-size:500}") int batchSize,
+            @Value("${audit.pipeline.flush-interval-ms:200}") long flushIntervalMs,
+            @Value("${audit.pipeline.overflow-policy:BLOCK}") OverflowPolicy overflowPolicy,
+            @Value("${audit.pipeline.spill-directory:${java.io.tmpdir}/finpass-audit-spill}") String spillDirectory,
+            @Value("${audit.pipeline.shutdown-timeout-ms:10000}") long shutdownTimeoutMs
+    ) {
+        if (capacity <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("Audit pipeline capacity and batch size must be positive");
+        }
+        this.batchWriter = batchWriter;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.overflowPolicy = overflowPolicy;
+        this.spillDirectory = Paths.get(spillDirectory);
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+        this.spillMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    /**
+     * Start the dedicated writer thread
+     */
+    @PostConstruct
+    public void start() {
+        running = true;
+        writerThread = new Thread(this::drainLoop, "audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        logger.info("Audit pipeline started: capacity={}, batchSize={}, overflowPolicy={}",
+                capacity, batchSize, overflowPolicy);
+    }
+
+    /**
+     * Stop accepting work and flush everything still queued
+     */
+    @PreDestroy
+    public void shutdown() {
+        stateLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+        if (writerThread != null) {
+            try {
+                writerThread.join(shutdownTimeoutMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (writerThread.isAlive()) {
+                logger.warn("Audit writer did not finish within {} ms, interrupting", shutdownTimeoutMs);
+                writerThread.interrupt();
+            }
+        }
+
+        // Anything the writer could not get to is written from the shutdown thread
+        List<AuditEventEntity> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (int from = 0; from < remaining.size(); from += batchSize) {
+            writeBatch(remaining.subList(from, Math.min(from + batchSize, remaining.size())));
+        }
+        replaySpill();
+
+        logger.info("Audit pipeline stopped: written={}, dropped={}, failed={}",
+                writtenEvents.sum(), droppedEvents.sum(), failedEvents.sum());
+    }
+
+    /**
+     * Hand an audit event to the writer.
+     *
+     * @return false if the event was dropped by the overflow policy
+     */
+    public boolean enqueue(AuditEventEntity event) {
+        Boolean offered;
+        stateLock.readLock().lock();
+        try {
+            offered = running ? queue.offer(event) : null;
+        } finally {
+            stateLock.readLock().unlock();
+        }
+
+        if (offered == null) {
+            // Pipeline is stopped (startup or shutdown): persist inline rather than lose the event
+            writeBatch(List.of(event));
+            return true;
+        }
+        if (offered) {
+            enqueuedEvents.increment();
+            return true;
+        }
+
+        switch (overflowPolicy) {
+            case DROP_INFO:
+                if (event.isInfo()) {
+                    droppedEvents.increment();
+                    return false;
+                }
+                return enqueueBlocking(event);
+            case SPILL_TO_DISK:
+                spill(List.of(event));
+                return true;
+            case BLOCK:
+            default:
+                return enqueueBlocking(event);
+        }
+    }
+
+    private boolean enqueueBlocking(AuditEventEntity event) {
+        try {
+            while (true) {
+                stateLock.readLock().lock();
+                try {
+                    if (!running) {
+                        break;
+                    }
+                    if (queue.offer(event, flushIntervalMs, TimeUnit.MILLISECONDS)) {
+                        enqueuedEvents.increment();
+                        return true;
+                    }
+                } finally {
+                    stateLock.readLock().unlock();
+                }
+            }
+            writeBatch(List.of(event));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            droppedEvents.increment();
+            logger.warn("Interrupted while waiting to enqueue audit event {}", event.getEventType());
+            return false;
+        }
+    }
+
+    private void drainLoop() {
+        List<AuditEventEntity> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                AuditEventEntity first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    replaySpill();
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // Never let the writer thread die
+                logger.error("Unexpected error in audit writer", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<AuditEventEntity> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            int written = batchWriter.insertBatch(batch);
+            recordBatch(written, System.nanoTime() - start);
+        } catch (Exception e) {
+            if (overflowPolicy == OverflowPolicy.SPILL_TO_DISK) {
+                logger.warn("Failed to write audit batch of {} events, spilling to disk: {}", batch.size(), e.getMessage());
+                spill(batch);
+            } else {
+                failedEvents.add(batch.size());
+                logger.error("Failed to write audit batch of {} events", batch.size(), e);
+            }
+        }
+    }
+
+    private void recordBatch(int size, long elapsedNanos) {
+        writtenEvents.add(size);
+        batchesWritten.increment();
+        lastBatchSize.set(size);
+        maxBatchSize.accumulateAndGet(size, Math::max);
+        lastWriteNanos.set(elapsedNanos);
+        maxWriteNanos.accumulateAndGet(elapsedNanos, Math::max);
+        totalWriteNanos.addAndGet(elapsedNanos);
+    }
+
+    /**
+     * Append events to the spill file
+     */
+    private void spill(List<AuditEventEntity> events) {
+        synchronized (spillLock) {
+            try {
+                Files.createDirectories(spillDirectory);
+                try (BufferedWriter writer = Files.newBufferedWriter(spillDirectory.resolve(SPILL_FILE),
+                        StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                    for (AuditEventEntity event : events) {
+                        writer.write(spillMapper.writeValueAsString(event));
+                        writer.newLine();
+                    }
+                }
+                spilledEvents.add(events.size());
+            } catch (IOException e) {
+                failedEvents.add(events.size());
+                logger.error("Failed to spill {} audit events to {}", events.size(), spillDirectory, e);
+            }
+        }
+    }
+
+    /**
+     * Move spilled events back into the database.
+     * The spill file is rotated first so new overflow can keep appending while we replay;
+     * inserts are idempotent, so a replay interrupted half way is simply retried.
+     */
+    void replaySpill() {
+        Path spillFile = spillDirectory.resolve(SPILL_FILE);
+        Path replayFile = spillDirectory.resolve(REPLAY_FILE);
+
+        try {
+            synchronized (spillLock) {
+                if (!Files.exists(replayFile)) {
+                    if (!Files.exists(spillFile)) {
+                        return;
+                    }
+                    Files.move(spillFile, replayFile, StandardCopyOption.ATOMIC_MOVE);
+                }
+            }
+
+            List<AuditEventEntity> batch = new ArrayList<>(batchSize);
+            int replayed = 0;
+            try (BufferedReader reader = Files.newBufferedReader(replayFile, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    batch.add(spillMapper.readValue(line, AuditEventEntity.class));
+                    if (batch.size() == batchSize) {
+                        replayed += replayBatch(batch);
+                    }
+                }
+            }
+            replayed += replayBatch(batch);
+
+            Files.delete(replayFile);
+            logger.info("Replayed {} spilled audit events", replayed);
+        } catch (Exception e) {
+            logger.warn("Failed to replay spilled audit events, will retry: {}", e.getMessage());
+        }
+    }
+
+    private int replayBatch(List<AuditEventEntity> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        int size = batchWriter.insertBatch(batch);
+        recordBatch(size, System.nanoTime() - start);
+        batch.clear();
+        return size;
+    }
+
+    /**
+     * Pipeline metrics for sizing the buffer under peak load
+     */
+    public Map<String, Object> getStats() {
+        long batches = batchesWritten.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("running", running);
+        stats.put("overflowPolicy", overflowPolicy.name());
+        stats.put("capacity", capacity);
+        stats.put("queueDepth", queue.size());
+        stats.put("remainingCapacity", queue.remainingCapacity());
+        stats.put("enqueuedEvents", enqueuedEvents.sum());
+        stats.put("writtenEvents", writtenEvents.sum());
+        stats.put("droppedEvents", droppedEvents.sum());
+        stats.put("spilledEvents", spilledEvents.sum());
+        stats.put("failedEvents", failedEvents.sum());
+        stats.put("batchesWritten", batches);
+        stats.put("lastBatchSize", lastBatchSize.get());
+        stats.put("maxBatchSize", maxBatchSize.get());
+        stats.put("avgBatchSize", batches > 0 ? (double) writtenEvents.sum() / batches : 0.0);
+        stats.put("lastWriteLatencyMs", nanosToMillis(lastWriteNanos.get()));
+        stats.put("maxWriteLatencyMs", nanosToMillis(maxWriteNanos.get()));
+        stats.put("avgWriteLatencyMs", batches > 0 ? nanosToMillis(totalWriteNanos.get() / batches) : 0.0);
+        return stats;
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    private static double nanosToMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
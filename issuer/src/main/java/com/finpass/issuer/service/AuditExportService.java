@@ -0,0 +1,233 @@
+package com.finpass.issuer.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.finpass.issuer.entity.AuditEventEntity;
+import com.finpass.issuer.repository.AuditEventRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams audit events straight from a database cursor to an output stream as NDJSON or CSV.
+ *
+ * Rows are serialized and detached one at a time, so memory stays flat regardless of
+ * how many events the export covers.
+ */
+@Service
+public class AuditExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditExportService.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    /**
+     * CSV columns in output order
+     */
+    static final Map<String, Function<AuditEventEntity, Object>> CSV_COLUMNS = new LinkedHashMap<>();
+
+    static {
+        CSV_COLUMNS.put("id", AuditEventEntity::getId);
+        CSV_COLUMNS.put("created_at", AuditEventEntity::getCreatedAt);
+        CSV_COLUMNS.put("event_type", AuditEventEntity::getEventType);
+        CSV_COLUMNS.put("severity", AuditEventEntity::getSeverity);
+        CSV_COLUMNS.put("outcome", AuditEventEntity::getOutcome);
+        CSV_COLUMNS.put("user_id_hash", AuditEventEntity::getUserIdHash);
+        CSV_COLUMNS.put("session_id", AuditEventEntity::getSessionId);
+        CSV_COLUMNS.put("ip_address", AuditEventEntity::getIpAddress);
+        CSV_COLUMNS.put("tenant_id", AuditEventEntity::getTenantId);
+        CSV_COLUMNS.put("resource_type", AuditEventEntity::getResourceType);
+        CSV_COLUMNS.put("resource_id", AuditEventEntity::getResourceId);
+        CSV_COLUMNS.put("action", AuditEventEntity::getAction);
+        CSV_COLUMNS.put("description", AuditEventEntity::getDescription);
+        CSV_COLUMNS.put("performed_by", AuditEventEntity::getPerformedBy);
+        CSV_COLUMNS.put("performed_by_role", AuditEventEntity::getPerformedByRole);
+        CSV_COLUMNS.put("correlation_id", AuditEventEntity::getCorrelationId);
+        CSV_COLUMNS.put("request_id", AuditEventEntity::getRequestId);
+        CSV_COLUMNS.put("duration_ms", AuditEventEntity::getDurationMs);
+        CSV_COLUMNS.put("error_code", AuditEventEntity::getErrorCode);
+        CSV_COLUMNS.put("error_message", AuditEventEntity::getErrorMessage);
+        CSV_COLUMNS.put("compliance_flags", AuditEventEntity::getComplianceFlags);
+        CSV_COLUMNS.put("details", AuditEventEntity::getDetails);
+    }
+
+    private final AuditEventRepository auditEventRepository;
+    private final AuditService auditService;
+    private final EntityManager entityManager;
+    private final ObjectWriter ndjsonWriter;
+
+    public AuditExportService(AuditEventRepository auditEventRepository,
+                              AuditService auditService,
+                              EntityManager entityManager,
+                              ObjectMapper objectMapper) {
+        this.auditEventRepository = auditEventRepository;
+        this.auditService = auditService;
+        this.entityManager = entityManager;
+        this.ndjsonWriter = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(SerializationFeature.CLOSE_CLOSEABLE);
+    }
+
+    /**
+     * Write every event in [from, to), optionally of a single type, to the output stream.
+     * The output stream itself is left open; gzip output is finished before returning.
+     *
+     * @return number of rows written
+     */
+    @Transactional(readOnly = true)
+    public long export(Instant from, Instant to, String eventType, Format format, boolean gzip,
+                       OutputStream out) throws IOException {
+        long startNanos = System.nanoTime();
+        long rows;
+
+        OutputStream target = gzip
+                ? new GZIPOutputStream(new NonClosingOutputStream(out), BUFFER_SIZE)
+                : new NonClosingOutputStream(out);
+
+        try (Stream<AuditEventEntity> events = eventType != null
+                ? auditEventRepository.streamEventsByTypeCreatedBetween(eventType, from, to)
+                : auditEventRepository.streamEventsCreatedBetween(from, to);
+             OutputStream sink = target) {
+            rows = format == Format.CSV ? writeCsv(events, sink) : writeNdjson(events, sink);
+        }
+
+        long elapsedMs = Math.max(1, (System.nanoTime() - startNanos) / 1_000_000);
+        long rowsPerSecond = rows * 1000 / elapsedMs;
+        logger.info("Exported {} audit events as {}{} in {} ms ({} rows/sec)",
+                rows, format, gzip ? "+gzip" : "", elapsedMs, rowsPerSecond);
+
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("action", "EXPORT");
+        details.put("resourceType", "AUDIT_EVENTS");
+        details.put("description", "Audit events exported for compliance reporting");
+        details.put("format", format.name());
+        details.put("gzip", gzip);
+        details.put("from", from.toString());
+        details.put("to", to.toString());
+        details.put("eventType", eventType != null ? eventType : "ALL");
+        details.put("rows", rows);
+        details.put("rowsPerSecond", rowsPerSecond);
+        details.put("durationMs", elapsedMs);
+        auditService.logEvent(AuditEventEntity.EventType.DATA_EXPORTED, null, details);
+
+        return rows;
+    }
+
+    private long writeNdjson(Stream<AuditEventEntity> events, OutputStream out) throws IOException {
+        long rows = 0;
+        try (JsonGenerator generator = ndjsonWriter.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            for (AuditEventEntity event : (Iterable<AuditEventEntity>) events::iterator) {
+                ndjsonWriter.writeValue(generator, event);
+                generator.writeRaw('\n');
+                entityManager.detach(event);
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private long writeCsv(Stream<AuditEventEntity> events, OutputStream out) throws IOException {
+        long rows = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        writer.write(String.join(",", CSV_COLUMNS.keySet()));
+        writer.write("\r\n");
+
+        for (AuditEventEntity event : (Iterable<AuditEventEntity>) events::iterator) {
+            boolean first = true;
+            for (Function<AuditEventEntity, Object> column : CSV_COLUMNS.values()) {
+                if (!first) {
+                    writer.write(',');
+                }
+                writeCsvField(writer, column.apply(event));
+                first = false;
+            }
+            writer.write("\r\n");
+            entityManager.detach(event);
+            rows++;
+        }
+        writer.flush();
+        return rows;
+    }
+
+    /**
+     * RFC 4180 quoting: fields containing a comma, quote or line break are quoted
+     */
+    static void writeCsvField(Writer writer, Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        boolean quote = false;
+        for (int i = 0; i < text.length() && !quote; i++) {
+            char c = text.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    /**
+     * Lets the export finish gzip trailers without closing the servlet stream
+     */
+    private static final class NonClosingOutputStream extends FilterOutputStream {
+
+        NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.finpass.issuer.service;
+
+import com.finpass.issuer.entity.AuditEventEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Maintains the monthly partitions of audit_events.
+ *
+ * Future partitions are created ahead of time so inserts never land in the default
+ * partition, and retention is enforced by detaching and dropping whole months instead
+ * of row-by-row DELETEs.
+ */
+@Component
+public class AuditPartitionManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditPartitionManager.class);
+
+    static final String PARENT_TABLE = "audit_events";
+    static final String PARTITION_PREFIX = PARENT_TABLE + "_";
+    static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("'y'yyyy'm'MM");
+
+    private static final String LIST_PARTITIONS_SQL =
+            "SELECT c.relname FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid " +
+            "JOIN pg_class p ON p.oid = i.inhparent " +
+            "WHERE p.relname = ? ORDER BY c.relname";
+
+    /**
+     * Unique (month, chain_seq) of the audit hash chain, one per partition (see V9)
+     */
+    private static final String CHAIN_SEQ_KEY_SQL =
+            "CREATE UNIQUE INDEX IF NOT EXISTS %s_chain_seq_key ON %s " +
+            "((date_trunc('month', created_at)), chain_seq) WHERE chain_seq IS NOT NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditService auditService;
+    private final int premakeMonths;
+    private final int retentionDays;
+
+    public AuditPartitionManager(
+            JdbcTemplate jdbcTemplate,
+            AuditService auditService,
+            @Value("${audit.partitions.premake-months:3}") int premakeMonths,
+            @Value("${audit.partitions.retention-days:2555}") int retentionDays
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.auditService = auditService;
+        this.premakeMonths = premakeMonths;
+        this.retentionDays = retentionDays;
+    }
+
+    /**
+     * Make sure the current month is covered as soon as the application starts
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            ensureFuturePartitions(YearMonth.now(ZoneOffset.UTC));
+        } catch (Exception e) {
+            logger.error("Failed to ensure audit partitions on startup", e);
+        }
+    }
+
+    /**
+     * Daily maintenance: pre-create upcoming months and drop expired ones
+     */
+    @Scheduled(cron = "${audit.partitions.cron:0 15 0 * * *}", zone = "UTC")
+    public void maintainPartitions() {
+        try {
+            ensureFuturePartitions(YearMonth.now(ZoneOffset.UTC));
+            dropExpiredPartitions(Instant.now());
+        } catch (Exception e) {
+            logger.error("Audit partition maintenance failed", e);
+        }
+    }
+
+    /**
+     * Create partitions for the given month and the configured number of months ahead
+     *
+     * @return names of partitions that were created
+     */
+    public List<String> ensureFuturePartitions(YearMonth from) {
+        List<String> existing = listPartitions();
+        List<String> created = new ArrayList<>();
+
+        for (int i = 0; i <= premakeMonths; i++) {
+            YearMonth month = from.plusMonths(i);
+            String name = partitionName(month);
+            if (existing.contains(name)) {
+                continue;
+            }
+
+            jdbcTemplate.execute(String.format(
+                    "CREATE TABLE IF NOT EXISTS %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+                    name, PARENT_TABLE, month.atDay(1), month.plusMonths(1).atDay(1)));
+            jdbcTemplate.execute(String.format(CHAIN_SEQ_KEY_SQL, name, name));
+            created.add(name);
+            logger.info("Created audit partition {}", name);
+        }
+
+        return created;
+    }
+
+    /**
+     * Detach and drop every monthly partition that lies entirely before the retention cutoff.
+     * A partition that still holds rows with a longer per-event retention_days is kept.
+     *
+     * @return names of partitions that were dropped
+     */
+    public List<String> dropExpiredPartitions(Instant now) {
+        LocalDateTime cutoff = LocalDateTime.ofInstant(now, ZoneOffset.UTC).minusDays(retentionDays);
+        List<String> dropped = new ArrayList<>();
+
+        for (String name : listPartitions()) {
+            Optional<YearMonth> month = parsePartitionMonth(name);
+            if (month.isEmpty()) {
+                continue; // default partition or foreign table
+            }
+
+            LocalDateTime upperBound = month.get().plusMonths(1).atDay(1).atStartOfDay();
+            if (upperBound.isAfter(cutoff)) {
+                continue;
+            }
+
+            if (hasExtendedRetention(name, now)) {
+                logger.info("Keeping audit partition {}: contains events with extended retention", name);
+                continue;
+            }
+
+            try {
+                jdbcTemplate.execute(String.format("ALTER TABLE %s DETACH PARTITION %s", PARENT_TABLE, name));
+                jdbcTemplate.execute(String.format("DROP TABLE %s", name));
+                dropped.add(name);
+                logger.info("Dropped expired audit partition {}", name);
+            } catch (Exception e) {
+                logger.error("Failed to drop audit partition {}", name, e);
+            }
+        }
+
+        if (!dropped.isEmpty()) {
+            auditService.logEvent(AuditEventEntity.EventType.DATA_PURGE, null, Map.of(
+                    "action", "PURGE",
+                    "resourceType", "AUDIT_PARTITION",
+                    "performedBy", "system",
+                    "partitions", String.join(",", dropped),
+                    "description", "Dropped " + dropped.size() + " expired audit partition(s)"
+            ));
+        }
+
+        return dropped;
+    }
+
+    /**
+     * Names of all partitions currently attached to audit_events
+     */
+    public List<String> listPartitions() {
+        return jdbcTemplate.queryForList(LIST_PARTITIONS_SQL, String.class, PARENT_TABLE);
+    }
+
+    private boolean hasExtendedRetention(String partition, Instant now) {
+        Boolean retained = jdbcTemplate.queryForObject(String.format(
+                "SELECT EXISTS (SELECT 1 FROM %s WHERE retention_days IS NOT NULL " +
+                "AND created_at + make_interval(days => retention_days) > ?)", partition),
+                Boolean.class, LocalDateTime.ofInstant(now, ZoneOffset.UTC));
+        return Boolean.TRUE.equals(retained);
+    }
+
+    static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + PARTITION_SUFFIX.format(month);
+    }
+
+    static Optional<YearMonth> parsePartitionMonth(String partitionName) {
+        if (partitionName == null || !partitionName.startsWith(PARTITION_PREFIX)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(YearMonth.parse(partitionName.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX));
+        } catch (DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+}
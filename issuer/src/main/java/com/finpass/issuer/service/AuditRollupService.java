@@ -0,0 +1,211 @@
+package com.finpass.issuer.service;
+
+import com.finpass.issuer.repository.AuditRollupRepository;
+import com.finpass.issuer.repository.AuditRollupRepository.Granularity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Answers audit metrics from the rollup buckets instead of scanning audit_events,
+ * and compacts old MINUTE buckets into HOUR and DAY buckets.
+ */
+@Service
+public class AuditRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditRollupService.class);
+
+    /**
+     * Upper bound used for "all time" rollup sums
+     */
+    private static final Instant END_OF_TIME = Instant.parse("9999-01-01T00:00:00Z");
+
+    private final AuditRollupRepository rollupRepository;
+    private final Duration minuteRetention;
+    private final Duration hourRetention;
+
+    public AuditRollupService(
+            AuditRollupRepository rollupRepository,
+            @Value("${audit.rollups.minute-retention-hours:48}") long minuteRetentionHours,
+            @Value("${audit.rollups.hour-retention-days:35}") long hourRetentionDays
+    ) {
+        this.rollupRepository = rollupRepository;
+        this.minuteRetention = Duration.ofHours(minuteRetentionHours);
+        this.hourRetention = Duration.ofDays(hourRetentionDays);
+    }
+
+    /**
+     * Periodic compaction of old buckets
+     */
+    @Scheduled(fixedDelayString = "${audit.rollups.compaction-interval-ms:600000}", initialDelay = 60000)
+    public void compactRollups() {
+        try {
+            compact(Instant.now());
+        } catch (Exception e) {
+            logger.error("Audit rollup compaction failed", e);
+        }
+    }
+
+    /**
+     * Fold MINUTE buckets older than the minute retention into HOUR buckets, then HOUR
+     * buckets older than the hour retention into DAY buckets. Cutoffs are aligned to the
+     * target granularity so a target bucket is only ever built from complete sources.
+     */
+    public Map<String, Object> compact(Instant now) {
+        Instant minuteCutoff = Granularity.HOUR.truncate(now.minus(minuteRetention));
+        Instant hourCutoff = Granularity.DAY.truncate(now.minus(hourRetention));
+
+        int hourBuckets = rollupRepository.fold(Granularity.MINUTE, Granularity.HOUR, minuteCutoff);
+        int dayBuckets = rollupRepository.fold(Granularity.HOUR, Granularity.DAY, hourCutoff);
+
+        if (hourBuckets > 0 || dayBuckets > 0) {
+            logger.info("Compacted audit rollups: {} hour bucket(s) before {}, {} day bucket(s) before {}",
+                    hourBuckets, minuteCutoff, dayBuckets, hourCutoff);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("minuteCutoff", minuteCutoff);
+        result.put("hourCutoff", hourCutoff);
+        result.put("hourBuckets", hourBuckets);
+        result.put("dayBuckets", dayBuckets);
+        return result;
+    }
+
+    /**
+     * Dashboard metrics: all-time totals, breakdowns and recent activity
+     */
+    public Map<String, Object> getMetrics(Instant now) {
+        long total = 0;
+        long errors = 0;
+        long warnings = 0;
+        long critical = 0;
+        long failed = 0;
+        Map<String, Long> eventTypes = new TreeMap<>();
+        Map<String, Long> severities = new TreeMap<>();
+        Map<String, Long> outcomes = new TreeMap<>();
+
+        for (Object[] row : rollupRepository.sumByKey(Instant.EPOCH, END_OF_TIME)) {
+            String eventType = (String) row[0];
+            String severity = (String) row[1];
+            String outcome = (String) row[2];
+            long count = (Long) row[3];
+
+            total += count;
+            switch (severity) {
+                case "ERROR" -> errors += count;
+                case "WARNING" -> warnings += count;
+                case "CRITICAL" -> critical += count;
+                default -> { }
+            }
+            if ("FAILURE".equals(outcome)) {
+                failed += count;
+            }
+            eventTypes.merge(eventType, count, Long::sum);
+            if (!severity.isEmpty()) {
+                severities.merge(severity, count, Long::sum);
+            }
+            if (!outcome.isEmpty()) {
+                outcomes.merge(outcome, count, Long::sum);
+            }
+        }
+
+        Map<String, Object> recentActivity = new HashMap<>();
+        recentActivity.put("lastHour", rollupRepository.sumSince(now.minus(1, ChronoUnit.HOURS)));
+        recentActivity.put("last24Hours", rollupRepository.sumSince(now.minus(1, ChronoUnit.DAYS)));
+        recentActivity.put("last7Days", rollupRepository.sumSince(now.minus(7, ChronoUnit.DAYS)));
+
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("totalEvents", total);
+        metrics.put("errorEvents", errors);
+        metrics.put("warningEvents", warnings);
+        metrics.put("criticalEvents", critical);
+        metrics.put("failedEvents", failed);
+        metrics.put("eventTypes", eventTypes);
+        metrics.put("severityBreakdown", severities);
+        metrics.put("outcomeBreakdown", outcomes);
+        metrics.put("recentActivity", recentActivity);
+        return metrics;
+    }
+
+    /**
+     * Event counts per bucket since the given instant, e.g. per HOUR for the last day or per
+     * DAY for the last month. Buckets already compacted past the requested width are
+     * reported at their own start.
+     */
+    public List<Map<String, Object>> getTimeSeries(Granularity width, Instant from, Instant to) {
+        List<Map<String, Object>> series = new ArrayList<>();
+        for (Object[] row : rollupRepository.countPerBucket(width, from, to)) {
+            Map<String, Object> point = new LinkedHashMap<>();
+            point.put("bucketStart", row[0]);
+            point.put("count", row[1]);
+            series.add(point);
+        }
+        return series;
+    }
+
+    /**
+     * Compare rollup totals with raw counts from audit_events per (event_type, severity, outcome).
+     * The window is widened to whole UTC days so every bucket granularity lies entirely inside or
+     * outside it. Windows whose raw partitions were already dropped by retention will differ.
+     */
+    public Map<String, Object> checkConsistency(Instant from, Instant to) {
+        Instant windowFrom = Granularity.DAY.truncate(from);
+        Instant windowTo = Granularity.DAY.truncate(to);
+        if (windowTo.isBefore(to)) {
+            windowTo = windowTo.plus(1, ChronoUnit.DAYS);
+        }
+
+        Map<String, long[]> byKey = new TreeMap<>();
+        for (Object[] row : rollupRepository.sumByKey(windowFrom, windowTo)) {
+            byKey.computeIfAbsent(key(row), k -> new long[2])[0] += (Long) row[3];
+        }
+        for (Object[] row : rollupRepository.rawCountByKey(windowFrom, windowTo)) {
+            byKey.computeIfAbsent(key(row), k -> new long[2])[1] += (Long) row[3];
+        }
+
+        long rollupTotal = 0;
+        long rawTotal = 0;
+        List<Map<String, Object>> mismatches = new ArrayList<>();
+        for (Map.Entry<String, long[]> entry : byKey.entrySet()) {
+            long[] counts = entry.getValue();
+            rollupTotal += counts[0];
+            rawTotal += counts[1];
+            if (counts[0] != counts[1]) {
+                Map<String, Object> mismatch = new LinkedHashMap<>();
+                mismatch.put("key", entry.getKey());
+                mismatch.put("rollupCount", counts[0]);
+                mismatch.put("rawCount", counts[1]);
+                mismatches.add(mismatch);
+            }
+        }
+
+        if (!mismatches.isEmpty()) {
+            logger.warn("Audit rollups inconsistent for {} - {}: {} key(s) differ", windowFrom, windowTo, mismatches.size());
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("from", windowFrom);
+        result.put("to", windowTo);
+        result.put("rollupTotal", rollupTotal);
+        result.put("rawTotal", rawTotal);
+        result.put("consistent", mismatches.isEmpty());
+        result.put("mismatches", mismatches);
+        return result;
+    }
+
+    private static String key(Object[] row) {
+        return row[0] + "/" + row[1] + "/" + row[2];
+    }
+}
@@ -1,10 +1,19 @@
 package com.finpass.issuer.service;
 
+import com.finpass.issuer.dto.AuditEventCursor;
+import com.finpass.issuer.dto.AuditEventFilter;
+import com.finpass.issuer.dto.AuditEventPage;
 import com.finpass.issuer.entity.AuditEventEntity;
+import com.finpass.issuer.exception.ValidationException;
+import com.finpass.issuer.repository.AuditArchiveStore;
 import com.finpass.issuer.repository.AuditEventRepository;
+import com.finpass.issuer.repository.AuditEventSpecifications;
+import com.finpass.issuer.repository.AuditSearchRepository;
+import com.finpass.issuer.util.AuditJson;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -14,7 +23,11 @@ import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * Service for comprehensive audit logging with privacy compliance
@@ -24,12 +37,27 @@ import java.util.Map;
 public class AuditService {
 
     private static final Logger logger = LoggerFactory.getLogger(AuditService.class);
+
+    /**
+     * Hard cap on the page size of {@link #queryEvents}
+     */
+    public static final int MAX_PAGE_SIZE = 500;
     
     private final AuditEventRepository auditEventRepository;
+    private final AuditEventPipeline auditEventPipeline;
+    private final AuthFailureDetector authFailureDetector;
+    private final AuditSearchRepository auditSearchRepository;
+    private final AuditArchiveStore auditArchiveStore;
 
     @Autowired
-    public AuditService(AuditEventRepository auditEventRepository) {
+    public AuditService(AuditEventRepository auditEventRepository, AuditEventPipeline auditEventPipeline,
+                        AuthFailureDetector authFailureDetector, AuditSearchRepository auditSearchRepository,
+                        AuditArchiveStore auditArchiveStore) {
         this.auditEventRepository = auditEventRepository;
+        this.auditEventPipeline = auditEventPipeline;
+        this.authFailureDetector = authFailureDetector;
+        this.auditSearchRepository = auditSearchRepository;
+        this.auditArchiveStore = auditArchiveStore;
     }
 
     /**
@@ -74,6 +102,8 @@ public class AuditService {
                 auditEvent.setUserAgent(request.getHeader("User-Agent"));
                 auditEvent.setSessionId(request.getSession().getId());
                 auditEvent.setRequestId(request.getHeader("X-Request-ID"));
+            } else if (details.containsKey("ipAddress")) {
+                auditEvent.setIpAddress((String) details.get("ipAddress"));
             }
             
             // Set performance metrics
@@ -114,10 +144,16 @@ public class AuditService {
             // Convert details map to JSON string
             auditEvent.setDetails(convertDetailsToJson(details));
             
-            // Save the audit event
-            auditEventRepository.save(auditEvent);
-            
-            logger.debug("Audit event logged: {} for user: {}", eventType, userId);
+            // Hand off to the write-behind pipeline; persistence happens off the caller's thread
+            if (auditEventPipeline.enqueue(auditEvent)) {
+                logger.debug("Audit event logged: {} for user: {}", eventType, userId);
+            } else {
+                logger.debug("Audit event dropped by overflow policy: {} for user: {}", eventType, userId);
+            }
+
+            if (eventType == AuditEventEntity.EventType.AUTHENTICATION_FAILED) {
+                detectAuthFailureBurst(auditEvent);
+            }
             
         } catch (Exception e) {
             logger.error("Failed to log audit event: {} for user: {}", eventType, userId, e);
@@ -190,6 +226,23 @@ public class AuditService {
         logEvent(AuditEventEntity.EventType.CREDENTIAL_REINSTATED, userId, details);
     }
 
+    /**
+     * Log one batch of credentials expired by the expiry sweeper
+     */
+    public void logCredentialsExpired(List<String> credentialIds, Instant expiredBefore) {
+        Map<String, Object> details = Map.of(
+            "action", "EXPIRE",
+            "resourceType", "CREDENTIAL",
+            "credentialIds", credentialIds,
+            "count", credentialIds.size(),
+            "expiredBefore", expiredBefore.toString(),
+            "performedBy", "system",
+            "description", "Credentials expired: " + credentialIds.size()
+        );
+
+        logEvent(AuditEventEntity.EventType.CREDENTIAL_EXPIRED, null, details);
+    }
+
     /**
      * Log presentation verification event
      */
@@ -272,16 +325,50 @@ public class AuditService {
             AuditEventEntity.EventType.USER_LOGIN : 
             AuditEventEntity.EventType.AUTHENTICATION_FAILED;
             
-        Map<String, Object> details = Map.of(
+        Map<String, Object> details = new HashMap<>(Map.of(
             "action", "LOGIN",
             "outcome", success ? "SUCCESS" : "FAILURE",
             "severity", success ? "INFO" : "WARNING",
             "description", success ? "User logged in successfully" : "Authentication failed: " + reason
-        );
+        ));
+        if (ipAddress != null) {
+            details.put("ipAddress", ipAddress);
+        }
         
         logEvent(eventType, userId, details);
     }
 
+    /**
+     * Feed a failed authentication to the sliding-window detector and raise a security
+     * event for every IP or user that just crossed its threshold
+     */
+    private void detectAuthFailureBurst(AuditEventEntity auditEvent) {
+        for (AuthFailureDetector.Alert alert : authFailureDetector.recordFailure(
+                auditEvent.getIpAddress(), auditEvent.getUserIdHash())) {
+            String subject = alert.subject() == AuthFailureDetector.Subject.IP
+                    ? "IP " + alert.value()
+                    : "user hash " + alert.value();
+            logSecurityEvent(null, "AUTH_FAILURE_BURST",
+                    "Suspicious authentication activity: " + alert.failures() + " failures from " + subject
+                            + " within " + alert.windowSeconds() + "s",
+                    "CRITICAL");
+        }
+    }
+
+    /**
+     * Whether the IP currently exceeds the failed-authentication threshold (O(1), for request filters)
+     */
+    public boolean isSuspiciousIp(String ipAddress) {
+        return authFailureDetector.isSuspiciousIp(ipAddress);
+    }
+
+    /**
+     * Get sliding-window detector metrics
+     */
+    public Map<String, Object> getDetectorStats() {
+        return authFailureDetector.getStats();
+    }
+
     /**
      * Log user registration event
      */
@@ -330,7 +417,7 @@ public class AuditService {
                 "sourceSystem", "finpass-issuer",
                 "description", description,
                 "performedBy", "system",
-                "additionalDetails", convertDetailsToJson(details)
+                "additionalDetails", details
             );
         }
         
@@ -384,95 +471,173 @@ public class AuditService {
     }
 
     /**
-     * Convert details map to JSON string
+     * Convert details map to JSON for the JSONB details column
      */
     private String convertDetailsToJson(Map<String, Object> details) {
-        if (details == null || details.isEmpty()) {
-            return null;
+        return AuditJson.toJson(details);
+    }
+
+    /**
+     * Get cold archive size and coverage
+     */
+    public Map<String, Object> getArchiveStats() {
+        return auditArchiveStore.getStats();
+    }
+
+    /**
+     * Get audit pipeline metrics (queue depth, batch sizes, write latency)
+     */
+    public Map<String, Object> getPipelineStats() {
+        return auditEventPipeline.getStats();
+    }
+
+    /**
+     * Query one keyset page of events matching the filter, newest first.
+     * Fetches size + 1 rows to detect a following page, so no COUNT query is issued.
+     * When the time range reaches into the cold archive, archived events are merged in
+     * keyset order, so callers page across both tiers with the same cursor.
+     *
+     * @param cursor token from a previous page's next_cursor, or null for the first page
+     * @param size   requested page size, clamped to [1, MAX_PAGE_SIZE]
+     */
+    @Transactional(readOnly = true)
+    public AuditEventPage queryEvents(AuditEventFilter filter, String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        AuditEventCursor after = cursor != null && !cursor.isBlank() ? AuditEventCursor.decode(cursor) : null;
+
+        Specification<AuditEventEntity> spec = AuditEventSpecifications.matching(filter);
+        if (after != null) {
+            spec = spec.and(AuditEventSpecifications.after(after));
         }
-        
-        try {
-            StringBuilder json = new StringBuilder("{");
-            boolean first = true;
-            
-            for (Map.Entry<String, Object> entry : details.entrySet()) {
-                if (!first) {
-                    json.append(",");
-                }
-                json.append("\"").append(entry.getKey()).append("\":");
-                
-                Object value = entry.getValue();
-                if (value instanceof String) {
-                    json.append("\"").append(value.toString().replace("\"", "\\\"")).append("\"");
-                } else {
-                    json.append(value.toString());
+
+        List<AuditEventEntity> rows = auditEventRepository.findBy(spec, query -> query
+                .sortBy(AuditEventSpecifications.KEYSET_ORDER)
+                .limit(limit + 1)
+                .all());
+
+        if (auditArchiveStore.overlaps(filter.getFrom(), filter.getTo())) {
+            rows = mergeKeyset(rows, auditArchiveStore.query(filter, after, limit + 1), limit + 1);
+        }
+
+        if (rows.size() <= limit) {
+            return new AuditEventPage(rows, null);
+        }
+
+        List<AuditEventEntity> page = rows.subList(0, limit);
+        AuditEventEntity last = page.get(limit - 1);
+        return new AuditEventPage(page, new AuditEventCursor(last.getCreatedAt(), last.getId()).encode());
+    }
+
+    /**
+     * Merge two lists already in keyset order, keeping at most limit rows. A row present in
+     * both tiers (archived but not yet deleted from the hot table) is kept once.
+     */
+    static List<AuditEventEntity> mergeKeyset(List<AuditEventEntity> hot,
+                                              List<AuditEventEntity> cold, int limit) {
+        List<AuditEventEntity> merged = new ArrayList<>(Math.min(limit, hot.size() + cold.size()));
+        int h = 0;
+        int c = 0;
+        while (merged.size() < limit && (h < hot.size() || c < cold.size())) {
+            int order = h == hot.size() ? 1 : c == cold.size() ? -1
+                    : AuditEventSpecifications.KEYSET_COMPARATOR.compare(hot.get(h), cold.get(c));
+            if (order <= 0) {
+                merged.add(hot.get(h++));
+                if (order == 0) {
+                    c++;
                 }
-                
-                first = false;
+            } else {
+                merged.add(cold.get(c++));
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Ranked full-text search over descriptions and details within [from, to), one keyset
+     * page at a time. Uses the same size + 1 probe and page-size cap as {@link #queryEvents}.
+     */
+    @Transactional(readOnly = true)
+    public AuditEventPage searchEvents(String query, Instant from, Instant to, String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        AuditEventCursor after = null;
+        if (cursor != null && !cursor.isBlank()) {
+            after = AuditEventCursor.decode(cursor);
+            if (after.getRank() == null) {
+                throw new ValidationException("INVALID_CURSOR", "Cursor does not belong to a search result");
             }
-            
-            json.append("}");
-            return json.toString();
-            
-        } catch (Exception e) {
-            logger.error("Failed to convert details to JSON", e);
-            return details.toString();
         }
+
+        List<AuditSearchRepository.SearchHit> hits =
+                auditSearchRepository.search(query, from, to, after, limit + 1);
+
+        List<AuditEventEntity> events = hits.stream()
+                .limit(limit)
+                .map(AuditSearchRepository.SearchHit::event)
+                .collect(Collectors.toList());
+
+        if (hits.size() <= limit) {
+            return new AuditEventPage(events, null);
+        }
+
+        AuditSearchRepository.SearchHit last = hits.get(limit - 1);
+        String nextCursor = new AuditEventCursor(last.rank(), last.event().getCreatedAt(), last.event().getId()).encode();
+        return new AuditEventPage(events, nextCursor);
     }
 
     /**
      * Get events created between two timestamps
      */
-    public java.util.List<AuditEventEntity> getEventsCreatedBetween(Instant start, Instant end) {
+    public List<AuditEventEntity> getEventsCreatedBetween(Instant start, Instant end) {
         return auditEventRepository.findEventsCreatedBetween(start, end);
     }
 
     /**
      * Get recent events since a timestamp
      */
-    public java.util.List<AuditEventEntity> getRecentEvents(Instant since) {
+    public List<AuditEventEntity> getRecentEvents(Instant since) {
         return auditEventRepository.findEventsCreatedBetween(since, Instant.now());
     }
 
     /**
      * Find security events
      */
-    public java.util.List<AuditEventEntity> findSecurityEvents() {
+    public List<AuditEventEntity> findSecurityEvents() {
         return auditEventRepository.findByEventType("SECURITY_BREACH_ATTEMPT");
     }
 
     /**
      * Find error events
      */
-    public java.util.List<AuditEventEntity> findErrorEvents() {
+    public List<AuditEventEntity> findErrorEvents() {
         return auditEventRepository.findBySeverity("ERROR");
     }
 
     /**
      * Find failed authentications
      */
-    public java.util.List<AuditEventEntity> findFailedAuthentications() {
+    public List<AuditEventEntity> findFailedAuthentications() {
         return auditEventRepository.findByEventType("AUTHENTICATION_FAILED");
     }
 
     /**
      * Get compliance report data
      */
-    public java.util.List<Object[]> getComplianceReport(Instant start, Instant end) {
+    public List<Object[]> getComplianceReport(Instant start, Instant end) {
         return auditEventRepository.getComplianceReport(start, end);
     }
 
     /**
      * Find suspicious activities
      */
-    public java.util.List<Object[]> findSuspiciousActivities(Instant since, int threshold) {
+    public List<Object[]> findSuspiciousActivities(Instant since, int threshold) {
         return auditEventRepository.findSuspiciousActivities(since, threshold);
     }
 
     /**
      * Get user activity timeline
      */
-    public java.util.List<AuditEventEntity> getUserActivityTimeline(String userIdHash) {
+    public List<AuditEventEntity> getUserActivityTimeline(String userIdHash) {
         return auditEventRepository.findByUserIdHashOrderByCreatedAtDesc(userIdHash);
     }
 
@@ -486,17 +651,17 @@ public class AuditService {
     /**
      * Get events for a specific user
      */
-    public java.util.List<AuditEventEntity> getUserEvents(String userIdHash) {
+    public List<AuditEventEntity> getUserEvents(String userIdHash) {
         return auditEventRepository.findByUserIdHash(userIdHash);
     }
 
     /**
      * Get events by type and date range
      */
-    public java.util.List<AuditEventEntity> getEventsByTypeAndDateRange(
+    public List<AuditEventEntity> getEventsByTypeAndDateRange(
             AuditEventEntity.EventType eventType, Instant start, Instant end) {
         return auditEventRepository.findEventsCreatedBetween(start, end).stream()
                 .filter(event -> eventType.name().equals(event.getEventType()))
-                .collect(java.util.stream.Collectors.toList());
+                .collect(Collectors.toList());
     }
 }
@@ -0,0 +1,369 @@
+package com.finpass.issuer.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Streaming detector for bursts of failed authentications.
+ *
+ * Keeps a sliding-window failure counter per client IP and per user hash, fed by
+ * AuditService as AUTHENTICATION_FAILED events are logged. Counters live in bounded
+ * LRU maps keyed by a 64-bit hash of the IP or user hash, so memory is capped no matter
+ * how many distinct sources are seen. {@link #isSuspiciousIp} is O(1) and safe to call
+ * from request filters.
+ */
+@Component
+public class AuthFailureDetector {
+
+    public enum Subject { IP, USER }
+
+    /**
+     * Raised once per window when a subject crosses its threshold
+     */
+    public record Alert(Subject subject, String value, int failures, int windowSeconds) {}
+
+    private final int bucketSeconds;
+    private final int bucketCount;
+    private final int ipThreshold;
+    private final int userThreshold;
+    private final LongSupplier clock;
+
+    private final CounterMap ipCounters;
+    private final CounterMap userCounters;
+
+    private final LongAdder recordedFailures = new LongAdder();
+    private final LongAdder alertsRaised = new LongAdder();
+
+    public AuthFailureDetector(
+            @Value("${audit.detector.window-seconds:300}") int windowSeconds,
+            @Value("${audit.detector.bucket-seconds:10}") int bucketSeconds,
+            @Value("${audit.detector.ip-threshold:20}") int ipThreshold,
+            @Value("${audit.detector.user-threshold:10}") int userThreshold,
+            @Value("${audit.detector.max-tracked:100000}") int maxTracked
+    ) {
+        this(windowSeconds, bucketSeconds, ipThreshold, userThreshold, maxTracked, System::currentTimeMillis);
+    }
+
+    AuthFailureDetector(int windowSeconds, int bucketSeconds, int ipThreshold, int userThreshold,
+                        int maxTracked, LongSupplier clock) {
+        if (bucketSeconds <= 0 || windowSeconds < bucketSeconds) {
+            throw new IllegalArgumentException("window-seconds must be >= bucket-seconds > 0");
+        }
+        this.bucketSeconds = bucketSeconds;
+        this.bucketCount = windowSeconds / bucketSeconds;
+        this.ipThreshold = ipThreshold;
+        this.userThreshold = userThreshold;
+        this.clock = clock;
+        this.ipCounters = new CounterMap(maxTracked);
+        this.userCounters = new CounterMap(maxTracked);
+    }
+
+    /**
+     * Record one failed authentication. Either argument may be null.
+     *
+     * @return alerts for subjects that crossed their threshold with this failure
+     */
+    public List<Alert> recordFailure(String ipAddress, String userIdHash) {
+        long bucket = currentBucket();
+        List<Alert> alerts = new ArrayList<>(2);
+        recordedFailures.increment();
+
+        if (ipAddress != null) {
+            int failures = ipCounters.increment(key(ipAddress), bucket, ipThreshold);
+            if (failures > 0) {
+                alerts.add(new Alert(Subject.IP, ipAddress, failures, windowSeconds()));
+            }
+        }
+        if (userIdHash != null) {
+            int failures = userCounters.increment(key(userIdHash), bucket, userThreshold);
+            if (failures > 0) {
+                alerts.add(new Alert(Subject.USER, userIdHash, failures, windowSeconds()));
+            }
+        }
+
+        alertsRaised.add(alerts.size());
+        return alerts;
+    }
+
+    /**
+     * Whether the IP has at least ip-threshold failures in the current window
+     */
+    public boolean isSuspiciousIp(String ipAddress) {
+        return ipAddress != null && ipCounters.count(key(ipAddress), currentBucket()) >= ipThreshold;
+    }
+
+    /**
+     * Whether the user hash has at least user-threshold failures in the current window
+     */
+    public boolean isSuspiciousUser(String userIdHash) {
+        return userIdHash != null && userCounters.count(key(userIdHash), currentBucket()) >= userThreshold;
+    }
+
+    /**
+     * Failures recorded for the IP in the current window
+     */
+    public int getIpFailures(String ipAddress) {
+        return ipAddress != null ? ipCounters.count(key(ipAddress), currentBucket()) : 0;
+    }
+
+    /**
+     * Detector metrics
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("windowSeconds", windowSeconds());
+        stats.put("bucketSeconds", bucketSeconds);
+        stats.put("ipThreshold", ipThreshold);
+        stats.put("userThreshold", userThreshold);
+        stats.put("trackedIps", ipCounters.size());
+        stats.put("trackedUsers", userCounters.size());
+        stats.put("evictions", ipCounters.evictions() + userCounters.evictions());
+        stats.put("recordedFailures", recordedFailures.sum());
+        stats.put("alertsRaised", alertsRaised.sum());
+        return stats;
+    }
+
+    private int windowSeconds() {
+        return bucketCount * bucketSeconds;
+    }
+
+    private long currentBucket() {
+        return clock.getAsLong() / 1000 / bucketSeconds;
+    }
+
+    /**
+     * 64-bit FNV-1a; collisions between distinct IPs or user hashes are negligible at this width
+     */
+    static long key(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Ring of per-bucket counts with a running total; advancing expires old buckets,
+     * so both increment and read are amortized O(1).
+     */
+    final class WindowCounter {
+        private final int[] counts = new int[bucketCount];
+        private long lastBucket;
+        private int total;
+        private long alertedBucket = -1;
+
+        WindowCounter(long bucket) {
+            this.lastBucket = bucket;
+        }
+
+        void advance(long bucket) {
+            if (bucket <= lastBucket) {
+                return;
+            }
+            if (bucket - lastBucket >= bucketCount) {
+                Arrays.fill(counts, 0);
+                total = 0;
+            } else {
+                for (long b = lastBucket + 1; b <= bucket; b++) {
+                    int index = (int) (b % bucketCount);
+                    total -= counts[index];
+                    counts[index] = 0;
+                }
+            }
+            lastBucket = bucket;
+        }
+
+        /**
+         * @return the window total if this increment should raise an alert, otherwise 0
+         */
+        int increment(long bucket, int threshold) {
+            advance(bucket);
+            counts[(int) (bucket % bucketCount)]++;
+            total++;
+            // One alert per window: re-arm only after the previous alert has slid out
+            if (total >= threshold && (alertedBucket < 0 || bucket - alertedBucket >= bucketCount)) {
+                alertedBucket = bucket;
+                return total;
+            }
+            return 0;
+        }
+
+        int count(long bucket) {
+            advance(bucket);
+            return total;
+        }
+    }
+
+    /**
+     * Bounded access-ordered map of counters; the least recently touched key is evicted.
+     *
+     * Keys are the 64-bit hashes from {@link #key}, so the map is an open-addressing table of
+     * primitive longs with the LRU order threaded through int link arrays: no boxed key or
+     * map entry is allocated per failure. Only eviction frees a node and the new key takes
+     * its slot straight away, so live nodes always occupy 0..size-1.
+     */
+    final class CounterMap {
+        private static final int NIL = -1;
+
+        private final int maxSize;
+        private long[] keys;
+        private WindowCounter[] counters;
+        private int[] prev;
+        private int[] next;
+        /** node index + 1 per slot, 0 for an empty slot; at most half full */
+        private int[] table;
+        private int size;
+        private int eldest = NIL;
+        private int newest = NIL;
+        private long evictions;
+
+        CounterMap(int maxSize) {
+            this.maxSize = maxSize;
+            allocate(Math.max(1, Math.min(maxSize, 1024)));
+        }
+
+        synchronized int increment(long key, long bucket, int threshold) {
+            int node = find(key);
+            if (node == NIL) {
+                node = insert(key, bucket);
+            } else {
+                touch(node);
+            }
+            return counters[node].increment(bucket, threshold);
+        }
+
+        synchronized int count(long key, long bucket) {
+            int node = find(key);
+            if (node == NIL) {
+                return 0;
+            }
+            touch(node);
+            return counters[node].count(bucket);
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized long evictions() {
+            return evictions;
+        }
+
+        private int find(long key) {
+            int mask = table.length - 1;
+            for (int slot = slot(key, mask); table[slot] != 0; slot = (slot + 1) & mask) {
+                int node = table[slot] - 1;
+                if (keys[node] == key) {
+                    return node;
+                }
+            }
+            return NIL;
+        }
+
+        private int insert(long key, long bucket) {
+            int node;
+            if (size >= maxSize) {
+                node = eldest;
+                removeFromTable(node);
+                unlink(node);
+                evictions++;
+            } else {
+                if (size == keys.length) {
+                    allocate(Math.min(maxSize, keys.length * 2));
+                }
+                node = size++;
+            }
+            keys[node] = key;
+            counters[node] = new WindowCounter(bucket);
+            addToTable(node);
+            linkNewest(node);
+            return node;
+        }
+
+        private void touch(int node) {
+            if (node != newest) {
+                unlink(node);
+                linkNewest(node);
+            }
+        }
+
+        private void linkNewest(int node) {
+            prev[node] = newest;
+            next[node] = NIL;
+            if (newest != NIL) {
+                next[newest] = node;
+            } else {
+                eldest = node;
+            }
+            newest = node;
+        }
+
+        private void unlink(int node) {
+            if (prev[node] != NIL) {
+                next[prev[node]] = next[node];
+            } else {
+                eldest = next[node];
+            }
+            if (next[node] != NIL) {
+                prev[next[node]] = prev[node];
+            } else {
+                newest = prev[node];
+            }
+        }
+
+        private void addToTable(int node) {
+            int mask = table.length - 1;
+            int slot = slot(keys[node], mask);
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = node + 1;
+        }
+
+        /**
+         * Linear-probing delete: shift later entries of the probe run back into the gap
+         * so lookups never stop early on a hole
+         */
+        private void removeFromTable(int node) {
+            int mask = table.length - 1;
+            int gap = slot(keys[node], mask);
+            while (table[gap] != node + 1) {
+                gap = (gap + 1) & mask;
+            }
+            for (int slot = (gap + 1) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+                int home = slot(keys[table[slot] - 1], mask);
+                if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                    table[gap] = table[slot];
+                    gap = slot;
+                }
+            }
+            table[gap] = 0;
+        }
+
+        private void allocate(int capacity) {
+            keys = keys == null ? new long[capacity] : Arrays.copyOf(keys, capacity);
+            counters = counters == null ? new WindowCounter[capacity] : Arrays.copyOf(counters, capacity);
+            prev = prev == null ? new int[capacity] : Arrays.copyOf(prev, capacity);
+            next = next == null ? new int[capacity] : Arrays.copyOf(next, capacity);
+            table = new int[Integer.highestOneBit(capacity * 2 - 1) << 1];
+            for (int node = 0; node < size; node++) {
+                addToTable(node);
+            }
+        }
+
+        private static int slot(long key, int mask) {
+            int h = Long.hashCode(key) * 0x9E3779B9;
+            return (h ^ (h >>> 16)) & mask;
+        }
+    }
+}
@@ -5,9 +5,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.web3j.abi.FunctionEncoder;
+import org.web3j.abi.datatypes.Function;
+import org.web3j.abi.datatypes.generated.Bytes32;
+import org.web3j.abi.datatypes.generated.Uint64;
 import org.web3j.crypto.Credentials;
+import org.web3j.crypto.Hash;
 import org.web3j.protocol.Web3j;
 import org.web3j.protocol.core.methods.response.EthGetTransactionReceipt;
+import org.web3j.protocol.core.methods.response.EthSendTransaction;
 import org.web3j.protocol.core.methods.response.TransactionReceipt;
 import org.web3j.protocol.http.HttpService;
 import org.web3j.tx.RawTransactionManager;
@@ -16,6 +22,9 @@ import org.web3j.tx.gas.ContractGasProvider;
 import org.web3j.utils.Numeric;
 
 import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
@@ -43,8 +52,6 @@ public class BlockchainService {
     }
     
     // Initialize transaction manager
-    // NOTE: Currently unused but kept for future real blockchain contract interaction
-    @SuppressWarnings("unused")
     private TransactionManager getTransactionManager() {
         if (transactionManager == null) {
             if (config.getPrivateKey() == null || config.getPrivateKey().isEmpty()) {
@@ -52,14 +59,12 @@ public class BlockchainService {
             }
             
             Credentials credentials = Credentials.create(config.getPrivateKey());
-            transactionManager = new RawTransactionManager(getWeb3j(), credentials);
+            transactionManager = new RawTransactionManager(getWeb3j(), credentials, config.getChainId());
         }
         return transactionManager;
     }
     
     // Initialize gas provider
-    // NOTE: Currently unused but kept for future real blockchain contract interaction
-    @SuppressWarnings("unused")
     private ContractGasProvider getGasProvider() {
         if (gasProvider == null) {
             gasProvider = new ContractGasProvider() {
@@ -167,6 +172,63 @@ public class BlockchainService {
         }
     }
     
+    /**
+     * Anchor the Merkle root of a range of the issuer's revocation change log on the DID
+     * registry, one transaction per root
+     * @param did The issuer DID
+     * @param root 32-byte Merkle root over the changes in (fromSeq, toSeq]
+     * @param fromSeq Last change sequence number covered by the previous root
+     * @param toSeq Last change sequence number covered by this root
+     * @return Transaction hash if submitted, null otherwise
+     */
+    public String anchorRevocationRoot(String did, byte[] root, long fromSeq, long toSeq) {
+        try {
+            if (config.getContractAddress() == null || config.getContractAddress().isEmpty()) {
+                logger.warn("Contract address not configured, skipping revocation root anchoring");
+                return null;
+            }
+            
+            Function function = new Function("anchorRevocationRoot",
+                List.of(new Bytes32(Hash.sha3(did.getBytes(StandardCharsets.UTF_8))), new Bytes32(root),
+                        new Uint64(fromSeq), new Uint64(toSeq)),
+                Collections.emptyList());
+            EthSendTransaction transaction = getTransactionManager().sendTransaction(
+                getGasProvider().getGasPrice(function.getName()),
+                getGasProvider().getGasLimit(function.getName()),
+                config.getContractAddress(),
+                FunctionEncoder.encode(function),
+                BigInteger.ZERO);
+            if (transaction.hasError()) {
+                logger.error("Revocation root anchoring rejected: {}", transaction.getError().getMessage());
+                return null;
+            }
+            
+            logger.info("Anchored revocation root for changes {}-{} with transaction hash: {}",
+                       fromSeq + 1, toSeq, transaction.getTransactionHash());
+            return transaction.getTransactionHash();
+            
+        } catch (Exception e) {
+            logger.error("Failed to anchor revocation root for changes {}-{}", fromSeq + 1, toSeq, e);
+            return null;
+        }
+    }
+    
+    /**
+     * Get the receipt of a transaction without waiting for it
+     * @param transactionHash Transaction hash to look up
+     * @return Transaction receipt if mined, null otherwise
+     */
+    public TransactionReceipt getTransactionReceipt(String transactionHash) {
+        try {
+            return getWeb3j().ethGetTransactionReceipt(transactionHash).send()
+                .getTransactionReceipt()
+                .orElse(null);
+        } catch (Exception e) {
+            logger.error("Failed to get transaction receipt: {}", transactionHash, e);
+            return null;
+        }
+    }
+    
     /**
      * Wait for transaction confirmation
      * @param transactionHash Transaction hash to wait for
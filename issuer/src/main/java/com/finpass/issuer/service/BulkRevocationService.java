@@ -0,0 +1,203 @@
+package com.finpass.issuer.service;
+
+import com.finpass.issuer.dto.BulkStatusResponse;
+import com.finpass.issuer.entity.CredentialStatusEntity;
+import com.finpass.issuer.repository.CredentialStatusBulkRepository;
+import com.finpass.issuer.repository.CredentialStatusChangeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Revokes, suspends or reinstates many credentials at once.
+ *
+ * IDs are consumed lazily (so a streamed request body is never held in full) and applied
+ * in chunks, each chunk one transaction running a single set-based UPDATE. Status list
+ * bits and the status index are updated once per chunk rather than once per credential.
+ */
+@Service
+public class BulkRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkRevocationService.class);
+
+    /**
+     * Failures listed individually in a response; further failures are only counted
+     */
+    static final int MAX_REPORTED_FAILURES = 10_000;
+
+    public enum Action {
+        REVOKE, SUSPEND, REINSTATE;
+
+        public String value() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        public static Action fromValue(String value) {
+            return Action.valueOf(value.toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private final CredentialStatusBulkRepository bulkRepository;
+    private final CredentialStatusChangeRepository statusChangeRepository;
+    private final StatusListService statusListService;
+    private final CredentialStatusIndex statusIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    @Autowired
+    public BulkRevocationService(CredentialStatusBulkRepository bulkRepository,
+                                 CredentialStatusChangeRepository statusChangeRepository,
+                                 StatusListService statusListService,
+                                 CredentialStatusIndex statusIndex,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${revocation.bulk.chunk-size:1000}") int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("revocation.bulk.chunk-size must be positive");
+        }
+        this.bulkRepository = bulkRepository;
+        this.statusChangeRepository = statusChangeRepository;
+        this.statusListService = statusListService;
+        this.statusIndex = statusIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Apply an action to every credential ID; a revocation reason is required to revoke
+     */
+    public BulkStatusResponse apply(Action action, Iterator<String> credentialIds, String performedBy,
+                                    CredentialStatusEntity.RevocationReason reason, String description) {
+        if (performedBy == null || performedBy.isBlank()) {
+            throw new IllegalArgumentException("Performed by is required");
+        }
+        if (action == Action.REVOKE && reason == null) {
+            throw new IllegalArgumentException("Revocation reason is required");
+        }
+
+        long start = System.nanoTime();
+        Map<BulkStatusResponse.Result, Long> results = new EnumMap<>(BulkStatusResponse.Result.class);
+        List<BulkStatusResponse.Failure> failures = new ArrayList<>();
+        Set<UUID> seen = new HashSet<>();
+        Set<UUID> chunk = new LinkedHashSet<>();
+        long requested = 0;
+
+        while (credentialIds.hasNext()) {
+            String raw = credentialIds.next();
+            requested++;
+            UUID id = parse(raw);
+            if (id == null) {
+                fail(results, failures, raw, BulkStatusResponse.Result.INVALID_ID);
+            } else if (!seen.add(id)) {
+                fail(results, failures, raw, BulkStatusResponse.Result.DUPLICATE);
+            } else {
+                chunk.add(id);
+                if (chunk.size() == chunkSize) {
+                    applyChunk(action, chunk, performedBy, reason, description, results, failures);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            applyChunk(action, chunk, performedBy, reason, description, results, failures);
+        }
+
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+        BulkStatusResponse response = new BulkStatusResponse(action.value(), requested, results, failures, durationMs);
+        logger.info("Bulk {} by {}: {} of {} updated in {} ms ({}/s)",
+                action.value(), performedBy, response.getUpdated(), requested, durationMs, response.getPerSecond());
+        return response;
+    }
+
+    private void applyChunk(Action action, Set<UUID> chunk, String performedBy,
+                            CredentialStatusEntity.RevocationReason reason, String description,
+                            Map<BulkStatusResponse.Result, Long> results,
+                            List<BulkStatusResponse.Failure> failures) {
+        List<CredentialStatusBulkRepository.Updated> updated = transactionTemplate.execute(tx -> {
+            Instant now = Instant.now();
+            if (action != Action.REINSTATE) {
+                statusListService.indexesAllocated(bulkRepository.createMissing(chunk, now));
+            }
+            // Serializes with other status changes so change feed sequence numbers commit in order
+            statusChangeRepository.lockForAppend();
+            List<CredentialStatusBulkRepository.Updated> rows = switch (action) {
+                case REVOKE -> bulkRepository.revoke(chunk, reason, performedBy, description, now);
+                case SUSPEND -> bulkRepository.suspend(chunk, performedBy, description, now);
+                case REINSTATE -> bulkRepository.reinstate(chunk, performedBy, now);
+            };
+            statusListService.statusChanged(rows.stream().map(CredentialStatusBulkRepository.Updated::statusListIndex).toList(),
+                    targetStatus(action));
+            statusIndex.statusChanged(rows.stream().map(CredentialStatusBulkRepository.Updated::credentialId).toList(),
+                    targetStatus(action));
+            return rows;
+        });
+
+        Set<UUID> remaining = new HashSet<>(chunk);
+        for (CredentialStatusBulkRepository.Updated row : updated) {
+            remaining.remove(row.credentialId());
+        }
+        results.merge(BulkStatusResponse.Result.UPDATED, (long) updated.size(), Long::sum);
+
+        if (!remaining.isEmpty()) {
+            Map<UUID, String> current = bulkRepository.findCurrentStatus(remaining);
+            for (UUID id : remaining) {
+                fail(results, failures, id.toString(), classify(action, current.containsKey(id), current.get(id)));
+            }
+        }
+    }
+
+    /**
+     * Why a credential was left unchanged by an action
+     */
+    static BulkStatusResponse.Result classify(Action action, boolean exists, String status) {
+        if (!exists) {
+            return BulkStatusResponse.Result.NOT_FOUND;
+        }
+        if (action == Action.REINSTATE && !"REVOKED".equals(status)) {
+            return BulkStatusResponse.Result.NOT_SUSPENDED;
+        }
+        return BulkStatusResponse.Result.ALREADY_REVOKED;
+    }
+
+    static CredentialStatusEntity.Status targetStatus(Action action) {
+        return switch (action) {
+            case REVOKE -> CredentialStatusEntity.Status.REVOKED;
+            case SUSPEND -> CredentialStatusEntity.Status.SUSPENDED;
+            case REINSTATE -> CredentialStatusEntity.Status.VALID;
+        };
+    }
+
+    private static void fail(Map<BulkStatusResponse.Result, Long> results, List<BulkStatusResponse.Failure> failures,
+                             String credentialId, BulkStatusResponse.Result result) {
+        results.merge(result, 1L, Long::sum);
+        if (failures.size() < MAX_REPORTED_FAILURES) {
+            failures.add(new BulkStatusResponse.Failure(credentialId, result));
+        }
+    }
+
+    private static UUID parse(String raw) {
+        if (raw == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(raw.trim());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.finpass.issuer.service;
+
+import com.finpass.issuer.util.ExpiringKeySet;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * One-time c_nonce store for OpenID4VCI proofs, and the set of proof jtis already seen.
+ *
+ * Each nonce handed to a wallet is live for ttl-seconds and can be consumed by exactly one
+ * credential or batch request, so a proof cannot be replayed against a nonce it was not
+ * built for. Proof jtis are remembered for the same period. Both are ExpiringKeySets:
+ * O(1) issue, consume and expiry, capped at max-entries each.
+ *
+ * /token mints a nonce for any caller, so a full nonce set evicts the nonces closest to
+ * expiry instead of refusing to issue: a flood of token requests can only shorten how long
+ * unused nonces live, never stop issuance. A wallet whose nonce was evicted gets
+ * invalid_proof with a fresh c_nonce and retries. The jti set only grows through proofs
+ * that bound a live nonce, so it keeps failing closed.
+ */
+@Component
+public class CNonceStore {
+
+    private static final int NONCE_BYTES = 16;
+
+    private final SecureRandom random = new SecureRandom();
+    private final long ttlSeconds;
+    private final LongSupplier clock;
+    private final ExpiringKeySet nonces;
+    private final ExpiringKeySet proofJtis;
+
+    @Autowired
+    public CNonceStore(@Value("${openid4vci.c-nonce.ttl-seconds:300}") long ttlSeconds,
+                       @Value("${openid4vci.c-nonce.tick-ms:1000}") long tickMs,
+                       @Value("${openid4vci.c-nonce.max-entries:500000}") int maxEntries) {
+        this(ttlSeconds, tickMs, maxEntries, System::currentTimeMillis);
+    }
+
+    CNonceStore(long ttlSeconds, long tickMs, int maxEntries, LongSupplier clock) {
+        this.ttlSeconds = ttlSeconds;
+        this.clock = clock;
+        this.nonces = new ExpiringKeySet(tickMs, maxEntries, true);
+        this.proofJtis = new ExpiringKeySet(tickMs, maxEntries);
+    }
+
+    /**
+     * Issue a fresh c_nonce, live for {@link #getTtlSeconds()}; when the store is full the
+     * nonce closest to expiry is evicted to make room
+     */
+    public String issue() {
+        long now = clock.getAsLong();
+        while (true) {
+            byte[] bytes = new byte[NONCE_BYTES];
+            random.nextBytes(bytes);
+            String nonce = HexFormat.of().formatHex(bytes);
+            // Only fails on a 128-bit collision with a live nonce
+            if (nonces.add(nonce, now + ttlSeconds * 1000, now)) {
+                return nonce;
+            }
+        }
+    }
+
+    /**
+     * Consume a c_nonce
+     * @return Whether the nonce was issued here, is unexpired and was not used before
+     */
+    public boolean consume(String nonce) {
+        return nonces.consume(nonce, clock.getAsLong());
+    }
+
+    /**
+     * Record a proof jti
+     * @return False if the jti was seen within the nonce lifetime, or the set is full
+     */
+    public boolean recordProofJti(String jti) {
+        long now = clock.getAsLong();
+        return proofJtis.add(jti, now + ttlSeconds * 1000, now);
+    }
+
+    public long getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    /**
+     * Store metrics
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ttlSeconds", ttlSeconds);
+        stats.put("maxEntries", nonces.getMaxEntries());
+        stats.put("liveNonces", nonces.size());
+        stats.put("filedNonces", nonces.filed());
+        stats.put("expiredNonces", nonces.expiredCount());
+        stats.put("evictedNonces", nonces.evictedCount());
+        stats.put("liveProofJtis", proofJtis.size());
+        stats.put("expiredProofJtis", proofJtis.expiredCount());
+        stats.put("rejectedProofJtis", proofJtis.rejectedFullCount());
+        return stats;
+    }
+}
@@ -0,0 +1,176 @@
+package com.finpass.issuer.service;
+
+import com.finpass.issuer.entity.CredentialStatusEntity;
+import com.finpass.issuer.repository.CredentialExpiryRepository;
+import com.finpass.issuer.repository.CredentialStatusBulkRepository;
+import com.finpass.issuer.repository.CredentialStatusChangeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Expires credentials past their expiry date.
+ *
+ * Each sweep claims due credentials in keyset batches, one short transaction per batch:
+ * the batch is flipped to EXPIRED, its status records are revoked with reason EXPIRED
+ * (so status lists, the status index and the change feed see it like any revocation) and
+ * one audit event is logged for the batch. Claims skip rows locked by another node, so
+ * every issuer node can run the sweeper at once.
+ */
+@Service
+public class CredentialExpiryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CredentialExpiryService.class);
+
+    static final String EXPIRED_BY = "system:expiry";
+
+    private final CredentialExpiryRepository expiryRepository;
+    private final CredentialStatusBulkRepository bulkRepository;
+    private final CredentialStatusChangeRepository statusChangeRepository;
+    private final StatusListService statusListService;
+    private final CredentialStatusIndex statusIndex;
+    private final AuditService auditService;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxBatchesPerSweep;
+
+    private final AtomicLong totalExpired = new AtomicLong();
+    private final AtomicLong sweeps = new AtomicLong();
+    private volatile long lastSweepExpired;
+    private volatile long lastSweepMs;
+
+    @Autowired
+    public CredentialExpiryService(CredentialExpiryRepository expiryRepository,
+                                   CredentialStatusBulkRepository bulkRepository,
+                                   CredentialStatusChangeRepository statusChangeRepository,
+                                   StatusListService statusListService,
+                                   CredentialStatusIndex statusIndex,
+                                   AuditService auditService,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${credential-expiry.enabled:true}") boolean enabled,
+                                   @Value("${credential-expiry.batch-size:1000}") int batchSize,
+                                   @Value("${credential-expiry.max-batches-per-sweep:1000}") int maxBatchesPerSweep) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("credential-expiry.batch-size must be positive");
+        }
+        this.expiryRepository = expiryRepository;
+        this.bulkRepository = bulkRepository;
+        this.statusChangeRepository = statusChangeRepository;
+        this.statusListService = statusListService;
+        this.statusIndex = statusIndex;
+        this.auditService = auditService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxBatchesPerSweep = maxBatchesPerSweep;
+    }
+
+    @Scheduled(fixedDelayString = "${credential-expiry.interval-ms:60000}",
+               initialDelayString = "${credential-expiry.initial-delay-ms:30000}")
+    public void scheduledSweep() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            sweep(Instant.now());
+        } catch (Exception e) {
+            logger.error("Credential expiry sweep failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Expire credentials that expired before {@code cutoff}, up to the per-sweep batch
+     * limit; returns how many were expired
+     */
+    public synchronized long sweep(Instant cutoff) {
+        long start = System.nanoTime();
+        long expired = 0;
+        CredentialExpiryRepository.Claimed after = null;
+        for (int batches = 0; batches < maxBatchesPerSweep; batches++) {
+            CredentialExpiryRepository.Claimed position = after;
+            List<CredentialExpiryRepository.Claimed> claimed =
+                    transactionTemplate.execute(tx -> expireBatch(cutoff, position));
+            if (claimed == null || claimed.isEmpty()) {
+                break;
+            }
+            expired += claimed.size();
+            auditService.logCredentialsExpired(
+                    claimed.stream().map(c -> c.credentialId().toString()).toList(), cutoff);
+            // Claims come back in no particular order; resume after the greatest key
+            after = claimed.stream().max(CredentialExpiryService::compareKeys).orElseThrow();
+            if (claimed.size() < batchSize) {
+                break;
+            }
+        }
+
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+        sweeps.incrementAndGet();
+        totalExpired.addAndGet(expired);
+        lastSweepExpired = expired;
+        lastSweepMs = durationMs;
+        if (expired > 0) {
+            logger.info("Expired {} credentials in {} ms", expired, durationMs);
+        }
+        return expired;
+    }
+
+    /**
+     * Sweep counters, for monitoring
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("sweeps", sweeps.get());
+        stats.put("totalExpired", totalExpired.get());
+        stats.put("lastSweepExpired", lastSweepExpired);
+        stats.put("lastSweepMs", lastSweepMs);
+        return stats;
+    }
+
+    private List<CredentialExpiryRepository.Claimed> expireBatch(Instant cutoff,
+                                                                 CredentialExpiryRepository.Claimed after) {
+        Instant now = Instant.now();
+        List<CredentialExpiryRepository.Claimed> claimed = expiryRepository.claimExpired(cutoff, after, batchSize, now);
+        if (claimed.isEmpty()) {
+            return claimed;
+        }
+        List<UUID> ids = claimed.stream().map(CredentialExpiryRepository.Claimed::credentialId).toList();
+        statusListService.indexesAllocated(bulkRepository.createMissing(ids, now));
+        // Serializes with other status changes so change feed sequence numbers commit in order
+        statusChangeRepository.lockForAppend();
+        List<CredentialStatusBulkRepository.Updated> revoked = bulkRepository.revoke(ids,
+                CredentialStatusEntity.RevocationReason.EXPIRED, EXPIRED_BY, "Credential expired", now);
+        statusListService.statusChanged(revoked.stream().map(CredentialStatusBulkRepository.Updated::statusListIndex).toList(),
+                CredentialStatusEntity.Status.REVOKED);
+        statusIndex.statusChanged(revoked.stream().map(CredentialStatusBulkRepository.Updated::credentialId).toList(),
+                CredentialStatusEntity.Status.REVOKED);
+        return claimed;
+    }
+
+    /**
+     * (expires_at, id) order as the database sorts it: uuids compare as unsigned bytes,
+     * unlike {@link UUID#compareTo}
+     */
+    static int compareKeys(CredentialExpiryRepository.Claimed a, CredentialExpiryRepository.Claimed b) {
+        int byExpiry = a.expiresAt().compareTo(b.expiresAt());
+        if (byExpiry != 0) {
+            return byExpiry;
+        }
+        int byHigh = Long.compareUnsigned(a.credentialId().getMostSignificantBits(), b.credentialId().getMostSignificantBits());
+        return byHigh != 0 ? byHigh
+                : Long.compareUnsigned(a.credentialId().getLeastSignificantBits(), b.credentialId().getLeastSignificantBits());
+    }
+}
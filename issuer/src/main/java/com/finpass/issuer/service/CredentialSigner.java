@@ -0,0 +1,186 @@
+package com.finpass.issuer.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Signs W3C verifiable credentials as VC-JWTs (compact JWS, EdDSA) with the issuer key.
+ *
+ * The protected header depends only on the key, so it is serialized and base64url-encoded
+ * once; claims are streamed by one shared Jackson factory into a per-thread buffer; and the
+ * signature comes straight from {@link IssuerKeyProvider#sign}, skipping the JOSE object
+ * model. Ed25519 signing is CPU-bound, so {@link #signAsync} runs it on a pool with one
+ * thread per core; when the pool's queue is full the caller signs itself.
+ */
+@Component
+public class CredentialSigner {
+
+    private static final Logger logger = LoggerFactory.getLogger(CredentialSigner.class);
+
+    static final List<String> VC_CONTEXT = List.of("https://www.w3.org/2018/credentials/v1");
+
+    private static final Base64.Encoder BASE64URL = Base64.getUrlEncoder().withoutPadding();
+
+    private final IssuerKeyProvider keyProvider;
+    private final String issuerDid;
+    private final JsonFactory jsonFactory;
+    private final ObjectMapper objectMapper;
+    // base64url(header) + "."
+    private final byte[] encodedHeader;
+    private final ThreadPoolExecutor executor;
+    private final ThreadLocal<ByteArrayOutputStream> claimsBuffer =
+            ThreadLocal.withInitial(() -> new ByteArrayOutputStream(1024));
+
+    @Autowired
+    public CredentialSigner(IssuerKeyProvider keyProvider,
+                            ObjectMapper objectMapper,
+                            @Value("${issuer.did}") String issuerDid,
+                            @Value("${credential-issuance.signing-threads:0}") int signingThreads,
+                            @Value("${credential-issuance.signing-queue-capacity:10000}") int queueCapacity) {
+        this.keyProvider = keyProvider;
+        this.issuerDid = issuerDid;
+        this.objectMapper = objectMapper;
+        this.jsonFactory = objectMapper.getFactory();
+        this.encodedHeader = encodeHeader(keyProvider);
+
+        int threads = signingThreads > 0 ? signingThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "credential-signer-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        logger.info("Credential signer ready: key {}, {} signing threads", keyProvider.getKeyId(), threads);
+    }
+
+    /**
+     * Sign a credential on the calling thread
+     * @param credentialId Credential id, also the JWT id ({@code urn:uuid:...})
+     * @param holderDid Subject DID
+     * @param type Credential type, after VerifiableCredential
+     * @param credentialSubject Subject claims; {@code id} is always the holder DID
+     * @param credentialStatus credentialStatus entries, written as an array, or null for none
+     * @param issuedAt Issuance time ({@code iat}, {@code nbf})
+     * @param expiresAt Expiry ({@code exp}), or null for none
+     * @return Compact VC-JWT
+     */
+    public String sign(UUID credentialId, String holderDid, String type, Map<String, Object> credentialSubject,
+                       List<Map<String, Object>> credentialStatus, Instant issuedAt, Instant expiresAt) {
+        byte[] encodedClaims = BASE64URL.encode(writeClaims(credentialId, holderDid, type, credentialSubject,
+                credentialStatus, issuedAt, expiresAt));
+        byte[] signingInput = new byte[encodedHeader.length + encodedClaims.length];
+        System.arraycopy(encodedHeader, 0, signingInput, 0, encodedHeader.length);
+        System.arraycopy(encodedClaims, 0, signingInput, encodedHeader.length, encodedClaims.length);
+        byte[] signature = keyProvider.sign(signingInput);
+        return new String(signingInput, StandardCharsets.US_ASCII) + "." + BASE64URL.encodeToString(signature);
+    }
+
+    /**
+     * Sign a credential on the signing pool
+     */
+    public CompletableFuture<String> signAsync(UUID credentialId, String holderDid, String type,
+                                               Map<String, Object> credentialSubject,
+                                               List<Map<String, Object>> credentialStatus, Instant issuedAt,
+                                               Instant expiresAt) {
+        return CompletableFuture.supplyAsync(
+                () -> sign(credentialId, holderDid, type, credentialSubject, credentialStatus, issuedAt, expiresAt),
+                executor);
+    }
+
+    public int getSigningThreads() {
+        return executor.getCorePoolSize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private byte[] writeClaims(UUID credentialId, String holderDid, String type, Map<String, Object> credentialSubject,
+                               List<Map<String, Object>> credentialStatus, Instant issuedAt, Instant expiresAt) {
+        ByteArrayOutputStream buffer = claimsBuffer.get();
+        buffer.reset();
+        try (JsonGenerator json = jsonFactory.createGenerator(buffer)) {
+            json.setCodec(objectMapper);
+            json.writeStartObject();
+            json.writeStringField("iss", issuerDid);
+            json.writeStringField("sub", holderDid);
+            json.writeStringField("jti", "urn:uuid:" + credentialId);
+            json.writeNumberField("iat", issuedAt.getEpochSecond());
+            json.writeNumberField("nbf", issuedAt.getEpochSecond());
+            if (expiresAt != null) {
+                json.writeNumberField("exp", expiresAt.getEpochSecond());
+            }
+            json.writeObjectFieldStart("vc");
+            json.writeArrayFieldStart("@context");
+            for (String context : VC_CONTEXT) {
+                json.writeString(context);
+            }
+            json.writeEndArray();
+            json.writeArrayFieldStart("type");
+            json.writeString("VerifiableCredential");
+            json.writeString(type);
+            json.writeEndArray();
+            json.writeObjectFieldStart("credentialSubject");
+            json.writeStringField("id", holderDid);
+            for (Map.Entry<String, Object> claim : credentialSubject.entrySet()) {
+                if (!"id".equals(claim.getKey())) {
+                    json.writeObjectField(claim.getKey(), claim.getValue());
+                }
+            }
+            json.writeEndObject();
+            if (credentialStatus != null) {
+                json.writeArrayFieldStart("credentialStatus");
+                for (Map<String, Object> entry : credentialStatus) {
+                    json.writeObject(entry);
+                }
+                json.writeEndArray();
+            }
+            json.writeEndObject();
+            json.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to serialize credential claims", e);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static byte[] encodeHeader(IssuerKeyProvider keyProvider) {
+        try {
+            Map<String, Object> fields = new LinkedHashMap<>();
+            fields.put("alg", keyProvider.getAlgorithm().getName());
+            fields.put("typ", "JWT");
+            fields.put("kid", keyProvider.getKeyId());
+            String header = new ObjectMapper().writeValueAsString(fields);
+            return (BASE64URL.encodeToString(header.getBytes(StandardCharsets.UTF_8)) + ".")
+                    .getBytes(StandardCharsets.US_ASCII);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to serialize credential header", e);
+        }
+    }
+}
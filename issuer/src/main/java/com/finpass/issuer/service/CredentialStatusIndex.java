@@ -0,0 +1,299 @@
+package com.finpass.issuer.service;
+
+import com.finpass.issuer.dto.CredentialStatusChange;
+import com.finpass.issuer.entity.CredentialStatusEntity;
+import com.finpass.issuer.repository.CredentialStatusChangeRepository;
+import com.finpass.issuer.util.UuidStatusMap;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * In-memory status of every credential, so status and validity checks never touch the
+ * database.
+ *
+ * The index is loaded in the background at startup, walking the credentials table in
+ * keyset batches; local status changes are written through once they commit, and
+ * changes made by other instances are picked up by tailing the status change feed from
+ * where the load started. Lookups of credentials not yet indexed (still loading, or
+ * issued by another instance) fall back to the database and index the answer.
+ */
+@Service
+public class CredentialStatusIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(CredentialStatusIndex.class);
+
+    /**
+     * One keyset batch of credentials with their status; the status side is bounded to the
+     * batch's key range so each batch reads only its own slice of both indexes
+     */
+    private static final String LOAD_SQL = "WITH batch AS (SELECT id FROM credentials %s ORDER BY id LIMIT ?) " +
+            "SELECT b.id, cs.status FROM batch b LEFT JOIN credential_status cs ON cs.credential_id = b.id " +
+            "AND cs.credential_id >= (SELECT id FROM batch ORDER BY id LIMIT 1) " +
+            "AND cs.credential_id <= (SELECT id FROM batch ORDER BY id DESC LIMIT 1) " +
+            "ORDER BY b.id";
+
+    static final String LOAD_FIRST_SQL = String.format(LOAD_SQL, "");
+
+    static final String LOAD_NEXT_SQL = String.format(LOAD_SQL, "WHERE id > ?");
+
+    static final String ESTIMATE_SQL =
+            "SELECT GREATEST(reltuples, 0)::bigint FROM pg_class WHERE oid = 'credentials'::regclass";
+
+    static final int REFRESH_BATCH = 1000;
+
+    /**
+     * Indexed status; NO_STATUS is a credential without a status record
+     */
+    public enum IndexedStatus {
+        VALID, SUSPENDED, REVOKED, NO_STATUS;
+
+        byte code() {
+            return (byte) (ordinal() + 1);
+        }
+
+        static IndexedStatus fromCode(byte code) {
+            return code == UuidStatusMap.ABSENT ? null : values()[code - 1];
+        }
+
+        public static IndexedStatus of(CredentialStatusEntity.Status status) {
+            return status == null ? NO_STATUS : valueOf(status.name());
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CredentialStatusChangeRepository statusChangeRepository;
+    private final int loadBatchSize;
+
+    private final StampedLock lock = new StampedLock();
+    private UuidStatusMap map = new UuidStatusMap();
+    private volatile boolean loaded;
+    private volatile long cursor = -1;
+
+    @Autowired
+    public CredentialStatusIndex(JdbcTemplate jdbcTemplate,
+                                 CredentialStatusChangeRepository statusChangeRepository,
+                                 @Value("${status-index.load-batch-size:50000}") int loadBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.statusChangeRepository = statusChangeRepository;
+        this.loadBatchSize = loadBatchSize;
+    }
+
+    @PostConstruct
+    public void start() {
+        Thread loader = new Thread(this::load, "credential-status-index-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * Indexed status of a credential, or null if it is not indexed
+     */
+    public IndexedStatus get(UUID credentialId) {
+        long stamp = lock.readLock();
+        try {
+            return IndexedStatus.fromCode(map.get(credentialId));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Index a status read from the database, unless a newer one was indexed meanwhile
+     */
+    public void putIfAbsent(UUID credentialId, IndexedStatus status) {
+        long stamp = lock.writeLock();
+        try {
+            map.putIfAbsent(credentialId, status.code());
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Index a status change once the surrounding transaction commits (immediately if there
+     * is none)
+     */
+    public void statusChanged(UUID credentialId, CredentialStatusEntity.Status status) {
+        afterCommit(() -> put(List.of(credentialId), IndexedStatus.of(status)));
+    }
+
+    /**
+     * Index a bulk status change once the surrounding transaction commits
+     */
+    public void statusChanged(Collection<UUID> credentialIds, CredentialStatusEntity.Status status) {
+        if (!credentialIds.isEmpty()) {
+            afterCommit(() -> put(credentialIds, IndexedStatus.of(status)));
+        }
+    }
+
+    /**
+     * Drop a credential from the index, so its next lookup reads the database
+     */
+    public void evict(UUID credentialId) {
+        long stamp = lock.writeLock();
+        try {
+            map.remove(credentialId);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Index size and memory use, for monitoring
+     */
+    public Map<String, Object> getStats() {
+        long stamp = lock.readLock();
+        try {
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("loaded", loaded);
+            stats.put("entries", map.size());
+            stats.put("capacity", map.capacity());
+            stats.put("heapBytes", map.sizeInBytes());
+            stats.put("bytesPerEntry", map.size() > 0 ? (double) map.sizeInBytes() / map.size() : 0.0);
+            stats.put("changeFeedCursor", cursor);
+            return stats;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Load every credential's status. Entries already indexed are kept, as a write-through
+     * or lookup that raced the load is at least as new as the batch.
+     */
+    public void load() {
+        try {
+            long start = System.nanoTime();
+            // Changes after this point are replayed from the feed once the load is done
+            long feedPosition = statusChangeRepository.findLastSeq();
+            Long estimate = jdbcTemplate.queryForObject(ESTIMATE_SQL, Long.class);
+            presize(estimate != null ? estimate : 0L);
+
+            UUID after = null;
+            long rows = 0;
+            while (true) {
+                List<UUID> ids = new ArrayList<>(loadBatchSize);
+                List<IndexedStatus> statuses = new ArrayList<>(loadBatchSize);
+                jdbcTemplate.query(after == null ? LOAD_FIRST_SQL : LOAD_NEXT_SQL, rs -> {
+                    ids.add(rs.getObject(1, UUID.class));
+                    String status = rs.getString(2);
+                    statuses.add(status == null ? IndexedStatus.NO_STATUS : IndexedStatus.valueOf(status));
+                }, after == null ? new Object[] {loadBatchSize} : new Object[] {after, loadBatchSize});
+
+                putAllIfAbsent(ids, statuses);
+                rows += ids.size();
+                if (ids.size() < loadBatchSize) {
+                    break;
+                }
+                after = ids.get(ids.size() - 1);
+            }
+
+            cursor = feedPosition;
+            loaded = true;
+            Map<String, Object> stats = getStats();
+            logger.info("Loaded credential status index: {} credentials in {} ms, {} bytes ({} per entry)",
+                    rows, (System.nanoTime() - start) / 1_000_000, stats.get("heapBytes"),
+                    String.format("%.1f", (Double) stats.get("bytesPerEntry")));
+            refresh();
+        } catch (Exception e) {
+            logger.error("Failed to load credential status index; lookups fall back to the database", e);
+        }
+    }
+
+    /**
+     * Apply status changes made since the last refresh, including those of other instances
+     */
+    @Scheduled(fixedDelayString = "${status-index.refresh-interval-ms:5000}")
+    public synchronized void refresh() {
+        if (!loaded) {
+            return;
+        }
+        try {
+            List<CredentialStatusChange> changes;
+            do {
+                changes = statusChangeRepository.findAfter(cursor, REFRESH_BATCH);
+                if (changes.isEmpty()) {
+                    return;
+                }
+                long stamp = lock.writeLock();
+                try {
+                    for (CredentialStatusChange change : changes) {
+                        map.put(change.getCredentialId(), IndexedStatus.of(change.getStatus()).code());
+                    }
+                } finally {
+                    lock.unlockWrite(stamp);
+                }
+                cursor = changes.get(changes.size() - 1).getSeq();
+            } while (changes.size() == REFRESH_BATCH);
+        } catch (Exception e) {
+            logger.warn("Failed to refresh credential status index: {}", e.getMessage());
+        }
+    }
+
+    private void presize(long expected) {
+        long stamp = lock.writeLock();
+        try {
+            if (map.size() == 0 && expected > 0) {
+                // A little headroom for credentials issued after startup
+                map = new UuidStatusMap((int) Math.min(expected + expected / 20, Integer.MAX_VALUE / 4));
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private void putAllIfAbsent(List<UUID> ids, List<IndexedStatus> statuses) {
+        long stamp = lock.writeLock();
+        try {
+            for (int i = 0; i < ids.size(); i++) {
+                map.putIfAbsent(ids.get(i), statuses.get(i).code());
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private void put(Collection<UUID> credentialIds, IndexedStatus status) {
+        long stamp = lock.writeLock();
+        try {
+            for (UUID credentialId : credentialIds) {
+                map.put(credentialId, status.code());
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package com.finpass.issuer.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finpass.issuer.dto.IssueResponse;
+import com.finpass.issuer.dto.LivenessProof;
+import com.finpass.issuer.exception.ValidationException;
+import com.finpass.issuer.repository.DeferredCredentialRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Deferred credential issuance for OpenID4VCI.
+ *
+ * The credential endpoint only queues the request (one INSERT) and hands the wallet a
+ * transaction id, so slow liveness validation or database contention no longer holds a
+ * request thread. A pool of worker threads on every node drains the queue: each claims
+ * the next due request with SKIP LOCKED and issues it in the transaction that marks it
+ * issued. Failed attempts are retried with exponential backoff up to max-attempts;
+ * validation failures fail the request at once.
+ */
+@Service
+public class DeferredIssuanceService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeferredIssuanceService.class);
+
+    static final int PURGE_BATCH = 1000;
+
+    private static final int MAX_BACKOFF_SHIFT = 10;
+
+    private final DeferredCredentialRepository repository;
+    private final IssuerService issuerService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int workerThreads;
+    private final long pollIntervalMs;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+    private final long retentionMs;
+
+    // Wakes an idle worker when a request is queued on this node
+    private final Object queued = new Object();
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    @Autowired
+    public DeferredIssuanceService(DeferredCredentialRepository repository,
+                                   IssuerService issuerService,
+                                   PlatformTransactionManager transactionManager,
+                                   ObjectMapper objectMapper,
+                                   @Value("${deferred-issuance.enabled:false}") boolean enabled,
+                                   @Value("${deferred-issuance.worker-threads:4}") int workerThreads,
+                                   @Value("${deferred-issuance.poll-interval-ms:500}") long pollIntervalMs,
+                                   @Value("${deferred-issuance.max-attempts:5}") int maxAttempts,
+                                   @Value("${deferred-issuance.retry-backoff-ms:5000}") long retryBackoffMs,
+                                   @Value("${deferred-issuance.retention-ms:86400000}") long retentionMs) {
+        this.repository = repository;
+        this.issuerService = issuerService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.workerThreads = workerThreads;
+        this.pollIntervalMs = pollIntervalMs;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMs = retryBackoffMs;
+        this.retentionMs = retentionMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        for (int i = 1; i <= workerThreads; i++) {
+            Thread worker = new Thread(this::workLoop, "deferred-issuer-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+        logger.info("Deferred issuance started: {} workers", workerThreads);
+    }
+
+    /**
+     * Stop the workers; a request being issued finishes or rolls back and stays queued
+     */
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        synchronized (queued) {
+            queued.notifyAll();
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join(pollIntervalMs * 10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Whether credential requests are queued instead of issued in the request
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queue a passport credential for issuance
+     * @param tokenSubject sub of the access token the request came with; only tokens with
+     *                     the same subject can poll for it
+     * @return Transaction id the wallet polls with
+     */
+    public UUID enqueue(String tokenSubject, String holderDid, String format, Map<String, Object> passportData,
+                        LivenessProof livenessProof) {
+        UUID transactionId = UUID.randomUUID();
+        repository.insert(transactionId, tokenSubject, holderDid, format, toJson(passportData),
+                livenessProof != null ? toJson(livenessProof) : null, Instant.now());
+        synchronized (queued) {
+            queued.notify();
+        }
+        logger.debug("Queued deferred issuance {} for {}", transactionId, holderDid);
+        return transactionId;
+    }
+
+    /**
+     * Queue every credential of a batch request in one transaction, so either all are
+     * queued or none
+     * @param formats Requested format per issue
+     * @return Transaction ids, in order
+     */
+    public List<UUID> enqueueAll(String tokenSubject, List<IssuerService.PassportIssue> issues, List<String> formats) {
+        List<UUID> transactionIds = new ArrayList<>(issues.size());
+        transactionTemplate.executeWithoutResult(tx -> {
+            Instant now = Instant.now();
+            for (int i = 0; i < issues.size(); i++) {
+                IssuerService.PassportIssue issue = issues.get(i);
+                UUID transactionId = UUID.randomUUID();
+                repository.insert(transactionId, tokenSubject, issue.holderDid(), formats.get(i),
+                        toJson(issue.passportData()),
+                        issue.livenessProof() != null ? toJson(issue.livenessProof()) : null, now);
+                transactionIds.add(transactionId);
+            }
+        });
+        synchronized (queued) {
+            queued.notifyAll();
+        }
+        logger.debug("Queued {} deferred issuances", transactionIds.size());
+        return transactionIds;
+    }
+
+    /**
+     * A queued request, or null if unknown, purged or queued under another token subject
+     */
+    public DeferredCredentialRepository.DeferredRequest getRequest(UUID transactionId, String tokenSubject) {
+        return repository.find(transactionId, tokenSubject);
+    }
+
+    /**
+     * Hand out an issued credential, once
+     * @return The credential, or null if it is not issued or was already delivered
+     */
+    public String deliver(UUID transactionId, String tokenSubject) {
+        return repository.deliver(transactionId, tokenSubject, Instant.now());
+    }
+
+    /**
+     * Issue the next due request, if any
+     * @return Whether a request was claimed
+     */
+    public boolean processNext() {
+        DeferredCredentialRepository.DeferredRequest[] claimed = new DeferredCredentialRepository.DeferredRequest[1];
+        try {
+            return Boolean.TRUE.equals(transactionTemplate.execute(tx -> {
+                Instant now = Instant.now();
+                DeferredCredentialRepository.DeferredRequest request = repository.claimNext(now);
+                if (request == null) {
+                    return false;
+                }
+                claimed[0] = request;
+                IssueResponse issued = issuerService.issuePassportCredential(request.holderDid(),
+                        readPassportData(request), readLivenessProof(request));
+                repository.markIssued(request.transactionId(), issued.getCredId(), issued.getCredentialJwt(), now);
+                return true;
+            }));
+        } catch (RuntimeException e) {
+            if (claimed[0] == null) {
+                throw e;
+            }
+            attemptFailed(claimed[0], e);
+            return true;
+        }
+    }
+
+    /**
+     * Delete finished requests past the retention period
+     */
+    @Scheduled(fixedDelayString = "${deferred-issuance.purge-interval-ms:3600000}")
+    public void purgeFinished() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Instant before = Instant.now().minusMillis(retentionMs);
+            int purged = 0;
+            int deleted;
+            do {
+                deleted = repository.purgeFinished(before, PURGE_BATCH);
+                purged += deleted;
+            } while (deleted == PURGE_BATCH);
+            if (purged > 0) {
+                logger.info("Purged {} finished deferred issuance requests", purged);
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to purge deferred issuance requests: {}", e.getMessage());
+        }
+    }
+
+    private void attemptFailed(DeferredCredentialRepository.DeferredRequest request, RuntimeException e) {
+        Instant now = Instant.now();
+        int attempts = request.attempts() + 1;
+        if (e instanceof ValidationException validation) {
+            logger.info("Deferred issuance {} rejected: {}", request.transactionId(), validation.getMessage());
+            repository.markFailed(request.transactionId(), validation.getErrorCode(), validation.getMessage(), now);
+        } else if (attempts >= maxAttempts) {
+            logger.error("Deferred issuance {} failed after {} attempts", request.transactionId(), attempts, e);
+            repository.markFailed(request.transactionId(), "ISSUANCE_FAILED", "Credential issuance failed", now);
+        } else {
+            long backoffMs = retryBackoffMs << Math.min(attempts - 1, MAX_BACKOFF_SHIFT);
+            logger.warn("Deferred issuance {} attempt {} failed, retrying in {} ms: {}",
+                    request.transactionId(), attempts, backoffMs, e.getMessage());
+            repository.markRetry(request.transactionId(), "ISSUANCE_RETRY", e.getMessage(),
+                    now.plusMillis(backoffMs), now);
+        }
+    }
+
+    private void workLoop() {
+        while (running) {
+            boolean processed;
+            try {
+                processed = processNext();
+            } catch (Exception e) {
+                logger.error("Deferred issuance worker failed: {}", e.getMessage(), e);
+                processed = false;
+            }
+            if (!processed) {
+                synchronized (queued) {
+                    try {
+                        if (running) {
+                            queued.wait(pollIntervalMs);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    private Map<String, Object> readPassportData(DeferredCredentialRepository.DeferredRequest request) {
+        try {
+            return objectMapper.readValue(request.passportData(), new TypeReference<Map<String, Object>>() {});
+        } catch (JsonProcessingException e) {
+            throw new ValidationException("INVALID_PASSPORT_DATA", "Queued passport data is not readable");
+        }
+    }
+
+    private LivenessProof readLivenessProof(DeferredCredentialRepository.DeferredRequest request) {
+        if (request.livenessProof() == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(request.livenessProof(), LivenessProof.class);
+        } catch (JsonProcessingException e) {
+            throw new ValidationException("INVALID_LIVENESS_PROOF", "Queued liveness proof is not readable");
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize deferred issuance request", e);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.finpass.issuer.service;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.Ed25519Verifier;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.util.Base64URL;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Resolves holder DIDs whose key is in the DID itself (did:jwk, and did:key with an
+ * Ed25519 key) to a JWSVerifier for their proofs.
+ *
+ * Decoding the DID and building the verifier allocates the JWK, the public key and the
+ * verifier's own state, so verifiers are kept in a bounded LRU map keyed by DID and a
+ * wallet's repeat proofs reuse the one built for its first. Verifiers are thread-safe.
+ *
+ * The DID comes from an unverified proof, so its length is capped before it is decoded or
+ * cached: an Ed25519 did:key is 56 characters and a did:jwk of a P-521 key about 300.
+ */
+@Component
+public class DidVerifierResolver {
+
+    static final String DID_JWK_PREFIX = "did:jwk:";
+    static final String DID_KEY_PREFIX = "did:key:z";
+
+    // Multicodec prefix of an Ed25519 public key in did:key
+    private static final byte[] ED25519_MULTICODEC = {(byte) 0xed, 0x01};
+    private static final int ED25519_KEY_BYTES = 32;
+
+    static final int MAX_DID_KEY_LENGTH = 64;
+    static final int MAX_DID_JWK_LENGTH = 512;
+
+    private static final String BASE58_ALPHABET = "123456789ABCDEFGHJKLMNPQRSTUVWXYZabcdefghijkmnopqrstuvwxyz";
+
+    private final int maxEntries;
+    private final LinkedHashMap<String, JWSVerifier> verifiers;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    @Autowired
+    public DidVerifierResolver(@Value("${openid4vci.proof.verifier-cache.max-entries:10000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.verifiers = new LinkedHashMap<>(Math.min(maxEntries, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, JWSVerifier> eldest) {
+                if (size() > DidVerifierResolver.this.maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Whether the DID method carries its key, so proofs from it can be verified
+     */
+    public static boolean isResolvable(String did) {
+        return did != null && (did.startsWith(DID_JWK_PREFIX) || did.startsWith(DID_KEY_PREFIX));
+    }
+
+    /**
+     * Verifier for the DID's key
+     * @throws IllegalArgumentException if the DID is not resolvable or its key is malformed or unsupported
+     */
+    public JWSVerifier resolve(String did) {
+        if (did != null && did.length() > (did.startsWith(DID_KEY_PREFIX) ? MAX_DID_KEY_LENGTH : MAX_DID_JWK_LENGTH)) {
+            throw new IllegalArgumentException("DID is too long");
+        }
+        synchronized (this) {
+            JWSVerifier cached = verifiers.get(did);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+        }
+        JWSVerifier verifier = createVerifier(did);
+        synchronized (this) {
+            verifiers.put(did, verifier);
+        }
+        return verifier;
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", verifiers.size());
+        stats.put("maxEntries", maxEntries);
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("evictions", evictions);
+        return stats;
+    }
+
+    private static JWSVerifier createVerifier(String did) {
+        if (did == null) {
+            throw new IllegalArgumentException("DID is required");
+        }
+        try {
+            if (did.startsWith(DID_JWK_PREFIX)) {
+                String json = new String(Base64URL.from(did.substring(DID_JWK_PREFIX.length())).decode(),
+                        StandardCharsets.UTF_8);
+                return createVerifier(JWK.parse(json));
+            }
+            if (did.startsWith(DID_KEY_PREFIX)) {
+                byte[] key = decodeBase58(did.substring(DID_KEY_PREFIX.length()));
+                if (key.length != ED25519_MULTICODEC.length + ED25519_KEY_BYTES
+                        || key[0] != ED25519_MULTICODEC[0] || key[1] != ED25519_MULTICODEC[1]) {
+                    throw new IllegalArgumentException("Unsupported did:key key type");
+                }
+                byte[] x = Arrays.copyOfRange(key, ED25519_MULTICODEC.length, key.length);
+                return new Ed25519Verifier(new OctetKeyPair.Builder(Curve.Ed25519, Base64URL.encode(x)).build());
+            }
+        } catch (ParseException | JOSEException e) {
+            throw new IllegalArgumentException("Invalid key in DID: " + e.getMessage(), e);
+        }
+        throw new IllegalArgumentException("Unsupported DID method");
+    }
+
+    private static JWSVerifier createVerifier(JWK jwk) throws JOSEException {
+        if (jwk.isPrivate()) {
+            throw new IllegalArgumentException("DID key must be a public key");
+        }
+        if (jwk instanceof OctetKeyPair okp && Curve.Ed25519.equals(okp.getCurve())) {
+            return new Ed25519Verifier(okp);
+        }
+        if (jwk instanceof ECKey ecKey) {
+            return new ECDSAVerifier(ecKey);
+        }
+        throw new IllegalArgumentException("Unsupported DID key type: " + jwk.getKeyType());
+    }
+
+    private static byte[] decodeBase58(String encoded) {
+        BigInteger value = BigInteger.ZERO;
+        BigInteger base = BigInteger.valueOf(58);
+        int leadingZeros = 0;
+        boolean leading = true;
+        for (int i = 0; i < encoded.length(); i++) {
+            int digit = BASE58_ALPHABET.indexOf(encoded.charAt(i));
+            if (digit < 0) {
+                throw new IllegalArgumentException("Invalid base58 character");
+            }
+            if (leading && digit == 0) {
+                leadingZeros++;
+            } else {
+                leading = false;
+            }
+            value = value.multiply(base).add(BigInteger.valueOf(digit));
+        }
+        byte[] bytes = value.signum() == 0 ? new byte[0] : value.toByteArray();
+        int sign = bytes.length > 1 && bytes[0] == 0 ? 1 : 0;
+        byte[] decoded = new byte[leadingZeros + bytes.length - sign];
+        System.arraycopy(bytes, sign, decoded, leadingZeros, bytes.length - sign);
+        return decoded;
+    }
+}
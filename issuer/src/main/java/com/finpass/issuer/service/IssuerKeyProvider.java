@@ -1,11 +1,13 @@
 package com.finpass.issuer.service;
 
+import java.security.GeneralSecurityException;
 import java.text.ParseException;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.google.crypto.tink.subtle.Ed25519Sign;
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jose.jwk.Curve;
@@ -13,19 +15,25 @@ import com.nimbusds.jose.jwk.KeyUse;
 import com.nimbusds.jose.jwk.OctetKeyPair;
 import com.nimbusds.jose.jwk.gen.OctetKeyPairGenerator;
 import com.nimbusds.jose.crypto.Ed25519Signer;
+import com.nimbusds.jose.crypto.Ed25519Verifier;
 import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.JWSVerifier;
 
 @Component
 public class IssuerKeyProvider {
 
 	private final OctetKeyPair signingKey;
 	private final JWSSigner signer;
+	private final JWSVerifier verifier;
+	private final Ed25519Sign rawSigner;
 
 	public IssuerKeyProvider(@Value("${issuer.privateJwk:}") String privateJwk) {
 		this.signingKey = loadOrGenerate(privateJwk);
 		try {
 			this.signer = new Ed25519Signer(signingKey);
-		} catch (JOSEException e) {
+			this.verifier = new Ed25519Verifier(signingKey.toPublicJWK());
+			this.rawSigner = new Ed25519Sign(signingKey.getDecodedD());
+		} catch (JOSEException | GeneralSecurityException e) {
 			throw new RuntimeException("Failed to initialize issuer signer", e);
 		}
 	}
@@ -42,6 +50,25 @@ public class IssuerKeyProvider {
 		return signer;
 	}
 
+	/**
+	 * Verifier for JWSs signed with the issuer key; thread-safe
+	 */
+	public JWSVerifier verifier() {
+		return verifier;
+	}
+
+	/**
+	 * Ed25519 signature over raw bytes, for callers that assemble the JWS themselves.
+	 * Thread-safe; the expanded private key is computed once.
+	 */
+	public byte[] sign(byte[] data) {
+		try {
+			return rawSigner.sign(data);
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException("Failed to sign with issuer key", e);
+		}
+	}
+
 	public String exportPrivateJwkJson() {
 		return signingKey.toJSONString();
 	}
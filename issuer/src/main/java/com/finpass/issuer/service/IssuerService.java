@@ -3,18 +3,27 @@ package com.finpass.issuer.service;
 import com.finpass.issuer.dto.LivenessProof;
 import com.finpass.issuer.entity.CredentialEntity;
 import com.finpass.issuer.entity.UserEntity;
+import com.finpass.issuer.repository.CredentialBatchRepository;
 import com.finpass.issuer.repository.CredentialRepository;
 import com.finpass.issuer.repository.UserRepository;
 import com.finpass.issuer.validation.ValidationService;
 import com.finpass.issuer.exception.ValidationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Service for issuing verifiable credentials with liveness validation
@@ -24,27 +33,50 @@ public class IssuerService {
 
     private static final Logger logger = LoggerFactory.getLogger(IssuerService.class);
 
+    private static final String PASSPORT_CREDENTIAL = "PassportCredential";
+
+    /**
+     * One passport credential of a batch
+     * @param livenessProof Liveness proof checked before anything is signed, or null for none
+     */
+    public record PassportIssue(String holderDid, Map<String, Object> passportData, LivenessProof livenessProof) {}
+
     private final UserRepository userRepository;
     private final CredentialRepository credentialRepository;
+    private final CredentialBatchRepository credentialBatchRepository;
+    private final UserIdCache userIdCache;
     private final LivenessValidationService livenessValidationService;
     private final RevocationService revocationService;
+    private final StatusListService statusListService;
     private final AuditService auditService;
     private final ValidationService validationService;
+    private final CredentialSigner credentialSigner;
+    private final Duration validity;
 
     public IssuerService(
             UserRepository userRepository,
             CredentialRepository credentialRepository,
+            CredentialBatchRepository credentialBatchRepository,
+            UserIdCache userIdCache,
             LivenessValidationService livenessValidationService,
             RevocationService revocationService,
+            StatusListService statusListService,
             AuditService auditService,
-            ValidationService validationService
+            ValidationService validationService,
+            CredentialSigner credentialSigner,
+            @Value("${credential-issuance.validity-days:365}") long validityDays
     ) {
         this.userRepository = userRepository;
         this.credentialRepository = credentialRepository;
+        this.credentialBatchRepository = credentialBatchRepository;
+        this.userIdCache = userIdCache;
         this.livenessValidationService = livenessValidationService;
         this.revocationService = revocationService;
+        this.statusListService = statusListService;
         this.auditService = auditService;
         this.validationService = validationService;
+        this.credentialSigner = credentialSigner;
+        this.validity = validityDays > 0 ? Duration.ofDays(validityDays) : null;
     }
 
     /**
@@ -63,57 +95,38 @@ public class IssuerService {
         Instant now = Instant.now();
 
         // Validate inputs
-        ValidationService.ValidationResult didValidation = validationService.validateDid(holderDid);
-        if (!didValidation.isValid()) {
-            throw new ValidationException(didValidation.getErrorCode(), didValidation.getErrorMessage());
-        }
-
-        ValidationService.ValidationResult timestampValidation = validationService.validateTimestamp(now);
-        if (!timestampValidation.isValid()) {
-            throw new ValidationException(timestampValidation.getErrorCode(), timestampValidation.getErrorMessage());
-        }
-
-        // Validate passport data
-        if (passportData == null || passportData.isEmpty()) {
-            throw new ValidationException("PASSPORT_DATA_REQUIRED", "Passport data is required");
-        }
+        validateTimestamp(now);
+        validateIssue(holderDid, passportData);
 
         // Validate liveness proof if provided
-        if (livenessProof != null) {
-            LivenessValidationService.ValidationResult validation = livenessValidationService.validateLivenessProof(livenessProof);
-            if (!validation.isValid()) {
-                throw new ValidationException("LIVENESS_VALIDATION_FAILED", 
-                    "Liveness validation failed: " + validation.getMessage());
-            }
-            logger.info("Liveness proof validated successfully with score: {}", livenessProof.getScore());
-        } else {
-            logger.warn("Issuing credential without liveness proof - consider enabling liveness checks");
-        }
+        validateLiveness(livenessProof);
+
+        // Sign on the signing pool while the user is resolved; the status list index is
+        // allocated first so the credential can point verifiers at its revocation bit
+        UUID credentialId = UUID.randomUUID();
+        Instant expiresAt = validity != null ? now.plus(validity) : null;
+        int statusListIndex = statusListService.allocateIndex();
+        CompletableFuture<String> credentialJwt = credentialSigner.signAsync(credentialId, holderDid,
+                PASSPORT_CREDENTIAL, passportData, credentialStatus(statusListIndex), now, expiresAt);
 
-        UserEntity user = userRepository.findByDid(holderDid).orElseGet(() -> {
-            UserEntity u = new UserEntity();
-            u.setId(UUID.randomUUID());
-            u.setDid(holderDid);
-            u.setCreatedAt(now);
-            return userRepository.save(u);
-        });
+        UserEntity user = userRepository.getReferenceById(userIdCache.resolve(holderDid, now));
 
-        // Create credential (simplified for MVP)
         CredentialEntity cred = new CredentialEntity();
-        cred.setId(UUID.randomUUID());
+        cred.setId(credentialId);
         cred.setUser(user);
-        cred.setCredentialJwt("mock_jwt_" + UUID.randomUUID());
-        cred.setStatus("ISSUED");
+        cred.setCredentialJwt(join(credentialJwt));
+        cred.setStatus("VALID");
         cred.setIssuedAt(now);
+        cred.setExpiresAt(expiresAt);
 
         credentialRepository.save(cred);
 
         // Initialize credential status
-        revocationService.initializeCredentialStatus(cred);
+        revocationService.initializeCredentialStatus(cred, statusListIndex);
 
         // Log credential issuance
         auditService.logCredentialIssued(user.getId().toString(), cred.getId().toString(), 
-                                       "PassportCredential", "finpass-issuer");
+                                       PASSPORT_CREDENTIAL, "finpass-issuer");
 
         com.finpass.issuer.dto.IssueResponse response = new com.finpass.issuer.dto.IssueResponse();
         response.setCredentialJwt(cred.getCredentialJwt());
@@ -121,4 +134,112 @@ public class IssuerService {
 
         return response;
     }
+
+    /**
+     * Issue a batch of passport credentials in one transaction: every credential and its
+     * liveness proof is validated first, so one failure issues nothing, status list indexes are allocated with one query, all are signed in
+     * parallel on the signing pool, and missing users, credentials and statuses are written
+     * with one statement or JDBC batch each
+     * @return One response per issue, in order
+     */
+    @Transactional
+    public List<com.finpass.issuer.dto.IssueResponse> issuePassportCredentials(List<PassportIssue> issues) {
+        Instant now = Instant.now();
+
+        validateTimestamp(now);
+        for (PassportIssue issue : issues) {
+            validateIssue(issue.holderDid(), issue.passportData());
+            validateLiveness(issue.livenessProof());
+        }
+
+        Instant expiresAt = validity != null ? now.plus(validity) : null;
+        List<Integer> statusListIndexes = statusListService.allocateIndexes(issues.size());
+        List<UUID> credentialIds = new ArrayList<>(issues.size());
+        List<CompletableFuture<String>> credentialJwts = new ArrayList<>(issues.size());
+        Set<String> holderDids = new LinkedHashSet<>();
+        for (int i = 0; i < issues.size(); i++) {
+            PassportIssue issue = issues.get(i);
+            UUID credentialId = UUID.randomUUID();
+            credentialIds.add(credentialId);
+            credentialJwts.add(credentialSigner.signAsync(credentialId, issue.holderDid(), PASSPORT_CREDENTIAL,
+                    issue.passportData(), credentialStatus(statusListIndexes.get(i)), now, expiresAt));
+            holderDids.add(issue.holderDid());
+        }
+
+        Map<String, UUID> userIds = userIdCache.resolveAll(holderDids, now);
+
+        List<CredentialBatchRepository.NewCredential> credentials = new ArrayList<>(issues.size());
+        for (int i = 0; i < issues.size(); i++) {
+            credentials.add(new CredentialBatchRepository.NewCredential(credentialIds.get(i),
+                    userIds.get(issues.get(i).holderDid()), join(credentialJwts.get(i)), now, expiresAt));
+        }
+        credentialBatchRepository.insertCredentials(credentials);
+        revocationService.initializeCredentialStatuses(credentialIds, statusListIndexes, now);
+
+        List<com.finpass.issuer.dto.IssueResponse> responses = new ArrayList<>(credentials.size());
+        for (CredentialBatchRepository.NewCredential credential : credentials) {
+            auditService.logCredentialIssued(credential.userId().toString(), credential.id().toString(),
+                    PASSPORT_CREDENTIAL, "finpass-issuer");
+
+            com.finpass.issuer.dto.IssueResponse response = new com.finpass.issuer.dto.IssueResponse();
+            response.setCredentialJwt(credential.credentialJwt());
+            response.setCredId(credential.id());
+            responses.add(response);
+        }
+
+        logger.info("Issued {} passport credentials to {} holders", responses.size(), userIds.size());
+        return responses;
+    }
+
+    /**
+     * Both status lists share the credential's index, so it carries one entry per purpose
+     */
+    private List<Map<String, Object>> credentialStatus(int statusListIndex) {
+        return List.of(
+                statusListService.credentialStatusEntry(statusListIndex, StatusListService.Purpose.REVOCATION),
+                statusListService.credentialStatusEntry(statusListIndex, StatusListService.Purpose.SUSPENSION));
+    }
+
+    private void validateLiveness(LivenessProof livenessProof) {
+        if (livenessProof != null) {
+            LivenessValidationService.ValidationResult validation = livenessValidationService.validateLivenessProof(livenessProof);
+            if (!validation.isValid()) {
+                throw new ValidationException("LIVENESS_VALIDATION_FAILED", 
+                    "Liveness validation failed: " + validation.getMessage());
+            }
+            logger.info("Liveness proof validated successfully with score: {}", livenessProof.getScore());
+        } else {
+            logger.warn("Issuing credential without liveness proof - consider enabling liveness checks");
+        }
+    }
+
+    private void validateTimestamp(Instant now) {
+        ValidationService.ValidationResult timestampValidation = validationService.validateTimestamp(now);
+        if (!timestampValidation.isValid()) {
+            throw new ValidationException(timestampValidation.getErrorCode(), timestampValidation.getErrorMessage());
+        }
+    }
+
+    private void validateIssue(String holderDid, Map<String, Object> passportData) {
+        ValidationService.ValidationResult didValidation = validationService.validateDid(holderDid);
+        if (!didValidation.isValid()) {
+            throw new ValidationException(didValidation.getErrorCode(), didValidation.getErrorMessage());
+        }
+
+        // Validate passport data
+        if (passportData == null || passportData.isEmpty()) {
+            throw new ValidationException("PASSPORT_DATA_REQUIRED", "Passport data is required");
+        }
+    }
+
+    private static String join(CompletableFuture<String> signing) {
+        try {
+            return signing.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
 }
@@ -1,6 +1,9 @@
 package com.finpass.issuer.service;
 
 import com.finpass.issuer.dto.*;
+import com.finpass.issuer.repository.DeferredCredentialRepository;
+import com.finpass.issuer.util.Hashing;
+import com.finpass.issuer.validation.ParsedJwt;
 import com.nimbusds.jose.JWSHeader;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
@@ -11,7 +14,9 @@ import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -25,23 +30,41 @@ public class OpenID4VCIService {
     
     private final IssuerKeyProvider keyProvider;
     private final IssuerService issuerService;
+    private final DeferredIssuanceService deferredIssuanceService;
+    private final AccessTokenVerifier accessTokenVerifier;
+    private final CNonceStore cNonceStore;
+    private final DidVerifierResolver didVerifierResolver;
     private final String issuerDid;
     private final String issuerUrl;
+    private final int maxBatchSize;
+    private final boolean requireVerifiableProof;
     
     // Token configuration
     private static final long ACCESS_TOKEN_TTL_SECONDS = 3600; // 1 hour
-    private static final long C_NONCE_TTL_SECONDS = 300; // 5 minutes
+    private static final long DEFERRED_POLL_INTERVAL_SECONDS = 5;
     
     public OpenID4VCIService(
             IssuerKeyProvider keyProvider,
             IssuerService issuerService,
+            DeferredIssuanceService deferredIssuanceService,
+            AccessTokenVerifier accessTokenVerifier,
+            CNonceStore cNonceStore,
+            DidVerifierResolver didVerifierResolver,
             @Value("${issuer.did}") String issuerDid,
-            @Value("${issuer.url:http://localhost:8080}") String issuerUrl
+            @Value("${issuer.url:http://localhost:8080}") String issuerUrl,
+            @Value("${openid4vci.batch-credential.max-size:100}") int maxBatchSize,
+            @Value("${openid4vci.proof.require-verifiable-did:false}") boolean requireVerifiableProof
     ) {
         this.keyProvider = keyProvider;
         this.issuerService = issuerService;
+        this.deferredIssuanceService = deferredIssuanceService;
+        this.accessTokenVerifier = accessTokenVerifier;
+        this.cNonceStore = cNonceStore;
+        this.didVerifierResolver = didVerifierResolver;
         this.issuerDid = issuerDid;
         this.issuerUrl = issuerUrl;
+        this.maxBatchSize = maxBatchSize;
+        this.requireVerifiableProof = requireVerifiableProof;
     }
     
     /**
@@ -81,6 +104,8 @@ public class OpenID4VCIService {
         CredentialIssuerMetadata metadata = new CredentialIssuerMetadata();
         metadata.setCredentialIssuer(issuerUrl);
         metadata.setCredentialEndpoint(issuerUrl + "/credential");
+        metadata.setBatchCredentialEndpoint(issuerUrl + "/batch_credential");
+        metadata.setDeferredCredentialEndpoint(issuerUrl + "/deferred_credential");
         metadata.setTokenEndpoint(issuerUrl + "/token");
         metadata.setDisplay(java.util.List.of(display));
         metadata.setCredentialsSupported(java.util.List.of(passportCredential));
@@ -121,7 +146,7 @@ public class OpenID4VCIService {
             response.setTokenType("Bearer");
             response.setExpiresIn(ACCESS_TOKEN_TTL_SECONDS);
             response.setCNonce(cNonce);
-            response.setCNonceExpiresIn(C_NONCE_TTL_SECONDS);
+            response.setCNonceExpiresIn(cNonceStore.getTtlSeconds());
             
             logger.info("Token request processed successfully");
             return response;
@@ -143,33 +168,59 @@ public class OpenID4VCIService {
             logger.info("Processing credential request for format: {}", credentialRequest.getFormat());
             
             // Validate access token (basic validation for MVP)
-            if (!validateAccessToken(accessToken)) {
+            JWTClaimsSet token = accessTokenVerifier.verify(accessToken);
+            if (token == null) {
                 return CredentialResponse.error("invalid_token", "Invalid or expired access token");
             }
             
-            // Validate proof
-            if (!validateProof(credentialRequest.getProof())) {
+            // Parse the proof once and validate it
+            ParsedJwt proof = parseProof(credentialRequest.getProof());
+            if (!validateProof(proof)) {
                 return CredentialResponse.error("invalid_proof", "Invalid proof");
             }
+            if (!bindProofs(List.of(proof))) {
+                CredentialResponse response = CredentialResponse.error("invalid_proof", "Invalid or reused c_nonce");
+                response.setCNonce(generateCNonce());
+                response.setCNonceExpiresIn(cNonceStore.getTtlSeconds());
+                return response;
+            }
             
             // Extract subject from proof
-            String subjectDid = extractSubjectFromProof(credentialRequest.getProof());
+            String subjectDid = extractSubjectFromProof(proof);
             if (subjectDid == null) {
                 return CredentialResponse.error("invalid_subject", "Cannot extract subject from proof");
             }
             
-            // Generate credential based on request
-            String credentialJwt = generateCredential(subjectDid, credentialRequest);
+            // In deferred mode, queue the issuance and let the wallet poll for it with this token's subject
+            if (deferredIssuanceService.isEnabled()) {
+                if (token.getSubject() == null) {
+                    return CredentialResponse.error("invalid_token", "Access token has no subject");
+                }
+                String cNonce = generateCNonce();
+                java.util.UUID transactionId = deferredIssuanceService.enqueue(token.getSubject(), subjectDid,
+                    credentialRequest.getFormat(), passportData(), credentialRequest.getLivenessProof());
+                
+                CredentialResponse response = new CredentialResponse();
+                response.setTransactionId(transactionId.toString());
+                response.setCNonce(cNonce);
+                response.setCNonceExpiresIn(cNonceStore.getTtlSeconds());
+                
+                logger.info("Credential request deferred for subject: {} (transaction {})", subjectDid, transactionId);
+                return response;
+            }
             
-            // Generate new c_nonce for next request
+            // Generate the c_nonce for the next request before anything is persisted
             String cNonce = generateCNonce();
             
+            // Generate credential based on request
+            String credentialJwt = generateCredential(subjectDid, credentialRequest);
+            
             // Build response
             CredentialResponse response = new CredentialResponse();
             response.setFormat(credentialRequest.getFormat());
             response.setCredential(credentialJwt);
             response.setCNonce(cNonce);
-            response.setCNonceExpiresIn(C_NONCE_TTL_SECONDS);
+            response.setCNonceExpiresIn(cNonceStore.getTtlSeconds());
             
             logger.info("Credential request processed successfully for subject: {}", subjectDid);
             return response;
@@ -180,6 +231,154 @@ public class OpenID4VCIService {
         }
     }
     
+    /**
+     * Process batch credential request: all proofs are validated before anything is
+     * issued, then every credential is issued in one transaction, liveness proofs
+     * included. In deferred mode every credential is queued instead and the response
+     * carries one transaction id per request
+     * @param batchRequest Batch credential request
+     * @param accessToken Access token for authorization
+     * @return Batch credential response, one credential per request in order
+     */
+    public BatchCredentialResponse processBatchCredentialRequest(BatchCredentialRequest batchRequest, String accessToken) {
+        try {
+            List<CredentialRequest> requests = batchRequest.getCredentialRequests();
+            logger.info("Processing batch credential request with {} credential requests",
+                requests != null ? requests.size() : 0);
+            
+            JWTClaimsSet token = accessTokenVerifier.verify(accessToken);
+            if (token == null) {
+                return BatchCredentialResponse.error("invalid_token", "Invalid or expired access token");
+            }
+            
+            if (requests == null || requests.isEmpty()) {
+                return BatchCredentialResponse.error("invalid_request", "No credential requests");
+            }
+            if (requests.size() > maxBatchSize) {
+                return BatchCredentialResponse.error("invalid_request",
+                    "At most " + maxBatchSize + " credential requests per batch");
+            }
+            
+            List<IssuerService.PassportIssue> issues = new ArrayList<>(requests.size());
+            List<ParsedJwt> proofs = new ArrayList<>(requests.size());
+            for (int i = 0; i < requests.size(); i++) {
+                CredentialRequest request = requests.get(i);
+                ParsedJwt proof = request != null ? parseProof(request.getProof()) : null;
+                if (!validateProof(proof)) {
+                    return BatchCredentialResponse.error("invalid_proof", "Invalid proof in credential request " + i);
+                }
+                proofs.add(proof);
+                String subjectDid = extractSubjectFromProof(proof);
+                if (subjectDid == null) {
+                    return BatchCredentialResponse.error("invalid_subject",
+                        "Cannot extract subject from proof in credential request " + i);
+                }
+                issues.add(new IssuerService.PassportIssue(subjectDid, passportData(), request.getLivenessProof()));
+            }
+            if (!bindProofs(proofs)) {
+                BatchCredentialResponse response = BatchCredentialResponse.error("invalid_proof",
+                    "Invalid or reused c_nonce");
+                response.setCNonce(generateCNonce());
+                response.setCNonceExpiresIn(cNonceStore.getTtlSeconds());
+                return response;
+            }
+            
+            String cNonce = generateCNonce();
+            List<CredentialResponse> credentials = new ArrayList<>(issues.size());
+            if (deferredIssuanceService.isEnabled()) {
+                if (token.getSubject() == null) {
+                    return BatchCredentialResponse.error("invalid_token", "Access token has no subject");
+                }
+                List<String> formats = new ArrayList<>(requests.size());
+                for (CredentialRequest request : requests) {
+                    formats.add(request.getFormat());
+                }
+                for (UUID transactionId : deferredIssuanceService.enqueueAll(token.getSubject(), issues, formats)) {
+                    CredentialResponse deferred = new CredentialResponse();
+                    deferred.setTransactionId(transactionId.toString());
+                    credentials.add(deferred);
+                }
+            } else {
+                List<IssueResponse> issued = issuerService.issuePassportCredentials(issues);
+                for (int i = 0; i < issued.size(); i++) {
+                    credentials.add(CredentialResponse.success(requests.get(i).getFormat(), issued.get(i).getCredentialJwt()));
+                }
+            }
+            
+            BatchCredentialResponse response = new BatchCredentialResponse(credentials);
+            response.setCNonce(cNonce);
+            response.setCNonceExpiresIn(cNonceStore.getTtlSeconds());
+            
+            logger.info("Batch credential request processed successfully: {} credentials{}", credentials.size(),
+                deferredIssuanceService.isEnabled() ? " deferred" : "");
+            return response;
+            
+        } catch (Exception e) {
+            logger.error("Error processing batch credential request", e);
+            return BatchCredentialResponse.error("server_error", "Internal server error");
+        }
+    }
+    
+    /**
+     * Process deferred credential request; only a token with the subject the request was
+     * queued under can poll it, and the credential is delivered once
+     * @param deferredRequest Deferred credential request
+     * @param accessToken Access token for authorization
+     * @return The credential once issued, otherwise an issuance_pending or error response
+     */
+    public CredentialResponse processDeferredCredentialRequest(DeferredCredentialRequest deferredRequest, String accessToken) {
+        try {
+            JWTClaimsSet token = accessTokenVerifier.verify(accessToken);
+            if (token == null) {
+                return CredentialResponse.error("invalid_token", "Invalid or expired access token");
+            }
+            
+            // Another token's transaction is reported as unknown, so ids cannot be probed
+            UUID transactionId = null;
+            DeferredCredentialRepository.DeferredRequest request = null;
+            try {
+                transactionId = UUID.fromString(deferredRequest.getTransactionId());
+            } catch (IllegalArgumentException | NullPointerException e) {
+                // Malformed transaction id; reported as unknown below
+            }
+            if (transactionId != null && token.getSubject() != null) {
+                request = deferredIssuanceService.getRequest(transactionId, token.getSubject());
+            }
+            if (request == null) {
+                return CredentialResponse.error("invalid_transaction_id", "Unknown transaction id");
+            }
+            
+            if (request.isPending()) {
+                CredentialResponse response = CredentialResponse.error("issuance_pending", "Credential is not issued yet");
+                response.setInterval(DEFERRED_POLL_INTERVAL_SECONDS);
+                return response;
+            }
+            if (!request.isIssued() && !request.isDelivered()) {
+                return CredentialResponse.error("credential_request_denied", request.errorDescription());
+            }
+            
+            // A concurrent poll may deliver it between the read and here
+            String cNonce = generateCNonce();
+            String credentialJwt = request.isIssued()
+                ? deferredIssuanceService.deliver(transactionId, token.getSubject())
+                : null;
+            if (credentialJwt == null) {
+                return CredentialResponse.error("invalid_transaction_id", "Credential was already delivered");
+            }
+            
+            CredentialResponse response = CredentialResponse.success(request.format(), credentialJwt);
+            response.setCNonce(cNonce);
+            response.setCNonceExpiresIn(cNonceStore.getTtlSeconds());
+            
+            logger.info("Deferred credential {} delivered", request.transactionId());
+            return response;
+            
+        } catch (Exception e) {
+            logger.error("Error processing deferred credential request", e);
+            return CredentialResponse.error("server_error", "Internal server error");
+        }
+    }
+    
     /**
      * Generate JWT access token
      * @param preAuthCode Pre-authorized code
@@ -190,8 +389,10 @@ public class OpenID4VCIService {
             Instant now = Instant.now();
             Instant exp = now.plus(ACCESS_TOKEN_TTL_SECONDS, ChronoUnit.SECONDS);
             
+            // sub identifies the grant without repeating the code; deferred requests are bound to it
             JWTClaimsSet claims = new JWTClaimsSet.Builder()
                 .issuer(issuerDid)
+                .subject(Hashing.sha256Hex(preAuthCode))
                 .audience(issuerUrl)
                 .jwtID(UUID.randomUUID().toString())
                 .issueTime(Date.from(now))
@@ -217,82 +418,133 @@ public class OpenID4VCIService {
     
     /**
      * Generate c_nonce for proof validation
-     * @return Random nonce
+     * @return One-time nonce, stored until it expires or a proof consumes it
      */
     String generateCNonce() {
-        return UUID.randomUUID().toString().replace("-", "");
+        return cNonceStore.issue();
+    }
+    
+    /**
+     * c_nonce store metrics
+     * @return Live, expired and rejected nonces and proof jtis
+     */
+    public java.util.Map<String, Object> getCNonceStats() {
+        return cNonceStore.getStats();
+    }
+    
+    /**
+     * Access token cache metrics
+     * @return Hit rate, verify latency and cache size
+     */
+    public java.util.Map<String, Object> getAccessTokenStats() {
+        return accessTokenVerifier.getStats();
+    }
+    
+    /**
+     * Parse the proof JWT once; the result is carried through validation, nonce binding
+     * and subject extraction
+     * @param proof Proof object
+     * @return Parsed proof, or null if missing or not a JWS
+     */
+    ParsedJwt parseProof(CredentialRequest.Proof proof) {
+        try {
+            if (proof == null || proof.getJwt() == null) {
+                return null;
+            }
+            return ParsedJwt.parse(proof.getJwt());
+        } catch (Exception e) {
+            logger.warn("Proof is not a valid JWT: {}", e.getMessage());
+            return null;
+        }
     }
     
     /**
-     * Validate access token (basic validation)
-     * @param accessToken Access token
+     * Validate proof claims and, for did:jwk and did:key subjects, the signature
+     * @param proof Parsed proof
      * @return True if valid
      */
-    boolean validateAccessToken(String accessToken) {
+    boolean validateProof(ParsedJwt proof) {
         try {
-            if (accessToken == null || accessToken.trim().isEmpty()) {
+            if (proof == null) {
                 return false;
             }
+            JWTClaimsSet claims = proof.getClaims();
             
-            // Parse and verify JWT
-            SignedJWT jwt = SignedJWT.parse(accessToken);
-            JWTClaimsSet claims = jwt.getJWTClaimsSet();
+            // Check required claims
+            String subject = claims.getSubject();
+            if (subject == null || claims.getIssuer() == null || claims.getClaim("nonce") == null) {
+                return false;
+            }
             
-            // Check expiration
-            if (claims.getExpirationTime().before(new Date())) {
+            // A DID in the kid must be the subject's
+            String keyId = proof.getHeader().getKeyID();
+            if (keyId != null && keyId.startsWith("did:") && !keyId.split("#", 2)[0].equals(subject)) {
                 return false;
             }
             
-            // Verify signature (for MVP, we'll skip full verification)
-            // In production, you'd verify against the issuer's public key
+            // Verify the signature with the key in the subject DID
+            if (DidVerifierResolver.isResolvable(subject)) {
+                return proof.getSignedJwt().verify(didVerifierResolver.resolve(subject));
+            }
+            if (requireVerifiableProof) {
+                logger.warn("Proof rejected: subject DID method cannot be resolved to a key");
+                return false;
+            }
             return true;
             
         } catch (Exception e) {
-            logger.warn("Access token validation failed", e);
+            logger.warn("Proof validation failed: {}", e.getMessage());
             return false;
         }
     }
     
     /**
-     * Validate proof in credential request
-     * @param proof Proof object
-     * @return True if valid
+     * Bind proofs to a c_nonce: all proofs of a request carry the same nonce, which is
+     * consumed once, and no proof jti may have been seen before
+     * @param proofs Proofs that passed validateProof
+     * @return True if the nonce was live and unused and every jti is new
      */
-    boolean validateProof(CredentialRequest.Proof proof) {
+    boolean bindProofs(List<ParsedJwt> proofs) {
         try {
-            if (proof == null || proof.getJwt() == null) {
-                return false;
+            String nonce = null;
+            List<String> jtis = new ArrayList<>(proofs.size());
+            for (ParsedJwt proof : proofs) {
+                JWTClaimsSet claims = proof.getClaims();
+                String proofNonce = claims.getStringClaim("nonce");
+                if (nonce == null) {
+                    nonce = proofNonce;
+                } else if (!nonce.equals(proofNonce)) {
+                    return false;
+                }
+                if (claims.getJWTID() != null) {
+                    jtis.add(claims.getJWTID());
+                }
             }
-            
-            // Parse proof JWT
-            SignedJWT proofJwt = SignedJWT.parse(proof.getJwt());
-            JWTClaimsSet claims = proofJwt.getJWTClaimsSet();
-            
-            // Check required claims
-            if (claims.getSubject() == null || claims.getIssuer() == null) {
+            if (!cNonceStore.consume(nonce)) {
+                logger.warn("Proof rejected: unknown, expired or reused c_nonce");
                 return false;
             }
-            
-            // Verify signature (for MVP, we'll skip full verification)
-            // In production, you'd verify against the subject's DID document
-            // For now, just check basic structure
+            for (String jti : jtis) {
+                if (!cNonceStore.recordProofJti(jti)) {
+                    logger.warn("Proof rejected: replayed jti");
+                    return false;
+                }
+            }
             return true;
-            
         } catch (Exception e) {
-            logger.warn("Proof validation failed", e);
+            logger.warn("Proof nonce binding failed", e);
             return false;
         }
     }
     
     /**
      * Extract subject DID from proof
-     * @param proof Proof object
+     * @param proof Parsed proof
      * @return Subject DID
      */
-    String extractSubjectFromProof(CredentialRequest.Proof proof) {
+    String extractSubjectFromProof(ParsedJwt proof) {
         try {
-            SignedJWT proofJwt = SignedJWT.parse(proof.getJwt());
-            return proofJwt.getJWTClaimsSet().getSubject();
+            return proof.getClaims().getSubject();
         } catch (Exception e) {
             logger.warn("Failed to extract subject from proof", e);
             return null;
@@ -307,22 +559,29 @@ public class OpenID4VCIService {
      */
     private String generateCredential(String subjectDid, CredentialRequest request) {
         try {
-            // For MVP, generate a mock passport credential
-            // In production, you'd use actual passport data
-            java.util.Map<String, Object> passportData = java.util.Map.of(
-                "name", "John Doe",
-                "nationality", "US",
-                "birthDate", "1990-01-01",
-                "passportNumber", "123456789"
-            );
-            
-            return issuerService.issuePassportCredential(subjectDid, passportData).getCredentialJwt();
+            return issuerService.issuePassportCredential(subjectDid, passportData(), request.getLivenessProof())
+                .getCredentialJwt();
             
         } catch (Exception e) {
             throw new RuntimeException("Failed to generate credential", e);
         }
     }
     
+    /**
+     * Passport data for issued credentials
+     * @return Passport claims
+     */
+    private java.util.Map<String, Object> passportData() {
+        // For MVP, generate a mock passport credential
+        // In production, you'd use actual passport data
+        return java.util.Map.of(
+            "name", "John Doe",
+            "nationality", "US",
+            "birthDate", "1990-01-01",
+            "passportNumber", "123456789"
+        );
+    }
+    
     /**
      * Create error token response
      * @param error Error code
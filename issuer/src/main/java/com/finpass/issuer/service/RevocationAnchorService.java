@@ -0,0 +1,293 @@
+package com.finpass.issuer.service;
+
+import com.finpass.issuer.dto.CredentialStatusChange;
+import com.finpass.issuer.dto.RevocationProof;
+import com.finpass.issuer.repository.CredentialStatusChangeRepository;
+import com.finpass.issuer.repository.RevocationAnchorRepository;
+import com.finpass.issuer.util.MerkleTree;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.utils.Numeric;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+/**
+ * Anchors the credential status change feed on-chain in batches.
+ *
+ * Feed entries are hashed into a Merkle tree as they are tailed; every anchor interval the
+ * tree over the changes since the previous anchor is recorded with all its nodes, and only
+ * its root is sent to the DID registry, so one transaction covers any number of changes.
+ * The stored nodes let any anchored change be proven against its root.
+ *
+ * Every issuer node may run this: anchors are contiguous ranges of the feed and a node that
+ * loses the race to record a range drops its tree and tails on from the winner's.
+ */
+@Service
+public class RevocationAnchorService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevocationAnchorService.class);
+
+    static final int FEED_BATCH = 5000;
+
+    static final int MAX_SUBMISSIONS_PER_RUN = 10;
+
+    private static final int PARALLEL_THRESHOLD = 1024;
+
+    // Every stored node must be addressable by substring(), which takes int byte offsets
+    private static final int MAX_LEAVES_LIMIT = 1 << 24;
+
+    private final CredentialStatusChangeRepository statusChangeRepository;
+    private final RevocationAnchorRepository anchorRepository;
+    private final BlockchainService blockchainService;
+    private final TransactionTemplate transactionTemplate;
+    private final String issuerDid;
+    private final boolean enabled;
+    private final int maxLeaves;
+    private final long resubmitAfterMs;
+
+    // Tree over the feed entries in (anchoredSeq, cursor]; anchoredSeq < 0 until first read
+    private MerkleTree.Builder builder = new MerkleTree.Builder();
+    // Start/end pairs of the seqs in that range with no feed entry
+    private final List<Long> seqGaps = new ArrayList<>();
+    private long anchoredSeq = -1;
+    private long cursor;
+    private long anchors;
+    private long lastAnchorLeaves;
+    private long lastAnchorMs;
+
+    @Autowired
+    public RevocationAnchorService(CredentialStatusChangeRepository statusChangeRepository,
+                                   RevocationAnchorRepository anchorRepository,
+                                   BlockchainService blockchainService,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${issuer.did}") String issuerDid,
+                                   @Value("${revocation-anchor.enabled:true}") boolean enabled,
+                                   @Value("${revocation-anchor.max-leaves:500000}") int maxLeaves,
+                                   @Value("${revocation-anchor.resubmit-after-ms:3600000}") long resubmitAfterMs) {
+        if (maxLeaves < 1 || maxLeaves > MAX_LEAVES_LIMIT) {
+            throw new IllegalArgumentException("revocation-anchor.max-leaves must be between 1 and " + MAX_LEAVES_LIMIT);
+        }
+        this.statusChangeRepository = statusChangeRepository;
+        this.anchorRepository = anchorRepository;
+        this.blockchainService = blockchainService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.issuerDid = issuerDid;
+        this.enabled = enabled;
+        this.maxLeaves = maxLeaves;
+        this.resubmitAfterMs = resubmitAfterMs;
+    }
+
+    /**
+     * Hash feed entries added since the last refresh into the pending tree
+     */
+    @Scheduled(fixedDelayString = "${revocation-anchor.refresh-interval-ms:5000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            tail();
+        } catch (Exception e) {
+            logger.warn("Failed to refresh revocation anchor tree: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${revocation-anchor.interval-ms:600000}",
+               initialDelayString = "${revocation-anchor.initial-delay-ms:60000}")
+    public void scheduledAnchor() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            anchor();
+            publish();
+        } catch (Exception e) {
+            logger.error("Revocation anchoring failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Record the tree over every change not yet anchored; returns the new anchor's id, or
+     * null when there was nothing to anchor or another node anchored it first
+     */
+    public synchronized Long anchor() {
+        tail();
+        return recordPending();
+    }
+
+    /**
+     * Submit recorded roots to the chain, oldest first, and confirm submitted ones whose
+     * transactions were mined
+     */
+    public void publish() {
+        for (int i = 0; i < MAX_SUBMISSIONS_PER_RUN; i++) {
+            if (!Boolean.TRUE.equals(transactionTemplate.execute(tx -> submitNext()))) {
+                break;
+            }
+        }
+
+        Instant now = Instant.now();
+        for (RevocationAnchorRepository.Anchor anchor : anchorRepository.findSubmitted(MAX_SUBMISSIONS_PER_RUN)) {
+            TransactionReceipt receipt = blockchainService.getTransactionReceipt(anchor.transactionHash());
+            if (receipt != null && receipt.isStatusOK()) {
+                anchorRepository.markConfirmed(anchor.id(), receipt.getBlockNumber().longValue(), now);
+                logger.info("Revocation anchor {} confirmed in block {}", anchor.id(), receipt.getBlockNumber());
+            } else if (receipt != null) {
+                logger.warn("Revocation anchor {} transaction {} failed; resubmitting", anchor.id(), anchor.transactionHash());
+                anchorRepository.markPending(anchor.id());
+            } else if (anchor.submittedAt() != null && anchor.submittedAt().plusMillis(resubmitAfterMs).isBefore(now)) {
+                logger.warn("Revocation anchor {} transaction {} not mined after {} ms; resubmitting",
+                        anchor.id(), anchor.transactionHash(), resubmitAfterMs);
+                anchorRepository.markPending(anchor.id());
+            }
+        }
+    }
+
+    /**
+     * Proof that a credential's latest anchored status change is in an anchored root, or
+     * null when none of its changes is anchored yet
+     */
+    public RevocationProof getProof(UUID credentialId) {
+        RevocationAnchorRepository.AnchoredChange found = anchorRepository.findLatestAnchoredChange(credentialId);
+        if (found == null) {
+            return null;
+        }
+        RevocationAnchorRepository.Anchor anchor = found.anchor();
+        int leafIndex = anchor.leafIndex(found.change().getSeq());
+        List<byte[]> proof = anchorRepository.findNodes(anchor.id(),
+                MerkleTree.proofNodeIndexes(leafIndex, anchor.leafCount()));
+        return new RevocationProof(found.change(), Numeric.toHexString(leafHash(found.change())), leafIndex,
+                anchor.leafCount(), proof.stream().map(Numeric::toHexString).toList(),
+                Numeric.toHexString(anchor.root()), anchor.id(), anchor.fromSeq(), anchor.toSeq(),
+                anchor.status(), anchor.transactionHash(), anchor.blockNumber());
+    }
+
+    /**
+     * Anchoring progress, for monitoring
+     */
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("anchoredSeq", anchoredSeq);
+        stats.put("cursor", cursor);
+        stats.put("pendingLeaves", builder.leafCount());
+        stats.put("anchors", anchors);
+        stats.put("lastAnchorLeaves", lastAnchorLeaves);
+        stats.put("lastAnchorMs", lastAnchorMs);
+        return stats;
+    }
+
+    /**
+     * Leaf of a feed entry; the encoding is documented on {@link RevocationProof}
+     */
+    public static byte[] leafHash(CredentialStatusChange change) {
+        byte[] statusAndReason = (change.getStatus().name() + ":" + (change.getReason() != null ? change.getReason().name() : ""))
+                .getBytes(StandardCharsets.US_ASCII);
+        Instant changedAt = change.getChangedAt();
+        ByteBuffer data = ByteBuffer.allocate(Long.BYTES * 4 + Integer.BYTES + statusAndReason.length)
+                .putLong(change.getSeq())
+                .putLong(change.getCredentialId().getMostSignificantBits())
+                .putLong(change.getCredentialId().getLeastSignificantBits())
+                .putInt(change.getStatusListIndex() != null ? change.getStatusListIndex() : -1)
+                .putLong(changedAt.getEpochSecond() * 1_000_000 + changedAt.getNano() / 1_000)
+                .put(statusAndReason);
+        return MerkleTree.hashLeaf(data.array());
+    }
+
+    private synchronized void tail() {
+        if (anchoredSeq < 0) {
+            reset();
+        }
+        List<CredentialStatusChange> changes;
+        do {
+            changes = statusChangeRepository.findAfter(cursor, Math.min(FEED_BATCH, maxLeaves - builder.leafCount()));
+            if (!changes.isEmpty()) {
+                builder.appendLeafHashes(hashLeaves(changes), changes.size());
+                for (CredentialStatusChange change : changes) {
+                    if (change.getSeq() != cursor + 1) {
+                        seqGaps.add(cursor + 1);
+                        seqGaps.add(change.getSeq() - 1);
+                    }
+                    cursor = change.getSeq();
+                }
+            }
+            if (builder.leafCount() >= maxLeaves) {
+                // Keep a tree, and the proofs read from it, within bounds while catching up
+                recordPending();
+            }
+        } while (!changes.isEmpty());
+    }
+
+    private Long recordPending() {
+        int leaves = builder.leafCount();
+        if (leaves == 0) {
+            return null;
+        }
+        long start = System.nanoTime();
+        MerkleTree tree = builder.build();
+        Long id = anchorRepository.insert(anchoredSeq, cursor, tree,
+                seqGaps.stream().mapToLong(Long::longValue).toArray());
+        if (id == null) {
+            logger.info("Feed changes {}-{} already anchored by another node", anchoredSeq + 1, cursor);
+            reset();
+            return null;
+        }
+        anchors++;
+        lastAnchorLeaves = leaves;
+        lastAnchorMs = (System.nanoTime() - start) / 1_000_000;
+        logger.info("Recorded revocation anchor {} over feed changes {}-{} ({} leaves, root {}) in {} ms",
+                id, anchoredSeq + 1, cursor, leaves, Numeric.toHexString(tree.root()), lastAnchorMs);
+        anchoredSeq = cursor;
+        builder = new MerkleTree.Builder();
+        seqGaps.clear();
+        return id;
+    }
+
+    private Boolean submitNext() {
+        RevocationAnchorRepository.Anchor anchor = anchorRepository.claimPending();
+        if (anchor == null) {
+            return false;
+        }
+        // The claim stays locked while the transaction is sent, so no other node sends it too
+        String transactionHash = blockchainService.anchorRevocationRoot(issuerDid, anchor.root(),
+                anchor.fromSeq(), anchor.toSeq());
+        if (transactionHash == null) {
+            return false;
+        }
+        anchorRepository.markSubmitted(anchor.id(), transactionHash, Instant.now());
+        return true;
+    }
+
+    private void reset() {
+        anchoredSeq = anchorRepository.findLastAnchoredSeq();
+        cursor = anchoredSeq;
+        builder = new MerkleTree.Builder();
+        seqGaps.clear();
+    }
+
+    private static byte[] hashLeaves(List<CredentialStatusChange> changes) {
+        byte[] hashes = new byte[changes.size() * MerkleTree.HASH_BYTES];
+        IntStream indexes = IntStream.range(0, changes.size());
+        if (changes.size() >= PARALLEL_THRESHOLD) {
+            indexes = indexes.parallel();
+        }
+        indexes.forEach(i -> System.arraycopy(leafHash(changes.get(i)), 0, hashes, i * MerkleTree.HASH_BYTES,
+                MerkleTree.HASH_BYTES));
+        return hashes;
+    }
+}
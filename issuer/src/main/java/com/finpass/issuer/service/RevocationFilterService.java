@@ -0,0 +1,316 @@
+package com.finpass.issuer.service;
+
+import com.finpass.issuer.dto.CredentialStatusChange;
+import com.finpass.issuer.dto.RevocationFilterPatch;
+import com.finpass.issuer.entity.CredentialStatusEntity;
+import com.finpass.issuer.repository.CredentialStatusChangeRepository;
+import com.finpass.issuer.util.CuckooFilter;
+import com.finpass.issuer.util.UuidStatusMap;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Publishes a cuckoo filter of every revoked or suspended credential, so verifiers can
+ * answer "definitely not revoked" locally and only ask the issuer about filter hits.
+ *
+ * The filter is versioned by the status change feed seq it reflects and kept current by
+ * tailing the feed; the slots each refresh rewrites are retained as patches, so a verifier
+ * holding version N downloads only the slots changed since. When the filter has to be
+ * rebuilt (it outgrew its capacity) a new epoch starts and verifiers download it again.
+ */
+@Service
+public class RevocationFilterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevocationFilterService.class);
+
+    static final String MEMBERS_SQL =
+            "SELECT credential_id FROM credential_status WHERE status IN ('REVOKED', 'SUSPENDED')";
+
+    static final int REFRESH_BATCH = 1000;
+
+    /**
+     * "CKF1", leading the snapshot format: magic, epoch, version, then the filter
+     */
+    public static final int MAGIC = 0x434B4631;
+
+    private static final byte MEMBER = 1;
+
+    /**
+     * Serialized filter at one version
+     */
+    public record Snapshot(long epoch, long version, byte[] bytes) {
+        public String etag() {
+            return "\"" + epoch + "-" + version + "\"";
+        }
+    }
+
+    /**
+     * Slots rewritten while moving from one version to the next
+     */
+    private record Patch(long fromVersion, long version, int[] slots) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CredentialStatusChangeRepository statusChangeRepository;
+    private final double falsePositiveRate;
+    private final long maxBytes;
+    private final int minCapacity;
+    private final int maxPatches;
+
+    // Exact set of revoked or suspended credentials the filter is built from
+    private UuidStatusMap members = new UuidStatusMap();
+    private CuckooFilter filter;
+    private int capacity;
+    private long epoch;
+    private long version;
+    private long rebuilds;
+    private final Deque<Patch> patches = new ArrayDeque<>();
+    private Snapshot snapshot;
+    private volatile boolean loaded;
+
+    @Autowired
+    public RevocationFilterService(JdbcTemplate jdbcTemplate,
+                                   CredentialStatusChangeRepository statusChangeRepository,
+                                   @Value("${revocation-filter.false-positive-rate:0.001}") double falsePositiveRate,
+                                   @Value("${revocation-filter.max-bytes:0}") long maxBytes,
+                                   @Value("${revocation-filter.min-capacity:10000}") int minCapacity,
+                                   @Value("${revocation-filter.max-patches:720}") int maxPatches) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("revocation-filter.false-positive-rate must be between 0 and 1");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.statusChangeRepository = statusChangeRepository;
+        this.falsePositiveRate = falsePositiveRate;
+        this.maxBytes = maxBytes;
+        this.minCapacity = minCapacity;
+        this.maxPatches = maxPatches;
+    }
+
+    @PostConstruct
+    public void start() {
+        Thread loader = new Thread(this::load, "revocation-filter-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Build the filter from every revoked or suspended credential, then catch up with the
+     * feed
+     */
+    public void load() {
+        try {
+            long start = System.nanoTime();
+            // Changes after this point are replayed from the feed once the load is done
+            long feedPosition = statusChangeRepository.findLastSeq();
+            UuidStatusMap loadedMembers = new UuidStatusMap();
+            jdbcTemplate.query(MEMBERS_SQL, rs -> {
+                loadedMembers.put(rs.getObject(1, UUID.class), MEMBER);
+            });
+
+            synchronized (this) {
+                members = loadedMembers;
+                version = feedPosition;
+                rebuild();
+                loaded = true;
+                logger.info("Built revocation filter: {} credentials in {} ms, {} bytes ({} bits each)",
+                        members.size(), (System.nanoTime() - start) / 1_000_000, filter.sizeInBytes(),
+                        filter.fingerprintBits());
+            }
+            refresh();
+        } catch (Exception e) {
+            logger.error("Failed to build revocation filter; it is not published until the next restart", e);
+        }
+    }
+
+    /**
+     * Apply status changes made since the last refresh, recording the slots they rewrote as
+     * a patch
+     */
+    @Scheduled(fixedDelayString = "${revocation-filter.refresh-interval-ms:5000}")
+    public synchronized void refresh() {
+        if (!loaded) {
+            return;
+        }
+        long from = version;
+        long startEpoch = epoch;
+        try {
+            List<CredentialStatusChange> changes;
+            do {
+                changes = statusChangeRepository.findAfter(version, REFRESH_BATCH);
+                for (CredentialStatusChange change : changes) {
+                    apply(change.getCredentialId(), change.getStatus());
+                    version = change.getSeq();
+                }
+            } while (changes.size() == REFRESH_BATCH);
+        } catch (Exception e) {
+            logger.warn("Failed to refresh revocation filter: {}", e.getMessage());
+        } finally {
+            // A rebuild started a new epoch, which readers download whole
+            if (version != from && epoch == startEpoch) {
+                patches.addLast(new Patch(from, version, filter.drainDirty()));
+                while (patches.size() > maxPatches) {
+                    patches.removeFirst();
+                }
+            }
+        }
+    }
+
+    /**
+     * The current filter, serialized; null until it is built
+     */
+    public synchronized Snapshot getSnapshot() {
+        if (!loaded) {
+            return null;
+        }
+        if (snapshot == null || snapshot.epoch() != epoch || snapshot.version() != version) {
+            try {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream((int) filter.sizeInBytes() + 64);
+                DataOutputStream out = new DataOutputStream(bytes);
+                out.writeInt(MAGIC);
+                out.writeLong(epoch);
+                out.writeLong(version);
+                filter.writeTo(out);
+                out.flush();
+                snapshot = new Snapshot(epoch, version, bytes.toByteArray());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Slots changed since {@code sinceVersion} of {@code sinceEpoch}, or null when the
+     * caller has to download the whole filter (another epoch, or a version no longer
+     * retained)
+     */
+    public synchronized RevocationFilterPatch getPatch(long sinceEpoch, long sinceVersion) {
+        if (!loaded || sinceEpoch != epoch || sinceVersion > version) {
+            return null;
+        }
+        BitSet changed = new BitSet();
+        boolean found = sinceVersion == version;
+        for (Patch patch : patches) {
+            found |= patch.fromVersion() == sinceVersion;
+            if (found) {
+                for (int slot : patch.slots()) {
+                    changed.set(slot);
+                }
+            }
+        }
+        if (!found) {
+            return null;
+        }
+        int[] slots = changed.stream().toArray();
+        long[] values = new long[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            values[i] = filter.get(slots[i]);
+        }
+        return new RevocationFilterPatch(epoch, sinceVersion, version, filter.size(), slots, values);
+    }
+
+    /**
+     * Filter size, memory use and false positive rate, for monitoring
+     */
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("loaded", loaded);
+        stats.put("targetFalsePositiveRate", falsePositiveRate);
+        stats.put("maxBytes", maxBytes);
+        if (filter != null) {
+            stats.put("epoch", epoch);
+            stats.put("version", version);
+            stats.put("entries", filter.size());
+            stats.put("capacity", capacity);
+            stats.put("fingerprintBits", filter.fingerprintBits());
+            stats.put("bytes", filter.sizeInBytes());
+            stats.put("bitsPerEntry", filter.size() > 0 ? filter.sizeInBytes() * 8.0 / filter.size() : 0.0);
+            stats.put("loadFactor", filter.loadFactor());
+            stats.put("expectedFalsePositiveRate", filter.falsePositiveRate());
+            stats.put("retainedPatches", patches.size());
+            stats.put("rebuilds", rebuilds);
+        }
+        return stats;
+    }
+
+    private void apply(UUID credentialId, CredentialStatusEntity.Status status) {
+        boolean revoked = status == CredentialStatusEntity.Status.REVOKED
+                || status == CredentialStatusEntity.Status.SUSPENDED;
+        if (revoked) {
+            if (members.put(credentialId, MEMBER) == UuidStatusMap.ABSENT
+                    && (members.size() > capacity || !filter.add(credentialId))) {
+                rebuild();
+            }
+        } else if (members.remove(credentialId) != UuidStatusMap.ABSENT) {
+            filter.remove(credentialId);
+        }
+    }
+
+    /**
+     * Start a new epoch with a filter sized for twice the current members
+     */
+    private void rebuild() {
+        int newCapacity = (int) Math.max(minCapacity, Math.min((long) members.size() * 2, Integer.MAX_VALUE / 8));
+        int fingerprintBits = CuckooFilter.fingerprintBitsFor(falsePositiveRate);
+        if (maxBytes > 0) {
+            int fitting = CuckooFilter.fingerprintBitsWithin(newCapacity, maxBytes);
+            if (fitting < fingerprintBits) {
+                logger.warn("Revocation filter limited to {} bytes: {}-bit fingerprints instead of {}",
+                        maxBytes, fitting, fingerprintBits);
+                fingerprintBits = fitting;
+            }
+        }
+
+        while (true) {
+            CuckooFilter rebuilt = CuckooFilter.create(newCapacity, fingerprintBits);
+            if (addMembers(rebuilt)) {
+                rebuilt.drainDirty();
+                install(rebuilt, newCapacity);
+                return;
+            }
+            // Unlucky placement; an emptier table always fits
+            newCapacity *= 2;
+        }
+    }
+
+    private boolean addMembers(CuckooFilter target) {
+        boolean[] fitted = {true};
+        members.forEachKey(credentialId -> {
+            if (fitted[0] && !target.add(credentialId)) {
+                fitted[0] = false;
+            }
+        });
+        return fitted[0];
+    }
+
+    private void install(CuckooFilter rebuilt, int newCapacity) {
+        filter = rebuilt;
+        capacity = newCapacity;
+        epoch = Math.max(System.currentTimeMillis(), epoch + 1);
+        patches.clear();
+        snapshot = null;
+        rebuilds++;
+    }
+}
@@ -1,21 +1,23 @@
 package com.finpass.issuer.service;
 
+import com.finpass.issuer.dto.CredentialStatusChange;
 import com.finpass.issuer.dto.CredentialStatusResponse;
 import com.finpass.issuer.dto.RevocationRequest;
 import com.finpass.issuer.entity.CredentialEntity;
 import com.finpass.issuer.entity.CredentialStatusEntity;
 import com.finpass.issuer.repository.CredentialRepository;
+import com.finpass.issuer.repository.CredentialStatusBulkRepository;
+import com.finpass.issuer.repository.CredentialStatusChangeRepository;
 import com.finpass.issuer.repository.CredentialStatusRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -28,19 +30,30 @@ public class RevocationService {
 
     private final CredentialStatusRepository credentialStatusRepository;
     private final CredentialRepository credentialRepository;
+    private final StatusListService statusListService;
+    private final CredentialStatusChangeRepository statusChangeRepository;
+    private final CredentialStatusIndex statusIndex;
+    private final CredentialStatusBulkRepository bulkRepository;
 
     @Autowired
     public RevocationService(CredentialStatusRepository credentialStatusRepository, 
-                           CredentialRepository credentialRepository) {
+                           CredentialRepository credentialRepository,
+                           StatusListService statusListService,
+                           CredentialStatusChangeRepository statusChangeRepository,
+                           CredentialStatusIndex statusIndex,
+                           CredentialStatusBulkRepository bulkRepository) {
         this.credentialStatusRepository = credentialStatusRepository;
         this.credentialRepository = credentialRepository;
+        this.statusListService = statusListService;
+        this.statusChangeRepository = statusChangeRepository;
+        this.statusIndex = statusIndex;
+        this.bulkRepository = bulkRepository;
     }
 
     /**
      * Revoke a credential
      */
     @Transactional
-    @CacheEvict(value = "credentialStatus", key = "#credentialId")
     public CredentialStatusResponse revokeCredential(UUID credentialId, RevocationRequest request) {
         logger.info("Revoking credential {} with reason {} by {}", 
                    credentialId, request.getRevocationReason(), request.getRevokedBy());
@@ -51,10 +64,7 @@ public class RevocationService {
 
         // Find or create status record
         CredentialStatusEntity status = credentialStatusRepository.findByCredentialId(credentialId)
-            .orElseGet(() -> {
-                CredentialStatusEntity newStatus = new CredentialStatusEntity(credential);
-                return credentialStatusRepository.save(newStatus);
-            });
+            .orElseGet(() -> createStatus(credential));
 
         // Check if already revoked
         if (status.isRevoked()) {
@@ -65,6 +75,7 @@ public class RevocationService {
         // Revoke the credential
         status.revoke(request.getRevocationReason(), request.getRevokedBy(), request.getReasonDescription());
         credentialStatusRepository.save(status);
+        statusChanged(status);
 
         logger.info("Successfully revoked credential {}", credentialId);
 
@@ -81,7 +92,6 @@ public class RevocationService {
      * Suspend a credential
      */
     @Transactional
-    @CacheEvict(value = "credentialStatus", key = "#credentialId")
     public CredentialStatusResponse suspendCredential(UUID credentialId, String suspendedBy, String reason) {
         logger.info("Suspending credential {} by {}", credentialId, suspendedBy);
 
@@ -89,10 +99,7 @@ public class RevocationService {
             .orElseThrow(() -> new IllegalArgumentException("Credential not found: " + credentialId));
 
         CredentialStatusEntity status = credentialStatusRepository.findByCredentialId(credentialId)
-            .orElseGet(() -> {
-                CredentialStatusEntity newStatus = new CredentialStatusEntity(credential);
-                return credentialStatusRepository.save(newStatus);
-            });
+            .orElseGet(() -> createStatus(credential));
 
         if (status.isRevoked()) {
             throw new IllegalStateException("Cannot suspend a revoked credential");
@@ -100,6 +107,7 @@ public class RevocationService {
 
         status.suspend(suspendedBy, reason);
         credentialStatusRepository.save(status);
+        statusChanged(status);
 
         logger.info("Successfully suspended credential {}", credentialId);
 
@@ -110,7 +118,6 @@ public class RevocationService {
      * Reinstate a suspended credential
      */
     @Transactional
-    @CacheEvict(value = "credentialStatus", key = "#credentialId")
     public CredentialStatusResponse reinstateCredential(UUID credentialId, String reinstatedBy) {
         logger.info("Reinstating credential {} by {}", credentialId, reinstatedBy);
 
@@ -127,6 +134,7 @@ public class RevocationService {
 
         status.reinstate(reinstatedBy);
         credentialStatusRepository.save(status);
+        statusChanged(status);
 
         logger.info("Successfully reinstated credential {}", credentialId);
 
@@ -134,19 +142,29 @@ public class RevocationService {
     }
 
     /**
-     * Get credential status with caching
+     * Get credential status; valid credentials are answered from the status index, while
+     * revocation and suspension details are read from the database
      */
-    @Transactional(readOnly = true)
-    @Cacheable(value = "credentialStatus", key = "#credentialId")
     public CredentialStatusResponse getCredentialStatus(UUID credentialId) {
         logger.debug("Getting status for credential {}", credentialId);
 
+        CredentialStatusIndex.IndexedStatus indexed = statusIndex.get(credentialId);
+        if (indexed == CredentialStatusIndex.IndexedStatus.VALID || indexed == CredentialStatusIndex.IndexedStatus.NO_STATUS) {
+            return CredentialStatusResponse.valid(credentialId);
+        }
+
         // First check if credential exists
-        if (!credentialRepository.existsById(credentialId)) {
+        if (indexed == null && !credentialRepository.existsById(credentialId)) {
             throw new IllegalArgumentException("Credential not found: " + credentialId);
         }
 
-        return credentialStatusRepository.findByCredentialId(credentialId)
+        Optional<CredentialStatusEntity> record = credentialStatusRepository.findByCredentialId(credentialId);
+        if (indexed == null) {
+            statusIndex.putIfAbsent(credentialId, CredentialStatusIndex.IndexedStatus.of(
+                record.map(CredentialStatusEntity::getStatus).orElse(null)));
+        }
+
+        return record
             .map(status -> {
                 switch (status.getStatus()) {
                     case VALID:
@@ -179,19 +197,22 @@ public class RevocationService {
     /**
      * Check if credential is valid (for verification)
      */
-    @Transactional(readOnly = true)
-    @Cacheable(value = "credentialValidity", key = "#credentialId")
     public boolean isCredentialValid(UUID credentialId) {
-        return credentialStatusRepository.isCredentialValid(credentialId);
+        return indexedStatus(credentialId) == CredentialStatusIndex.IndexedStatus.VALID;
     }
 
     /**
      * Check if credential is revoked (for verification)
      */
-    @Transactional(readOnly = true)
-    @Cacheable(value = "credentialRevocation", key = "#credentialId")
     public boolean isCredentialRevoked(UUID credentialId) {
-        return credentialStatusRepository.isCredentialRevoked(credentialId);
+        return indexedStatus(credentialId) == CredentialStatusIndex.IndexedStatus.REVOKED;
+    }
+
+    /**
+     * Drop a credential from the status index, so its status is re-read from the database
+     */
+    public void evictCredentialStatus(UUID credentialId) {
+        statusIndex.evict(credentialId);
     }
 
     /**
@@ -219,14 +240,79 @@ public class RevocationService {
     }
 
     /**
-     * Initialize status for a newly issued credential
+     * Initialize status for a newly issued credential at the status list index allocated
+     * before signing, which its credentialStatus entry points to
      */
     @Transactional
-    public CredentialStatusEntity initializeCredentialStatus(CredentialEntity credential) {
+    public CredentialStatusEntity initializeCredentialStatus(CredentialEntity credential, int statusListIndex) {
         logger.debug("Initializing status for new credential {}", credential.getId());
 
+        return createStatus(credential, statusListIndex);
+    }
+
+    /**
+     * Initialize VALID status records for newly issued credentials with one statement, at
+     * the status list indexes allocated before signing, pairwise
+     */
+    @Transactional
+    public void initializeCredentialStatuses(List<UUID> credentialIds, List<Integer> statusListIndexes, Instant now) {
+        logger.debug("Initializing status for {} new credentials", credentialIds.size());
+
+        bulkRepository.create(credentialIds, statusListIndexes, now);
+        for (UUID credentialId : credentialIds) {
+            statusIndex.statusChanged(credentialId, CredentialStatusEntity.Status.VALID);
+        }
+    }
+
+    /**
+     * Get status changes after a feed position, oldest first, for incremental sync
+     */
+    @Transactional(readOnly = true)
+    public List<CredentialStatusChange> getStatusChanges(long after, int limit) {
+        return statusChangeRepository.findAfter(after, limit);
+    }
+
+    /**
+     * Record a saved status change in the change feed (same transaction) and the status lists
+     */
+    private void statusChanged(CredentialStatusEntity status) {
+        statusChangeRepository.append(status);
+        statusListService.statusChanged(status.getStatusListIndex(), status.getStatus());
+        statusIndex.statusChanged(status.getCredential().getId(), status.getStatus());
+    }
+
+    /**
+     * Indexed status of a credential, reading and indexing it on a miss; null if the
+     * credential does not exist
+     */
+    private CredentialStatusIndex.IndexedStatus indexedStatus(UUID credentialId) {
+        CredentialStatusIndex.IndexedStatus indexed = statusIndex.get(credentialId);
+        if (indexed != null) {
+            return indexed;
+        }
+        if (!credentialRepository.existsById(credentialId)) {
+            return null;
+        }
+        indexed = CredentialStatusIndex.IndexedStatus.of(credentialStatusRepository.findByCredentialId(credentialId)
+            .map(CredentialStatusEntity::getStatus)
+            .orElse(null));
+        statusIndex.putIfAbsent(credentialId, indexed);
+        return indexed;
+    }
+
+    /**
+     * Create a VALID status record with a newly allocated status list index
+     */
+    private CredentialStatusEntity createStatus(CredentialEntity credential) {
+        return createStatus(credential, statusListService.allocateIndex());
+    }
+
+    private CredentialStatusEntity createStatus(CredentialEntity credential, int statusListIndex) {
         CredentialStatusEntity status = new CredentialStatusEntity(credential);
-        return credentialStatusRepository.save(status);
+        status.setStatusListIndex(statusListIndex);
+        CredentialStatusEntity saved = credentialStatusRepository.save(status);
+        statusIndex.statusChanged(credential.getId(), CredentialStatusEntity.Status.VALID);
+        return saved;
     }
 
     /**
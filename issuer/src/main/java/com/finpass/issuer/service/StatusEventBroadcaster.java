@@ -0,0 +1,301 @@
+package com.finpass.issuer.service;
+
+import com.finpass.issuer.dto.CredentialStatusChange;
+import com.finpass.issuer.repository.CredentialStatusChangeRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes credential status changes to subscribed verifiers as server-sent events.
+ *
+ * A dispatcher tails the status change feed (so changes committed by any instance are
+ * pushed) and copies each change into every subscriber's bounded buffer; sender threads
+ * drain the buffers to the clients. A subscriber whose buffer fills up is disconnected
+ * rather than slowing everyone down, and resumes by reconnecting with Last-Event-ID (the
+ * feed seq), which replays the missed changes from the feed before going live again.
+ */
+@Service
+public class StatusEventBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatusEventBroadcaster.class);
+
+    static final String EVENT_NAME = "status";
+    static final int FEED_BATCH = 500;
+
+    private final CredentialStatusChangeRepository statusChangeRepository;
+    private final int bufferSize;
+    private final long pollIntervalMs;
+    private final long heartbeatIntervalMs;
+    private final long emitterTimeoutMs;
+    private final int maxSubscribers;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "status-event-dispatcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService senders;
+    private final AtomicLong slowDisconnects = new AtomicLong();
+    private volatile long cursor = -1;
+
+    @Autowired
+    public StatusEventBroadcaster(CredentialStatusChangeRepository statusChangeRepository,
+                                  @Value("${status-events.buffer-size:1000}") int bufferSize,
+                                  @Value("${status-events.poll-interval-ms:250}") long pollIntervalMs,
+                                  @Value("${status-events.heartbeat-interval-ms:15000}") long heartbeatIntervalMs,
+                                  @Value("${status-events.emitter-timeout-ms:1800000}") long emitterTimeoutMs,
+                                  @Value("${status-events.max-subscribers:1000}") int maxSubscribers,
+                                  @Value("${status-events.sender-threads:4}") int senderThreads) {
+        this.statusChangeRepository = statusChangeRepository;
+        this.bufferSize = bufferSize;
+        this.pollIntervalMs = pollIntervalMs;
+        this.heartbeatIntervalMs = heartbeatIntervalMs;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.maxSubscribers = maxSubscribers;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "status-event-sender-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        dispatcher.scheduleWithFixedDelay(this::dispatchSafely, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+        dispatcher.scheduleWithFixedDelay(this::heartbeat, heartbeatIntervalMs, heartbeatIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            close(subscriber);
+        }
+        senders.shutdownNow();
+    }
+
+    /**
+     * Subscribe to status changes after {@code lastEventId}, or to new changes only when it
+     * is null
+     */
+    public SseEmitter subscribe(Long lastEventId) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new IllegalStateException("Too many status event subscribers");
+        }
+        SseEmitter emitter = newEmitter();
+        Subscriber subscriber;
+        synchronized (this) {
+            long live = currentCursor();
+            long resumeAfter = lastEventId != null ? Math.min(lastEventId, live) : live;
+            subscriber = new Subscriber(emitter, new ArrayBlockingQueue<>(bufferSize), resumeAfter, live);
+            subscribers.add(subscriber);
+        }
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> close(subscriber));
+        emitter.onError(error -> remove(subscriber));
+        logger.info("Status event subscriber connected (resume after {}, {} subscribers)",
+                subscriber.resumeAfter, subscribers.size());
+        drain(subscriber);
+        return emitter;
+    }
+
+    /**
+     * Read new feed entries and buffer them for every subscriber
+     */
+    synchronized void dispatch() {
+        long position = currentCursor();
+        List<CredentialStatusChange> changes;
+        do {
+            changes = statusChangeRepository.findAfter(position, FEED_BATCH);
+            if (changes.isEmpty()) {
+                break;
+            }
+            for (Subscriber subscriber : subscribers) {
+                for (CredentialStatusChange change : changes) {
+                    if (change.getSeq() > subscriber.liveFrom && !subscriber.queue.offer(change)) {
+                        slowDisconnects.incrementAndGet();
+                        logger.warn("Disconnecting slow status event subscriber ({} changes buffered)", bufferSize);
+                        close(subscriber);
+                        break;
+                    }
+                }
+                drain(subscriber);
+            }
+            position = changes.get(changes.size() - 1).getSeq();
+            cursor = position;
+        } while (changes.size() == FEED_BATCH);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("subscribers", subscribers.size());
+        stats.put("cursor", cursor);
+        stats.put("slowDisconnects", slowDisconnects.get());
+        return stats;
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    SseEmitter newEmitter() {
+        return new SseEmitter(emitterTimeoutMs);
+    }
+
+    private void dispatchSafely() {
+        try {
+            dispatch();
+        } catch (Exception e) {
+            logger.warn("Failed to dispatch status events: {}", e.getMessage());
+        }
+    }
+
+    private long currentCursor() {
+        if (cursor < 0) {
+            cursor = statusChangeRepository.findLastSeq();
+        }
+        return cursor;
+    }
+
+    /**
+     * Send a subscriber its missed changes (once), then whatever is buffered, on a sender
+     * thread; at most one drain per subscriber runs at a time
+     */
+    private void drain(Subscriber subscriber) {
+        if (subscriber.closed || !subscriber.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            senders.execute(() -> {
+                try {
+                    if (!subscriber.replayed) {
+                        replay(subscriber);
+                        subscriber.replayed = true;
+                    }
+                    CredentialStatusChange change;
+                    while (!subscriber.closed && (change = subscriber.queue.poll()) != null) {
+                        send(subscriber, change);
+                    }
+                } catch (Exception e) {
+                    logger.debug("Status event subscriber gone: {}", e.getMessage());
+                    close(subscriber);
+                } finally {
+                    subscriber.draining.set(false);
+                }
+                if (!subscriber.closed && !subscriber.queue.isEmpty()) {
+                    drain(subscriber);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            subscriber.draining.set(false);
+        }
+    }
+
+    /**
+     * Send the feed entries between the subscriber's Last-Event-ID and the point it went live
+     */
+    private void replay(Subscriber subscriber) throws IOException {
+        subscriber.emitter.send(SseEmitter.event().reconnectTime(3000).comment("connected"));
+        long after = subscriber.resumeAfter;
+        while (after < subscriber.liveFrom && !subscriber.closed) {
+            List<CredentialStatusChange> page = statusChangeRepository.findAfter(after, FEED_BATCH);
+            if (page.isEmpty()) {
+                return;
+            }
+            for (CredentialStatusChange change : page) {
+                if (change.getSeq() > subscriber.liveFrom) {
+                    return;
+                }
+                send(subscriber, change);
+                after = change.getSeq();
+            }
+        }
+    }
+
+    private void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            try {
+                senders.execute(() -> {
+                    try {
+                        subscriber.emitter.send(SseEmitter.event().comment("keepalive"));
+                    } catch (Exception e) {
+                        close(subscriber);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                return;
+            }
+        }
+    }
+
+    private static void send(Subscriber subscriber, CredentialStatusChange change) throws IOException {
+        subscriber.emitter.send(SseEmitter.event()
+                .id(String.valueOf(change.getSeq()))
+                .name(EVENT_NAME)
+                .data(change, MediaType.APPLICATION_JSON));
+    }
+
+    private void close(Subscriber subscriber) {
+        if (!subscriber.closed) {
+            subscriber.closed = true;
+            remove(subscriber);
+            try {
+                subscriber.emitter.complete();
+            } catch (Exception e) {
+                logger.debug("Error completing status event stream: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscriber.closed = true;
+        if (subscribers.remove(subscriber)) {
+            logger.info("Status event subscriber disconnected ({} subscribers)", subscribers.size());
+        }
+    }
+
+    /**
+     * A connected client: its emitter, buffered live changes, and where its replay ends
+     */
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<CredentialStatusChange> queue;
+        private final long resumeAfter;
+        private final long liveFrom;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean replayed;
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter, ArrayBlockingQueue<CredentialStatusChange> queue,
+                           long resumeAfter, long liveFrom) {
+            this.emitter = emitter;
+            this.queue = queue;
+            this.resumeAfter = resumeAfter;
+            this.liveFrom = liveFrom;
+        }
+    }
+}
@@ -0,0 +1,377 @@
+package com.finpass.issuer.service;
+
+import com.finpass.issuer.entity.CredentialStatusEntity;
+import com.finpass.issuer.repository.CredentialStatusRepository;
+import com.finpass.issuer.util.Hashing;
+import com.finpass.issuer.util.StatusBitmap;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Maintains the issuer's StatusList2021 revocation and suspension lists.
+ *
+ * Every credential gets a fixed index when its status record is created. The set bits of
+ * each list live in memory as a {@link StatusBitmap}, updated after the status change
+ * commits and rebuilt from the database on startup and periodically (to pick up changes
+ * made by other instances). The published list is a signed JWT VC carrying the GZIP'd,
+ * base64url-encoded bitstring; it is re-signed only when the list has changed, so
+ * verifiers can cache it and revalidate with If-None-Match.
+ */
+@Service
+public class StatusListService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatusListService.class);
+
+    /**
+     * Minimum list length required by StatusList2021 (16 KB) for herd privacy
+     */
+    static final int MIN_LIST_BITS = 131072;
+
+    public enum Purpose {
+        REVOCATION, SUSPENSION;
+
+        public String value() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        public static Purpose fromValue(String value) {
+            return Purpose.valueOf(value.toUpperCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * Signed status list credential and its entity tag
+     */
+    public record StatusListDocument(Purpose purpose, String jwt, String etag, long version, Instant issuedAt) {}
+
+    private final CredentialStatusRepository credentialStatusRepository;
+    private final IssuerKeyProvider keyProvider;
+    private final String issuerDid;
+    private final String issuerUrl;
+
+    private final Map<Purpose, StatusBitmap> lists = new EnumMap<>(Purpose.class);
+    private final Map<Purpose, StatusListDocument> documents = new EnumMap<>(Purpose.class);
+    private int highestIndex = -1;
+    private long version;
+
+    public StatusListService(
+            CredentialStatusRepository credentialStatusRepository,
+            IssuerKeyProvider keyProvider,
+            @Value("${issuer.did}") String issuerDid,
+            @Value("${issuer.url:http://localhost:8080}") String issuerUrl
+    ) {
+        this.credentialStatusRepository = credentialStatusRepository;
+        this.keyProvider = keyProvider;
+        this.issuerDid = issuerDid;
+        this.issuerUrl = issuerUrl;
+        for (Purpose purpose : Purpose.values()) {
+            lists.put(purpose, new StatusBitmap());
+        }
+    }
+
+    /**
+     * Allocate a status list index for a new status record
+     */
+    public int allocateIndex() {
+        int index = Math.toIntExact(credentialStatusRepository.nextStatusListIndex());
+        covered(index);
+        return index;
+    }
+
+    /**
+     * Allocate status list indexes for a batch of new status records, in one query
+     */
+    public List<Integer> allocateIndexes(int count) {
+        List<Integer> indexes = credentialStatusRepository.nextStatusListIndexes(count).stream()
+                .map(Math::toIntExact)
+                .toList();
+        indexesAllocated(indexes);
+        return indexes;
+    }
+
+    /**
+     * Reflect a status change in the lists once the surrounding transaction commits
+     * (immediately if there is none)
+     */
+    public void statusChanged(Integer index, CredentialStatusEntity.Status status) {
+        if (index == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(index, status);
+                }
+            });
+        } else {
+            apply(index, status);
+        }
+    }
+
+    /**
+     * Reflect a bulk status change, registering a single synchronization for all indexes
+     */
+    public void statusChanged(Collection<Integer> indexes, CredentialStatusEntity.Status status) {
+        if (indexes.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyAll(indexes, status);
+                }
+            });
+        } else {
+            applyAll(indexes, status);
+        }
+    }
+
+    /**
+     * Record indexes allocated outside {@link #allocateIndex()}, e.g. by a set-based insert
+     */
+    public void indexesAllocated(Collection<Integer> indexes) {
+        int highest = -1;
+        for (Integer index : indexes) {
+            highest = Math.max(highest, index);
+        }
+        if (highest >= 0) {
+            covered(highest);
+        }
+    }
+
+    /**
+     * Whether the bit for an index is set in a list
+     */
+    public synchronized boolean isSet(Purpose purpose, int index) {
+        return lists.get(purpose).get(index);
+    }
+
+    /**
+     * Current signed list, re-signed only if it changed since the last call
+     */
+    public synchronized StatusListDocument getDocument(Purpose purpose) {
+        StatusListDocument document = documents.get(purpose);
+        if (document == null || document.version() != version) {
+            document = sign(purpose);
+            documents.put(purpose, document);
+        }
+        return document;
+    }
+
+    /**
+     * Status list URL for a purpose, as referenced by credentialStatus entries
+     */
+    public String getListUrl(Purpose purpose) {
+        return issuerUrl + "/api/v1/status-lists/" + purpose.value();
+    }
+
+    /**
+     * StatusList2021Entry to embed in an issued credential
+     */
+    public Map<String, Object> credentialStatusEntry(int index, Purpose purpose) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("id", getListUrl(purpose) + "#" + index);
+        entry.put("type", "StatusList2021Entry");
+        entry.put("statusPurpose", purpose.value());
+        entry.put("statusListIndex", String.valueOf(index));
+        entry.put("statusListCredential", getListUrl(purpose));
+        return entry;
+    }
+
+    /**
+     * List sizes and memory use, for monitoring
+     */
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("version", version);
+        for (Purpose purpose : Purpose.values()) {
+            StatusBitmap list = lists.get(purpose);
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("setBits", list.cardinality());
+            entry.put("lengthBits", listLength(highestIndex));
+            entry.put("heapBytes", list.sizeInBytes());
+            stats.put(purpose.value(), entry);
+        }
+        return stats;
+    }
+
+    /**
+     * Rebuild both lists from the database
+     */
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${status-list.refresh-interval-ms:300000}",
+               initialDelayString = "${status-list.refresh-interval-ms:300000}")
+    public void reload() {
+        try {
+            // Retry if a local change lands while the rows are being read, so it is not lost
+            for (int attempt = 0; attempt < 3; attempt++) {
+                long before = currentVersion();
+                int maxIndex = credentialStatusRepository.findMaxStatusListIndex();
+                List<Object[]> rows = credentialStatusRepository.findNonValidStatusListEntries();
+                Map<Purpose, StatusBitmap> loaded = new EnumMap<>(Purpose.class);
+                for (Purpose purpose : Purpose.values()) {
+                    loaded.put(purpose, new StatusBitmap());
+                }
+                for (Object[] row : rows) {
+                    int index = ((Number) row[0]).intValue();
+                    CredentialStatusEntity.Status status = CredentialStatusEntity.Status.valueOf((String) row[1]);
+                    loaded.get(Purpose.REVOCATION).set(index, status == CredentialStatusEntity.Status.REVOKED);
+                    loaded.get(Purpose.SUSPENSION).set(index, status == CredentialStatusEntity.Status.SUSPENDED);
+                }
+                if (replace(loaded, maxIndex, before)) {
+                    logger.info("Loaded status lists: {} revoked, {} suspended",
+                            loaded.get(Purpose.REVOCATION).cardinality(), loaded.get(Purpose.SUSPENSION).cardinality());
+                    return;
+                }
+            }
+            logger.warn("Status lists changed during every reload attempt; keeping the in-memory lists");
+        } catch (Exception e) {
+            logger.error("Failed to load status lists", e);
+        }
+    }
+
+    private synchronized long currentVersion() {
+        return version;
+    }
+
+    private synchronized boolean replace(Map<Purpose, StatusBitmap> loaded, int maxIndex, long expectedVersion) {
+        if (version != expectedVersion) {
+            return false;
+        }
+        boolean changed = false;
+        for (Purpose purpose : Purpose.values()) {
+            if (!lists.get(purpose).sameBits(loaded.get(purpose))) {
+                lists.put(purpose, loaded.get(purpose));
+                changed = true;
+            }
+        }
+        if (changed) {
+            version++;
+        }
+        covered(maxIndex);
+        return true;
+    }
+
+    /**
+     * Grow the published lists when an index beyond their current length is allocated
+     */
+    private synchronized void covered(int index) {
+        if (index > highestIndex) {
+            if (listLength(index) != listLength(highestIndex)) {
+                version++;
+            }
+            highestIndex = index;
+        }
+    }
+
+    private synchronized void apply(int index, CredentialStatusEntity.Status status) {
+        boolean revoked = lists.get(Purpose.REVOCATION).set(index, status == CredentialStatusEntity.Status.REVOKED);
+        boolean suspended = lists.get(Purpose.SUSPENSION).set(index, status == CredentialStatusEntity.Status.SUSPENDED);
+        if (revoked || suspended) {
+            version++;
+        }
+        covered(index);
+    }
+
+    private synchronized void applyAll(Collection<Integer> indexes, CredentialStatusEntity.Status status) {
+        for (Integer index : indexes) {
+            if (index != null) {
+                apply(index, status);
+            }
+        }
+    }
+
+    private StatusListDocument sign(Purpose purpose) {
+        try {
+            Instant now = Instant.now();
+            String encodedList = encode(lists.get(purpose), listLength(highestIndex));
+            String listUrl = getListUrl(purpose);
+
+            Map<String, Object> subject = new LinkedHashMap<>();
+            subject.put("id", listUrl + "#list");
+            subject.put("type", "StatusList2021");
+            subject.put("statusPurpose", purpose.value());
+            subject.put("encodedList", encodedList);
+
+            Map<String, Object> vc = new LinkedHashMap<>();
+            vc.put("@context", List.of("https://www.w3.org/2018/credentials/v1", "https://w3id.org/vc/status-list/2021/v1"));
+            vc.put("id", listUrl);
+            vc.put("type", List.of("VerifiableCredential", "StatusList2021Credential"));
+            vc.put("issuer", issuerDid);
+            vc.put("issuanceDate", now.toString());
+            vc.put("credentialSubject", subject);
+
+            JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .issuer(issuerDid)
+                .subject(listUrl)
+                .issueTime(Date.from(now))
+                .notBeforeTime(Date.from(now))
+                .claim("vc", vc)
+                .build();
+
+            JWSHeader header = new JWSHeader.Builder(keyProvider.getAlgorithm())
+                .type(JOSEObjectType.JWT)
+                .keyID(keyProvider.getKeyId())
+                .build();
+
+            SignedJWT jwt = new SignedJWT(header, claims);
+            jwt.sign(keyProvider.signer());
+
+            // The tag depends only on the list contents, so it survives restarts and re-signing
+            String etag = "\"" + purpose.value() + "-" + Hashing.sha256Hex(encodedList).substring(0, 32) + "\"";
+            logger.debug("Signed {} status list version {}", purpose.value(), version);
+            return new StatusListDocument(purpose, jwt.serialize(), etag, version, now);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to sign status list credential", e);
+        }
+    }
+
+    /**
+     * GZIP the bitstring and base64url-encode it without padding
+     */
+    static String encode(StatusBitmap list, int lengthBits) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(list.toBitstring(lengthBits));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to compress status list", e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(out.toByteArray());
+    }
+
+    /**
+     * Length in bits of a list covering every allocated index: whole 16 KB blocks plus one
+     * spare block, so indexes allocated by other instances before the next reload are
+     * still inside the published list
+     */
+    static int listLength(int highestIndex) {
+        long blocks = ((long) highestIndex + 1 + MIN_LIST_BITS - 1) / MIN_LIST_BITS + 1;
+        return Math.toIntExact(blocks * MIN_LIST_BITS);
+    }
+}
@@ -0,0 +1,141 @@
+package com.finpass.issuer.service;
+
+import com.finpass.issuer.repository.UserUpsertRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Bounded DID to user id cache in front of the user upsert.
+ *
+ * Users are never deleted or re-keyed, so a cached id stays valid and a hit needs no query.
+ * A user created by the current transaction is cached only once it commits, so a rolled
+ * back issuance cannot leave behind an id with no row. The least recently used DID is
+ * evicted when full.
+ */
+@Component
+public class UserIdCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserIdCache.class);
+
+    private final UserUpsertRepository userUpsertRepository;
+    private final int maxEntries;
+    private final LinkedHashMap<String, UUID> userIds;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    @Autowired
+    public UserIdCache(UserUpsertRepository userUpsertRepository,
+                       @Value("${user-cache.max-entries:100000}") int maxEntries) {
+        this.userUpsertRepository = userUpsertRepository;
+        this.maxEntries = maxEntries;
+        this.userIds = new LinkedHashMap<>(Math.min(maxEntries, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, UUID> eldest) {
+                if (size() > UserIdCache.this.maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+        logger.info("User id cache ready: max {} entries", maxEntries);
+    }
+
+    /**
+     * Id of the user with this DID, creating the user if there is none
+     */
+    public UUID resolve(String did, Instant now) {
+        UUID cached = get(did);
+        if (cached != null) {
+            return cached;
+        }
+        UserUpsertRepository.Upserted upserted = userUpsertRepository.upsert(did, now);
+        cache(Map.of(did, upserted));
+        return upserted.id();
+    }
+
+    /**
+     * Ids of the users with these DIDs, creating the missing ones with one statement
+     */
+    public Map<String, UUID> resolveAll(Collection<String> dids, Instant now) {
+        Map<String, UUID> resolved = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        synchronized (this) {
+            for (String did : dids) {
+                UUID cached = userIds.get(did);
+                if (cached != null) {
+                    resolved.put(did, cached);
+                } else {
+                    missing.add(did);
+                }
+            }
+            hits += resolved.size();
+            misses += missing.size();
+        }
+        if (!missing.isEmpty()) {
+            Map<String, UserUpsertRepository.Upserted> upserted = userUpsertRepository.upsertAll(missing, now);
+            upserted.forEach((did, user) -> resolved.put(did, user.id()));
+            cache(upserted);
+        }
+        return resolved;
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", userIds.size());
+        stats.put("maxEntries", maxEntries);
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("evictions", evictions);
+        return stats;
+    }
+
+    private synchronized UUID get(String did) {
+        UUID cached = userIds.get(did);
+        if (cached != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return cached;
+    }
+
+    private void cache(Map<String, UserUpsertRepository.Upserted> upserted) {
+        Map<String, UUID> existing = new HashMap<>();
+        Map<String, UUID> inserted = new HashMap<>();
+        upserted.forEach((did, user) -> (user.inserted() ? inserted : existing).put(did, user.id()));
+        putAll(existing);
+        if (inserted.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    putAll(inserted);
+                }
+            });
+        } else {
+            putAll(inserted);
+        }
+    }
+
+    private synchronized void putAll(Map<String, UUID> users) {
+        userIds.putAll(users);
+    }
+}
@@ -0,0 +1,50 @@
+package com.finpass.issuer.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Serializes audit details, previous_values and new_values for the JSONB columns.
+ *
+ * The writer is built once and shared: ObjectWriter is immutable and thread-safe, and
+ * reusing it keeps Jackson's serializer caches warm instead of rebuilding them per event.
+ */
+public final class AuditJson {
+
+    private static final ObjectWriter WRITER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+            .writer();
+
+    private AuditJson() {
+    }
+
+    /**
+     * JSON object for the map, or null when there is nothing to store.
+     * Values Jackson cannot serialize are stored by their toString() rather than
+     * dropping the event.
+     */
+    public static String toJson(Map<String, ?> values) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        try {
+            return WRITER.writeValueAsString(values);
+        } catch (JsonProcessingException e) {
+            Map<String, String> fallback = new LinkedHashMap<>();
+            values.forEach((key, value) -> fallback.put(key, String.valueOf(value)));
+            try {
+                return WRITER.writeValueAsString(fallback);
+            } catch (JsonProcessingException unexpected) {
+                throw new IllegalStateException("Failed to serialize audit details", unexpected);
+            }
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package com.finpass.issuer.util;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Cuckoo filter over UUIDs: approximate membership with no false negatives, and unlike a
+ * Bloom filter it supports deletes.
+ *
+ * Each key is reduced to a fingerprint of {@code fingerprintBits} bits stored in one of two
+ * candidate buckets of four slots, packed into a long[]. The alternate bucket is
+ * {@code (H(fp) - i) mod buckets}, which maps each candidate to the other for any bucket
+ * count, so the table is sized to the capacity rather than to a power of two. The false
+ * positive rate is about {@code 8 * load / 2^fingerprintBits}.
+ *
+ * Slots written since the last {@link #drainDirty()} are tracked so readers holding a copy
+ * can be sent only the slots that changed. The layout and hashing are shared with the
+ * verifier's copy of this class; keep them in step. Not thread-safe; callers synchronize.
+ */
+public final class CuckooFilter {
+
+    public static final int BUCKET_SIZE = 4;
+    public static final int MIN_FINGERPRINT_BITS = 4;
+    public static final int MAX_FINGERPRINT_BITS = 32;
+
+    /**
+     * Highest load factor a filter is sized for; inserts start failing above ~0.95
+     */
+    public static final double MAX_LOAD = 0.9;
+
+    private static final int MAX_KICKS = 500;
+
+    private final int fingerprintBits;
+    private final long fingerprintMask;
+    private final int buckets;
+    private final long[] words;
+    private final BitSet dirty;
+    private final SplittableRandom random = new SplittableRandom(16);
+    private int size;
+
+    private CuckooFilter(int fingerprintBits, int buckets, long[] words, int size) {
+        this.fingerprintBits = fingerprintBits;
+        this.fingerprintMask = (1L << fingerprintBits) - 1;
+        this.buckets = buckets;
+        this.words = words;
+        this.dirty = new BitSet(slots());
+        this.size = size;
+    }
+
+    /**
+     * Empty filter sized to hold {@code capacity} keys at no more than {@link #MAX_LOAD}
+     */
+    public static CuckooFilter create(int capacity, int fingerprintBits) {
+        int buckets = bucketsFor(capacity);
+        return new CuckooFilter(fingerprintBits, buckets, new long[wordsFor(buckets, fingerprintBits)], 0);
+    }
+
+    public static int bucketsFor(int capacity) {
+        return Math.max(1, (int) Math.ceil(capacity / (BUCKET_SIZE * MAX_LOAD)));
+    }
+
+    /**
+     * Fingerprint size giving at most {@code falsePositiveRate} at full load
+     */
+    public static int fingerprintBitsFor(double falsePositiveRate) {
+        int bits = (int) Math.ceil(log2(2.0 * BUCKET_SIZE / falsePositiveRate));
+        return Math.max(MIN_FINGERPRINT_BITS, Math.min(MAX_FINGERPRINT_BITS, bits));
+    }
+
+    /**
+     * Largest fingerprint size whose table for {@code capacity} keys fits {@code maxBytes}
+     */
+    public static int fingerprintBitsWithin(int capacity, long maxBytes) {
+        long slots = (long) bucketsFor(capacity) * BUCKET_SIZE;
+        int bits = (int) Math.min(MAX_FINGERPRINT_BITS, maxBytes * 8 / slots);
+        return Math.max(MIN_FINGERPRINT_BITS, bits);
+    }
+
+    /**
+     * Add a key. Adding a key twice stores it twice, so callers add each key once. When this
+     * returns false the table is too full and a fingerprint was lost: the filter must be
+     * rebuilt larger.
+     */
+    public boolean add(UUID key) {
+        long hash = hash(key);
+        long fingerprint = fingerprint(hash);
+        int bucket = bucket(hash);
+        if (insertIntoBucket(bucket, fingerprint) || insertIntoBucket(alternate(bucket, fingerprint), fingerprint)) {
+            size++;
+            return true;
+        }
+        for (int kick = 0; kick < MAX_KICKS; kick++) {
+            int slot = bucket * BUCKET_SIZE + random.nextInt(BUCKET_SIZE);
+            long victim = get(slot);
+            set(slot, fingerprint);
+            fingerprint = victim;
+            bucket = alternate(bucket, fingerprint);
+            if (insertIntoBucket(bucket, fingerprint)) {
+                size++;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Remove one copy of a key previously added; returns whether a fingerprint was removed
+     */
+    public boolean remove(UUID key) {
+        long hash = hash(key);
+        long fingerprint = fingerprint(hash);
+        int bucket = bucket(hash);
+        if (removeFromBucket(bucket, fingerprint) || removeFromBucket(alternate(bucket, fingerprint), fingerprint)) {
+            size--;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * False means the key was definitely not added; true means it probably was
+     */
+    public boolean mightContain(UUID key) {
+        long hash = hash(key);
+        long fingerprint = fingerprint(hash);
+        int bucket = bucket(hash);
+        return bucketContains(bucket, fingerprint) || bucketContains(alternate(bucket, fingerprint), fingerprint);
+    }
+
+    /**
+     * Slots written since the previous call, ascending
+     */
+    public int[] drainDirty() {
+        int[] slots = dirty.stream().toArray();
+        dirty.clear();
+        return slots;
+    }
+
+    /**
+     * Raw slot contents (0 when empty), for sending with {@link #drainDirty()}
+     */
+    public long get(int slot) {
+        long bitIndex = (long) slot * fingerprintBits;
+        int word = (int) (bitIndex >>> 6);
+        int offset = (int) (bitIndex & 63);
+        long value = words[word] >>> offset;
+        if (offset + fingerprintBits > 64) {
+            value |= words[word + 1] << (64 - offset);
+        }
+        return value & fingerprintMask;
+    }
+
+    /**
+     * Overwrite slots and the entry count with a patch from the filter's publisher
+     */
+    public void applyPatch(int[] slots, long[] values, int newSize) {
+        if (slots.length != values.length) {
+            throw new IllegalArgumentException("Patch slots and values differ in length");
+        }
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] < 0 || slots[i] >= slots() || (values[i] & ~fingerprintMask) != 0) {
+                throw new IllegalArgumentException("Patch does not fit this filter");
+            }
+        }
+        for (int i = 0; i < slots.length; i++) {
+            set(slots[i], values[i]);
+        }
+        dirty.clear();
+        size = newSize;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int buckets() {
+        return buckets;
+    }
+
+    public int slots() {
+        return buckets * BUCKET_SIZE;
+    }
+
+    public int fingerprintBits() {
+        return fingerprintBits;
+    }
+
+    public double loadFactor() {
+        return (double) size / slots();
+    }
+
+    /**
+     * Expected false positive rate at the current load
+     */
+    public double falsePositiveRate() {
+        return 1 - Math.pow(1 - 1.0 / fingerprintMask, 2.0 * BUCKET_SIZE * loadFactor());
+    }
+
+    public long sizeInBytes() {
+        return (long) words.length * Long.BYTES;
+    }
+
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(fingerprintBits);
+        out.writeInt(buckets);
+        out.writeInt(size);
+        out.writeInt(words.length);
+        for (long word : words) {
+            out.writeLong(word);
+        }
+    }
+
+    public static CuckooFilter readFrom(DataInputStream in) throws IOException {
+        int fingerprintBits = in.readInt();
+        int buckets = in.readInt();
+        int size = in.readInt();
+        int length = in.readInt();
+        if (fingerprintBits < MIN_FINGERPRINT_BITS || fingerprintBits > MAX_FINGERPRINT_BITS
+                || buckets < 1 || length != wordsFor(buckets, fingerprintBits)) {
+            throw new IOException("Malformed cuckoo filter");
+        }
+        long[] words = new long[length];
+        for (int i = 0; i < length; i++) {
+            words[i] = in.readLong();
+        }
+        return new CuckooFilter(fingerprintBits, buckets, words, size);
+    }
+
+    private boolean insertIntoBucket(int bucket, long fingerprint) {
+        int first = bucket * BUCKET_SIZE;
+        for (int slot = first; slot < first + BUCKET_SIZE; slot++) {
+            if (get(slot) == 0) {
+                set(slot, fingerprint);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean removeFromBucket(int bucket, long fingerprint) {
+        int first = bucket * BUCKET_SIZE;
+        for (int slot = first; slot < first + BUCKET_SIZE; slot++) {
+            if (get(slot) == fingerprint) {
+                set(slot, 0);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean bucketContains(int bucket, long fingerprint) {
+        int first = bucket * BUCKET_SIZE;
+        for (int slot = first; slot < first + BUCKET_SIZE; slot++) {
+            if (get(slot) == fingerprint) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void set(int slot, long value) {
+        long bitIndex = (long) slot * fingerprintBits;
+        int word = (int) (bitIndex >>> 6);
+        int offset = (int) (bitIndex & 63);
+        words[word] = (words[word] & ~(fingerprintMask << offset)) | (value << offset);
+        if (offset + fingerprintBits > 64) {
+            int spilled = 64 - offset;
+            words[word + 1] = (words[word + 1] & ~(fingerprintMask >>> spilled)) | (value >>> spilled);
+        }
+        dirty.set(slot);
+    }
+
+    private long fingerprint(long hash) {
+        // Low bits; the bucket comes from the high bits. Zero marks an empty slot.
+        long fingerprint = hash & fingerprintMask;
+        return fingerprint == 0 ? 1 : fingerprint;
+    }
+
+    private int bucket(long hash) {
+        return (int) (((hash >>> 32) * buckets) >>> 32);
+    }
+
+    private int alternate(int bucket, long fingerprint) {
+        long offset = mix(fingerprint) >>> 33;
+        return (int) Math.floorMod(offset - bucket, (long) buckets);
+    }
+
+    private static long hash(UUID key) {
+        return mix(key.getMostSignificantBits() ^ mix(key.getLeastSignificantBits()));
+    }
+
+    /**
+     * MurmurHash3 64-bit finalizer
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static int wordsFor(int buckets, int fingerprintBits) {
+        long bits = (long) buckets * BUCKET_SIZE * fingerprintBits;
+        return (int) ((bits + 63) >>> 6);
+    }
+
+    private static double log2(double x) {
+        return Math.log(x) / Math.log(2);
+    }
+}
@@ -0,0 +1,228 @@
+package com.finpass.issuer.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded set of one-time keys that expire, for nonces and replay detection.
+ *
+ * Membership lives in a ConcurrentHashMap, so {@link #consume} is a single lock-free
+ * remove. Expiry is driven by a hierarchical timing wheel of {@link #LEVELS} levels of
+ * {@link #SLOTS} slots: a key is filed in the slot for its expiry tick at the coarsest
+ * level it needs, and cascades one level down each time the wheel reaches its slot, so
+ * insert, consume and expire are all O(1) amortized and no pass ever scans live keys.
+ * The wheel is advanced lazily by {@link #add}, and keys beyond its span are re-filed
+ * when their slot comes round.
+ *
+ * Consumed keys stay in their wheel slot until they expire and count against
+ * {@code maxEntries}, which bounds memory at roughly 140 bytes per key for 32-char keys.
+ * When the set is full, {@link #add} either rejects the key or, if the set was built with
+ * {@code evictWhenFull}, drops the key filed in the earliest wheel slot to make room.
+ * Thread-safe.
+ */
+public final class ExpiringKeySet {
+
+    public static final int SLOTS = 64;
+    public static final int LEVELS = 3;
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final long SPAN_TICKS = 1L << (SLOT_BITS * LEVELS);
+
+    private record Entry(String key, long expiresAtMillis, long expiryTick) {}
+
+    private final long tickMillis;
+    private final int maxEntries;
+    private final ConcurrentHashMap<String, Entry> live;
+    private final boolean evictWhenFull;
+    /** LEVELS x SLOTS slots, level-major; see {@link #slot} */
+    private final List<ArrayDeque<Entry>> wheel;
+
+    // Guarded by this
+    private long currentTick = -1;
+    private int filed;
+
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder rejectedFull = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    public ExpiringKeySet(long tickMillis, int maxEntries) {
+        this(tickMillis, maxEntries, false);
+    }
+
+    public ExpiringKeySet(long tickMillis, int maxEntries, boolean evictWhenFull) {
+        if (tickMillis <= 0 || maxEntries <= 0) {
+            throw new IllegalArgumentException("tickMillis and maxEntries must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.maxEntries = maxEntries;
+        this.evictWhenFull = evictWhenFull;
+        this.live = new ConcurrentHashMap<>(Math.min(maxEntries, 1 << 16));
+        this.wheel = new ArrayList<>(LEVELS * SLOTS);
+        for (int i = 0; i < LEVELS * SLOTS; i++) {
+            wheel.add(new ArrayDeque<>());
+        }
+    }
+
+    /**
+     * Add a key until the given time
+     * @return False if the key is already live, or the set is full and does not evict
+     */
+    public synchronized boolean add(String key, long expiresAtMillis, long nowMillis) {
+        advance(nowMillis);
+        if (filed >= maxEntries && !(evictWhenFull && evictEarliest())) {
+            rejectedFull.increment();
+            return false;
+        }
+        long expiryTick = Math.max(Math.floorDiv(expiresAtMillis + tickMillis - 1, tickMillis), currentTick + 1);
+        Entry entry = new Entry(key, expiresAtMillis, expiryTick);
+        Entry existing = live.putIfAbsent(key, entry);
+        if (existing != null) {
+            if (existing.expiresAtMillis() > nowMillis || !live.replace(key, existing, entry)) {
+                return false;
+            }
+        }
+        file(entry);
+        filed++;
+        return true;
+    }
+
+    /**
+     * Remove a live key
+     * @return Whether the key was live; a second consume of the same key returns false
+     */
+    public boolean consume(String key, long nowMillis) {
+        if (key == null) {
+            return false;
+        }
+        Entry entry = live.remove(key);
+        return entry != null && entry.expiresAtMillis() > nowMillis;
+    }
+
+    /**
+     * Whether the key is live, without consuming it
+     */
+    public boolean contains(String key, long nowMillis) {
+        Entry entry = key != null ? live.get(key) : null;
+        return entry != null && entry.expiresAtMillis() > nowMillis;
+    }
+
+    /**
+     * Live keys, including expired keys whose tick has not been processed yet
+     */
+    public int size() {
+        return live.size();
+    }
+
+    /**
+     * Keys held by the wheel, live or consumed; bounded by maxEntries
+     */
+    public synchronized int filed() {
+        return filed;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public long expiredCount() {
+        return expired.sum();
+    }
+
+    public long rejectedFullCount() {
+        return rejectedFull.sum();
+    }
+
+    public long evictedCount() {
+        return evicted.sum();
+    }
+
+    /**
+     * Process every tick up to now
+     */
+    public synchronized void advance(long nowMillis) {
+        long nowTick = Math.floorDiv(nowMillis, tickMillis);
+        if (currentTick < 0) {
+            currentTick = nowTick;
+            return;
+        }
+        if (filed == 0) {
+            currentTick = Math.max(currentTick, nowTick);
+            return;
+        }
+        while (currentTick < nowTick) {
+            long tick = ++currentTick;
+            // Coarsest level first, so cascaded entries land in slots still to be processed
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((tick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    cascade(slot(level, tick >>> (SLOT_BITS * level)));
+                }
+            }
+            expire(slot(0, tick), tick);
+            if (filed == 0) {
+                currentTick = nowTick;
+            }
+        }
+    }
+
+    private void file(Entry entry) {
+        long expiryTick = Math.min(entry.expiryTick(), currentTick + SPAN_TICKS - 1);
+        long delta = expiryTick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        slot(level, expiryTick >>> (SLOT_BITS * level)).add(entry);
+    }
+
+    /**
+     * Drop the first key of the earliest non-empty slot, finest level first. Level 0 covers
+     * the next 64 ticks, so this is the key expiring soonest to within one level-0 span.
+     * @return False if nothing is filed
+     */
+    private boolean evictEarliest() {
+        for (int level = 0; level < LEVELS; level++) {
+            long position = (currentTick >>> (SLOT_BITS * level)) + 1;
+            for (int i = 0; i < SLOTS; i++) {
+                Entry entry = slot(level, position + i).poll();
+                if (entry != null) {
+                    filed--;
+                    live.remove(entry.key(), entry);
+                    evicted.increment();
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private ArrayDeque<Entry> slot(int level, long position) {
+        return wheel.get(level * SLOTS + (int) (position & SLOT_MASK));
+    }
+
+    private void cascade(ArrayDeque<Entry> slot) {
+        int count = slot.size();
+        for (int i = 0; i < count; i++) {
+            file(slot.poll());
+        }
+    }
+
+    private void expire(ArrayDeque<Entry> slot, long tick) {
+        int count = slot.size();
+        for (int i = 0; i < count; i++) {
+            Entry entry = slot.poll();
+            if (entry.expiryTick() > tick) {
+                // Beyond the wheel's span when filed
+                file(entry);
+                continue;
+            }
+            filed--;
+            if (live.remove(entry.key(), entry)) {
+                expired.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.finpass.issuer.util;
+
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * SHA-256 Merkle tree with inclusion proofs.
+ *
+ * Leaves hash as {@code SHA-256(0x00 || data)} and interior nodes as
+ * {@code SHA-256(0x01 || left || right)}, so a leaf can never pass for a node. A level
+ * with an odd number of nodes promotes its last node unchanged to the level above.
+ *
+ * Nodes are stored level by level, leaves first, as one array of 32-byte hashes; the
+ * position of every node follows from the leaf count alone, so a proof can be read from
+ * the stored array without rebuilding the tree. Trees are built incrementally with
+ * {@link Builder}; large levels are hashed in parallel.
+ */
+public final class MerkleTree {
+
+    public static final int HASH_BYTES = 32;
+
+    /**
+     * Levels with fewer new nodes than this are hashed on the calling thread
+     */
+    static final int PARALLEL_THRESHOLD = 4096;
+
+    private static final byte LEAF_PREFIX = 0;
+    private static final byte NODE_PREFIX = 1;
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final int leafCount;
+    private final byte[] nodes;
+
+    private MerkleTree(int leafCount, byte[] nodes) {
+        this.leafCount = leafCount;
+        this.nodes = nodes;
+    }
+
+    /**
+     * Tree over already-hashed leaves, {@code leafCount} hashes concatenated
+     */
+    public static MerkleTree build(byte[] leafHashes, int leafCount) {
+        Builder builder = new Builder();
+        builder.appendLeafHashes(leafHashes, leafCount);
+        return builder.build();
+    }
+
+    public static byte[] hashLeaf(byte[] data) {
+        MessageDigest digest = SHA_256.get();
+        digest.update(LEAF_PREFIX);
+        return digest.digest(data);
+    }
+
+    public static byte[] hashNode(byte[] left, byte[] right) {
+        MessageDigest digest = SHA_256.get();
+        digest.update(NODE_PREFIX);
+        digest.update(left);
+        return digest.digest(right);
+    }
+
+    public int leafCount() {
+        return leafCount;
+    }
+
+    public byte[] root() {
+        return Arrays.copyOfRange(nodes, nodes.length - HASH_BYTES, nodes.length);
+    }
+
+    /**
+     * Every node, level by level from the leaves up; the root is last
+     */
+    public byte[] nodes() {
+        return nodes;
+    }
+
+    public byte[] node(int nodeIndex) {
+        int offset = nodeIndex * HASH_BYTES;
+        return Arrays.copyOfRange(nodes, offset, offset + HASH_BYTES);
+    }
+
+    /**
+     * Sibling hashes from the leaf up to the root
+     */
+    public List<byte[]> proof(int leafIndex) {
+        List<byte[]> proof = new ArrayList<>();
+        for (int nodeIndex : proofNodeIndexes(leafIndex, leafCount)) {
+            proof.add(node(nodeIndex));
+        }
+        return proof;
+    }
+
+    /**
+     * Number of nodes on each level of a tree with {@code leafCount} leaves, leaves first
+     */
+    public static int[] levelSizes(int leafCount) {
+        if (leafCount < 1) {
+            throw new IllegalArgumentException("A Merkle tree needs at least one leaf");
+        }
+        int levels = 1;
+        for (int size = leafCount; size > 1; size = (size + 1) / 2) {
+            levels++;
+        }
+        int[] sizes = new int[levels];
+        sizes[0] = leafCount;
+        for (int level = 1; level < levels; level++) {
+            sizes[level] = (sizes[level - 1] + 1) / 2;
+        }
+        return sizes;
+    }
+
+    /**
+     * Positions in {@link #nodes()} of the proof for a leaf, from the leaf up
+     */
+    public static int[] proofNodeIndexes(int leafIndex, int leafCount) {
+        if (leafIndex < 0 || leafIndex >= leafCount) {
+            throw new IllegalArgumentException("Leaf " + leafIndex + " is not in a tree of " + leafCount);
+        }
+        int[] sizes = levelSizes(leafCount);
+        int[] indexes = new int[sizes.length - 1];
+        int count = 0;
+        int levelStart = 0;
+        int index = leafIndex;
+        for (int level = 0; level < sizes.length - 1; level++) {
+            int sibling = index ^ 1;
+            if (sibling < sizes[level]) {
+                indexes[count++] = levelStart + sibling;
+            }
+            levelStart += sizes[level];
+            index >>>= 1;
+        }
+        return Arrays.copyOf(indexes, count);
+    }
+
+    /**
+     * Whether {@code proof} links the leaf at {@code leafIndex} to {@code root} in a tree of
+     * {@code leafCount} leaves
+     */
+    public static boolean verify(byte[] leafHash, int leafIndex, int leafCount, List<byte[]> proof, byte[] root) {
+        if (leafIndex < 0 || leafIndex >= leafCount) {
+            return false;
+        }
+        byte[] hash = leafHash;
+        int next = 0;
+        int index = leafIndex;
+        for (int size = leafCount; size > 1; size = (size + 1) / 2) {
+            if ((index & 1) == 1) {
+                if (next == proof.size()) {
+                    return false;
+                }
+                hash = hashNode(proof.get(next++), hash);
+            } else if (index + 1 < size) {
+                if (next == proof.size()) {
+                    return false;
+                }
+                hash = hashNode(hash, proof.get(next++));
+            }
+            index >>>= 1;
+        }
+        return next == proof.size() && MessageDigest.isEqual(hash, root);
+    }
+
+    /**
+     * Appends leaves and hashes every pair it completes straight away, so {@link #build()}
+     * only has to finish the right edge of the tree
+     */
+    public static final class Builder {
+
+        // Complete nodes of each level: node i of level k covers leaves [i * 2^k, (i + 1) * 2^k)
+        private final List<HashBuffer> levels = new ArrayList<>();
+
+        public Builder() {
+            levels.add(new HashBuffer());
+        }
+
+        public int leafCount() {
+            return levels.get(0).count;
+        }
+
+        public void appendLeafHash(byte[] leafHash) {
+            appendLeafHashes(leafHash, 1);
+        }
+
+        /**
+         * Append {@code count} leaf hashes, concatenated
+         */
+        public void appendLeafHashes(byte[] leafHashes, int count) {
+            if (leafHashes.length < count * HASH_BYTES) {
+                throw new IllegalArgumentException("Fewer than " + count + " hashes given");
+            }
+            levels.get(0).append(leafHashes, count);
+            for (int level = 0; levels.get(level).count > 1; level++) {
+                if (level + 1 == levels.size()) {
+                    levels.add(new HashBuffer());
+                }
+                HashBuffer children = levels.get(level);
+                HashBuffer parents = levels.get(level + 1);
+                int from = parents.count;
+                int to = children.count / 2;
+                if (from == to) {
+                    break;
+                }
+                parents.grow(to - from);
+                hashPairs(children.hashes, parents.hashes, from, to);
+                parents.count = to;
+            }
+        }
+
+        public MerkleTree build() {
+            int leafCount = leafCount();
+            int[] sizes = levelSizes(leafCount);
+            int total = 0;
+            for (int size : sizes) {
+                total += size;
+            }
+            byte[] nodes = new byte[total * HASH_BYTES];
+            int levelStart = 0;
+            for (int level = 0; level < sizes.length; level++) {
+                HashBuffer complete = level < levels.size() ? levels.get(level) : null;
+                int completeCount = complete != null ? Math.min(complete.count, sizes[level]) : 0;
+                if (completeCount > 0) {
+                    System.arraycopy(complete.hashes, 0, nodes, levelStart * HASH_BYTES, completeCount * HASH_BYTES);
+                }
+                // At most one node per level covers a partial subtree; it sits on the right edge
+                if (completeCount < sizes[level]) {
+                    int childStart = levelStart - sizes[level - 1];
+                    int left = childStart + 2 * completeCount;
+                    int target = (levelStart + completeCount) * HASH_BYTES;
+                    if (2 * completeCount + 1 < sizes[level - 1]) {
+                        byte[] hash = hashNode(slice(nodes, left), slice(nodes, left + 1));
+                        System.arraycopy(hash, 0, nodes, target, HASH_BYTES);
+                    } else {
+                        System.arraycopy(nodes, left * HASH_BYTES, nodes, target, HASH_BYTES);
+                    }
+                }
+                levelStart += sizes[level];
+            }
+            return new MerkleTree(leafCount, nodes);
+        }
+
+        private static void hashPairs(byte[] children, byte[] parents, int from, int to) {
+            IntStream pairs = IntStream.range(from, to);
+            if (to - from >= PARALLEL_THRESHOLD) {
+                pairs = pairs.parallel();
+            }
+            pairs.forEach(i -> {
+                MessageDigest digest = SHA_256.get();
+                digest.update(NODE_PREFIX);
+                digest.update(children, 2 * i * HASH_BYTES, 2 * HASH_BYTES);
+                try {
+                    digest.digest(parents, i * HASH_BYTES, HASH_BYTES);
+                } catch (DigestException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        }
+
+        private static byte[] slice(byte[] nodes, int nodeIndex) {
+            return Arrays.copyOfRange(nodes, nodeIndex * HASH_BYTES, (nodeIndex + 1) * HASH_BYTES);
+        }
+    }
+
+    /**
+     * Growable array of hashes
+     */
+    private static final class HashBuffer {
+        private byte[] hashes = new byte[64 * HASH_BYTES];
+        private int count;
+
+        private void append(byte[] source, int n) {
+            grow(n);
+            System.arraycopy(source, 0, hashes, count * HASH_BYTES, n * HASH_BYTES);
+            count += n;
+        }
+
+        private void grow(int n) {
+            long needed = (long) (count + n) * HASH_BYTES;
+            if (needed > hashes.length) {
+                if (needed > Integer.MAX_VALUE - 8) {
+                    throw new IllegalStateException("Merkle tree too large");
+                }
+                hashes = Arrays.copyOf(hashes, (int) Math.min(Integer.MAX_VALUE - 8, Math.max(needed, 2L * hashes.length)));
+            }
+        }
+    }
+}
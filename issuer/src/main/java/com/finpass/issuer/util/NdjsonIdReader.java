@@ -0,0 +1,74 @@
+package com.finpass.issuer.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads credential IDs lazily from a newline-delimited body, one per line, as a bare ID,
+ * a JSON string or a JSON object with a credential_id field. Blank lines are skipped;
+ * lines that cannot be read are returned as-is, so the caller reports them as invalid.
+ */
+public final class NdjsonIdReader implements Iterator<String> {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final BufferedReader reader;
+    private String next;
+
+    public NdjsonIdReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next != null) {
+            return true;
+        }
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty()) {
+                    next = parseLine(line);
+                    return true;
+                }
+            }
+            return false;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read request body", e);
+        }
+    }
+
+    @Override
+    public String next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String value = next;
+        next = null;
+        return value;
+    }
+
+    static String parseLine(String line) {
+        char first = line.charAt(0);
+        if (first != '{' && first != '"') {
+            return line;
+        }
+        try {
+            JsonNode node = MAPPER.readTree(line);
+            if (node.isTextual()) {
+                return node.asText();
+            }
+            JsonNode id = node.get("credential_id");
+            return id != null && id.isTextual() ? id.asText() : line;
+        } catch (IOException e) {
+            return line;
+        }
+    }
+}
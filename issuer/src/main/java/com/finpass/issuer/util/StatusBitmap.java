@@ -0,0 +1,251 @@
+package com.finpass.issuer.util;
+
+import java.util.Arrays;
+import java.util.TreeMap;
+
+/**
+ * Compressed bitmap of non-negative ints for credential status lists.
+ *
+ * The index space is split into chunks of 65536 bits. A chunk holds a sorted array of
+ * the set positions while it has at most 4096 of them and switches to a plain 8 KB
+ * bitmap beyond that, so a list where a few credentials out of millions are revoked
+ * takes a few bytes per revocation instead of one bit per issued credential.
+ *
+ * Not thread-safe; callers synchronize.
+ */
+public final class StatusBitmap {
+
+    private static final int CHUNK_BITS = 16;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int ARRAY_MAX = 4096;
+
+    private final TreeMap<Integer, Chunk> chunks = new TreeMap<>();
+    private long cardinality;
+
+    public boolean get(int index) {
+        checkIndex(index);
+        Chunk chunk = chunks.get(index >>> CHUNK_BITS);
+        return chunk != null && chunk.get(index & (CHUNK_SIZE - 1));
+    }
+
+    /**
+     * Set or clear a bit; returns true if the bit changed
+     */
+    public boolean set(int index, boolean value) {
+        checkIndex(index);
+        int key = index >>> CHUNK_BITS;
+        int low = index & (CHUNK_SIZE - 1);
+        Chunk chunk = chunks.get(key);
+        if (!value) {
+            if (chunk == null || !chunk.remove(low)) {
+                return false;
+            }
+            if (chunk.cardinality == 0) {
+                chunks.remove(key);
+            }
+            cardinality--;
+            return true;
+        }
+        if (chunk == null) {
+            chunk = new Chunk();
+            chunks.put(key, chunk);
+        }
+        if (!chunk.add(low)) {
+            return false;
+        }
+        cardinality++;
+        return true;
+    }
+
+    public long cardinality() {
+        return cardinality;
+    }
+
+    /**
+     * Highest set index, or -1 when empty
+     */
+    public int highestSetIndex() {
+        if (chunks.isEmpty()) {
+            return -1;
+        }
+        var last = chunks.lastEntry();
+        return (last.getKey() << CHUNK_BITS) | last.getValue().highest();
+    }
+
+    /**
+     * Approximate heap footprint of the set bits, for monitoring
+     */
+    public long sizeInBytes() {
+        long bytes = 0;
+        for (Chunk chunk : chunks.values()) {
+            bytes += 48 + (chunk.words != null ? chunk.words.length * 8L : chunk.values.length * 2L);
+        }
+        return bytes;
+    }
+
+    /**
+     * Uncompressed bitstring of {@code lengthBits} bits (rounded up to whole bytes) with
+     * index 0 as the most significant bit of the first byte, as StatusList2021 specifies
+     */
+    public byte[] toBitstring(int lengthBits) {
+        byte[] bytes = new byte[(lengthBits + 7) / 8];
+        for (var entry : chunks.entrySet()) {
+            int base = entry.getKey() << CHUNK_BITS;
+            Chunk chunk = entry.getValue();
+            if (chunk.words != null) {
+                for (int w = 0; w < chunk.words.length; w++) {
+                    long word = chunk.words[w];
+                    while (word != 0) {
+                        setBit(bytes, base + w * 64 + Long.numberOfTrailingZeros(word));
+                        word &= word - 1;
+                    }
+                }
+            } else {
+                for (int i = 0; i < chunk.cardinality; i++) {
+                    setBit(bytes, base + Short.toUnsignedInt(chunk.values[i]));
+                }
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Whether both bitmaps have exactly the same bits set
+     */
+    public boolean sameBits(StatusBitmap other) {
+        if (cardinality != other.cardinality || highestSetIndex() != other.highestSetIndex()) {
+            return false;
+        }
+        int length = highestSetIndex() + 1;
+        return Arrays.equals(toBitstring(length), other.toBitstring(length));
+    }
+
+    private static void setBit(byte[] bytes, int index) {
+        if (index / 8 < bytes.length) {
+            bytes[index / 8] |= (byte) (0x80 >>> (index % 8));
+        }
+    }
+
+    private static void checkIndex(int index) {
+        if (index < 0) {
+            throw new IllegalArgumentException("Status list index must not be negative: " + index);
+        }
+    }
+
+    /**
+     * 65536 bits, either a sorted array of set positions or a bitmap
+     */
+    private static final class Chunk {
+        private short[] values = new short[4];
+        private long[] words;
+        private int cardinality;
+
+        boolean get(int low) {
+            if (words != null) {
+                return (words[low >>> 6] & (1L << low)) != 0;
+            }
+            return search(low) >= 0;
+        }
+
+        boolean add(int low) {
+            if (words != null) {
+                long bit = 1L << low;
+                if ((words[low >>> 6] & bit) != 0) {
+                    return false;
+                }
+                words[low >>> 6] |= bit;
+                cardinality++;
+                return true;
+            }
+            int position = search(low);
+            if (position >= 0) {
+                return false;
+            }
+            if (cardinality == ARRAY_MAX) {
+                toBitmap();
+                return add(low);
+            }
+            position = -position - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, values.length * 2));
+            }
+            System.arraycopy(values, position, values, position + 1, cardinality - position);
+            values[position] = (short) low;
+            cardinality++;
+            return true;
+        }
+
+        boolean remove(int low) {
+            if (words != null) {
+                long bit = 1L << low;
+                if ((words[low >>> 6] & bit) == 0) {
+                    return false;
+                }
+                words[low >>> 6] &= ~bit;
+                cardinality--;
+                if (cardinality <= ARRAY_MAX / 2) {
+                    toArray();
+                }
+                return true;
+            }
+            int position = search(low);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(values, position + 1, values, position, cardinality - position - 1);
+            cardinality--;
+            return true;
+        }
+
+        int highest() {
+            if (words != null) {
+                for (int w = words.length - 1; w >= 0; w--) {
+                    if (words[w] != 0) {
+                        return w * 64 + 63 - Long.numberOfLeadingZeros(words[w]);
+                    }
+                }
+            }
+            return Short.toUnsignedInt(values[cardinality - 1]);
+        }
+
+        private int search(int low) {
+            int lo = 0;
+            int hi = cardinality - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                int value = Short.toUnsignedInt(values[mid]);
+                if (value < low) {
+                    lo = mid + 1;
+                } else if (value > low) {
+                    hi = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(lo + 1);
+        }
+
+        private void toBitmap() {
+            words = new long[CHUNK_SIZE / 64];
+            for (int i = 0; i < cardinality; i++) {
+                int low = Short.toUnsignedInt(values[i]);
+                words[low >>> 6] |= 1L << low;
+            }
+            values = null;
+        }
+
+        private void toArray() {
+            short[] array = new short[Math.max(4, cardinality)];
+            int n = 0;
+            for (int w = 0; w < words.length; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    array[n++] = (short) (w * 64 + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            values = array;
+            words = null;
+        }
+    }
+}
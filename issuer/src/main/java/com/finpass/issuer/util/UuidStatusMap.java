@@ -0,0 +1,236 @@
+package com.finpass.issuer.util;
+
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Open-addressing map from UUID to a 4-bit status code (1-15), for indexing the status
+ * of every credential in memory.
+ *
+ * Keys are stored inline as two longs and codes packed sixteen to a long, so a slot costs
+ * 16.5 bytes; with Robin Hood probing the table stays fast at a 0.9 load factor and grows
+ * by a quarter at a time, keeping the cost around 20 bytes per entry. The capacity need
+ * not be a power of two: slots are picked by multiplying the hash into the table size.
+ *
+ * Not thread-safe; callers synchronize.
+ */
+public final class UuidStatusMap {
+
+    /**
+     * Code returned for absent keys; 0 marks an empty slot
+     */
+    public static final byte ABSENT = 0;
+
+    private static final double MAX_LOAD = 0.9;
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private long[] codes;
+    private int capacity;
+    private int size;
+    private int growAt;
+
+    public UuidStatusMap() {
+        this(0);
+    }
+
+    /**
+     * Map sized to hold {@code expectedSize} entries without growing
+     */
+    public UuidStatusMap(int expectedSize) {
+        allocate(Math.max(MIN_CAPACITY, (int) Math.ceil(expectedSize / MAX_LOAD) + 1));
+    }
+
+    /**
+     * Code for a key, or {@link #ABSENT}
+     */
+    public byte get(UUID key) {
+        int slot = find(key.getMostSignificantBits(), key.getLeastSignificantBits());
+        return slot < 0 ? ABSENT : code(slot);
+    }
+
+    /**
+     * Insert or replace; returns the previous code or {@link #ABSENT}
+     */
+    public byte put(UUID key, byte code) {
+        return insert(key.getMostSignificantBits(), key.getLeastSignificantBits(), code, true);
+    }
+
+    /**
+     * Insert only if the key is absent; returns the existing code or {@link #ABSENT}
+     */
+    public byte putIfAbsent(UUID key, byte code) {
+        return insert(key.getMostSignificantBits(), key.getLeastSignificantBits(), code, false);
+    }
+
+    /**
+     * Remove a key; returns its code or {@link #ABSENT}
+     */
+    public byte remove(UUID key) {
+        int slot = find(key.getMostSignificantBits(), key.getLeastSignificantBits());
+        if (slot < 0) {
+            return ABSENT;
+        }
+        byte previous = code(slot);
+        // Backward-shift deletion: pull following displaced entries one slot closer to home
+        int hole = slot;
+        int next = next(hole);
+        while (code(next) != ABSENT && distance(next, home(keys[2 * next], keys[2 * next + 1])) > 0) {
+            keys[2 * hole] = keys[2 * next];
+            keys[2 * hole + 1] = keys[2 * next + 1];
+            setCode(hole, code(next));
+            hole = next;
+            next = next(hole);
+        }
+        setCode(hole, ABSENT);
+        size--;
+        return previous;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Visit every key, in table order
+     */
+    public void forEachKey(Consumer<UUID> action) {
+        for (int slot = 0; slot < capacity; slot++) {
+            if (code(slot) != ABSENT) {
+                action.accept(new UUID(keys[2 * slot], keys[2 * slot + 1]));
+            }
+        }
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Heap footprint of the table arrays
+     */
+    public long sizeInBytes() {
+        return keys.length * 8L + codes.length * 8L;
+    }
+
+    private byte insert(long msb, long lsb, byte code, boolean replace) {
+        if (code <= ABSENT || code > 15) {
+            throw new IllegalArgumentException("Status code must be between 1 and 15: " + code);
+        }
+        int existing = find(msb, lsb);
+        if (existing >= 0) {
+            byte previous = code(existing);
+            if (replace) {
+                setCode(existing, code);
+            }
+            return previous;
+        }
+        if (size >= growAt) {
+            resize(Math.max(capacity + MIN_CAPACITY, capacity + capacity / 4));
+        }
+        place(msb, lsb, code);
+        size++;
+        return ABSENT;
+    }
+
+    /**
+     * Robin Hood placement of a key known to be absent: take the slot of any entry closer
+     * to its home than the carried entry is, and carry that one on instead
+     */
+    private void place(long msb, long lsb, byte code) {
+        int slot = home(msb, lsb);
+        int dist = 0;
+        while (true) {
+            byte current = code(slot);
+            if (current == ABSENT) {
+                keys[2 * slot] = msb;
+                keys[2 * slot + 1] = lsb;
+                setCode(slot, code);
+                return;
+            }
+            int currentDist = distance(slot, home(keys[2 * slot], keys[2 * slot + 1]));
+            if (currentDist < dist) {
+                long swapMsb = keys[2 * slot];
+                long swapLsb = keys[2 * slot + 1];
+                keys[2 * slot] = msb;
+                keys[2 * slot + 1] = lsb;
+                setCode(slot, code);
+                msb = swapMsb;
+                lsb = swapLsb;
+                code = current;
+                dist = currentDist;
+            }
+            slot = next(slot);
+            dist++;
+        }
+    }
+
+    private int find(long msb, long lsb) {
+        int slot = home(msb, lsb);
+        for (int dist = 0; ; dist++) {
+            if (code(slot) == ABSENT) {
+                return -1;
+            }
+            long slotMsb = keys[2 * slot];
+            long slotLsb = keys[2 * slot + 1];
+            if (slotMsb == msb && slotLsb == lsb) {
+                return slot;
+            }
+            // An entry nearer its home than we are to ours means the key would have been placed here
+            if (distance(slot, home(slotMsb, slotLsb)) < dist) {
+                return -1;
+            }
+            slot = next(slot);
+        }
+    }
+
+    private void resize(int newCapacity) {
+        long[] oldKeys = keys;
+        long[] oldCodes = codes;
+        int oldCapacity = capacity;
+        allocate(newCapacity);
+        for (int slot = 0; slot < oldCapacity; slot++) {
+            byte code = (byte) ((oldCodes[slot >>> 4] >>> ((slot & 15) << 2)) & 0xF);
+            if (code != ABSENT) {
+                place(oldKeys[2 * slot], oldKeys[2 * slot + 1], code);
+            }
+        }
+    }
+
+    private void allocate(int newCapacity) {
+        if (newCapacity > (Integer.MAX_VALUE - 8) / 2) {
+            throw new IllegalStateException("UUID status map cannot grow beyond " + capacity + " slots");
+        }
+        capacity = newCapacity;
+        keys = new long[2 * newCapacity];
+        codes = new long[(newCapacity + 15) >>> 4];
+        growAt = (int) (newCapacity * MAX_LOAD);
+    }
+
+    private int home(long msb, long lsb) {
+        long h = msb * 0x9E3779B97F4A7C15L ^ lsb;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return (int) (((h >>> 32) * capacity) >>> 32);
+    }
+
+    private int distance(int slot, int home) {
+        return slot >= home ? slot - home : slot + capacity - home;
+    }
+
+    private int next(int slot) {
+        return slot + 1 == capacity ? 0 : slot + 1;
+    }
+
+    private byte code(int slot) {
+        return (byte) ((codes[slot >>> 4] >>> ((slot & 15) << 2)) & 0xF);
+    }
+
+    private void setCode(int slot, byte code) {
+        int shift = (slot & 15) << 2;
+        codes[slot >>> 4] = (codes[slot >>> 4] & ~(0xFL << shift)) | ((long) code << shift);
+    }
+}
@@ -0,0 +1,48 @@
+package com.finpass.issuer.validation;
+
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+
+import java.text.ParseException;
+
+/**
+ * A JWT parsed once and carried through validation, so each check reads the same header
+ * and claims instead of re-parsing the serialized token. The claims are parsed on first
+ * use, which keeps a structure-only check as cheap as {@link SignedJWT#parse}.
+ * Not thread-safe; one instance per request.
+ */
+public final class ParsedJwt {
+
+    private final String serialized;
+    private final SignedJWT signedJwt;
+    private JWTClaimsSet claims;
+
+    private ParsedJwt(String serialized, SignedJWT signedJwt) {
+        this.serialized = serialized;
+        this.signedJwt = signedJwt;
+    }
+
+    public static ParsedJwt parse(String jwt) throws ParseException {
+        return new ParsedJwt(jwt, SignedJWT.parse(jwt));
+    }
+
+    public String getSerialized() {
+        return serialized;
+    }
+
+    public SignedJWT getSignedJwt() {
+        return signedJwt;
+    }
+
+    public JWSHeader getHeader() {
+        return signedJwt.getHeader();
+    }
+
+    public JWTClaimsSet getClaims() throws ParseException {
+        if (claims == null) {
+            claims = signedJwt.getJWTClaimsSet();
+        }
+        return claims;
+    }
+}
@@ -59,20 +59,15 @@ public class ValidationService {
      * Validates JWT structure
      */
     public ValidationResult validateJwtStructure(String jwt) {
-        if (jwt == null || jwt.trim().isEmpty()) {
-            return ValidationResult.error("JWT_REQUIRED", "JWT is required");
-        }
-
-        if (!JWT_PATTERN.matcher(jwt).matches()) {
-            return ValidationResult.error("INVALID_JWT_STRUCTURE", 
-                "JWT must have valid structure with header, payload, and signature");
+        ValidationResult formatValidation = validateJwtFormat(jwt);
+        if (!formatValidation.isValid()) {
+            return formatValidation;
         }
 
         try {
-            SignedJWT.parse(jwt);
+            ParsedJwt.parse(jwt);
         } catch (Exception e) {
-            return ValidationResult.error("JWT_PARSE_ERROR", 
-                "JWT cannot be parsed: " + e.getMessage());
+            return jwtParseError(e);
         }
 
         return ValidationResult.success();
@@ -82,14 +77,25 @@ public class ValidationService {
      * Validates JWT signature using provided JWK Set
      */
     public ValidationResult validateJwtSignature(String jwt, JWKSet jwkSet) {
-        ValidationResult structureValidation = validateJwtStructure(jwt);
-        if (!structureValidation.isValid()) {
-            return structureValidation;
+        ValidationResult formatValidation = validateJwtFormat(jwt);
+        if (!formatValidation.isValid()) {
+            return formatValidation;
+        }
+
+        try {
+            return validateJwtSignature(ParsedJwt.parse(jwt), jwkSet);
+        } catch (Exception e) {
+            return jwtParseError(e);
         }
+    }
 
+    /**
+     * Validates the signature of an already parsed JWT using provided JWK Set
+     */
+    public ValidationResult validateJwtSignature(ParsedJwt jwt, JWKSet jwkSet) {
         try {
-            SignedJWT signedJWT = SignedJWT.parse(jwt);
-            JWSHeader header = signedJWT.getHeader();
+            SignedJWT signedJWT = jwt.getSignedJwt();
+            JWSHeader header = jwt.getHeader();
             
             // Find the key that matches the JWT key ID
             String keyId = header.getKeyID();
@@ -131,14 +137,24 @@ public class ValidationService {
      * Validates JWT expiry and other claims
      */
     public ValidationResult validateJwtClaims(String jwt) {
-        ValidationResult structureValidation = validateJwtStructure(jwt);
-        if (!structureValidation.isValid()) {
-            return structureValidation;
+        ValidationResult formatValidation = validateJwtFormat(jwt);
+        if (!formatValidation.isValid()) {
+            return formatValidation;
         }
 
         try {
-            SignedJWT signedJWT = SignedJWT.parse(jwt);
-            JWTClaimsSet claimsSet = signedJWT.getJWTClaimsSet();
+            return validateJwtClaims(ParsedJwt.parse(jwt));
+        } catch (Exception e) {
+            return jwtParseError(e);
+        }
+    }
+
+    /**
+     * Validates expiry and other claims of an already parsed JWT
+     */
+    public ValidationResult validateJwtClaims(ParsedJwt jwt) {
+        try {
+            JWTClaimsSet claimsSet = jwt.getClaims();
 
             // Check expiry
             Date expirationTime = claimsSet.getExpirationTime();
@@ -187,6 +203,24 @@ public class ValidationService {
         return ValidationResult.success();
     }
 
+    private static ValidationResult validateJwtFormat(String jwt) {
+        if (jwt == null || jwt.trim().isEmpty()) {
+            return ValidationResult.error("JWT_REQUIRED", "JWT is required");
+        }
+
+        if (!JWT_PATTERN.matcher(jwt).matches()) {
+            return ValidationResult.error("INVALID_JWT_STRUCTURE", 
+                "JWT must have valid structure with header, payload, and signature");
+        }
+
+        return ValidationResult.success();
+    }
+
+    private static ValidationResult jwtParseError(Exception e) {
+        return ValidationResult.error("JWT_PARSE_ERROR", 
+            "JWT cannot be parsed: " + e.getMessage());
+    }
+
     /**
      * Validates payment amount
      */
@@ -0,0 +1,82 @@
+package db.migration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Keyset-batched UPDATE of audit_events.search_vector shared by the Java migrations that
+ * (re)compute it. Walks (created_at, id) in index order and sets the vector on the rows
+ * of each batch that match the given predicate. Run with autocommit on, so each batch
+ * commits on its own and no single transaction holds row locks or WAL for the whole table.
+ */
+final class AuditSearchVectorBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditSearchVectorBackfill.class);
+
+    static final int BATCH_SIZE = 10_000;
+
+    private AuditSearchVectorBackfill() {
+    }
+
+    /**
+     * Batch statement for the predicate on {@code a}; returns the batch size, its last key
+     * and rows updated
+     */
+    static String batchSql(String predicate) {
+        return "WITH batch AS (" +
+               "  SELECT id, created_at FROM audit_events " +
+               "  WHERE (created_at, id) > (?::timestamp, ?::uuid) " +
+               "  ORDER BY created_at, id LIMIT ?), " +
+               "last AS (SELECT created_at, id FROM batch ORDER BY created_at DESC, id DESC LIMIT 1), " +
+               "upd AS (" +
+               "  UPDATE audit_events a SET search_vector = audit_events_search_vector(a.description, a.details) " +
+               "  FROM batch b WHERE a.id = b.id AND a.created_at = b.created_at AND " + predicate + " " +
+               "  RETURNING 1) " +
+               "SELECT (SELECT count(*) FROM batch), " +
+               "       (SELECT created_at::text FROM last), (SELECT id::text FROM last), " +
+               "       (SELECT count(*) FROM upd)";
+    }
+
+    /**
+     * Run the batches for the predicate over the whole table
+     * @return Rows updated
+     */
+    static long run(Connection connection, String predicate) throws SQLException {
+        try (PreparedStatement batch = connection.prepareStatement(batchSql(predicate))) {
+            String lastCreatedAt = "-infinity";
+            String lastId = "00000000-0000-0000-0000-000000000000";
+            long scanned = 0;
+            long updated = 0;
+
+            while (true) {
+                batch.setString(1, lastCreatedAt);
+                batch.setString(2, lastId);
+                batch.setInt(3, BATCH_SIZE);
+
+                try (ResultSet rs = batch.executeQuery()) {
+                    rs.next();
+                    long batchRows = rs.getLong(1);
+                    if (batchRows == 0) {
+                        break;
+                    }
+                    lastCreatedAt = rs.getString(2);
+                    lastId = rs.getString(3);
+                    scanned += batchRows;
+                    updated += rs.getLong(4);
+                }
+
+                if (scanned % (BATCH_SIZE * 100L) == 0) {
+                    logger.info("Audit search backfill: {} rows scanned, {} updated", scanned, updated);
+                }
+            }
+
+            logger.info("Audit search backfill complete: {} rows scanned, {} updated", scanned, updated);
+            return updated;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.Statement;
+
+/**
+ * Backfills audit_events.search_vector (added in V6) in keyset batches, committing each
+ * batch so no single transaction holds row locks or WAL for the whole table, then builds
+ * the GIN index. Safe to re-run: rows that already have a vector are skipped.
+ */
+public class V7__Backfill_audit_search_vector extends BaseJavaMigration {
+
+    static final String INDEX_SQL =
+            "CREATE INDEX IF NOT EXISTS idx_audit_events_search_vector ON audit_events USING GIN (search_vector)";
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(true);
+
+        try {
+            AuditSearchVectorBackfill.run(connection, "a.search_vector IS NULL");
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(INDEX_SQL);
+            }
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+}
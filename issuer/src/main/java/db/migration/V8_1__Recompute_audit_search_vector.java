@@ -0,0 +1,35 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+
+/**
+ * Recomputes audit_events.search_vector after V8 moved details to jsonb and redefined
+ * audit_events_search_vector over its string, numeric and boolean values. V8's trigger
+ * only covers new writes; vectors backfilled by V7 from the old text column are rebuilt
+ * here with the same keyset batches. Safe to re-run: rows whose vector is already current
+ * are skipped.
+ */
+public class V8_1__Recompute_audit_search_vector extends BaseJavaMigration {
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(true);
+
+        try {
+            AuditSearchVectorBackfill.run(connection,
+                    "a.search_vector IS DISTINCT FROM audit_events_search_vector(a.description, a.details)");
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+}
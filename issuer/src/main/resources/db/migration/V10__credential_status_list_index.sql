@@ -0,0 +1,21 @@
+-- V10__credential_status_list_index.sql
+-- Position of each credential in the issuer's StatusList2021 bitstrings (one list per
+-- status purpose: revocation and suspension). Indexes come from a sequence and are never
+-- reused, so a bit always refers to the same credential.
+
+CREATE SEQUENCE IF NOT EXISTS credential_status_list_index_seq AS INTEGER MINVALUE 0 START WITH 0;
+
+ALTER TABLE credential_status ADD COLUMN IF NOT EXISTS status_list_index INTEGER;
+
+UPDATE credential_status
+SET status_list_index = nextval('credential_status_list_index_seq')
+WHERE status_list_index IS NULL;
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_credential_status_list_index
+    ON credential_status (status_list_index);
+
+-- The status lists are rebuilt from the (few) non-valid rows on startup
+CREATE INDEX IF NOT EXISTS idx_credential_status_not_valid
+    ON credential_status (status_list_index) WHERE status <> 'VALID';
+
+COMMENT ON COLUMN credential_status.status_list_index IS 'Bit position in the StatusList2021 revocation and suspension lists';
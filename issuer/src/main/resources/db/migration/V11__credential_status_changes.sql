@@ -0,0 +1,19 @@
+-- V11__credential_status_changes.sql
+-- Append-only log of credential status changes for incremental sync by verifiers.
+-- Rows are written in the same transaction as the status update, under a transaction-level
+-- advisory lock, so seq order equals commit order: a reader that has seen seq N can never
+-- later find a newly committed row with a smaller seq.
+
+CREATE TABLE IF NOT EXISTS credential_status_changes (
+    seq BIGSERIAL PRIMARY KEY,
+    credential_id UUID NOT NULL,
+    status_list_index INTEGER,
+    status VARCHAR(20) NOT NULL,
+    revocation_reason VARCHAR(50),
+    changed_at TIMESTAMP NOT NULL DEFAULT (now() AT TIME ZONE 'UTC')
+);
+
+CREATE INDEX IF NOT EXISTS idx_credential_status_changes_credential
+    ON credential_status_changes (credential_id);
+
+COMMENT ON TABLE credential_status_changes IS 'Credential status change feed, read by seq cursor via /api/v1/credentials/changes';
@@ -0,0 +1,8 @@
+-- V12__credentials_expiry_index.sql
+-- Work queue for the credential expiry sweeper: unexpired-status credentials in expiry
+-- order. Rows leave the index as they are flipped to EXPIRED, so each sweep only reads
+-- credentials that are actually due, and concurrent sweepers claim disjoint batches with
+-- FOR UPDATE SKIP LOCKED.
+
+CREATE INDEX IF NOT EXISTS idx_credentials_valid_expires_at
+    ON credentials (expires_at, id) WHERE status = 'VALID' AND expires_at IS NOT NULL;
@@ -0,0 +1,36 @@
+-- V13__revocation_anchors.sql
+-- Merkle roots over consecutive ranges of the credential status change feed, anchored on-chain.
+-- Each anchor covers the changes with from_seq < seq <= to_seq, in seq order, and anchors are
+-- contiguous: from_seq is the previous anchor's to_seq, and the unique constraint lets only one
+-- issuer node record each range. The full tree is kept in nodes (32-byte hashes, level by level
+-- from the leaves up) so an inclusion proof is a handful of substring() reads; EXTERNAL storage
+-- keeps the column uncompressed so those reads fetch only the TOAST chunks they need.
+-- seq_gaps lists the seq ranges inside the anchor with no feed entry (rolled-back appends), as
+-- start/end pairs, so a change's leaf index is its seq offset minus the gaps before it.
+
+CREATE TABLE IF NOT EXISTS revocation_anchors (
+    id BIGSERIAL PRIMARY KEY,
+    from_seq BIGINT NOT NULL,
+    to_seq BIGINT NOT NULL,
+    leaf_count INTEGER NOT NULL,
+    root BYTEA NOT NULL,
+    nodes BYTEA NOT NULL,
+    seq_gaps BIGINT[] NOT NULL DEFAULT '{}',
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    transaction_hash VARCHAR(66),
+    block_number BIGINT,
+    created_at TIMESTAMP NOT NULL DEFAULT (now() AT TIME ZONE 'UTC'),
+    submitted_at TIMESTAMP,
+    confirmed_at TIMESTAMP,
+    CONSTRAINT uk_revocation_anchors_from_seq UNIQUE (from_seq),
+    CONSTRAINT uk_revocation_anchors_to_seq UNIQUE (to_seq),
+    CONSTRAINT chk_revocation_anchors_range CHECK (to_seq > from_seq),
+    CONSTRAINT chk_revocation_anchors_status CHECK (status IN ('PENDING', 'SUBMITTED', 'CONFIRMED'))
+);
+
+ALTER TABLE revocation_anchors ALTER COLUMN nodes SET STORAGE EXTERNAL;
+
+CREATE INDEX IF NOT EXISTS idx_revocation_anchors_unconfirmed
+    ON revocation_anchors (id) WHERE status <> 'CONFIRMED';
+
+COMMENT ON TABLE revocation_anchors IS 'Merkle roots over the credential status change feed, anchored via the DID registry';
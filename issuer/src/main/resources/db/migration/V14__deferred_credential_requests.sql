@@ -0,0 +1,36 @@
+-- V14__deferred_credential_requests.sql
+-- Durable queue of OpenID4VCI deferred issuance requests. The credential endpoint only inserts
+-- a row and returns its transaction_id; issuance workers on any node lock the next due PENDING
+-- row with FOR UPDATE SKIP LOCKED and issue the credential in the same transaction that marks
+-- the row ISSUED, so a worker that dies mid-issue leaves nothing half-done and the row is
+-- picked up again. Failed attempts are retried from available_at with backoff until
+-- max-attempts, then the row is FAILED. Wallets poll the deferred credential endpoint with the
+-- transaction_id and the access token it was queued under (token_subject is that token's sub);
+-- the first poll that finds the row ISSUED moves it to DELIVERED and takes the credential, so it
+-- is handed out once. Finished rows are purged after the retention period.
+
+CREATE TABLE IF NOT EXISTS deferred_credential_requests (
+    transaction_id UUID PRIMARY KEY,
+    token_subject TEXT NOT NULL,
+    holder_did TEXT NOT NULL,
+    format VARCHAR(50),
+    passport_data JSONB NOT NULL,
+    liveness_proof JSONB,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    available_at TIMESTAMP NOT NULL,
+    credential_id UUID,
+    credential_jwt TEXT,
+    error_code VARCHAR(100),
+    error_description TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT (now() AT TIME ZONE 'UTC'),
+    updated_at TIMESTAMP NOT NULL DEFAULT (now() AT TIME ZONE 'UTC'),
+    CONSTRAINT chk_deferred_credential_requests_status CHECK (status IN ('PENDING', 'ISSUED', 'DELIVERED', 'FAILED'))
+);
+
+-- Claim order; rows leave the index once issued or failed
+CREATE INDEX IF NOT EXISTS idx_deferred_credential_requests_pending
+    ON deferred_credential_requests (available_at) WHERE status = 'PENDING';
+
+CREATE INDEX IF NOT EXISTS idx_deferred_credential_requests_finished
+    ON deferred_credential_requests (updated_at) WHERE status <> 'PENDING';
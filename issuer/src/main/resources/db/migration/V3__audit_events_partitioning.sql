@@ -0,0 +1,113 @@
+-- V3__audit_events_partitioning.sql
+-- Convert audit_events to monthly range partitions on created_at.
+-- Retention becomes DETACH/DROP PARTITION (see AuditPartitionManager) and
+-- time-range queries only touch the partitions they need.
+
+-- Move the existing heap table out of the way; index and key names are schema-wide
+ALTER TABLE audit_events RENAME TO audit_events_unpartitioned;
+ALTER INDEX IF EXISTS audit_events_pkey RENAME TO audit_events_unpartitioned_pkey;
+
+DROP INDEX IF EXISTS idx_audit_events_event_type;
+DROP INDEX IF EXISTS idx_audit_events_created_at;
+DROP INDEX IF EXISTS idx_audit_events_user_id_hash;
+DROP INDEX IF EXISTS idx_audit_events_session_id;
+DROP INDEX IF EXISTS idx_audit_events_ip_address;
+DROP INDEX IF EXISTS idx_audit_events_severity;
+DROP INDEX IF EXISTS idx_audit_events_resource_id;
+DROP INDEX IF EXISTS idx_audit_events_correlation_id;
+
+-- Partitioned parent; the partition key must be part of the primary key
+CREATE TABLE audit_events (
+    id UUID NOT NULL DEFAULT gen_random_uuid(),
+    event_type VARCHAR(50) NOT NULL,
+    user_id_hash VARCHAR(64),
+    session_id VARCHAR(255),
+    ip_address VARCHAR(45),
+    user_agent VARCHAR(500),
+    tenant_id VARCHAR(255),
+    resource_id VARCHAR(255),
+    resource_type VARCHAR(100),
+    action VARCHAR(100),
+    outcome VARCHAR(20),
+    severity VARCHAR(20) DEFAULT 'INFO',
+    description VARCHAR(1000),
+    details TEXT,
+    previous_values TEXT,
+    new_values TEXT,
+    performed_by VARCHAR(255),
+    performed_by_role VARCHAR(100),
+    source_system VARCHAR(100),
+    correlation_id VARCHAR(255),
+    request_id VARCHAR(255),
+    duration_ms BIGINT,
+    error_code VARCHAR(100),
+    error_message VARCHAR(1000),
+    stack_trace TEXT,
+    client_version VARCHAR(50),
+    api_version VARCHAR(50),
+    geolocation VARCHAR(255),
+    device_fingerprint VARCHAR(255),
+    compliance_flags VARCHAR(255),
+    retention_days INTEGER,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- Safety net for rows outside every premade month; should stay empty
+CREATE TABLE audit_events_default PARTITION OF audit_events DEFAULT;
+
+-- One partition per month from the oldest existing event up to three months ahead.
+-- Names follow audit_events_yYYYYmMM, which AuditPartitionManager relies on.
+DO $$
+DECLARE
+    first_month DATE;
+    last_month DATE := (date_trunc('month', now() AT TIME ZONE 'UTC') + INTERVAL '3 months')::date;
+    m DATE;
+BEGIN
+    SELECT COALESCE(date_trunc('month', MIN(created_at))::date,
+                    date_trunc('month', now() AT TIME ZONE 'UTC')::date)
+      INTO first_month
+      FROM audit_events_unpartitioned;
+
+    m := first_month;
+    WHILE m <= last_month LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF audit_events FOR VALUES FROM (%L) TO (%L)',
+                       'audit_events_' || to_char(m, '"y"YYYY"m"MM'),
+                       m,
+                       (m + INTERVAL '1 month')::date);
+        m := (m + INTERVAL '1 month')::date;
+    END LOOP;
+END $$;
+
+-- Copy existing rows into their partitions
+INSERT INTO audit_events (
+    id, event_type, user_id_hash, session_id, ip_address, user_agent, tenant_id,
+    resource_id, resource_type, action, outcome, severity, description, details,
+    previous_values, new_values, performed_by, performed_by_role, source_system,
+    correlation_id, request_id, duration_ms, error_code, error_message, stack_trace,
+    client_version, api_version, geolocation, device_fingerprint, compliance_flags,
+    retention_days, created_at)
+SELECT
+    id, event_type, user_id_hash, session_id, ip_address, user_agent, tenant_id,
+    resource_id, resource_type, action, outcome, severity, description, details,
+    previous_values, new_values, performed_by, performed_by_role, source_system,
+    correlation_id, request_id, duration_ms, error_code, error_message, stack_trace,
+    client_version, api_version, geolocation, device_fingerprint, compliance_flags,
+    retention_days, created_at
+FROM audit_events_unpartitioned;
+
+DROP TABLE audit_events_unpartitioned;
+
+-- Partitioned indexes; created on every existing and future partition
+CREATE INDEX IF NOT EXISTS idx_audit_events_event_type ON audit_events(event_type, created_at);
+CREATE INDEX IF NOT EXISTS idx_audit_events_created_at ON audit_events(created_at);
+CREATE INDEX IF NOT EXISTS idx_audit_events_user_id_hash ON audit_events(user_id_hash);
+CREATE INDEX IF NOT EXISTS idx_audit_events_session_id ON audit_events(session_id);
+CREATE INDEX IF NOT EXISTS idx_audit_events_ip_address ON audit_events(ip_address);
+CREATE INDEX IF NOT EXISTS idx_audit_events_severity ON audit_events(severity);
+CREATE INDEX IF NOT EXISTS idx_audit_events_resource_id ON audit_events(resource_id);
+CREATE INDEX IF NOT EXISTS idx_audit_events_correlation_id ON audit_events(correlation_id);
+
+COMMENT ON TABLE audit_events IS 'Comprehensive audit logging for compliance and security, range partitioned by month on created_at';
+COMMENT ON COLUMN audit_events.user_id_hash IS 'SHA-256 hash of user DID for privacy compliance';
+COMMENT ON COLUMN audit_events.severity IS 'Event severity level (INFO, WARNING, ERROR, CRITICAL)';
@@ -0,0 +1,11 @@
+-- V4__audit_events_keyset_indexes.sql
+-- Indexes backing keyset pagination of /audit/events on (created_at DESC, id DESC).
+-- A backward scan of (created_at, id) serves the DESC order, so the plain
+-- created_at index is superseded.
+
+DROP INDEX IF EXISTS idx_audit_events_created_at;
+CREATE INDEX IF NOT EXISTS idx_audit_events_created_at_id ON audit_events(created_at, id);
+
+-- Equality filters that lead into the keyset order
+CREATE INDEX IF NOT EXISTS idx_audit_events_tenant_created_at ON audit_events(tenant_id, created_at);
+CREATE INDEX IF NOT EXISTS idx_audit_events_resource_created_at ON audit_events(resource_type, resource_id, created_at);
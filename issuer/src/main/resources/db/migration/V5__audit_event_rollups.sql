@@ -0,0 +1,28 @@
+-- V5__audit_event_rollups.sql
+-- Pre-aggregated audit event counts backing /audit/metrics.
+-- The audit writer upserts MINUTE buckets in the same transaction as the raw insert;
+-- AuditRollupService folds old minutes into HOUR buckets and old hours into DAY buckets.
+
+CREATE TABLE IF NOT EXISTS audit_event_rollups (
+    granularity VARCHAR(10) NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    event_type VARCHAR(50) NOT NULL,
+    severity VARCHAR(20) NOT NULL DEFAULT '',
+    outcome VARCHAR(20) NOT NULL DEFAULT '',
+    event_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (granularity, bucket_start, event_type, severity, outcome),
+    CONSTRAINT chk_audit_event_rollups_granularity CHECK (granularity IN ('MINUTE', 'HOUR', 'DAY'))
+);
+
+-- Range scans across all granularities
+CREATE INDEX IF NOT EXISTS idx_audit_event_rollups_bucket_start ON audit_event_rollups(bucket_start);
+
+-- Seed from existing events; compaction folds these into hours and days on its first run
+INSERT INTO audit_event_rollups (granularity, bucket_start, event_type, severity, outcome, event_count)
+SELECT 'MINUTE', date_trunc('minute', created_at), event_type, COALESCE(severity, ''), COALESCE(outcome, ''), COUNT(*)
+FROM audit_events
+GROUP BY 2, 3, 4, 5
+ON CONFLICT (granularity, bucket_start, event_type, severity, outcome)
+DO UPDATE SET event_count = audit_event_rollups.event_count + EXCLUDED.event_count;
+
+COMMENT ON TABLE audit_event_rollups IS 'Audit event counts per (granularity, bucket, event_type, severity, outcome); missing severity/outcome stored as empty string';
@@ -0,0 +1,35 @@
+-- V6__audit_events_search_vector.sql
+-- Full-text search over audit descriptions and details.
+-- search_vector is a plain nullable column maintained by a trigger rather than a
+-- GENERATED column: adding it is a catalog-only change, whereas a stored generated
+-- column would rewrite every partition in one long transaction. Existing rows are
+-- filled in batches by V7 (db.migration.V7__Backfill_audit_search_vector), which
+-- also builds the GIN index once the backfill is done.
+
+ALTER TABLE audit_events ADD COLUMN IF NOT EXISTS search_vector tsvector;
+
+-- Description is English prose (stemmed, weight A); details is JSON with ids and
+-- codes that must match verbatim (simple config, weight B)
+CREATE OR REPLACE FUNCTION audit_events_search_vector(description TEXT, details TEXT)
+RETURNS tsvector
+LANGUAGE sql IMMUTABLE PARALLEL SAFE AS $$
+    SELECT setweight(to_tsvector('english'::regconfig, COALESCE(description, '')), 'A')
+        || setweight(to_tsvector('simple'::regconfig, COALESCE(details, '')), 'B')
+$$;
+
+CREATE OR REPLACE FUNCTION audit_events_search_vector_trigger()
+RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    NEW.search_vector := audit_events_search_vector(NEW.description, NEW.details);
+    RETURN NEW;
+END
+$$;
+
+-- Row triggers on a partitioned parent are cloned onto every current and future partition
+DROP TRIGGER IF EXISTS trg_audit_events_search_vector ON audit_events;
+CREATE TRIGGER trg_audit_events_search_vector
+    BEFORE INSERT OR UPDATE OF description, details ON audit_events
+    FOR EACH ROW EXECUTE FUNCTION audit_events_search_vector_trigger();
+
+COMMENT ON COLUMN audit_events.search_vector IS 'Full-text vector of description (english, A) and details (simple, B); maintained by trigger';
@@ -0,0 +1,55 @@
+-- V8__audit_events_jsonb_details.sql
+-- Store audit details, previous_values and new_values as JSONB so they can be queried
+-- by key and value through GIN indexes instead of LIKE scans over TEXT.
+-- The type change rewrites every partition; run it in a maintenance window on large tables.
+
+-- Rows written by the old hand-built serializer are not always valid JSON (unescaped
+-- quotes, toString() of nested values). Keep them as {"raw": "<original text>"} rather
+-- than failing the migration.
+CREATE OR REPLACE FUNCTION audit_try_jsonb(value TEXT)
+RETURNS jsonb
+LANGUAGE plpgsql IMMUTABLE AS $$
+BEGIN
+    IF value IS NULL OR btrim(value) = '' THEN
+        RETURN NULL;
+    END IF;
+    RETURN value::jsonb;
+EXCEPTION WHEN others THEN
+    RETURN jsonb_build_object('raw', value);
+END
+$$;
+
+-- The search trigger fires on UPDATE OF details, which blocks the type change; recreate it afterwards
+DROP TRIGGER IF EXISTS trg_audit_events_search_vector ON audit_events;
+
+ALTER TABLE audit_events
+    ALTER COLUMN details TYPE jsonb USING audit_try_jsonb(details),
+    ALTER COLUMN previous_values TYPE jsonb USING audit_try_jsonb(previous_values),
+    ALTER COLUMN new_values TYPE jsonb USING audit_try_jsonb(new_values);
+
+DROP FUNCTION audit_try_jsonb(TEXT);
+
+-- Index only the values of details (keys add nothing to search), same weights as V6
+DROP FUNCTION IF EXISTS audit_events_search_vector(TEXT, TEXT);
+CREATE OR REPLACE FUNCTION audit_events_search_vector(description TEXT, details jsonb)
+RETURNS tsvector
+LANGUAGE sql IMMUTABLE PARALLEL SAFE AS $$
+    SELECT setweight(to_tsvector('english'::regconfig, COALESCE(description, '')), 'A')
+        || setweight(jsonb_to_tsvector('simple'::regconfig, COALESCE(details, '{}'::jsonb), '["string", "numeric", "boolean"]'), 'B')
+$$;
+
+CREATE TRIGGER trg_audit_events_search_vector
+    BEFORE INSERT OR UPDATE OF description, details ON audit_events
+    FOR EACH ROW EXECUTE FUNCTION audit_events_search_vector_trigger();
+
+-- jsonb_path_ops indexes support containment (details @> '{"resourceId": "..."}'),
+-- which is how the repository queries by key and value. They are smaller and faster
+-- than the default jsonb_ops but do not support key-existence (?) operators.
+CREATE INDEX IF NOT EXISTS idx_audit_events_details
+    ON audit_events USING GIN (details jsonb_path_ops);
+CREATE INDEX IF NOT EXISTS idx_audit_events_previous_values
+    ON audit_events USING GIN (previous_values jsonb_path_ops);
+CREATE INDEX IF NOT EXISTS idx_audit_events_new_values
+    ON audit_events USING GIN (new_values jsonb_path_ops);
+
+COMMENT ON COLUMN audit_events.details IS 'Event details as JSON; GIN (jsonb_path_ops) indexed for containment queries';
@@ -0,0 +1,39 @@
+-- V9__audit_events_hash_chain.sql
+-- Tamper-evident hash chain over audit events, one chain per monthly partition.
+-- The audit writer assigns chain_seq (1, 2, ... within the UTC month of created_at) and
+-- hash = SHA-256(prev_hash || canonical event), with prev_hash the previous event's hash
+-- (32 zero bytes for the first event of the month). Editing, deleting or reordering a
+-- row breaks the chain at that point; AuditChainVerifier walks it in parallel segments.
+-- Rows written before this migration are left unchained (chain_seq NULL).
+
+ALTER TABLE audit_events
+    ADD COLUMN IF NOT EXISTS chain_seq BIGINT,
+    ADD COLUMN IF NOT EXISTS prev_hash BYTEA,
+    ADD COLUMN IF NOT EXISTS hash BYTEA;
+
+-- Verification reads each partition in chain_seq ranges; the writer reads the head once per month
+CREATE INDEX IF NOT EXISTS idx_audit_events_chain_seq
+    ON audit_events (chain_seq) WHERE chain_seq IS NOT NULL;
+
+COMMENT ON COLUMN audit_events.chain_seq IS 'Position in the hash chain of the UTC month of created_at, from 1';
+COMMENT ON COLUMN audit_events.hash IS 'SHA-256 of prev_hash and the canonical form of the event';
+
+-- One link per (month, chain_seq), so two writers that both continue from the same head
+-- cannot both commit. A partitioned table's unique index must include the partition key,
+-- so the index goes on each partition instead; the default partition can hold several
+-- months, hence the month expression. AuditPartitionManager adds it to new partitions.
+DO $$
+DECLARE
+    part TEXT;
+BEGIN
+    FOR part IN
+        SELECT c.relname FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        JOIN pg_class p ON p.oid = i.inhparent
+        WHERE p.relname = 'audit_events'
+    LOOP
+        EXECUTE format('CREATE UNIQUE INDEX IF NOT EXISTS %I ON %I ((date_trunc(''month'', created_at)), chain_seq) '
+                       'WHERE chain_seq IS NOT NULL',
+                       part || '_chain_seq_key', part);
+    END LOOP;
+END $$;
@@ -0,0 +1,102 @@
+package com.finpass.issuer.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finpass.issuer.service.CredentialSigner;
+import com.finpass.issuer.service.IssuerKeyProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of VC-JWT signing with {@link CredentialSigner}.
+ *
+ * Run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.finpass.issuer.benchmark.CredentialSigningBenchmark};
+ * it measures with one thread and with one thread per core and prints credentials signed
+ * per second per core for each.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CredentialSigningBenchmark {
+
+    private CredentialSigner signer;
+    private Map<String, Object> passportData;
+    private List<Map<String, Object>> credentialStatus;
+    private Instant issuedAt;
+    private Instant expiresAt;
+
+    @Setup
+    public void setUp() {
+        signer = new CredentialSigner(new IssuerKeyProvider(""), new ObjectMapper(), "did:example:issuer", 1, 1);
+        passportData = new LinkedHashMap<>();
+        passportData.put("passportNumber", "M12345678");
+        passportData.put("nationality", "KOR");
+        passportData.put("dateOfBirth", "1990-01-01");
+        passportData.put("expiryDate", "2030-01-01");
+        passportData.put("firstName", "Jane");
+        passportData.put("lastName", "Doe");
+        credentialStatus = new ArrayList<>();
+        for (String purpose : new String[] {"revocation", "suspension"}) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("id", "https://issuer.example/api/v1/status-lists/" + purpose + "#94567");
+            entry.put("type", "StatusList2021Entry");
+            entry.put("statusPurpose", purpose);
+            entry.put("statusListIndex", "94567");
+            entry.put("statusListCredential", "https://issuer.example/api/v1/status-lists/" + purpose);
+            credentialStatus.add(entry);
+        }
+        issuedAt = Instant.now();
+        expiresAt = issuedAt.plusSeconds(365L * 24 * 3600);
+    }
+
+    @TearDown
+    public void tearDown() {
+        signer.shutdown();
+    }
+
+    @Benchmark
+    public String signCredential() {
+        return signer.sign(UUID.randomUUID(), "did:example:holder", "PassportCredential", passportData,
+                credentialStatus, issuedAt, expiresAt);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads : cores > 1 ? new int[] {1, cores} : new int[] {1}) {
+            Collection<RunResult> results = new Runner(new OptionsBuilder()
+                    .include(CredentialSigningBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build()).run();
+            for (RunResult result : results) {
+                double perSecond = result.getPrimaryResult().getScore();
+                System.out.printf("%d thread(s): %.0f credentials/s, %.0f credentials/s per core%n",
+                        threads, perSecond, perSecond / Math.min(threads, cores));
+            }
+        }
+    }
+}
@@ -1,6 +1,12 @@
 package com.finpass.issuer.controller;
 
+import com.finpass.issuer.dto.AuditEventCursor;
+import com.finpass.issuer.dto.AuditEventFilter;
+import com.finpass.issuer.dto.AuditEventPage;
 import com.finpass.issuer.entity.AuditEventEntity;
+import com.finpass.issuer.service.AuditChainVerifier;
+import com.finpass.issuer.service.AuditExportService;
+import com.finpass.issuer.service.AuditRollupService;
 import com.finpass.issuer.service.AuditService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -37,6 +43,15 @@ class AuditControllerTest {
     @MockBean
     private AuditService auditService;
 
+    @MockBean
+    private AuditExportService auditExportService;
+
+    @MockBean
+    private AuditRollupService auditRollupService;
+
+    @MockBean
+    private AuditChainVerifier auditChainVerifier;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -100,10 +115,10 @@ class AuditControllerTest {
         // Given
         Instant from = Instant.now().minusSeconds(3600);
         Instant to = Instant.now();
-        List<AuditEventEntity> events = Arrays.asList(testEvent);
+        AuditEventPage page = new AuditEventPage(Arrays.asList(testEvent), null);
         
-        when(auditService.getEventsByTypeAndDateRange(any(AuditEventEntity.EventType.class), eq(from), eq(to)))
-                .thenReturn(events);
+        when(auditService.queryEvents(any(AuditEventFilter.class), isNull(), eq(100)))
+                .thenReturn(page);
 
         // When & Then
         mockMvc.perform(get("/audit/events")
@@ -113,10 +128,13 @@ class AuditControllerTest {
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$[0].eventType").value(testEvent.getEventType()));
+                .andExpect(jsonPath("$.events").isArray())
+                .andExpect(jsonPath("$.events[0].eventType").value(testEvent.getEventType()))
+                .andExpect(jsonPath("$.has_more").value(false));
 
-        verify(auditService).getEventsByTypeAndDateRange(any(AuditEventEntity.EventType.class), eq(from), eq(to));
+        verify(auditService).queryEvents(argThat(filter ->
+                "CREDENTIAL_ISSUED".equals(filter.getEventType())
+                        && from.equals(filter.getFrom()) && to.equals(filter.getTo())), isNull(), eq(100));
     }
 
     @Test
@@ -125,10 +143,10 @@ class AuditControllerTest {
         // Given
         Instant from = Instant.now().minusSeconds(3600);
         Instant to = Instant.now();
-        List<AuditEventEntity> events = Arrays.asList(testEvent);
+        AuditEventPage page = new AuditEventPage(Arrays.asList(testEvent), null);
         
-        when(auditService.getEventsByTypeAndDateRange(any(AuditEventEntity.EventType.class), eq(from), eq(to)))
-                .thenReturn(events);
+        when(auditService.queryEvents(any(AuditEventFilter.class), isNull(), anyInt()))
+                .thenReturn(page);
 
         // When & Then
         mockMvc.perform(get("/audit/events")
@@ -136,37 +154,64 @@ class AuditControllerTest {
                 .param("from", from.toString())
                 .param("to", to.toString())
                 .param("severity", "INFO")
+                .param("tenant", "tenant-1")
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk());
 
-        verify(auditService).getEventsByTypeAndDateRange(any(AuditEventEntity.EventType.class), eq(from), eq(to));
+        // Filters are handed to the query, not applied in memory
+        verify(auditService).queryEvents(argThat(filter ->
+                "INFO".equals(filter.getSeverity()) && "tenant-1".equals(filter.getTenantId())), isNull(), anyInt());
     }
 
     @Test
     @WithMockUser(roles = {"ADMIN"})
     void testGetFilteredEvents_WithPagination() throws Exception {
         // Given
-        List<AuditEventEntity> events = Arrays.asList(testEvent);
-        when(auditService.getEventsCreatedBetween(any(Instant.class), any(Instant.class)))
-                .thenReturn(events);
+        String cursor = new AuditEventCursor(testEvent.getCreatedAt(), testEvent.getId()).encode();
+        AuditEventPage page = new AuditEventPage(Arrays.asList(testEvent), "next");
+        when(auditService.queryEvents(any(AuditEventFilter.class), eq(cursor), eq(10)))
+                .thenReturn(page);
 
         // When & Then
         mockMvc.perform(get("/audit/events")
-                .param("page", "1")
+                .param("cursor", cursor)
                 .param("size", "10")
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$").isArray());
+                .andExpect(jsonPath("$.events").isArray())
+                .andExpect(jsonPath("$.next_cursor").value("next"))
+                .andExpect(jsonPath("$.has_more").value(true));
 
-        verify(auditService).getEventsCreatedBetween(any(Instant.class), any(Instant.class));
+        verify(auditService).queryEvents(any(AuditEventFilter.class), eq(cursor), eq(10));
+    }
+
+    @Test
+    @WithMockUser(roles = {"AUDITOR"})
+    void testExportEvents_InvalidFormat() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/audit/export")
+                .param("from", Instant.now().minusSeconds(3600).toString())
+                .param("to", Instant.now().toString())
+                .param("format", "xml"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(auditExportService);
     }
 
     @Test
     @WithMockUser(roles = {"AUDITOR"})
     void testGetAuditMetrics_Success() throws Exception {
         // Given
-        Object[] stats = {100L, 5L, 2L, 1L, 5L};
-        when(auditService.getAuditStatistics()).thenReturn(stats);
+        Map<String, Object> rollupMetrics = Map.of(
+                "totalEvents", 100L,
+                "errorEvents", 5L,
+                "warningEvents", 2L,
+                "criticalEvents", 1L,
+                "failedEvents", 5L,
+                "eventTypes", Map.of("CREDENTIAL_ISSUED", 100L),
+                "severityBreakdown", Map.of("INFO", 92L),
+                "recentActivity", Map.of("lastHour", 3L));
+        when(auditRollupService.getMetrics(any(Instant.class))).thenReturn(rollupMetrics);
 
         // When & Then
         mockMvc.perform(get("/audit/metrics")
@@ -183,7 +228,9 @@ class AuditControllerTest {
                 .andExpect(jsonPath("$.recentActivity").exists())
                 .andExpect(jsonPath("$.topUsers").exists());
 
-        verify(auditService).getAuditStatistics();
+        // Answered from rollups, never from a full-table aggregate
+        verify(auditRollupService).getMetrics(any(Instant.class));
+        verify(auditService, never()).getAuditStatistics();
     }
 
     @Test
@@ -348,25 +395,26 @@ class AuditControllerTest {
     @WithMockUser(roles = {"ADMIN"})
     void testGetFilteredEvents_EmptyResult() throws Exception {
         // Given
-        when(auditService.getEventsCreatedBetween(any(Instant.class), any(Instant.class)))
-                .thenReturn(Arrays.asList());
+        when(auditService.queryEvents(any(AuditEventFilter.class), isNull(), anyInt()))
+                .thenReturn(new AuditEventPage(Arrays.asList(), null));
 
         // When & Then
         mockMvc.perform(get("/audit/events")
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$").isEmpty());
+                .andExpect(jsonPath("$.events").isArray())
+                .andExpect(jsonPath("$.events").isEmpty());
 
-        verify(auditService).getEventsCreatedBetween(any(Instant.class), any(Instant.class));
+        // Defaults to the last 24 hours
+        verify(auditService).queryEvents(argThat(filter -> filter.getFrom() != null), isNull(), anyInt());
     }
 
     @Test
     @WithMockUser(roles = {"ADMIN"})
     void testGetFilteredEvents_ServiceException() throws Exception {
         // Given
-        when(auditService.getEventsCreatedBetween(any(Instant.class), any(Instant.class)))
+        when(auditService.queryEvents(any(AuditEventFilter.class), isNull(), anyInt()))
                 .thenThrow(new RuntimeException("Service unavailable"));
 
         // When & Then
@@ -374,7 +422,7 @@ class AuditControllerTest {
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isInternalServerError());
 
-        verify(auditService).getEventsCreatedBetween(any(Instant.class), any(Instant.class));
+        verify(auditService).queryEvents(any(AuditEventFilter.class), isNull(), anyInt());
     }
 
     @Test
@@ -1,9 +1,13 @@
 package com.finpass.issuer.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finpass.issuer.dto.BulkStatusRequest;
+import com.finpass.issuer.dto.BulkStatusResponse;
+import com.finpass.issuer.dto.CredentialStatusChange;
 import com.finpass.issuer.dto.CredentialStatusResponse;
 import com.finpass.issuer.dto.RevocationRequest;
 import com.finpass.issuer.entity.CredentialStatusEntity;
+import com.finpass.issuer.service.BulkRevocationService;
 import com.finpass.issuer.service.RevocationService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,6 +17,11 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -33,6 +42,9 @@ class RevocationControllerTest {
     @MockBean
     private RevocationService revocationService;
 
+    @MockBean
+    private BulkRevocationService bulkRevocationService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -224,6 +236,103 @@ class RevocationControllerTest {
                 .andExpect(jsonPath("$.checked_at").exists());
     }
 
+    @Test
+    void testGetStatusChanges_PageWithCursor() throws Exception {
+        // Arrange - one row more than the limit means another page follows
+        when(revocationService.getStatusChanges(10L, 3)).thenReturn(List.of(
+            new CredentialStatusChange(11, testCredentialId, 4, CredentialStatusEntity.Status.REVOKED,
+                CredentialStatusEntity.RevocationReason.FRAUD, Instant.now()),
+            new CredentialStatusChange(12, UUID.randomUUID(), 5, CredentialStatusEntity.Status.SUSPENDED, null, Instant.now()),
+            new CredentialStatusChange(13, UUID.randomUUID(), 6, CredentialStatusEntity.Status.VALID, null, Instant.now())
+        ));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/credentials/changes").param("after", "10").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes.length()").value(2))
+                .andExpect(jsonPath("$.changes[0].seq").value(11))
+                .andExpect(jsonPath("$.changes[0].credential_id").value(testCredentialId.toString()))
+                .andExpect(jsonPath("$.changes[0].status").value("REVOKED"))
+                .andExpect(jsonPath("$.changes[1].reason").doesNotExist())
+                .andExpect(jsonPath("$.next_cursor").value(12))
+                .andExpect(jsonPath("$.has_more").value(true));
+    }
+
+    @Test
+    void testGetStatusChanges_InvalidLimit() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/credentials/changes").param("limit", "5000"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testBulkRevoke_ReturnsSummary() throws Exception {
+        // Arrange
+        BulkStatusRequest request = new BulkStatusRequest(List.of(testCredentialId.toString(), "not-a-uuid"),
+            "admin-user", CredentialStatusEntity.RevocationReason.COMPROMISED, "Key leak");
+        BulkStatusResponse response = new BulkStatusResponse("revoke", 2,
+            Map.of(BulkStatusResponse.Result.UPDATED, 1L, BulkStatusResponse.Result.INVALID_ID, 1L),
+            List.of(new BulkStatusResponse.Failure("not-a-uuid", BulkStatusResponse.Result.INVALID_ID)), 10);
+        when(revocationService.validateAdminAuthorization(any())).thenReturn(true);
+        when(bulkRevocationService.apply(eq(BulkRevocationService.Action.REVOKE), any(),
+            eq("admin-user"), eq(CredentialStatusEntity.RevocationReason.COMPROMISED), eq("Key leak")))
+            .thenReturn(response);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/credentials/bulk-status/revoke")
+                .header("Authorization", "Bearer admin-token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(1))
+                .andExpect(jsonPath("$.results.INVALID_ID").value(1))
+                .andExpect(jsonPath("$.failures[0].credential_id").value("not-a-uuid"));
+    }
+
+    @Test
+    void testBulkSuspend_NdjsonStream() throws Exception {
+        // Arrange
+        when(revocationService.validateAdminAuthorization(any())).thenReturn(true);
+        when(bulkRevocationService.apply(eq(BulkRevocationService.Action.SUSPEND), any(), eq("admin-user"), any(), any()))
+            .thenAnswer(invocation -> {
+                Iterator<String> ids = invocation.getArgument(1);
+                List<String> read = new ArrayList<>();
+                ids.forEachRemaining(read::add);
+                return new BulkStatusResponse("suspend", read.size(),
+                    Map.of(BulkStatusResponse.Result.UPDATED, (long) read.size()), List.of(), 1);
+            });
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/credentials/bulk-status/suspend")
+                .header("Authorization", "Bearer admin-token")
+                .param("performed_by", "admin-user")
+                .contentType("application/x-ndjson")
+                .content(testCredentialId + "\n\n\"" + UUID.randomUUID() + "\"\n{\"credential_id\":\"" + UUID.randomUUID() + "\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requested").value(3))
+                .andExpect(jsonPath("$.updated").value(3));
+    }
+
+    @Test
+    void testBulkStatus_UnknownActionAndUnauthorized() throws Exception {
+        // Arrange
+        String body = objectMapper.writeValueAsString(
+            new BulkStatusRequest(List.of(testCredentialId.toString()), "admin-user", null, null));
+        when(revocationService.validateAdminAuthorization(any())).thenReturn(false);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/credentials/bulk-status/delete")
+                .header("Authorization", "Bearer admin-token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post("/api/v1/credentials/bulk-status/revoke")
+                .header("Authorization", "Bearer invalid-token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isUnauthorized());
+    }
+
     @Test
     void testGetRevokedCredentials_Success() throws Exception {
         // Arrange
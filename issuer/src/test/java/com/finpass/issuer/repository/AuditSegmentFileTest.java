@@ -0,0 +1,236 @@
+package com.finpass.issuer.repository;
+
+import com.finpass.issuer.dto.AuditEventCursor;
+import com.finpass.issuer.dto.AuditEventFilter;
+import com.finpass.issuer.entity.AuditEventEntity;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the columnar audit segment format and the archive store
+ */
+class AuditSegmentFileTest {
+
+    private static final Instant BASE = Instant.parse("2025-01-01T00:00:00Z");
+    private static final String[] TYPES = {"USER_LOGIN", "CREDENTIAL_ISSUED", "PAYMENT_COMPLETED"};
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testWriteAndRead_RoundTripsEveryColumn() throws Exception {
+        // Given
+        List<AuditEventEntity> events = events(500, 1);
+
+        // When
+        AuditSegmentFile segment = AuditSegmentFile.write(directory.resolve("a.seg"), events);
+        AuditSegmentFile reopened = AuditSegmentFile.open(segment.getPath());
+        List<AuditEventEntity> read = reopened.query(new AuditEventFilter(), null, 1000);
+
+        // Then
+        assertEquals(500, reopened.getRowCount());
+        assertEquals(sorted(events).get(499).getCreatedAt(), reopened.getMinCreatedAt());
+        assertEquals(sorted(events).get(0).getCreatedAt(), reopened.getMaxCreatedAt());
+        assertEquals(sorted(events).get(0).getId(), reopened.getLastKey().getId());
+        assertEquals(500, read.size());
+        for (int i = 0; i < read.size(); i++) {
+            AuditEventEntity expected = sorted(events).get(i);
+            AuditEventEntity actual = read.get(i);
+            assertEquals(expected.getId(), actual.getId());
+            assertEquals(expected.getCreatedAt(), actual.getCreatedAt());
+            assertEquals(expected.getEventType(), actual.getEventType());
+            assertEquals(expected.getSeverity(), actual.getSeverity());
+            assertEquals(expected.getOutcome(), actual.getOutcome());
+            assertEquals(expected.getTenantId(), actual.getTenantId());
+            assertEquals(expected.getResourceId(), actual.getResourceId());
+            assertEquals(expected.getDetails(), actual.getDetails());
+            assertEquals(expected.getDescription(), actual.getDescription());
+            assertEquals(expected.getDurationMs(), actual.getDurationMs());
+            assertEquals(expected.getRetentionDays(), actual.getRetentionDays());
+            assertEquals(expected.getComplianceFlags(), actual.getComplianceFlags());
+            assertEquals(expected.getChainSeq(), actual.getChainSeq());
+            assertArrayEquals(expected.getPrevHash(), actual.getPrevHash());
+            assertArrayEquals(expected.getHash(), actual.getHash());
+        }
+    }
+
+    @Test
+    void testReadChain_SelectsSeqAndTimeRange() throws Exception {
+        // Given
+        List<AuditEventEntity> events = events(500, 6);
+        AuditSegmentFile segment = AuditSegmentFile.write(directory.resolve("d.seg"), events);
+        Instant from = BASE.plusSeconds(200);
+        Instant to = BASE.plusSeconds(1800);
+
+        List<AuditEventEntity> inTime = events.stream()
+                .filter(e -> !e.getCreatedAt().isBefore(from) && e.getCreatedAt().isBefore(to))
+                .filter(e -> e.getChainSeq() != null)
+                .collect(Collectors.toList());
+        List<UUID> expected = inTime.stream()
+                .filter(e -> e.getChainSeq() >= 100 && e.getChainSeq() <= 300)
+                .map(AuditEventEntity::getId).sorted().collect(Collectors.toList());
+
+        // When
+        List<AuditEventEntity> read = segment.readChain(from, to, 100, 300);
+        long[] range = segment.chainSeqRange(from, to);
+
+        // Then
+        assertTrue(segment.hasChain());
+        assertEquals(expected, read.stream().map(AuditEventEntity::getId).sorted().collect(Collectors.toList()));
+        for (AuditEventEntity event : read) {
+            AuditEventEntity original = events.stream().filter(e -> e.getId().equals(event.getId())).findFirst().orElseThrow();
+            assertEquals(original.getDescription(), event.getDescription());
+            assertArrayEquals(original.getHash(), event.getHash());
+        }
+        assertEquals(inTime.stream().mapToLong(AuditEventEntity::getChainSeq).min().orElseThrow(), range[0]);
+        assertEquals(inTime.stream().mapToLong(AuditEventEntity::getChainSeq).max().orElseThrow(), range[1]);
+    }
+
+    @Test
+    void testOpen_Version1Segment_ReadsWithoutChain() throws Exception {
+        // Given - a segment written before the chain columns were added
+        List<AuditEventEntity> events = events(200, 7);
+        AuditSegmentFile.write(directory.resolve("e.seg"), events, AuditSegmentFile.VERSION_WITHOUT_CHAIN);
+
+        // When
+        AuditSegmentFile segment = AuditSegmentFile.open(directory.resolve("e.seg"));
+        List<AuditEventEntity> read = segment.query(new AuditEventFilter(), null, 1000);
+
+        // Then
+        assertFalse(segment.hasChain());
+        assertEquals(sorted(events).stream().map(AuditEventEntity::getId).collect(Collectors.toList()),
+                read.stream().map(AuditEventEntity::getId).collect(Collectors.toList()));
+        assertEquals(sorted(events).get(0).getDetails(), read.get(0).getDetails());
+        assertNull(read.get(0).getChainSeq());
+        assertNull(read.get(0).getHash());
+        assertNull(segment.chainSeqRange(BASE, BASE.plusSeconds(3000)));
+        assertTrue(segment.readChain(BASE, BASE.plusSeconds(3000), 1, Long.MAX_VALUE).isEmpty());
+    }
+
+    @Test
+    void testQuery_FiltersRangeAndCursorMatchKeysetOrder() throws Exception {
+        // Given
+        List<AuditEventEntity> events = events(2000, 2);
+        AuditSegmentFile segment = AuditSegmentFile.write(directory.resolve("b.seg"), events);
+
+        AuditEventFilter filter = new AuditEventFilter();
+        filter.setEventType("USER_LOGIN");
+        filter.setSeverity("INFO");
+        filter.setFrom(BASE.plusSeconds(100));
+        filter.setTo(BASE.plusSeconds(1500));
+
+        List<UUID> expected = sorted(events).stream()
+                .filter(e -> e.getEventType().equals("USER_LOGIN") && "INFO".equals(e.getSeverity()))
+                .filter(e -> !e.getCreatedAt().isBefore(filter.getFrom()) && e.getCreatedAt().isBefore(filter.getTo()))
+                .map(AuditEventEntity::getId)
+                .collect(Collectors.toList());
+
+        // When - page through 37 rows at a time
+        List<UUID> paged = new ArrayList<>();
+        AuditEventCursor cursor = null;
+        while (true) {
+            List<AuditEventEntity> page = segment.query(filter, cursor, 37);
+            page.forEach(e -> paged.add(e.getId()));
+            if (page.size() < 37) {
+                break;
+            }
+            AuditEventEntity last = page.get(page.size() - 1);
+            cursor = new AuditEventCursor(last.getCreatedAt(), last.getId());
+        }
+
+        // Then
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, paged);
+    }
+
+    @Test
+    void testQuery_ValueMissingFromDictionary_ReturnsNothing() throws Exception {
+        // Given
+        AuditSegmentFile segment = AuditSegmentFile.write(directory.resolve("c.seg"), events(100, 3));
+        AuditEventFilter filter = new AuditEventFilter();
+        filter.setEventType("DATA_PURGE");
+
+        // When & Then
+        assertTrue(segment.query(filter, null, 10).isEmpty());
+        assertFalse(segment.overlaps(BASE.plusSeconds(10_000), null));
+    }
+
+    @Test
+    void testStore_MergesSegmentsAndReloadsFromDisk() throws Exception {
+        // Given - two segments with interleaved time ranges
+        AuditArchiveStore store = new AuditArchiveStore(directory.toString());
+        store.load();
+        List<AuditEventEntity> first = events(300, 4);
+        List<AuditEventEntity> second = events(300, 5);
+        store.append(first);
+        AuditSegmentFile last = store.append(second);
+
+        List<AuditEventEntity> all = new ArrayList<>(first);
+        all.addAll(second);
+        List<UUID> expected = sorted(all).stream().limit(50).map(AuditEventEntity::getId).collect(Collectors.toList());
+
+        // When
+        AuditArchiveStore reloaded = new AuditArchiveStore(directory.toString());
+        reloaded.load();
+
+        // Then
+        assertEquals(expected, store.query(new AuditEventFilter(), null, 50).stream()
+                .map(AuditEventEntity::getId).collect(Collectors.toList()));
+        assertEquals(2, reloaded.getSegmentCount());
+        assertEquals(600L, reloaded.getRowCount());
+        assertEquals(last.getPath(), reloaded.getLatestSegment().getPath());
+        assertEquals(expected, reloaded.query(new AuditEventFilter(), null, 50).stream()
+                .map(AuditEventEntity::getId).collect(Collectors.toList()));
+    }
+
+    private static List<AuditEventEntity> sorted(List<AuditEventEntity> events) {
+        List<AuditEventEntity> copy = new ArrayList<>(events);
+        copy.sort(AuditEventSpecifications.KEYSET_COMPARATOR);
+        return copy;
+    }
+
+    private static byte[] hash(Random random) {
+        byte[] hash = new byte[32];
+        random.nextBytes(hash);
+        return hash;
+    }
+
+    private static List<AuditEventEntity> events(int count, long seed) {
+        Random random = new Random(seed);
+        List<AuditEventEntity> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            AuditEventEntity event = new AuditEventEntity();
+            event.setId(new UUID(random.nextLong(), random.nextLong()));
+            // Coarse timestamps so several rows share a created_at and ids break the tie
+            event.setCreatedAt(BASE.plusSeconds(random.nextInt(2000)).plus(random.nextInt(3), ChronoUnit.MICROS));
+            event.setEventType(TYPES[random.nextInt(TYPES.length)]);
+            event.setSeverity(random.nextBoolean() ? "INFO" : null);
+            event.setOutcome(random.nextBoolean() ? "SUCCESS" : "FAILURE");
+            event.setTenantId("tenant-" + random.nextInt(3));
+            event.setResourceId(random.nextInt(4) == 0 ? null : "res-" + random.nextInt(100));
+            event.setDescription("Event " + i + " \u00e9\u4e2d");
+            event.setDetails("{\"n\":" + i + "}");
+            event.setDurationMs(random.nextBoolean() ? (long) random.nextInt(5000) - 100 : null);
+            event.setRetentionDays(random.nextBoolean() ? 2555 : null);
+            event.setComplianceFlags(i % 7 == 0 ? "SECURITY" : null);
+            if (i % 11 != 0) {
+                event.setChainSeq((long) random.nextInt(count) + 1);
+                event.setPrevHash(hash(random));
+                event.setHash(hash(random));
+            }
+            events.add(event);
+        }
+        return events;
+    }
+}
@@ -0,0 +1,127 @@
+package com.finpass.issuer.service;
+
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AccessTokenVerifier
+ */
+class AccessTokenVerifierTest {
+
+    private static final String ISSUER_DID = "did:example:issuer";
+    private static final String ISSUER_URL = "http://localhost:8080";
+
+    private final IssuerKeyProvider keyProvider = new IssuerKeyProvider("");
+    private final AtomicLong clock = new AtomicLong(1_700_000_000_000L);
+
+    private AccessTokenVerifier verifier;
+
+    @BeforeEach
+    void setUp() {
+        verifier = new AccessTokenVerifier(keyProvider, ISSUER_DID, ISSUER_URL, 2, clock::get);
+    }
+
+    @Test
+    void testVerify_RepeatPresentationIsCacheHit() throws Exception {
+        // Given
+        String token = token(keyProvider, ISSUER_URL, 3600);
+
+        // When
+        JWTClaimsSet first = verifier.verify(token);
+        JWTClaimsSet second = verifier.verify(token);
+
+        // Then - one signature check, one hit
+        assertNotNull(first);
+        assertSame(first, second);
+        Map<String, Object> stats = verifier.getStats();
+        assertEquals(1L, stats.get("verifications"));
+        assertEquals(1L, stats.get("hits"));
+        assertEquals(0.5, stats.get("hitRate"));
+    }
+
+    @Test
+    void testVerify_RejectsTokenSignedWithAnotherKey() throws Exception {
+        // Given - same claims and kid, different signing key
+        IssuerKeyProvider otherKey = new IssuerKeyProvider("");
+        String forged = token(otherKey, ISSUER_URL, 3600);
+
+        // When / Then - rejected, and not cached
+        assertNull(verifier.verify(forged));
+        assertNull(verifier.verify(forged));
+        assertEquals(0, verifier.getStats().get("size"));
+        assertEquals(2L, verifier.getStats().get("rejected"));
+    }
+
+    @Test
+    void testVerify_RejectsWrongAudience() throws Exception {
+        // Given
+        String token = token(keyProvider, "https://other.example", 3600);
+
+        // When / Then
+        assertNull(verifier.verify(token));
+    }
+
+    @Test
+    void testVerify_CachedTokenExpires() throws Exception {
+        // Given - a verified token
+        String token = token(keyProvider, ISSUER_URL, 60);
+        assertNotNull(verifier.verify(token));
+
+        // When - its lifetime passes
+        clock.addAndGet(61_000);
+
+        // Then
+        assertNull(verifier.verify(token));
+        assertEquals(1L, verifier.getStats().get("expired"));
+        assertEquals(0, verifier.getStats().get("size"));
+    }
+
+    @Test
+    void testVerify_EvictsLeastRecentlyUsed() throws Exception {
+        // Given - a two-entry cache
+        String first = token(keyProvider, ISSUER_URL, 3600);
+        String second = token(keyProvider, ISSUER_URL, 3600);
+        String third = token(keyProvider, ISSUER_URL, 3600);
+
+        // When
+        verifier.verify(first);
+        verifier.verify(second);
+        verifier.verify(third);
+
+        // Then - the evicted token still verifies, at the cost of a signature check
+        assertEquals(1L, verifier.getStats().get("evictions"));
+        assertNotNull(verifier.verify(first));
+        assertEquals(4L, verifier.getStats().get("verifications"));
+    }
+
+    private String token(IssuerKeyProvider signingKey, String audience, long ttlSeconds) throws Exception {
+        Date now = new Date(clock.get());
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+            .issuer(ISSUER_DID)
+            .audience(audience)
+            .jwtID(UUID.randomUUID().toString())
+            .issueTime(now)
+            .expirationTime(new Date(clock.get() + ttlSeconds * 1000))
+            .claim("scope", "credential_request")
+            .build();
+        JWSHeader header = new JWSHeader.Builder(JWSAlgorithm.EdDSA)
+            .type(JOSEObjectType.JWT)
+            .keyID(keyProvider.getKeyId())
+            .build();
+        SignedJWT jwt = new SignedJWT(header, claims);
+        jwt.sign(signingKey.signer());
+        return jwt.serialize();
+    }
+}
@@ -0,0 +1,313 @@
+package com.finpass.issuer.service;
+
+import com.finpass.issuer.entity.AuditEventEntity;
+import com.finpass.issuer.repository.AuditArchiveStore;
+import com.finpass.issuer.repository.AuditHashChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the audit hash chain and its parallel verifier
+ */
+@ExtendWith(MockitoExtension.class)
+class AuditChainVerifierTest {
+
+    private static final Instant BASE = Instant.parse("2025-03-10T00:00:00Z");
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private AuditService auditService;
+
+    @TempDir
+    Path archiveDirectory;
+
+    private AuditArchiveStore archiveStore;
+    private AuditChainVerifier verifier;
+    private List<AuditEventEntity> stored;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        archiveStore = new AuditArchiveStore(archiveDirectory.toString());
+        archiveStore.load();
+        // Small segments so the verification is split across several tasks
+        verifier = new AuditChainVerifier(jdbcTemplate, archiveStore, auditService, 10, 4);
+        stored = chain(95);
+    }
+
+    @AfterEach
+    void tearDown() {
+        verifier.shutdown();
+    }
+
+    @Test
+    void testHash_StableAcrossJsonbKeyOrderAndWhitespace() {
+        // Given
+        AuditEventEntity written = event(1);
+        written.setChainSeq(1L);
+        written.setDetails("{\"b\":1.50,\"a\":{\"y\":true,\"x\":[1,2]}}");
+        AuditEventEntity readBack = event(1);
+        readBack.setChainSeq(1L);
+        readBack.setDetails("{\"a\": {\"x\": [1, 2], \"y\": true}, \"b\": 1.50}");
+
+        // When & Then
+        assertArrayEquals(AuditHashChain.hash(AuditHashChain.GENESIS, written),
+                AuditHashChain.hash(AuditHashChain.GENESIS, readBack));
+        readBack.setDetails("{\"a\": {\"x\": [2, 1], \"y\": true}, \"b\": 1.50}");
+        assertFalse(Arrays.equals(AuditHashChain.hash(AuditHashChain.GENESIS, written),
+                AuditHashChain.hash(AuditHashChain.GENESIS, readBack)));
+    }
+
+    @Test
+    void testLink_LocksEachMonthInOrderBeforeReadingItsHead() {
+        // Given - an April event listed before a March one
+        clearInvocations(jdbcTemplate);
+        AuditEventEntity april = event(1);
+        april.setCreatedAt(Instant.parse("2025-04-02T00:00:00Z"));
+        AuditEventEntity march = event(2);
+
+        // When
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            new AuditHashChain(jdbcTemplate).link(List.of(april, march));
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+
+        // Then
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).queryForList("SELECT pg_advisory_xact_lock(?, ?)", 0x61636863, 2025 * 12 + 2);
+        inOrder.verify(jdbcTemplate).query(startsWith("SELECT chain_seq, hash"), any(RowMapper.class),
+                eq(LocalDateTime.parse("2025-03-01T00:00:00")), any());
+        inOrder.verify(jdbcTemplate).queryForList("SELECT pg_advisory_xact_lock(?, ?)", 0x61636863, 2025 * 12 + 3);
+        inOrder.verify(jdbcTemplate).query(startsWith("SELECT chain_seq, hash"), any(RowMapper.class),
+                eq(LocalDateTime.parse("2025-04-01T00:00:00")), any());
+        assertEquals(1L, april.getChainSeq());
+        assertEquals(1L, march.getChainSeq());
+    }
+
+    @Test
+    void testLink_OutsideTransaction_Rejected() {
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> new AuditHashChain(jdbcTemplate).link(List.of(event(1))));
+    }
+
+    @Test
+    void testVerify_IntactChain_Valid() {
+        // Given
+        stubDatabase();
+
+        // When
+        AuditChainVerifier.VerificationResult result = verifier.verify(BASE, BASE.plusSeconds(3600));
+
+        // Then
+        assertTrue(result.isValid());
+        assertEquals(95, result.eventsVerified());
+    }
+
+    @Test
+    void testVerify_TamperedEvent_ReportsHashMismatch() {
+        // Given
+        stored.get(41).setDescription("rewritten");
+        stubDatabase();
+
+        // When
+        AuditChainVerifier.VerificationResult result = verifier.verify(BASE, BASE.plusSeconds(3600));
+
+        // Then
+        assertFalse(result.isValid());
+        assertEquals(YearMonth.of(2025, 3), result.firstBreak().partition());
+        assertEquals(42, result.firstBreak().chainSeq());
+        assertEquals(stored.get(41).getId(), result.firstBreak().eventId());
+        assertEquals(AuditChainVerifier.Reason.HASH_MISMATCH, result.firstBreak().reason());
+    }
+
+    @Test
+    void testVerify_DeletedAndRelinkedEvents_ReportsFirstBreak() {
+        // Given - seq 20 (a segment boundary) deleted, and seq 70 relinked to a forged predecessor
+        stored.get(69).setPrevHash(new byte[32]);
+        stored.get(69).setHash(AuditHashChain.hash(stored.get(69).getPrevHash(), stored.get(69)));
+        stored.remove(19);
+        stubDatabase();
+
+        // When
+        AuditChainVerifier.VerificationResult result = verifier.verify(BASE, BASE.plusSeconds(3600));
+
+        // Then
+        assertEquals(20, result.firstBreak().chainSeq());
+        assertEquals(AuditChainVerifier.Reason.MISSING_EVENT, result.firstBreak().reason());
+    }
+
+    @Test
+    void testVerify_ForgedLink_ReportsBrokenLink() {
+        // Given
+        stored.get(69).setPrevHash(new byte[32]);
+        stored.get(69).setHash(AuditHashChain.hash(stored.get(69).getPrevHash(), stored.get(69)));
+        stubDatabase();
+
+        // When
+        AuditChainVerifier.VerificationResult result = verifier.verify(BASE, BASE.plusSeconds(3600));
+
+        // Then
+        assertEquals(70, result.firstBreak().chainSeq());
+        assertEquals(AuditChainVerifier.Reason.BROKEN_LINK, result.firstBreak().reason());
+    }
+
+    @Test
+    void testVerify_ArchivedPrefix_ChainContinuesIntoArchive() throws Exception {
+        // Given - the first 30 events of the month were moved to the archive
+        archiveStore.append(stored.subList(0, 30));
+        stored = new ArrayList<>(stored.subList(30, stored.size()));
+        stubDatabase();
+
+        // When
+        AuditChainVerifier.VerificationResult result = verifier.verify(BASE, BASE.plusSeconds(3600));
+
+        // Then
+        assertTrue(result.isValid());
+        assertEquals(95, result.eventsVerified());
+    }
+
+    @Test
+    void testVerify_EditedArchiveSegment_ReportsHashMismatch() throws Exception {
+        // Given - an archived event is rewritten in its segment
+        stored.get(11).setDescription("rewritten");
+        archiveStore.append(stored.subList(0, 30));
+        stored = new ArrayList<>(stored.subList(30, stored.size()));
+        stubDatabase();
+
+        // When
+        AuditChainVerifier.VerificationResult result = verifier.verify(BASE, BASE.plusSeconds(3600));
+
+        // Then
+        assertEquals(12, result.firstBreak().chainSeq());
+        assertEquals(AuditChainVerifier.Reason.HASH_MISMATCH, result.firstBreak().reason());
+    }
+
+    @Test
+    void testVerify_ArchivedPrefixMissing_ReportsMissingEvent() {
+        // Given - the first 30 events are gone from the table and not in the archive
+        stored = new ArrayList<>(stored.subList(30, stored.size()));
+        stubDatabase();
+
+        // When
+        AuditChainVerifier.VerificationResult result = verifier.verify(BASE, BASE.plusSeconds(3600));
+
+        // Then
+        assertEquals(30, result.firstBreak().chainSeq());
+        assertEquals(AuditChainVerifier.Reason.MISSING_EVENT, result.firstBreak().reason());
+    }
+
+    @Test
+    void testVerify_RowsInBothTiers_CountedOnce() throws Exception {
+        // Given - an interrupted archive run left its rows in the table too
+        archiveStore.append(stored.subList(0, 30));
+        stubDatabase();
+
+        // When
+        AuditChainVerifier.VerificationResult result = verifier.verify(BASE, BASE.plusSeconds(3600));
+
+        // Then
+        assertTrue(result.isValid());
+        assertEquals(95, result.eventsVerified());
+    }
+
+    @Test
+    void testVerify_SegmentWithoutChainColumns_AnchorsAtFirstChainedEvent() {
+        // Given - the first 30 events are in a segment written before the chain columns existed
+        AuditArchiveStore legacyArchive = spy(archiveStore);
+        doReturn(true).when(legacyArchive).hasUnchainedSegments(any(), any());
+        AuditChainVerifier legacyVerifier = new AuditChainVerifier(jdbcTemplate, legacyArchive, auditService, 10, 4);
+        stored = new ArrayList<>(stored.subList(30, stored.size()));
+        stubDatabase();
+        when(jdbcTemplate.queryForObject(eq(AuditChainVerifier.FIRST_SEQ_SQL), eq(Long.class),
+                any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(31L);
+
+        // When
+        AuditChainVerifier.VerificationResult result;
+        try {
+            result = legacyVerifier.verify(BASE, BASE.plusSeconds(3600));
+        } finally {
+            legacyVerifier.shutdown();
+        }
+
+        // Then
+        assertTrue(result.isValid());
+        assertEquals(65, result.eventsVerified());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubDatabase() {
+        long min = stored.stream().mapToLong(AuditEventEntity::getChainSeq).min().orElseThrow();
+        long max = stored.stream().mapToLong(AuditEventEntity::getChainSeq).max().orElseThrow();
+        Map<String, Object> range = new HashMap<>();
+        range.put("min", min);
+        range.put("max", max);
+        when(jdbcTemplate.queryForMap(eq(AuditChainVerifier.SEQ_RANGE_SQL),
+                any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(range);
+        when(jdbcTemplate.query(eq(AuditChainVerifier.SEGMENT_SQL), any(RowMapper.class), any(), any(), any(), any()))
+                .thenAnswer(invocation -> {
+                    long lo = invocation.getArgument(4);
+                    long hi = invocation.getArgument(5);
+                    return stored.stream()
+                            .filter(e -> e.getChainSeq() >= lo && e.getChainSeq() <= hi)
+                            .collect(Collectors.toList());
+                });
+    }
+
+    private List<AuditEventEntity> chain(int count) {
+        List<AuditEventEntity> events = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            events.add(event(i));
+        }
+        when(jdbcTemplate.query(eq("SELECT chain_seq, hash FROM audit_events "
+                + "WHERE created_at >= ? AND created_at < ? AND chain_seq IS NOT NULL "
+                + "ORDER BY chain_seq DESC LIMIT 1"), any(RowMapper.class), any(), any())).thenReturn(List.of());
+        // Linking takes the month locks, which are only held inside a transaction
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            new AuditHashChain(jdbcTemplate).link(events);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+        return events;
+    }
+
+    private static AuditEventEntity event(int i) {
+        AuditEventEntity event = new AuditEventEntity();
+        event.setId(new UUID(7, i));
+        event.setCreatedAt(BASE.plusMillis(i * 10L));
+        event.setEventType("CREDENTIAL_ISSUED");
+        event.setSeverity("INFO");
+        event.setOutcome("SUCCESS");
+        event.setDescription("Event " + i);
+        event.setDetails("{\"n\":" + i + "}");
+        return event;
+    }
+}
@@ -0,0 +1,191 @@
+package com.finpass.issuer.service;
+
+import com.finpass.issuer.entity.AuditEventEntity;
+import com.finpass.issuer.repository.AuditEventBatchWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the audit write-behind pipeline
+ */
+@ExtendWith(MockitoExtension.class)
+class AuditEventPipelineTest {
+
+    @Mock
+    private AuditEventBatchWriter batchWriter;
+
+    @TempDir
+    Path spillDir;
+
+    private AuditEventPipeline pipeline(int capacity, int batchSize, AuditEventPipeline.OverflowPolicy policy) {
+        return new AuditEventPipeline(batchWriter, capacity, batchSize, 10, policy, spillDir.toString(), 5000);
+    }
+
+    private static AuditEventEntity event(String severity) {
+        AuditEventEntity event = new AuditEventEntity(AuditEventEntity.EventType.CREDENTIAL_ISSUED, "hash");
+        event.setSeverity(severity);
+        return event;
+    }
+
+    @Test
+    void testEnqueue_WritesAllEventsInBoundedBatches() {
+        // Given
+        List<Integer> batchSizes = new ArrayList<>();
+        when(batchWriter.insertBatch(anyList())).thenAnswer(invocation -> {
+            List<?> batch = invocation.getArgument(0);
+            batchSizes.add(batch.size());
+            return batch.size();
+        });
+        AuditEventPipeline pipeline = pipeline(1000, 50, AuditEventPipeline.OverflowPolicy.BLOCK);
+        pipeline.start();
+
+        // When
+        for (int i = 0; i < 500; i++) {
+            assertTrue(pipeline.enqueue(event("INFO")));
+        }
+        pipeline.shutdown();
+
+        // Then
+        assertEquals(500, batchSizes.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 50));
+
+        Map<String, Object> stats = pipeline.getStats();
+        assertEquals(500L, stats.get("writtenEvents"));
+        assertEquals(0, stats.get("queueDepth"));
+        assertEquals(0L, stats.get("droppedEvents"));
+    }
+
+    @Test
+    void testEnqueue_DropInfoPolicyDropsOnlyInfoEvents() {
+        // Given - writer thread not started so the buffer stays full
+        AuditEventPipeline full = pipeline(2, 10, AuditEventPipeline.OverflowPolicy.DROP_INFO);
+        assertTrue(fill(full, 2));
+
+        // When
+        boolean accepted = fullEnqueue(full, event("INFO"));
+
+        // Then
+        assertFalse(accepted);
+        assertEquals(1L, full.getStats().get("droppedEvents"));
+        assertEquals(2, full.getQueueDepth());
+        verifyNoInteractions(batchWriter);
+    }
+
+    @Test
+    void testEnqueue_SpillToDiskAndReplay() throws Exception {
+        // Given
+        AuditEventPipeline pipeline = pipeline(1, 10, AuditEventPipeline.OverflowPolicy.SPILL_TO_DISK);
+        assertTrue(fill(pipeline, 1));
+
+        // When
+        assertTrue(fullEnqueue(pipeline, event("WARNING")));
+
+        // Then
+        Path spillFile = spillDir.resolve(AuditEventPipeline.SPILL_FILE);
+        assertTrue(Files.exists(spillFile));
+        assertEquals(1L, pipeline.getStats().get("spilledEvents"));
+
+        // When - replayed
+        List<String> replayedSeverities = new ArrayList<>();
+        when(batchWriter.insertBatch(anyList())).thenAnswer(invocation -> {
+            List<AuditEventEntity> batch = invocation.getArgument(0);
+            batch.forEach(e -> replayedSeverities.add(e.getSeverity()));
+            return batch.size();
+        });
+        pipeline.replaySpill();
+
+        // Then
+        assertEquals(List.of("WARNING"), replayedSeverities);
+        assertFalse(Files.exists(spillFile));
+    }
+
+    @Test
+    void testEnqueue_WriteFailureIsCountedNotThrown() {
+        // Given
+        when(batchWriter.insertBatch(anyList())).thenThrow(new RuntimeException("Database down"));
+        AuditEventPipeline pipeline = pipeline(10, 10, AuditEventPipeline.OverflowPolicy.BLOCK);
+        pipeline.start();
+
+        // When
+        pipeline.enqueue(event("ERROR"));
+        pipeline.shutdown();
+
+        // Then
+        assertEquals(1L, pipeline.getStats().get("failedEvents"));
+    }
+
+    @Test
+    void testShutdown_NoEventLostToConcurrentProducers() throws Exception {
+        // Given - producers still enqueueing while the pipeline shuts down
+        AtomicInteger written = new AtomicInteger();
+        when(batchWriter.insertBatch(anyList())).thenAnswer(invocation -> {
+            List<?> batch = invocation.getArgument(0);
+            written.addAndGet(batch.size());
+            return batch.size();
+        });
+        AuditEventPipeline pipeline = pipeline(64, 16, AuditEventPipeline.OverflowPolicy.BLOCK);
+        pipeline.start();
+        int producers = 4;
+        int perProducer = 2000;
+        CountDownLatch started = new CountDownLatch(producers);
+        ExecutorService pool = Executors.newFixedThreadPool(producers);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            futures.add(pool.submit(() -> {
+                started.countDown();
+                for (int i = 0; i < perProducer; i++) {
+                    assertTrue(pipeline.enqueue(event("INFO")));
+                }
+            }));
+        }
+
+        // When
+        started.await();
+        pipeline.shutdown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+
+        // Then - every event was written by the writer, the final drain or inline
+        assertEquals(producers * perProducer, written.get());
+        assertEquals(0, pipeline.getQueueDepth());
+        assertEquals((long) producers * perProducer, pipeline.getStats().get("writtenEvents"));
+    }
+
+    /**
+     * Fill the buffer of a pipeline whose writer is not running, bypassing the inline fallback
+     */
+    private static boolean fill(AuditEventPipeline pipeline, int count) {
+        for (int i = 0; i < count; i++) {
+            if (!fullEnqueue(pipeline, event("INFO"))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean fullEnqueue(AuditEventPipeline pipeline, AuditEventEntity event) {
+        ReflectionTestUtils.setField(pipeline, "running", true);
+        return pipeline.enqueue(event);
+    }
+}
@@ -0,0 +1,132 @@
+package com.finpass.issuer.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.finpass.issuer.entity.AuditEventEntity;
+import com.finpass.issuer.repository.AuditEventRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for streaming audit exports
+ */
+@ExtendWith(MockitoExtension.class)
+class AuditExportServiceTest {
+
+    @Mock
+    private AuditEventRepository auditEventRepository;
+
+    @Mock
+    private AuditService auditService;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private AuditExportService exportService;
+
+    private final Instant from = Instant.parse("2026-10-01T00:00:00Z");
+    private final Instant to = Instant.parse("2026-11-01T00:00:00Z");
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        exportService = new AuditExportService(auditEventRepository, auditService, entityManager, objectMapper);
+    }
+
+    @Test
+    void testExport_NdjsonWritesOneLinePerEventAndDetaches() throws Exception {
+        // Given
+        when(auditEventRepository.streamEventsCreatedBetween(from, to)).thenReturn(events(3));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        long rows = exportService.export(from, to, null, AuditExportService.Format.NDJSON, false, out);
+
+        // Then
+        assertEquals(3, rows);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("{") && lines[0].contains("\"eventType\":\"CREDENTIAL_ISSUED\""));
+        verify(entityManager, times(3)).detach(any(AuditEventEntity.class));
+        verify(auditService).logEvent(eq(AuditEventEntity.EventType.DATA_EXPORTED), isNull(), anyMap());
+    }
+
+    @Test
+    void testExport_CsvHeaderAndQuoting() throws Exception {
+        // Given
+        AuditEventEntity event = event(0);
+        event.setDescription("Issued, with \"quotes\"");
+        when(auditEventRepository.streamEventsByTypeCreatedBetween("CREDENTIAL_ISSUED", from, to))
+                .thenReturn(Stream.of(event));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        long rows = exportService.export(from, to, "CREDENTIAL_ISSUED", AuditExportService.Format.CSV, false, out);
+
+        // Then
+        assertEquals(1, rows);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(String.join(",", AuditExportService.CSV_COLUMNS.keySet()), lines[0]);
+        assertTrue(lines[1].contains("\"Issued, with \"\"quotes\"\"\""));
+    }
+
+    @Test
+    void testExport_GzipOutputIsCompleteStream() throws Exception {
+        // Given
+        when(auditEventRepository.streamEventsCreatedBetween(from, to)).thenReturn(events(1000));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        long rows = exportService.export(from, to, null, AuditExportService.Format.NDJSON, true, out);
+
+        // Then
+        assertEquals(1000, rows);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            String text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            assertEquals(1000, text.lines().count());
+        }
+    }
+
+    @Test
+    void testWriteCsvField_PlainAndNull() throws Exception {
+        StringWriter writer = new StringWriter();
+
+        AuditExportService.writeCsvField(writer, null);
+        AuditExportService.writeCsvField(writer, "plain");
+        AuditExportService.writeCsvField(writer, "line\nbreak");
+
+        assertEquals("plain\"line\nbreak\"", writer.toString());
+    }
+
+    private static Stream<AuditEventEntity> events(int count) {
+        return IntStream.range(0, count).mapToObj(AuditExportServiceTest::event);
+    }
+
+    private static AuditEventEntity event(int i) {
+        AuditEventEntity event = new AuditEventEntity(AuditEventEntity.EventType.CREDENTIAL_ISSUED, "hash" + i);
+        event.setId(UUID.randomUUID());
+        event.setCreatedAt(Instant.parse("2026-10-02T00:00:00Z").plusSeconds(i));
+        return event;
+    }
+}
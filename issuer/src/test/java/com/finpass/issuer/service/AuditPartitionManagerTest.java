@@ -0,0 +1,100 @@
+package com.finpass.issuer.service;
+
+import com.finpass.issuer.entity.AuditEventEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for audit partition maintenance
+ */
+@ExtendWith(MockitoExtension.class)
+class AuditPartitionManagerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private AuditService auditService;
+
+    private AuditPartitionManager partitionManager;
+
+    @BeforeEach
+    void setUp() {
+        partitionManager = new AuditPartitionManager(jdbcTemplate, auditService, 2, 365);
+    }
+
+    @Test
+    void testPartitionNameRoundTrip() {
+        YearMonth month = YearMonth.of(2026, 3);
+
+        assertEquals("audit_events_y2026m03", AuditPartitionManager.partitionName(month));
+        assertEquals(Optional.of(month), AuditPartitionManager.parsePartitionMonth("audit_events_y2026m03"));
+        assertTrue(AuditPartitionManager.parsePartitionMonth("audit_events_default").isEmpty());
+        assertTrue(AuditPartitionManager.parsePartitionMonth(null).isEmpty());
+    }
+
+    @Test
+    void testEnsureFuturePartitions_CreatesOnlyMissingMonths() {
+        // Given
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any()))
+                .thenReturn(List.of("audit_events_default", "audit_events_y2026m10"));
+
+        // When
+        List<String> created = partitionManager.ensureFuturePartitions(YearMonth.of(2026, 10));
+
+        // Then
+        assertEquals(List.of("audit_events_y2026m11", "audit_events_y2026m12"), created);
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS audit_events_y2026m12 PARTITION OF audit_events " +
+                "FOR VALUES FROM ('2026-12-01') TO ('2027-01-01')");
+        verify(jdbcTemplate).execute("CREATE UNIQUE INDEX IF NOT EXISTS audit_events_y2026m12_chain_seq_key " +
+                "ON audit_events_y2026m12 ((date_trunc('month', created_at)), chain_seq) WHERE chain_seq IS NOT NULL");
+    }
+
+    @Test
+    void testDropExpiredPartitions_DropsWholeMonthsPastRetention() {
+        // Given
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any()))
+                .thenReturn(List.of("audit_events_default", "audit_events_y2025m08",
+                        "audit_events_y2025m09", "audit_events_y2025m10", "audit_events_y2026m10"));
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), any())).thenReturn(false);
+
+        // When - cutoff is 2025-10-16
+        List<String> dropped = partitionManager.dropExpiredPartitions(Instant.parse("2026-10-16T00:00:00Z"));
+
+        // Then - October 2025 still overlaps the retention window
+        assertEquals(List.of("audit_events_y2025m08", "audit_events_y2025m09"), dropped);
+        verify(jdbcTemplate).execute("ALTER TABLE audit_events DETACH PARTITION audit_events_y2025m08");
+        verify(jdbcTemplate).execute("DROP TABLE audit_events_y2025m08");
+        verify(jdbcTemplate, never()).execute("DROP TABLE audit_events_y2025m10");
+        verify(auditService).logEvent(eq(AuditEventEntity.EventType.DATA_PURGE), isNull(), anyMap());
+    }
+
+    @Test
+    void testDropExpiredPartitions_KeepsPartitionWithExtendedRetention() {
+        // Given
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any()))
+                .thenReturn(List.of("audit_events_y2024m01"));
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), any())).thenReturn(true);
+
+        // When
+        List<String> dropped = partitionManager.dropExpiredPartitions(Instant.parse("2026-10-16T00:00:00Z"));
+
+        // Then
+        assertTrue(dropped.isEmpty());
+        verify(jdbcTemplate, never()).execute(anyString());
+        verifyNoInteractions(auditService);
+    }
+}
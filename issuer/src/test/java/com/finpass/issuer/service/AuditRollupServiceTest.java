@@ -0,0 +1,100 @@
+package com.finpass.issuer.service;
+
+import com.finpass.issuer.repository.AuditRollupRepository;
+import com.finpass.issuer.repository.AuditRollupRepository.Granularity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for audit rollup metrics and compaction
+ */
+@ExtendWith(MockitoExtension.class)
+class AuditRollupServiceTest {
+
+    @Mock
+    private AuditRollupRepository rollupRepository;
+
+    private AuditRollupService rollupService;
+
+    private final Instant now = Instant.parse("2026-10-16T12:34:56Z");
+
+    @BeforeEach
+    void setUp() {
+        rollupService = new AuditRollupService(rollupRepository, 48, 35);
+    }
+
+    @Test
+    void testCompact_FoldsWithAlignedCutoffs() {
+        // When
+        rollupService.compact(now);
+
+        // Then - minutes before 2026-10-14T12:00, hours before 2026-09-11T00:00
+        verify(rollupRepository).fold(Granularity.MINUTE, Granularity.HOUR, Instant.parse("2026-10-14T12:00:00Z"));
+        verify(rollupRepository).fold(Granularity.HOUR, Granularity.DAY, Instant.parse("2026-09-11T00:00:00Z"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetMetrics_AggregatesRollupRows() {
+        // Given
+        when(rollupRepository.sumByKey(eq(Instant.EPOCH), any(Instant.class))).thenReturn(List.of(
+                new Object[]{"CREDENTIAL_ISSUED", "INFO", "SUCCESS", 90L},
+                new Object[]{"PAYMENT_FAILED", "ERROR", "FAILURE", 7L},
+                new Object[]{"SECURITY_BREACH_ATTEMPT", "CRITICAL", "", 3L}
+        ));
+        when(rollupRepository.sumSince(any(Instant.class))).thenReturn(4L);
+
+        // When
+        Map<String, Object> metrics = rollupService.getMetrics(now);
+
+        // Then
+        assertEquals(100L, metrics.get("totalEvents"));
+        assertEquals(7L, metrics.get("errorEvents"));
+        assertEquals(3L, metrics.get("criticalEvents"));
+        assertEquals(7L, metrics.get("failedEvents"));
+        assertEquals(90L, ((Map<String, Long>) metrics.get("eventTypes")).get("CREDENTIAL_ISSUED"));
+        assertFalse(((Map<String, Long>) metrics.get("outcomeBreakdown")).containsKey(""));
+        assertEquals(4L, ((Map<String, Object>) metrics.get("recentActivity")).get("lastHour"));
+        verify(rollupRepository, never()).rawCountByKey(any(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCheckConsistency_ReportsMismatchOverWholeDays() {
+        // Given
+        Instant dayStart = Instant.parse("2026-10-16T00:00:00Z");
+        Instant dayEnd = Instant.parse("2026-10-17T00:00:00Z");
+        when(rollupRepository.sumByKey(dayStart, dayEnd)).thenReturn(List.of(
+                new Object[]{"CREDENTIAL_ISSUED", "INFO", "SUCCESS", 10L},
+                new Object[]{"USER_LOGIN", "INFO", "SUCCESS", 5L}
+        ));
+        when(rollupRepository.rawCountByKey(dayStart, dayEnd)).thenReturn(List.of(
+                new Object[]{"CREDENTIAL_ISSUED", "INFO", "SUCCESS", 10L},
+                new Object[]{"USER_LOGIN", "INFO", "SUCCESS", 6L}
+        ));
+
+        // When
+        Map<String, Object> result = rollupService.checkConsistency(now.minusSeconds(60), now);
+
+        // Then
+        assertEquals(dayStart, result.get("from"));
+        assertEquals(dayEnd, result.get("to"));
+        assertEquals(15L, result.get("rollupTotal"));
+        assertEquals(16L, result.get("rawTotal"));
+        assertEquals(false, result.get("consistent"));
+        List<Map<String, Object>> mismatches = (List<Map<String, Object>>) result.get("mismatches");
+        assertEquals(1, mismatches.size());
+        assertEquals("USER_LOGIN/INFO/SUCCESS", mismatches.get(0).get("key"));
+    }
+}
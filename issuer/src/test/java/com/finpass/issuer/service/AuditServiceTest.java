@@ -1,7 +1,13 @@
 package com.finpass.issuer.service;
 
+import com.finpass.issuer.dto.AuditEventCursor;
+import com.finpass.issuer.dto.AuditEventFilter;
+import com.finpass.issuer.dto.AuditEventPage;
 import com.finpass.issuer.entity.AuditEventEntity;
+import com.finpass.issuer.exception.ValidationException;
+import com.finpass.issuer.repository.AuditArchiveStore;
 import com.finpass.issuer.repository.AuditEventRepository;
+import com.finpass.issuer.repository.AuditSearchRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -9,6 +15,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -32,6 +39,18 @@ class AuditServiceTest {
     @Mock
     private AuditEventRepository auditEventRepository;
 
+    @Mock
+    private AuditEventPipeline auditEventPipeline;
+
+    @Mock
+    private AuthFailureDetector authFailureDetector;
+
+    @Mock
+    private AuditSearchRepository auditSearchRepository;
+
+    @Mock
+    private AuditArchiveStore auditArchiveStore;
+
     @Mock
     private HttpServletRequest request;
 
@@ -60,7 +79,7 @@ class AuditServiceTest {
 
         // Then
         ArgumentCaptor<AuditEventEntity> eventCaptor = ArgumentCaptor.forClass(AuditEventEntity.class);
-        verify(auditEventRepository).save(eventCaptor.capture());
+        verify(auditEventPipeline).enqueue(eventCaptor.capture());
 
         AuditEventEntity savedEvent = eventCaptor.getValue();
         assertEquals(eventType.name(), savedEvent.getEventType());
@@ -87,7 +106,7 @@ class AuditServiceTest {
 
         // Then
         ArgumentCaptor<AuditEventEntity> eventCaptor = ArgumentCaptor.forClass(AuditEventEntity.class);
-        verify(auditEventRepository).save(eventCaptor.capture());
+        verify(auditEventPipeline).enqueue(eventCaptor.capture());
 
         AuditEventEntity savedEvent = eventCaptor.getValue();
         assertEquals("192.168.1.1", savedEvent.getIpAddress());
@@ -108,7 +127,7 @@ class AuditServiceTest {
 
         // Then
         ArgumentCaptor<AuditEventEntity> eventCaptor = ArgumentCaptor.forClass(AuditEventEntity.class);
-        verify(auditEventRepository).save(eventCaptor.capture());
+        verify(auditEventPipeline).enqueue(eventCaptor.capture());
 
         AuditEventEntity savedEvent = eventCaptor.getValue();
         assertEquals(duration, savedEvent.getDurationMs());
@@ -129,7 +148,7 @@ class AuditServiceTest {
 
         // Then
         ArgumentCaptor<AuditEventEntity> eventCaptor = ArgumentCaptor.forClass(AuditEventEntity.class);
-        verify(auditEventRepository).save(eventCaptor.capture());
+        verify(auditEventPipeline).enqueue(eventCaptor.capture());
 
         AuditEventEntity savedEvent = eventCaptor.getValue();
         assertEquals("PAYMENT_ERROR", savedEvent.getErrorCode());
@@ -144,7 +163,7 @@ class AuditServiceTest {
 
         // Then
         ArgumentCaptor<AuditEventEntity> eventCaptor = ArgumentCaptor.forClass(AuditEventEntity.class);
-        verify(auditEventRepository).save(eventCaptor.capture());
+        verify(auditEventPipeline).enqueue(eventCaptor.capture());
 
         AuditEventEntity savedEvent = eventCaptor.getValue();
         assertEquals(AuditEventEntity.EventType.CREDENTIAL_ISSUED.name(), savedEvent.getEventType());
@@ -162,7 +181,7 @@ class AuditServiceTest {
 
         // Then
         ArgumentCaptor<AuditEventEntity> eventCaptor = ArgumentCaptor.forClass(AuditEventEntity.class);
-        verify(auditEventRepository).save(eventCaptor.capture());
+        verify(auditEventPipeline).enqueue(eventCaptor.capture());
 
         AuditEventEntity savedEvent = eventCaptor.getValue();
         assertEquals(AuditEventEntity.EventType.CREDENTIAL_REVOKED.name(), savedEvent.getEventType());
@@ -180,7 +199,7 @@ class AuditServiceTest {
 
         // Then
         ArgumentCaptor<AuditEventEntity> eventCaptor = ArgumentCaptor.forClass(AuditEventEntity.class);
-        verify(auditEventRepository).save(eventCaptor.capture());
+        verify(auditEventPipeline).enqueue(eventCaptor.capture());
 
         AuditEventEntity savedEvent = eventCaptor.getValue();
         assertEquals(AuditEventEntity.EventType.CREDENTIAL_SUSPENDED.name(), savedEvent.getEventType());
@@ -196,7 +215,7 @@ class AuditServiceTest {
 
         // Then
         ArgumentCaptor<AuditEventEntity> eventCaptor = ArgumentCaptor.forClass(AuditEventEntity.class);
-        verify(auditEventRepository).save(eventCaptor.capture());
+        verify(auditEventPipeline).enqueue(eventCaptor.capture());
 
         AuditEventEntity savedEvent = eventCaptor.getValue();
         assertEquals(AuditEventEntity.EventType.CREDENTIAL_REINSTATED.name(), savedEvent.getEventType());
@@ -212,7 +231,7 @@ class AuditServiceTest {
 
         // Then
         ArgumentCaptor<AuditEventEntity> eventCaptor = ArgumentCaptor.forClass(AuditEventEntity.class);
-        verify(auditEventRepository).save(eventCaptor.capture());
+        verify(auditEventPipeline).enqueue(eventCaptor.capture());
 
         AuditEventEntity savedEvent = eventCaptor.getValue();
         assertEquals(AuditEventEntity.EventType.PRESENTATION_VERIFIED.name(), savedEvent.getEventType());
@@ -230,7 +249,7 @@ class AuditServiceTest {
 
         // Then
         ArgumentCaptor<AuditEventEntity> eventCaptor = ArgumentCaptor.forClass(AuditEventEntity.class);
-        verify(auditEventRepository).save(eventCaptor.capture());
+        verify(auditEventPipeline).enqueue(eventCaptor.capture());
 
         AuditEventEntity savedEvent = eventCaptor.getValue();
         assertEquals("FAILURE", savedEvent.getOutcome());
@@ -248,7 +267,7 @@ class AuditServiceTest {
 
         // Then
         ArgumentCaptor<AuditEventEntity> eventCaptor = ArgumentCaptor.forClass(AuditEventEntity.class);
-        verify(auditEventRepository).save(eventCaptor.capture());
+        verify(auditEventPipeline).enqueue(eventCaptor.capture());
 
         AuditEventEntity savedEvent = eventCaptor.getValue();
         assertEquals(AuditEventEntity.EventType.PAYMENT_INITIATED.name(), savedEvent.getEventType());
@@ -269,7 +288,7 @@ class AuditServiceTest {
 
         // Then
         ArgumentCaptor<AuditEventEntity> eventCaptor = ArgumentCaptor.forClass(AuditEventEntity.class);
-        verify(auditEventRepository).save(eventCaptor.capture());
+        verify(auditEventPipeline).enqueue(eventCaptor.capture());
 
         AuditEventEntity savedEvent = eventCaptor.getValue();
         assertEquals(AuditEventEntity.EventType.PAYMENT_COMPLETED.name(), savedEvent.getEventType());
@@ -284,7 +303,7 @@ class AuditServiceTest {
 
         // Then
         ArgumentCaptor<AuditEventEntity> eventCaptor = ArgumentCaptor.forClass(AuditEventEntity.class);
-        verify(auditEventRepository).save(eventCaptor.capture());
+        verify(auditEventPipeline).enqueue(eventCaptor.capture());
 
         AuditEventEntity savedEvent = eventCaptor.getValue();
         assertEquals(AuditEventEntity.EventType.PAYMENT_FAILED.name(), savedEvent.getEventType());
@@ -301,7 +320,7 @@ class AuditServiceTest {
 
         // Then
         ArgumentCaptor<AuditEventEntity> eventCaptor = ArgumentCaptor.forClass(AuditEventEntity.class);
-        verify(auditEventRepository).save(eventCaptor.capture());
+        verify(auditEventPipeline).enqueue(eventCaptor.capture());
 
         AuditEventEntity savedEvent = eventCaptor.getValue();
         assertEquals(AuditEventEntity.EventType.USER_LOGIN.name(), savedEvent.getEventType());
@@ -316,7 +335,7 @@ class AuditServiceTest {
 
         // Then
         ArgumentCaptor<AuditEventEntity> eventCaptor = ArgumentCaptor.forClass(AuditEventEntity.class);
-        verify(auditEventRepository).save(eventCaptor.capture());
+        verify(auditEventPipeline).enqueue(eventCaptor.capture());
 
         AuditEventEntity savedEvent = eventCaptor.getValue();
         assertEquals(AuditEventEntity.EventType.AUTHENTICATION_FAILED.name(), savedEvent.getEventType());
@@ -325,6 +344,25 @@ class AuditServiceTest {
         assertTrue(savedEvent.getDetails().contains("Invalid password"));
     }
 
+    @Test
+    void testLogUserLogin_FailureBurstRaisesSecurityEvent() {
+        // Given
+        when(authFailureDetector.recordFailure(eq("192.168.1.1"), anyString())).thenReturn(List.of(
+                new AuthFailureDetector.Alert(AuthFailureDetector.Subject.IP, "192.168.1.1", 20, 300)));
+
+        // When
+        auditService.logUserLogin(testUserId, "192.168.1.1", false, "Invalid password");
+
+        // Then
+        ArgumentCaptor<AuditEventEntity> eventCaptor = ArgumentCaptor.forClass(AuditEventEntity.class);
+        verify(auditEventPipeline, times(2)).enqueue(eventCaptor.capture());
+
+        List<AuditEventEntity> events = eventCaptor.getAllValues();
+        assertEquals("192.168.1.1", events.get(0).getIpAddress());
+        assertEquals(AuditEventEntity.EventType.SECURITY_BREACH_ATTEMPT.name(), events.get(1).getEventType());
+        assertEquals("CRITICAL", events.get(1).getSeverity());
+    }
+
     @Test
     void testLogUserRegistered() {
         // When
@@ -332,7 +370,7 @@ class AuditServiceTest {
 
         // Then
         ArgumentCaptor<AuditEventEntity> eventCaptor = ArgumentCaptor.forClass(AuditEventEntity.class);
-        verify(auditEventRepository).save(eventCaptor.capture());
+        verify(auditEventPipeline).enqueue(eventCaptor.capture());
 
         AuditEventEntity savedEvent = eventCaptor.getValue();
         assertEquals(AuditEventEntity.EventType.USER_REGISTERED.name(), savedEvent.getEventType());
@@ -347,7 +385,7 @@ class AuditServiceTest {
 
         // Then
         ArgumentCaptor<AuditEventEntity> eventCaptor = ArgumentCaptor.forClass(AuditEventEntity.class);
-        verify(auditEventRepository).save(eventCaptor.capture());
+        verify(auditEventPipeline).enqueue(eventCaptor.capture());
 
         AuditEventEntity savedEvent = eventCaptor.getValue();
         assertEquals(AuditEventEntity.EventType.SECURITY_BREACH_ATTEMPT.name(), savedEvent.getEventType());
@@ -363,7 +401,7 @@ class AuditServiceTest {
 
         // Then
         ArgumentCaptor<AuditEventEntity> eventCaptor = ArgumentCaptor.forClass(AuditEventEntity.class);
-        verify(auditEventRepository).save(eventCaptor.capture());
+        verify(auditEventPipeline).enqueue(eventCaptor.capture());
 
         AuditEventEntity savedEvent = eventCaptor.getValue();
         assertEquals(AuditEventEntity.EventType.SYSTEM_ERROR.name(), savedEvent.getEventType());
@@ -467,6 +505,35 @@ class AuditServiceTest {
         assertTrue(json.endsWith("}"));
     }
 
+    @Test
+    void testConvertDetailsToJson_EscapesAndNests() {
+        // Given
+        Map<String, Object> details = new java.util.LinkedHashMap<>();
+        details.put("quote", "say \"hi\"\\now");
+        details.put("nested", Map.of("amount", 100));
+        details.put("list", java.util.List.of("a", "b"));
+
+        // When
+        String json = (String) ReflectionTestUtils.invokeMethod(auditService, "convertDetailsToJson", details);
+
+        // Then
+        assertEquals("{\"quote\":\"say \\\"hi\\\"\\\\now\",\"nested\":{\"amount\":100},\"list\":[\"a\",\"b\"]}", json);
+    }
+
+    @Test
+    void testLogSystemEvent_NestsAdditionalDetailsAsObject() {
+        // Given
+        when(auditEventPipeline.enqueue(any(AuditEventEntity.class))).thenReturn(true);
+
+        // When
+        auditService.logSystemEvent("STARTUP", "Service started", Map.of("version", "1.0"));
+
+        // Then
+        ArgumentCaptor<AuditEventEntity> captor = ArgumentCaptor.forClass(AuditEventEntity.class);
+        verify(auditEventPipeline).enqueue(captor.capture());
+        assertTrue(captor.getValue().getDetails().contains("\"additionalDetails\":{\"version\":\"1.0\"}"));
+    }
+
     @Test
     void testConvertDetailsToJson_NullOrEmpty() {
         // Test null input
@@ -485,7 +552,7 @@ class AuditServiceTest {
         Map<String, Object> details = Map.of("test", "value");
         
         // Mock repository to throw exception
-        doThrow(new RuntimeException("Database error")).when(auditEventRepository).save(any(AuditEventEntity.class));
+        doThrow(new RuntimeException("Database error")).when(auditEventPipeline).enqueue(any(AuditEventEntity.class));
 
         // When & Then - Should not throw exception
         assertDoesNotThrow(() -> {
@@ -493,7 +560,7 @@ class AuditServiceTest {
         });
 
         // Verify that save was attempted
-        verify(auditEventRepository).save(any(AuditEventEntity.class));
+        verify(auditEventPipeline).enqueue(any(AuditEventEntity.class));
     }
 
     @Test
@@ -549,6 +616,119 @@ class AuditServiceTest {
         verify(auditEventRepository).findEventsCreatedBetween(start, end);
     }
 
+    @Test
+    void testQueryEvents_ReturnsCursorWhenMoreRowsExist() {
+        // Given - repository returns limit + 1 rows
+        List<AuditEventEntity> rows = Arrays.asList(
+            createMockAuditEvent(),
+            createMockAuditEvent(),
+            createMockAuditEvent()
+        );
+        when(auditEventRepository.findBy(any(Specification.class), any())).thenReturn(rows);
+
+        // When
+        AuditEventPage page = auditService.queryEvents(new AuditEventFilter(), null, 2);
+
+        // Then
+        assertEquals(2, page.getSize());
+        assertTrue(page.isHasMore());
+        AuditEventCursor cursor = AuditEventCursor.decode(page.getNextCursor());
+        assertEquals(rows.get(1).getId(), cursor.getId());
+        assertEquals(rows.get(1).getCreatedAt(), cursor.getCreatedAt());
+    }
+
+    @Test
+    void testQueryEvents_LastPageHasNoCursor() {
+        // Given
+        when(auditEventRepository.findBy(any(Specification.class), any()))
+                .thenReturn(List.of(createMockAuditEvent()));
+
+        // When
+        AuditEventPage page = auditService.queryEvents(new AuditEventFilter(), null, 10);
+
+        // Then
+        assertEquals(1, page.getSize());
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void testQueryEvents_MergesArchivedEventsInKeysetOrder() {
+        // Given - hot rows are newer than archived rows, one row is in both tiers
+        Instant now = Instant.parse("2026-10-16T00:00:00Z");
+        AuditEventEntity hotNewest = eventAt(now);
+        AuditEventEntity duplicate = eventAt(now.minusSeconds(60));
+        AuditEventEntity coldNewest = eventAt(now.minusSeconds(120));
+        AuditEventEntity coldOldest = eventAt(now.minusSeconds(180));
+        AuditEventFilter filter = new AuditEventFilter();
+        filter.setFrom(now.minusSeconds(3600));
+
+        when(auditEventRepository.findBy(any(Specification.class), any())).thenReturn(List.of(hotNewest, duplicate));
+        when(auditArchiveStore.overlaps(filter.getFrom(), null)).thenReturn(true);
+        when(auditArchiveStore.query(filter, null, 4)).thenReturn(List.of(duplicate, coldNewest, coldOldest));
+
+        // When
+        AuditEventPage page = auditService.queryEvents(filter, null, 3);
+
+        // Then
+        assertEquals(List.of(hotNewest, duplicate, coldNewest), page.getEvents());
+        assertTrue(page.isHasMore());
+        assertEquals(coldNewest.getId(), AuditEventCursor.decode(page.getNextCursor()).getId());
+    }
+
+    @Test
+    void testQueryEvents_InvalidCursorRejected() {
+        // When & Then
+        assertThrows(ValidationException.class,
+                () -> auditService.queryEvents(new AuditEventFilter(), "not-a-cursor", 10));
+        verifyNoInteractions(auditEventRepository);
+    }
+
+    @Test
+    void testAuditEventCursor_RoundTrip() {
+        // Given
+        AuditEventCursor cursor = new AuditEventCursor(Instant.parse("2026-10-16T12:34:56.123456Z"), UUID.randomUUID());
+
+        // When
+        AuditEventCursor decoded = AuditEventCursor.decode(cursor.encode());
+
+        // Then
+        assertEquals(cursor, decoded);
+    }
+
+    @Test
+    void testSearchEvents_NextCursorCarriesRank() {
+        // Given
+        Instant from = Instant.now().minusSeconds(3600);
+        Instant to = Instant.now();
+        List<AuditSearchRepository.SearchHit> hits = Arrays.asList(
+            new AuditSearchRepository.SearchHit(createMockAuditEvent(), 0.9f),
+            new AuditSearchRepository.SearchHit(createMockAuditEvent(), 0.5f),
+            new AuditSearchRepository.SearchHit(createMockAuditEvent(), 0.1f)
+        );
+        when(auditSearchRepository.search("payment failed", from, to, null, 3)).thenReturn(hits);
+
+        // When
+        AuditEventPage page = auditService.searchEvents("payment failed", from, to, null, 2);
+
+        // Then
+        assertEquals(2, page.getSize());
+        AuditEventCursor cursor = AuditEventCursor.decode(page.getNextCursor());
+        assertEquals(0.5f, cursor.getRank());
+        assertEquals(hits.get(1).event().getId(), cursor.getId());
+    }
+
+    @Test
+    void testSearchEvents_RejectsTimeOrderedCursor() {
+        // Given - a cursor from /audit/events carries no rank
+        String cursor = new AuditEventCursor(Instant.now(), UUID.randomUUID()).encode();
+
+        // When & Then
+        assertThrows(ValidationException.class,
+                () -> auditService.searchEvents("payment", Instant.EPOCH, Instant.now(), cursor, 10));
+        verifyNoInteractions(auditSearchRepository);
+    }
+
     private AuditEventEntity createMockAuditEvent() {
         AuditEventEntity event = new AuditEventEntity(AuditEventEntity.EventType.CREDENTIAL_ISSUED);
         event.setId(UUID.randomUUID());
@@ -557,4 +737,10 @@ class AuditServiceTest {
         event.setCreatedAt(Instant.now());
         return event;
     }
+
+    private AuditEventEntity eventAt(Instant createdAt) {
+        AuditEventEntity event = createMockAuditEvent();
+        event.setCreatedAt(createdAt);
+        return event;
+    }
 }
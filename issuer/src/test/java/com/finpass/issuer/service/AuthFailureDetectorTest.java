@@ -0,0 +1,119 @@
+package com.finpass.issuer.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the sliding-window authentication failure detector
+ */
+class AuthFailureDetectorTest {
+
+    private final AtomicLong nowMillis = new AtomicLong(1_700_000_000_000L);
+
+    private AuthFailureDetector detector;
+
+    @BeforeEach
+    void setUp() {
+        // 60s window of 10s buckets; 5 failures per IP, 3 per user; track at most 2 keys per map
+        detector = new AuthFailureDetector(60, 10, 5, 3, 2, nowMillis::get);
+    }
+
+    @Test
+    void testRecordFailure_AlertsOnceWhenThresholdCrossed() {
+        // Given
+        for (int i = 0; i < 4; i++) {
+            assertTrue(detector.recordFailure("10.0.0.1", null).isEmpty());
+        }
+        assertFalse(detector.isSuspiciousIp("10.0.0.1"));
+
+        // When
+        List<AuthFailureDetector.Alert> alerts = detector.recordFailure("10.0.0.1", null);
+
+        // Then
+        assertEquals(1, alerts.size());
+        assertEquals(AuthFailureDetector.Subject.IP, alerts.get(0).subject());
+        assertEquals(5, alerts.get(0).failures());
+        assertTrue(detector.isSuspiciousIp("10.0.0.1"));
+
+        // Further failures in the same window do not re-alert
+        assertTrue(detector.recordFailure("10.0.0.1", null).isEmpty());
+    }
+
+    @Test
+    void testWindow_FailuresExpireAsBucketsSlideOut() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            detector.recordFailure("10.0.0.1", null);
+        }
+        assertTrue(detector.isSuspiciousIp("10.0.0.1"));
+
+        // When - 30s later the failures are still inside the 60s window
+        nowMillis.addAndGet(30_000);
+        assertEquals(5, detector.getIpFailures("10.0.0.1"));
+
+        // When - 61s after the burst they have all slid out
+        nowMillis.addAndGet(31_000);
+
+        // Then
+        assertEquals(0, detector.getIpFailures("10.0.0.1"));
+        assertFalse(detector.isSuspiciousIp("10.0.0.1"));
+    }
+
+    @Test
+    void testRecordFailure_TracksUsersSeparately() {
+        // When
+        detector.recordFailure("10.0.0.1", "userhash");
+        detector.recordFailure("10.0.0.2", "userhash");
+        List<AuthFailureDetector.Alert> alerts = detector.recordFailure("10.0.0.3", "userhash");
+
+        // Then - spread over IPs, but the user crossed its threshold
+        assertEquals(1, alerts.size());
+        assertEquals(AuthFailureDetector.Subject.USER, alerts.get(0).subject());
+        assertTrue(detector.isSuspiciousUser("userhash"));
+        assertFalse(detector.isSuspiciousIp("10.0.0.1"));
+    }
+
+    @Test
+    void testCounterMap_EvictsLeastRecentlyUsed() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            detector.recordFailure("10.0.0.1", null);
+        }
+        detector.recordFailure("10.0.0.2", null);
+
+        // When - a third IP exceeds max-tracked and evicts the eldest
+        detector.recordFailure("10.0.0.3", null);
+
+        // Then
+        assertEquals(2, detector.getStats().get("trackedIps"));
+        assertEquals(1L, detector.getStats().get("evictions"));
+        assertFalse(detector.isSuspiciousIp("10.0.0.1"));
+    }
+
+    @Test
+    void testCounterMap_GrowsAndEvictsAcrossManyKeys() {
+        // Given - room for 1500 keys, so the table grows past its initial 1024 nodes
+        AuthFailureDetector large = new AuthFailureDetector(60, 10, 5, 3, 1500, nowMillis::get);
+
+        // When - 4000 IPs, the newest 100 failing twice
+        for (int i = 0; i < 4000; i++) {
+            large.recordFailure("10.1." + (i / 256) + "." + (i % 256), null);
+        }
+        for (int i = 3900; i < 4000; i++) {
+            large.recordFailure("10.1." + (i / 256) + "." + (i % 256), null);
+        }
+
+        // Then - only the 1500 most recently touched remain, with their counts intact
+        assertEquals(1500, large.getStats().get("trackedIps"));
+        assertEquals(2500L, large.getStats().get("evictions"));
+        for (int i = 0; i < 4000; i++) {
+            int expected = i < 2500 ? 0 : i < 3900 ? 1 : 2;
+            assertEquals(expected, large.getIpFailures("10.1." + (i / 256) + "." + (i % 256)), "ip " + i);
+        }
+    }
+}
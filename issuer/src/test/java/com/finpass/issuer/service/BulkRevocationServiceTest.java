@@ -0,0 +1,123 @@
+package com.finpass.issuer.service;
+
+import com.finpass.issuer.dto.BulkStatusResponse;
+import com.finpass.issuer.entity.CredentialStatusEntity;
+import com.finpass.issuer.repository.CredentialStatusBulkRepository;
+import com.finpass.issuer.repository.CredentialStatusChangeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for BulkRevocationService
+ */
+@ExtendWith(MockitoExtension.class)
+class BulkRevocationServiceTest {
+
+    @Mock
+    private CredentialStatusBulkRepository bulkRepository;
+
+    @Mock
+    private CredentialStatusChangeRepository statusChangeRepository;
+
+    @Mock
+    private StatusListService statusListService;
+
+    @Mock
+    private CredentialStatusIndex statusIndex;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BulkRevocationService bulkRevocationService;
+
+    @BeforeEach
+    void setUp() {
+        bulkRevocationService = new BulkRevocationService(bulkRepository, statusChangeRepository,
+                statusListService, statusIndex, transactionManager, 2);
+    }
+
+    @Test
+    void testRevoke_ChunksIdsAndReportsEveryResult() {
+        // Given - five distinct IDs in chunks of two, plus a duplicate and a malformed ID
+        List<UUID> ids = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(),
+                UUID.randomUUID(), UUID.randomUUID());
+        UUID alreadyRevoked = ids.get(3);
+        UUID missing = ids.get(4);
+        List<String> raw = new ArrayList<>();
+        ids.forEach(id -> raw.add(id.toString()));
+        raw.add(ids.get(0).toString());
+        raw.add("not-a-uuid");
+
+        when(bulkRepository.createMissing(anyCollection(), any())).thenReturn(List.of());
+        when(bulkRepository.revoke(anyCollection(), eq(CredentialStatusEntity.RevocationReason.COMPROMISED),
+                eq("admin-user"), eq("Key leak"), any()))
+            .thenAnswer(invocation -> {
+                Collection<UUID> chunk = invocation.getArgument(0);
+                return chunk.stream()
+                        .filter(id -> !id.equals(alreadyRevoked) && !id.equals(missing))
+                        .map(id -> new CredentialStatusBulkRepository.Updated(id, ids.indexOf(id)))
+                        .toList();
+            });
+        when(bulkRepository.findCurrentStatus(Set.of(alreadyRevoked))).thenReturn(Map.of(alreadyRevoked, "REVOKED"));
+        when(bulkRepository.findCurrentStatus(Set.of(missing))).thenReturn(Map.of());
+
+        // When
+        BulkStatusResponse response = bulkRevocationService.apply(BulkRevocationService.Action.REVOKE,
+                raw.iterator(), "admin-user", CredentialStatusEntity.RevocationReason.COMPROMISED, "Key leak");
+
+        // Then
+        assertEquals(7, response.getRequested());
+        assertEquals(3, response.getUpdated());
+        assertEquals(1L, response.getResults().get(BulkStatusResponse.Result.ALREADY_REVOKED));
+        assertEquals(1L, response.getResults().get(BulkStatusResponse.Result.NOT_FOUND));
+        assertEquals(1L, response.getResults().get(BulkStatusResponse.Result.DUPLICATE));
+        assertEquals(1L, response.getResults().get(BulkStatusResponse.Result.INVALID_ID));
+        assertEquals(4, response.getFailures().size());
+        verify(bulkRepository, times(3)).revoke(anyCollection(), any(), any(), any(), any());
+        verify(statusChangeRepository, times(3)).lockForAppend();
+        verify(statusListService).statusChanged(List.of(0, 1), CredentialStatusEntity.Status.REVOKED);
+        verify(transactionManager, times(3)).commit(any());
+        verify(statusIndex).statusChanged(List.of(ids.get(0), ids.get(1)), CredentialStatusEntity.Status.REVOKED);
+    }
+
+    @Test
+    void testReinstate_SkipsStatusCreationAndReportsNotSuspended() {
+        // Given
+        UUID valid = UUID.randomUUID();
+        when(bulkRepository.reinstate(anyCollection(), eq("admin-user"), any())).thenReturn(List.of());
+        when(bulkRepository.findCurrentStatus(Set.of(valid))).thenReturn(Map.of(valid, "VALID"));
+
+        // When
+        BulkStatusResponse response = bulkRevocationService.apply(BulkRevocationService.Action.REINSTATE,
+                List.of(valid.toString()).iterator(), "admin-user", null, null);
+
+        // Then
+        assertEquals(0, response.getUpdated());
+        assertEquals(BulkStatusResponse.Result.NOT_SUSPENDED, response.getFailures().get(0).result());
+        verify(bulkRepository, never()).createMissing(anyCollection(), any());
+    }
+
+    @Test
+    void testRevoke_RequiresReason() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> bulkRevocationService.apply(
+                BulkRevocationService.Action.REVOKE, List.of(UUID.randomUUID().toString()).iterator(),
+                "admin-user", null, null));
+        verifyNoInteractions(bulkRepository, transactionManager, statusIndex);
+    }
+}
@@ -0,0 +1,108 @@
+package com.finpass.issuer.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CNonceStore
+ */
+class CNonceStoreTest {
+
+    private final AtomicLong clock = new AtomicLong(1_700_000_000_000L);
+
+    @Test
+    void testConsume_NonceIsSingleUse() {
+        // Given
+        CNonceStore store = new CNonceStore(300, 1000, 100, clock::get);
+        String nonce = store.issue();
+
+        // When / Then
+        assertTrue(store.consume(nonce));
+        assertFalse(store.consume(nonce));
+        assertFalse(store.consume("never-issued"));
+        assertFalse(store.consume(null));
+    }
+
+    @Test
+    void testConsume_ExpiredNonceRejectedAndReleased() {
+        // Given
+        CNonceStore store = new CNonceStore(300, 1000, 100, clock::get);
+        String nonce = store.issue();
+
+        // When - the TTL passes and the next issue advances the wheel
+        clock.addAndGet(301_000);
+        store.issue();
+
+        // Then - the expired nonce is gone from the store, not just rejected
+        assertFalse(store.consume(nonce));
+        assertEquals(1L, store.getStats().get("expiredNonces"));
+        assertEquals(1, store.getStats().get("filedNonces"));
+    }
+
+    @Test
+    void testRecordProofJti_RejectsReplayUntilExpiry() {
+        // Given
+        CNonceStore store = new CNonceStore(300, 1000, 100, clock::get);
+        assertTrue(store.recordProofJti("jti-1"));
+
+        // When / Then
+        assertFalse(store.recordProofJti("jti-1"));
+        clock.addAndGet(299_000);
+        assertFalse(store.recordProofJti("jti-1"));
+        clock.addAndGet(2_000);
+        assertTrue(store.recordProofJti("jti-1"));
+    }
+
+    @Test
+    void testIssue_FullStoreEvictsNonceClosestToExpiry() {
+        // Given - room for two nonces, issued a second apart
+        CNonceStore store = new CNonceStore(300, 1000, 2, clock::get);
+        String first = store.issue();
+        clock.addAndGet(1_000);
+        String second = store.issue();
+
+        // When - a third is issued into the full store
+        clock.addAndGet(1_000);
+        String third = store.issue();
+
+        // Then - issuing never fails; the oldest nonce made room
+        assertNotNull(third);
+        assertEquals(1L, store.getStats().get("evictedNonces"));
+        assertEquals(2, store.getStats().get("filedNonces"));
+        assertFalse(store.consume(first));
+        assertTrue(store.consume(second));
+        assertTrue(store.consume(third));
+    }
+
+    @Test
+    void testRecordProofJti_FullSetFailsClosed() {
+        // Given - room for two jtis
+        CNonceStore store = new CNonceStore(300, 1000, 2, clock::get);
+        assertTrue(store.recordProofJti("jti-1"));
+        assertTrue(store.recordProofJti("jti-2"));
+
+        // When / Then - no jti is forgotten early, so a full set rejects new ones
+        assertFalse(store.recordProofJti("jti-3"));
+        assertEquals(1L, store.getStats().get("rejectedProofJtis"));
+        assertFalse(store.recordProofJti("jti-1"));
+    }
+
+    @Test
+    void testExpiry_CascadesAcrossWheelLevels() {
+        // Given - 1 ms ticks, so a 300 s TTL is beyond the wheel's 64^3 tick span
+        CNonceStore store = new CNonceStore(300, 1, 1000, clock::get);
+        String nonce = store.issue();
+
+        // When / Then - live until the last millisecond, then expired by the wheel
+        clock.addAndGet(299_999);
+        store.issue();
+        assertEquals(2, store.getStats().get("liveNonces"));
+        clock.addAndGet(1);
+        store.issue();
+        assertEquals(1L, store.getStats().get("expiredNonces"));
+        assertFalse(store.consume(nonce));
+    }
+}
@@ -0,0 +1,117 @@
+package com.finpass.issuer.service;
+
+import com.finpass.issuer.entity.CredentialStatusEntity;
+import com.finpass.issuer.repository.CredentialExpiryRepository;
+import com.finpass.issuer.repository.CredentialStatusBulkRepository;
+import com.finpass.issuer.repository.CredentialStatusChangeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CredentialExpiryService
+ */
+@ExtendWith(MockitoExtension.class)
+class CredentialExpiryServiceTest {
+
+    @Mock
+    private CredentialExpiryRepository expiryRepository;
+
+    @Mock
+    private CredentialStatusBulkRepository bulkRepository;
+
+    @Mock
+    private CredentialStatusChangeRepository statusChangeRepository;
+
+    @Mock
+    private StatusListService statusListService;
+
+    @Mock
+    private CredentialStatusIndex statusIndex;
+
+    @Mock
+    private AuditService auditService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CredentialExpiryService expiryService;
+
+    @BeforeEach
+    void setUp() {
+        expiryService = new CredentialExpiryService(expiryRepository, bulkRepository, statusChangeRepository,
+                statusListService, statusIndex, auditService, transactionManager, true, 2, 10);
+    }
+
+    @Test
+    void testSweep_ClaimsKeysetBatchesUntilShortBatch() {
+        // Given - three due credentials in batches of two; the first batch comes back unordered
+        Instant cutoff = Instant.parse("2026-01-01T00:00:00Z");
+        Instant expiry = cutoff.minusSeconds(60);
+        CredentialExpiryRepository.Claimed first = claimed(new UUID(0, 1), expiry);
+        CredentialExpiryRepository.Claimed second = claimed(new UUID(-1, 0), expiry);
+        CredentialExpiryRepository.Claimed third = claimed(new UUID(0, 2), cutoff.minusSeconds(1));
+        when(expiryRepository.claimExpired(eq(cutoff), isNull(), eq(2), any())).thenReturn(List.of(second, first));
+        when(expiryRepository.claimExpired(eq(cutoff), eq(second), eq(2), any())).thenReturn(List.of(third));
+        when(bulkRepository.createMissing(anyCollection(), any())).thenReturn(List.of(7));
+        when(bulkRepository.revoke(anyCollection(), eq(CredentialStatusEntity.RevocationReason.EXPIRED),
+                eq(CredentialExpiryService.EXPIRED_BY), any(), any()))
+            .thenReturn(List.of(new CredentialStatusBulkRepository.Updated(second.credentialId(), 3)),
+                    List.of(new CredentialStatusBulkRepository.Updated(third.credentialId(), 7)));
+
+        // When
+        long expired = expiryService.sweep(cutoff);
+
+        // Then
+        assertEquals(3, expired);
+        verify(transactionManager, times(2)).commit(any());
+        verify(statusChangeRepository, times(2)).lockForAppend();
+        verify(statusListService, times(2)).indexesAllocated(List.of(7));
+        verify(statusListService).statusChanged(List.of(3), CredentialStatusEntity.Status.REVOKED);
+        verify(statusIndex).statusChanged(List.of(third.credentialId()), CredentialStatusEntity.Status.REVOKED);
+        verify(auditService).logCredentialsExpired(
+                List.of(second.credentialId().toString(), first.credentialId().toString()), cutoff);
+        verify(auditService).logCredentialsExpired(List.of(third.credentialId().toString()), cutoff);
+        assertEquals(3L, expiryService.getStats().get("totalExpired"));
+    }
+
+    @Test
+    void testSweep_NothingDueTouchesNoStatus() {
+        // Given
+        when(expiryRepository.claimExpired(any(), isNull(), eq(2), any())).thenReturn(List.of());
+
+        // When
+        long expired = expiryService.sweep(Instant.now());
+
+        // Then
+        assertEquals(0, expired);
+        verifyNoInteractions(bulkRepository, statusChangeRepository, statusListService, statusIndex, auditService);
+    }
+
+    @Test
+    void testCompareKeys_OrdersIdsAsUnsignedLikeTheDatabase() {
+        // Given
+        Instant expiry = Instant.now();
+
+        // When & Then - UUID.compareTo would put the high-bit id first
+        assertTrue(CredentialExpiryService.compareKeys(claimed(new UUID(1, 0), expiry),
+                claimed(new UUID(-1, 0), expiry)) < 0);
+        assertTrue(CredentialExpiryService.compareKeys(claimed(new UUID(-1, 0), expiry),
+                claimed(new UUID(0, 0), expiry.plusSeconds(1))) < 0);
+    }
+
+    private static CredentialExpiryRepository.Claimed claimed(UUID id, Instant expiresAt) {
+        return new CredentialExpiryRepository.Claimed(id, UUID.randomUUID(), expiresAt);
+    }
+}
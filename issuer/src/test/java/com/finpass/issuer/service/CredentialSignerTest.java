@@ -0,0 +1,148 @@
+package com.finpass.issuer.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSObject;
+import com.nimbusds.jose.crypto.Ed25519Verifier;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CredentialSigner
+ */
+class CredentialSignerTest {
+
+    private static final String ISSUER_DID = "did:example:issuer";
+    private static final String HOLDER_DID = "did:example:holder";
+
+    private IssuerKeyProvider keyProvider;
+    private CredentialSigner signer;
+
+    @BeforeEach
+    void setUp() {
+        keyProvider = new IssuerKeyProvider("");
+        signer = new CredentialSigner(keyProvider, new ObjectMapper(), ISSUER_DID, 2, 16);
+    }
+
+    @AfterEach
+    void tearDown() {
+        signer.shutdown();
+    }
+
+    @Test
+    void testSign_ProducesVerifiableVcJwt() throws Exception {
+        // Given
+        UUID credentialId = UUID.randomUUID();
+        Instant issuedAt = Instant.parse("2026-01-01T00:00:00Z");
+        Instant expiresAt = issuedAt.plusSeconds(86400);
+        Map<String, Object> subject = new LinkedHashMap<>();
+        subject.put("id", "did:example:someone-else");
+        subject.put("passportNumber", "P1234567");
+        subject.put("nationality", "KR");
+
+        // When
+        String jwt = signer.sign(credentialId, HOLDER_DID, "PassportCredential", subject, null, issuedAt, expiresAt);
+
+        // Then - the signature verifies against the published key
+        SignedJWT parsed = SignedJWT.parse(jwt);
+        OctetKeyPair publicKey = OctetKeyPair.parse(keyProvider.exportPublicJwkJson());
+        assertTrue(parsed.verify(new Ed25519Verifier(publicKey)));
+        assertEquals(JWSAlgorithm.EdDSA, parsed.getHeader().getAlgorithm());
+        assertEquals("JWT", parsed.getHeader().getType().getType());
+        assertEquals(keyProvider.getKeyId(), parsed.getHeader().getKeyID());
+
+        assertEquals(ISSUER_DID, parsed.getJWTClaimsSet().getIssuer());
+        assertEquals(HOLDER_DID, parsed.getJWTClaimsSet().getSubject());
+        assertEquals("urn:uuid:" + credentialId, parsed.getJWTClaimsSet().getJWTID());
+        assertEquals(Date.from(issuedAt), parsed.getJWTClaimsSet().getIssueTime());
+        assertEquals(Date.from(issuedAt), parsed.getJWTClaimsSet().getNotBeforeTime());
+        assertEquals(Date.from(expiresAt), parsed.getJWTClaimsSet().getExpirationTime());
+
+        Map<String, Object> vc = parsed.getJWTClaimsSet().getJSONObjectClaim("vc");
+        assertEquals(CredentialSigner.VC_CONTEXT, vc.get("@context"));
+        assertEquals(List.of("VerifiableCredential", "PassportCredential"), vc.get("type"));
+        @SuppressWarnings("unchecked")
+        Map<String, Object> credentialSubject = (Map<String, Object>) vc.get("credentialSubject");
+        assertEquals(HOLDER_DID, credentialSubject.get("id"));
+        assertEquals("P1234567", credentialSubject.get("passportNumber"));
+        assertEquals("KR", credentialSubject.get("nationality"));
+        assertFalse(vc.containsKey("credentialStatus"));
+    }
+
+    @Test
+    void testSign_EmbedsCredentialStatusEntries() throws Exception {
+        // Given - the revocation and suspension entries for one index
+        List<Map<String, Object>> status = List.of(statusEntry("revocation", 42), statusEntry("suspension", 42));
+
+        // When
+        String jwt = signer.sign(UUID.randomUUID(), HOLDER_DID, "PassportCredential", Map.of("nationality", "KR"),
+                status, Instant.now(), null);
+
+        // Then - written as an array, in order
+        Map<String, Object> vc = SignedJWT.parse(jwt).getJWTClaimsSet().getJSONObjectClaim("vc");
+        assertEquals(status, vc.get("credentialStatus"));
+    }
+
+    @Test
+    void testSign_OmitsExpiryWhenNone() throws Exception {
+        // When
+        String jwt = signer.sign(UUID.randomUUID(), HOLDER_DID, "PassportCredential", Map.of(),
+                null, Instant.now(), null);
+
+        // Then
+        assertNull(SignedJWT.parse(jwt).getJWTClaimsSet().getExpirationTime());
+    }
+
+    @Test
+    void testSignAsync_SignsOnPoolAndMatchesHeader() throws Exception {
+        // Given - more credentials than threads and queue slots, so some are signed by the caller
+        List<UUID> ids = new ArrayList<>();
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            UUID id = UUID.randomUUID();
+            ids.add(id);
+            futures.add(signer.signAsync(id, HOLDER_DID, "PassportCredential", Map.of("index", i),
+                    null, Instant.now(), null));
+        }
+
+        // When
+        List<String> jwts = futures.stream().map(CompletableFuture::join).toList();
+
+        // Then - every credential is intact and carries the same pre-serialized header
+        OctetKeyPair publicKey = OctetKeyPair.parse(keyProvider.exportPublicJwkJson());
+        Set<String> headers = jwts.stream().map(jwt -> jwt.substring(0, jwt.indexOf('.'))).collect(Collectors.toSet());
+        assertEquals(1, headers.size());
+        for (int i = 0; i < jwts.size(); i++) {
+            JWSObject jws = JWSObject.parse(jwts.get(i));
+            assertTrue(jws.verify(new Ed25519Verifier(publicKey)));
+            assertEquals("urn:uuid:" + ids.get(i), jws.getPayload().toJSONObject().get("jti"));
+        }
+        assertEquals(2, signer.getSigningThreads());
+    }
+
+    private static Map<String, Object> statusEntry(String purpose, int index) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("id", "https://issuer.example/api/v1/status-lists/" + purpose + "#" + index);
+        entry.put("type", "StatusList2021Entry");
+        entry.put("statusPurpose", purpose);
+        entry.put("statusListIndex", String.valueOf(index));
+        entry.put("statusListCredential", "https://issuer.example/api/v1/status-lists/" + purpose);
+        return entry;
+    }
+}
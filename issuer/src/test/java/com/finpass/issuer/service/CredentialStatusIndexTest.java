@@ -0,0 +1,154 @@
+package com.finpass.issuer.service;
+
+import com.finpass.issuer.dto.CredentialStatusChange;
+import com.finpass.issuer.entity.CredentialStatusEntity;
+import com.finpass.issuer.repository.CredentialStatusChangeRepository;
+import com.finpass.issuer.util.UuidStatusMap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for CredentialStatusIndex and the UUID map behind it
+ */
+@ExtendWith(MockitoExtension.class)
+class CredentialStatusIndexTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private CredentialStatusChangeRepository statusChangeRepository;
+
+    private CredentialStatusIndex statusIndex;
+
+    @BeforeEach
+    void setUp() {
+        statusIndex = new CredentialStatusIndex(jdbcTemplate, statusChangeRepository, 2);
+    }
+
+    @Test
+    void testMap_MatchesReferenceThroughGrowthAndRemoval() {
+        // Given
+        UuidStatusMap map = new UuidStatusMap();
+        Map<UUID, Byte> reference = new HashMap<>();
+        List<UUID> keys = new ArrayList<>();
+        Random random = new Random(14);
+
+        // When - insert, overwrite and remove at random, growing the table many times
+        for (int i = 0; i < 200_000; i++) {
+            int op = random.nextInt(10);
+            if (op < 6 || keys.isEmpty()) {
+                UUID key = new UUID(random.nextLong(), random.nextLong());
+                byte code = (byte) (1 + random.nextInt(15));
+                keys.add(key);
+                assertEquals(reference.getOrDefault(key, UuidStatusMap.ABSENT), map.put(key, code));
+                reference.put(key, code);
+            } else if (op < 8) {
+                UUID key = keys.get(random.nextInt(keys.size()));
+                byte code = (byte) (1 + random.nextInt(15));
+                assertEquals(reference.getOrDefault(key, UuidStatusMap.ABSENT), map.putIfAbsent(key, code));
+                reference.putIfAbsent(key, code);
+            } else {
+                UUID key = keys.get(random.nextInt(keys.size()));
+                assertEquals(reference.getOrDefault(key, UuidStatusMap.ABSENT), map.remove(key));
+                reference.remove(key);
+            }
+        }
+
+        // Then
+        assertEquals(reference.size(), map.size());
+        for (UUID key : keys) {
+            assertEquals(reference.getOrDefault(key, UuidStatusMap.ABSENT), map.get(key), key.toString());
+        }
+        assertEquals(UuidStatusMap.ABSENT, map.get(new UUID(0, 0)));
+    }
+
+    @Test
+    void testMap_PresizedTableStaysUnderTwentyBytesPerEntry() {
+        // Given
+        UuidStatusMap map = new UuidStatusMap(100_000);
+
+        // When
+        for (int i = 0; i < 100_000; i++) {
+            map.put(UUID.randomUUID(), (byte) 1);
+        }
+
+        // Then
+        assertEquals(100_000, map.size());
+        assertTrue((double) map.sizeInBytes() / map.size() < 20.0,
+                "bytes per entry: " + (double) map.sizeInBytes() / map.size());
+    }
+
+    @Test
+    void testLoad_KeysetBatchesKeepNewerEntriesAndReplayFeed() throws Exception {
+        // Given - three credentials in batches of two; one changed locally while loading
+        UUID first = new UUID(0, 1);
+        UUID second = new UUID(0, 2);
+        UUID third = new UUID(0, 3);
+        statusIndex.statusChanged(second, CredentialStatusEntity.Status.SUSPENDED);
+        when(statusChangeRepository.findLastSeq()).thenReturn(40L);
+        when(jdbcTemplate.queryForObject(CredentialStatusIndex.ESTIMATE_SQL, Long.class)).thenReturn(3L);
+        doAnswer(invocation -> {
+            rows(invocation.getArgument(1), new Object[][] {{first, "VALID"}, {second, "VALID"}});
+            return null;
+        }).when(jdbcTemplate).query(eq(CredentialStatusIndex.LOAD_FIRST_SQL), any(RowCallbackHandler.class), eq(2));
+        doAnswer(invocation -> {
+            rows(invocation.getArgument(1), new Object[][] {{third, null}});
+            return null;
+        }).when(jdbcTemplate).query(eq(CredentialStatusIndex.LOAD_NEXT_SQL), any(RowCallbackHandler.class), eq(second), eq(2));
+        when(statusChangeRepository.findAfter(40L, CredentialStatusIndex.REFRESH_BATCH)).thenReturn(List.of(
+                new CredentialStatusChange(41L, first, 5, CredentialStatusEntity.Status.REVOKED,
+                        CredentialStatusEntity.RevocationReason.FRAUD, Instant.now())));
+
+        // When
+        statusIndex.load();
+
+        // Then
+        assertTrue(statusIndex.isLoaded());
+        assertEquals(CredentialStatusIndex.IndexedStatus.REVOKED, statusIndex.get(first));
+        assertEquals(CredentialStatusIndex.IndexedStatus.SUSPENDED, statusIndex.get(second));
+        assertEquals(CredentialStatusIndex.IndexedStatus.NO_STATUS, statusIndex.get(third));
+        assertNull(statusIndex.get(UUID.randomUUID()));
+        assertEquals(41L, statusIndex.getStats().get("changeFeedCursor"));
+    }
+
+    @Test
+    void testEvict_NextLookupMisses() {
+        // Given
+        UUID credentialId = UUID.randomUUID();
+        statusIndex.statusChanged(List.of(credentialId), CredentialStatusEntity.Status.REVOKED);
+
+        // When
+        statusIndex.evict(credentialId);
+
+        // Then
+        assertNull(statusIndex.get(credentialId));
+    }
+
+    private static void rows(RowCallbackHandler handler, Object[][] rows) throws Exception {
+        for (Object[] row : rows) {
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getObject(1, UUID.class)).thenReturn((UUID) row[0]);
+            when(rs.getString(2)).thenReturn((String) row[1]);
+            handler.processRow(rs);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.finpass.issuer.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finpass.issuer.dto.IssueResponse;
+import com.finpass.issuer.dto.LivenessProof;
+import com.finpass.issuer.exception.ValidationException;
+import com.finpass.issuer.repository.DeferredCredentialRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DeferredIssuanceService
+ */
+@ExtendWith(MockitoExtension.class)
+class DeferredIssuanceServiceTest {
+
+    private static final String HOLDER_DID = "did:example:holder";
+    private static final String TOKEN_SUBJECT = "token-subject";
+
+    @Mock
+    private DeferredCredentialRepository repository;
+
+    @Mock
+    private IssuerService issuerService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private DeferredIssuanceService deferredIssuanceService;
+
+    @BeforeEach
+    void setUp() {
+        deferredIssuanceService = new DeferredIssuanceService(repository, issuerService, transactionManager,
+                objectMapper, true, 1, 100, 3, 1000, 86400000);
+    }
+
+    @Test
+    void testEnqueue_StoresRequestAsJson() throws Exception {
+        // Given
+        LivenessProof livenessProof = new LivenessProof(0.95, true, 0.9);
+
+        // When
+        UUID transactionId = deferredIssuanceService.enqueue(TOKEN_SUBJECT, HOLDER_DID, "jwt_vc",
+                Map.of("passportNumber", "123456789"), livenessProof);
+
+        // Then
+        ArgumentCaptor<String> passportData = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<String> liveness = ArgumentCaptor.forClass(String.class);
+        verify(repository).insert(eq(transactionId), eq(TOKEN_SUBJECT), eq(HOLDER_DID), eq("jwt_vc"), passportData.capture(),
+                liveness.capture(), any(Instant.class));
+        assertEquals(Map.of("passportNumber", "123456789"), objectMapper.readValue(passportData.getValue(), Map.class));
+        assertEquals(0.95, objectMapper.readValue(liveness.getValue(), LivenessProof.class).getScore());
+    }
+
+    @Test
+    void testEnqueueAll_QueuesBatchInOneTransactionWithLivenessProofs() throws Exception {
+        // Given
+        LivenessProof livenessProof = new LivenessProof(0.95, true, 0.9);
+        List<IssuerService.PassportIssue> issues = List.of(
+                new IssuerService.PassportIssue(HOLDER_DID, Map.of("passportNumber", "1"), livenessProof),
+                new IssuerService.PassportIssue("did:example:other", Map.of("passportNumber", "2"), null));
+
+        // When
+        List<UUID> transactionIds = deferredIssuanceService.enqueueAll(TOKEN_SUBJECT, issues, List.of("jwt_vc", "jwt_vc_json"));
+
+        // Then - one row per issue, in order, committed together
+        assertEquals(2, transactionIds.size());
+        ArgumentCaptor<String> liveness = ArgumentCaptor.forClass(String.class);
+        verify(repository).insert(eq(transactionIds.get(0)), eq(TOKEN_SUBJECT), eq(HOLDER_DID), eq("jwt_vc"),
+                anyString(), liveness.capture(), any(Instant.class));
+        verify(repository).insert(eq(transactionIds.get(1)), eq(TOKEN_SUBJECT), eq("did:example:other"),
+                eq("jwt_vc_json"), anyString(), isNull(), any(Instant.class));
+        assertEquals(0.95, objectMapper.readValue(liveness.getValue(), LivenessProof.class).getScore());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void testGetRequest_OnlyForTokenSubjectItWasQueuedUnder() {
+        // Given
+        UUID transactionId = UUID.randomUUID();
+        DeferredCredentialRepository.DeferredRequest request = pending(0, null);
+        when(repository.find(transactionId, TOKEN_SUBJECT)).thenReturn(request);
+
+        // When & Then
+        assertSame(request, deferredIssuanceService.getRequest(transactionId, TOKEN_SUBJECT));
+        assertNull(deferredIssuanceService.getRequest(transactionId, "another-subject"));
+    }
+
+    @Test
+    void testDeliver_HandsOutCredentialOnce() {
+        // Given - the repository moves the row to DELIVERED on the first call
+        UUID transactionId = UUID.randomUUID();
+        when(repository.deliver(eq(transactionId), eq(TOKEN_SUBJECT), any(Instant.class)))
+                .thenReturn("vc-jwt")
+                .thenReturn(null);
+
+        // When & Then
+        assertEquals("vc-jwt", deferredIssuanceService.deliver(transactionId, TOKEN_SUBJECT));
+        assertNull(deferredIssuanceService.deliver(transactionId, TOKEN_SUBJECT));
+    }
+
+    @Test
+    void testProcessNext_IssuesAndMarksIssuedInOneTransaction() {
+        // Given
+        DeferredCredentialRepository.DeferredRequest request = pending(0, "{\"score\":0.95,\"is_live\":true}");
+        UUID credentialId = UUID.randomUUID();
+        IssueResponse issued = new IssueResponse("vc-jwt");
+        issued.setCredId(credentialId);
+        when(repository.claimNext(any())).thenReturn(request);
+        when(issuerService.issuePassportCredential(eq(HOLDER_DID), eq(Map.of("passportNumber", "123456789")),
+                argThat(proof -> proof != null && proof.getScore() == 0.95))).thenReturn(issued);
+
+        // When
+        boolean processed = deferredIssuanceService.processNext();
+
+        // Then
+        assertTrue(processed);
+        verify(repository).markIssued(eq(request.transactionId()), eq(credentialId), eq("vc-jwt"), any());
+        verify(transactionManager).commit(any());
+        verify(repository, never()).markRetry(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testProcessNext_NothingDue() {
+        // Given
+        when(repository.claimNext(any())).thenReturn(null);
+
+        // When / Then
+        assertFalse(deferredIssuanceService.processNext());
+        verifyNoInteractions(issuerService);
+    }
+
+    @Test
+    void testProcessNext_ValidationFailureFailsRequest() {
+        // Given
+        DeferredCredentialRepository.DeferredRequest request = pending(0, null);
+        when(repository.claimNext(any())).thenReturn(request);
+        when(issuerService.issuePassportCredential(anyString(), any(), isNull()))
+            .thenThrow(new ValidationException("LIVENESS_VALIDATION_FAILED", "Liveness validation failed"));
+
+        // When
+        boolean processed = deferredIssuanceService.processNext();
+
+        // Then - rolled back, then failed without retry
+        assertTrue(processed);
+        verify(transactionManager).rollback(any());
+        verify(repository).markFailed(eq(request.transactionId()), eq("LIVENESS_VALIDATION_FAILED"),
+                eq("Liveness validation failed"), any());
+        verify(repository, never()).markIssued(any(), any(), any(), any());
+    }
+
+    @Test
+    void testProcessNext_TransientFailureRetriesWithBackoff() {
+        // Given - second attempt of three
+        DeferredCredentialRepository.DeferredRequest request = pending(1, null);
+        when(repository.claimNext(any())).thenReturn(request);
+        when(issuerService.issuePassportCredential(anyString(), any(), isNull()))
+            .thenThrow(new IllegalStateException("connection reset"));
+
+        // When
+        Instant before = Instant.now();
+        deferredIssuanceService.processNext();
+
+        // Then - backoff doubles per attempt: 1000 ms << 1
+        ArgumentCaptor<Instant> retryAt = ArgumentCaptor.forClass(Instant.class);
+        ArgumentCaptor<Instant> now = ArgumentCaptor.forClass(Instant.class);
+        verify(repository).markRetry(eq(request.transactionId()), eq("ISSUANCE_RETRY"), eq("connection reset"),
+                retryAt.capture(), now.capture());
+        assertEquals(Duration.ofMillis(2000), Duration.between(now.getValue(), retryAt.getValue()));
+        assertFalse(now.getValue().isBefore(before));
+        verify(repository, never()).markFailed(any(), any(), any(), any());
+    }
+
+    @Test
+    void testProcessNext_LastAttemptFailsRequest() {
+        // Given - third attempt of three
+        DeferredCredentialRepository.DeferredRequest request = pending(2, null);
+        when(repository.claimNext(any())).thenReturn(request);
+        when(issuerService.issuePassportCredential(anyString(), any(), isNull()))
+            .thenThrow(new IllegalStateException("connection reset"));
+
+        // When
+        deferredIssuanceService.processNext();
+
+        // Then
+        verify(repository).markFailed(eq(request.transactionId()), eq("ISSUANCE_FAILED"), anyString(), any());
+        verify(repository, never()).markRetry(any(), any(), any(), any(), any());
+    }
+
+    private static DeferredCredentialRepository.DeferredRequest pending(int attempts, String livenessProof) {
+        return new DeferredCredentialRepository.DeferredRequest(UUID.randomUUID(), HOLDER_DID, "jwt_vc",
+                "{\"passportNumber\":\"123456789\"}", livenessProof, "PENDING", attempts, null, null, null, null);
+    }
+}
@@ -0,0 +1,139 @@
+package com.finpass.issuer.service;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.Ed25519Signer;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.OctetKeyPairGenerator;
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DidVerifierResolver
+ */
+class DidVerifierResolverTest {
+
+    private static final String BASE58_ALPHABET = "123456789ABCDEFGHJKLMNPQRSTUVWXYZabcdefghijkmnopqrstuvwxyz";
+
+    private final DidVerifierResolver resolver = new DidVerifierResolver(2);
+
+    @Test
+    void testResolve_DidJwkVerifiesAndIsCached() throws Exception {
+        // Given
+        OctetKeyPair key = new OctetKeyPairGenerator(Curve.Ed25519).generate();
+        String did = didJwk(key);
+
+        // When
+        JWSVerifier verifier = resolver.resolve(did);
+
+        // Then - verifies the holder's proof, and is reused for the next one
+        assertTrue(proof(key, did).verify(verifier));
+        assertSame(verifier, resolver.resolve(did));
+        assertEquals(1L, resolver.getStats().get("hits"));
+        assertEquals(1L, resolver.getStats().get("misses"));
+    }
+
+    @Test
+    void testResolve_DidKeyEd25519() throws Exception {
+        // Given
+        OctetKeyPair key = new OctetKeyPairGenerator(Curve.Ed25519).generate();
+        OctetKeyPair otherKey = new OctetKeyPairGenerator(Curve.Ed25519).generate();
+        String did = didKey(key);
+
+        // When
+        JWSVerifier verifier = resolver.resolve(did);
+
+        // Then - only the DID's own key verifies
+        assertTrue(proof(key, did).verify(verifier));
+        assertFalse(proof(otherKey, did).verify(verifier));
+    }
+
+    @Test
+    void testResolve_RejectsUnusableDids() throws Exception {
+        // Given
+        OctetKeyPair key = new OctetKeyPairGenerator(Curve.Ed25519).generate();
+        String privateJwkDid = "did:jwk:" + Base64URL.encode(key.toJSONString().getBytes(StandardCharsets.UTF_8));
+        String secp256k1Did = "did:key:zQ3shokFTS3brHcDQrn82RUDfCZESWL1ZdCEJwekUDPQiYBme";
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> resolver.resolve(privateJwkDid));
+        assertThrows(IllegalArgumentException.class, () -> resolver.resolve(secp256k1Did));
+        assertThrows(IllegalArgumentException.class, () -> resolver.resolve("did:example:holder"));
+        assertFalse(DidVerifierResolver.isResolvable("did:example:holder"));
+        assertEquals(0, resolver.getStats().get("size"));
+    }
+
+    @Test
+    void testResolve_RejectsOversizedDidsBeforeDecoding() throws Exception {
+        // Given - a P-521 did:jwk fits; padding a JWK with extra members or a did:key with digits does not
+        ECKey p521 = new ECKeyGenerator(Curve.P_521).generate();
+        String p521Did = "did:jwk:" + Base64URL.encode(p521.toPublicJWK().toJSONString().getBytes(StandardCharsets.UTF_8));
+        OctetKeyPair key = new OctetKeyPairGenerator(Curve.Ed25519).generate();
+        String paddedJwk = "{\"kty\":\"OKP\",\"crv\":\"Ed25519\",\"x\":\"" + key.getX() + "\",\"pad\":\"" + "A".repeat(400) + "\"}";
+        String paddedJwkDid = "did:jwk:" + Base64URL.encode(paddedJwk.getBytes(StandardCharsets.UTF_8));
+        String longDidKey = "did:key:z" + "2".repeat(5000);
+
+        // When / Then
+        assertNotNull(resolver.resolve(p521Did));
+        assertThrows(IllegalArgumentException.class, () -> resolver.resolve(paddedJwkDid));
+        assertThrows(IllegalArgumentException.class, () -> resolver.resolve(longDidKey));
+        assertEquals(1L, resolver.getStats().get("misses"));
+        assertEquals(1, resolver.getStats().get("size"));
+    }
+
+    @Test
+    void testResolve_EvictsLeastRecentlyUsed() throws Exception {
+        // Given - a two-entry cache
+        String first = didJwk(new OctetKeyPairGenerator(Curve.Ed25519).generate());
+        String second = didJwk(new OctetKeyPairGenerator(Curve.Ed25519).generate());
+        String third = didJwk(new OctetKeyPairGenerator(Curve.Ed25519).generate());
+        JWSVerifier firstVerifier = resolver.resolve(first);
+        resolver.resolve(second);
+
+        // When
+        resolver.resolve(third);
+
+        // Then - the first DID is rebuilt on its next proof
+        assertEquals(1L, resolver.getStats().get("evictions"));
+        assertNotSame(firstVerifier, resolver.resolve(first));
+    }
+
+    private static SignedJWT proof(OctetKeyPair key, String did) throws Exception {
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.EdDSA).keyID(did + "#0").build(),
+                new JWTClaimsSet.Builder().issuer(did).subject(did).claim("nonce", "n-0S6_WzA2Mj").build());
+        jwt.sign(new Ed25519Signer(key));
+        return jwt;
+    }
+
+    private static String didJwk(OctetKeyPair key) {
+        return "did:jwk:" + Base64URL.encode(key.toPublicJWK().toJSONString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String didKey(OctetKeyPair key) {
+        byte[] x = key.getDecodedX();
+        byte[] multicodec = new byte[x.length + 2];
+        multicodec[0] = (byte) 0xed;
+        multicodec[1] = 0x01;
+        System.arraycopy(x, 0, multicodec, 2, x.length);
+        StringBuilder encoded = new StringBuilder();
+        BigInteger value = new BigInteger(1, multicodec);
+        BigInteger base = BigInteger.valueOf(58);
+        while (value.signum() > 0) {
+            BigInteger[] divided = value.divideAndRemainder(base);
+            encoded.append(BASE58_ALPHABET.charAt(divided[1].intValue()));
+            value = divided[0];
+        }
+        return "did:key:z" + encoded.reverse();
+    }
+}
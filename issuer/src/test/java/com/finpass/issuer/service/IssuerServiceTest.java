@@ -0,0 +1,251 @@
+package com.finpass.issuer.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finpass.issuer.dto.IssueResponse;
+import com.finpass.issuer.dto.LivenessProof;
+import com.finpass.issuer.entity.CredentialEntity;
+import com.finpass.issuer.entity.UserEntity;
+import com.finpass.issuer.exception.ValidationException;
+import com.finpass.issuer.repository.CredentialBatchRepository;
+import com.finpass.issuer.repository.CredentialRepository;
+import com.finpass.issuer.repository.CredentialStatusRepository;
+import com.finpass.issuer.repository.UserRepository;
+import com.finpass.issuer.validation.ValidationService;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for IssuerService
+ */
+@ExtendWith(MockitoExtension.class)
+class IssuerServiceTest {
+
+    private static final Map<String, Object> PASSPORT = Map.of("passportNumber", "123456789");
+    private static final String ISSUER_URL = "https://issuer.example";
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private CredentialRepository credentialRepository;
+
+    @Mock
+    private CredentialBatchRepository credentialBatchRepository;
+
+    @Mock
+    private UserIdCache userIdCache;
+
+    @Mock
+    private LivenessValidationService livenessValidationService;
+
+    @Mock
+    private RevocationService revocationService;
+
+    @Mock
+    private AuditService auditService;
+
+    @Mock
+    private CredentialStatusRepository credentialStatusRepository;
+
+    @Mock
+    private CredentialSigner credentialSigner;
+
+    private IssuerService issuerService;
+
+    @BeforeEach
+    void setUp() {
+        issuerService = issuerService(credentialSigner);
+    }
+
+    private IssuerService issuerService(CredentialSigner signer) {
+        StatusListService statusListService = new StatusListService(credentialStatusRepository,
+                new IssuerKeyProvider(""), "did:example:issuer", ISSUER_URL);
+        return new IssuerService(userRepository, credentialRepository, credentialBatchRepository,
+                userIdCache, livenessValidationService, revocationService, statusListService, auditService,
+                new ValidationService(), signer, 365);
+    }
+
+    @Test
+    void testIssuePassportCredential_ResolvesHolderThroughCache() {
+        // Given - the holder's user id is cached, so no user is looked up or saved
+        UUID userId = UUID.randomUUID();
+        UserEntity user = new UserEntity();
+        user.setId(userId);
+        when(credentialSigner.signAsync(any(), eq("did:example:alice"), eq("PassportCredential"), eq(PASSPORT),
+                any(), any(), any())).thenReturn(CompletableFuture.completedFuture("vc-jwt"));
+        when(userIdCache.resolve(eq("did:example:alice"), any())).thenReturn(userId);
+        when(userRepository.getReferenceById(userId)).thenReturn(user);
+
+        // When
+        IssueResponse response = issuerService.issuePassportCredential("did:example:alice", PASSPORT);
+
+        // Then
+        ArgumentCaptor<CredentialEntity> saved = ArgumentCaptor.forClass(CredentialEntity.class);
+        verify(credentialRepository).save(saved.capture());
+        assertSame(user, saved.getValue().getUser());
+        assertEquals("vc-jwt", response.getCredentialJwt());
+        verify(auditService).logCredentialIssued(eq(userId.toString()), eq(response.getCredId().toString()),
+                eq("PassportCredential"), eq("finpass-issuer"));
+        verify(userRepository, never()).findByDid(any());
+        verify(userRepository, never()).save(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testIssuePassportCredentials_WritesWholeBatchOnce() {
+        // Given - three credentials for two holders
+        UUID aliceId = UUID.randomUUID();
+        UUID bobId = UUID.randomUUID();
+        when(credentialStatusRepository.nextStatusListIndexes(3)).thenReturn(List.of(10L, 11L, 12L));
+        when(credentialSigner.signAsync(any(), anyString(), eq("PassportCredential"), eq(PASSPORT), any(), any(), any()))
+            .thenAnswer(invocation -> CompletableFuture.completedFuture("jwt-" + invocation.getArgument(0)));
+        when(userIdCache.resolveAll(eq(Set.of("did:example:alice", "did:example:bob")), any()))
+            .thenReturn(Map.of("did:example:alice", aliceId, "did:example:bob", bobId));
+
+        // When
+        List<IssueResponse> responses = issuerService.issuePassportCredentials(List.of(
+                new IssuerService.PassportIssue("did:example:alice", PASSPORT, null),
+                new IssuerService.PassportIssue("did:example:bob", PASSPORT, null),
+                new IssuerService.PassportIssue("did:example:alice", PASSPORT, null)));
+
+        // Then - one insert batch, in request order, each credential signed for its own id
+        ArgumentCaptor<List<CredentialBatchRepository.NewCredential>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(credentialBatchRepository).insertCredentials(inserted.capture());
+        List<CredentialBatchRepository.NewCredential> credentials = inserted.getValue();
+        assertEquals(List.of(aliceId, bobId, aliceId),
+                credentials.stream().map(CredentialBatchRepository.NewCredential::userId).toList());
+        for (int i = 0; i < credentials.size(); i++) {
+            CredentialBatchRepository.NewCredential credential = credentials.get(i);
+            assertEquals("jwt-" + credential.id(), credential.credentialJwt());
+            assertEquals(credential.id(), responses.get(i).getCredId());
+            assertEquals(credential.credentialJwt(), responses.get(i).getCredentialJwt());
+            assertNotNull(credential.expiresAt());
+            assertTrue(credential.expiresAt().isAfter(credential.issuedAt()));
+        }
+
+        List<UUID> credentialIds = credentials.stream().map(CredentialBatchRepository.NewCredential::id).toList();
+        verify(revocationService).initializeCredentialStatuses(eq(credentialIds), eq(List.of(10, 11, 12)),
+                any(Instant.class));
+        verify(auditService, times(3)).logCredentialIssued(anyString(), anyString(), eq("PassportCredential"),
+                eq("finpass-issuer"));
+        verifyNoInteractions(userRepository, credentialRepository);
+    }
+
+    @Test
+    void testIssuePassportCredential_SignedJwtCarriesCredentialStatus() throws Exception {
+        // Given - a real signer, and status list index 42 next in the sequence
+        CredentialSigner signer = new CredentialSigner(new IssuerKeyProvider(""), new ObjectMapper(),
+                "did:example:issuer", 1, 16);
+        UUID userId = UUID.randomUUID();
+        UserEntity user = new UserEntity();
+        user.setId(userId);
+        when(credentialStatusRepository.nextStatusListIndex()).thenReturn(42L);
+        when(userIdCache.resolve(eq("did:example:alice"), any())).thenReturn(userId);
+        when(userRepository.getReferenceById(userId)).thenReturn(user);
+
+        // When
+        IssueResponse response;
+        try {
+            response = issuerService(signer).issuePassportCredential("did:example:alice", PASSPORT);
+        } finally {
+            signer.shutdown();
+        }
+
+        // Then - the credential points at the status record created for it
+        assertCredentialStatus(response.getCredentialJwt(), 42);
+        verify(revocationService).initializeCredentialStatus(any(CredentialEntity.class), eq(42));
+    }
+
+    @Test
+    void testIssuePassportCredentials_SignedJwtsCarryCredentialStatus() throws Exception {
+        // Given
+        CredentialSigner signer = new CredentialSigner(new IssuerKeyProvider(""), new ObjectMapper(),
+                "did:example:issuer", 1, 16);
+        when(credentialStatusRepository.nextStatusListIndexes(2)).thenReturn(List.of(7L, 8L));
+        when(userIdCache.resolveAll(eq(Set.of("did:example:alice", "did:example:bob")), any()))
+            .thenReturn(Map.of("did:example:alice", UUID.randomUUID(), "did:example:bob", UUID.randomUUID()));
+
+        // When
+        List<IssueResponse> responses;
+        try {
+            responses = issuerService(signer).issuePassportCredentials(List.of(
+                    new IssuerService.PassportIssue("did:example:alice", PASSPORT, null),
+                    new IssuerService.PassportIssue("did:example:bob", PASSPORT, null)));
+        } finally {
+            signer.shutdown();
+        }
+
+        // Then - each credential carries its own index, the one its status record is created at
+        assertCredentialStatus(responses.get(0).getCredentialJwt(), 7);
+        assertCredentialStatus(responses.get(1).getCredentialJwt(), 8);
+        verify(revocationService).initializeCredentialStatuses(
+                eq(List.of(responses.get(0).getCredId(), responses.get(1).getCredId())), eq(List.of(7, 8)),
+                any(Instant.class));
+    }
+
+    @Test
+    void testIssuePassportCredentials_InvalidIssueRejectsWholeBatch() {
+        // Given - the second holder DID is malformed
+        List<IssuerService.PassportIssue> issues = List.of(
+                new IssuerService.PassportIssue("did:example:alice", PASSPORT, null),
+                new IssuerService.PassportIssue("not-a-did", PASSPORT, null));
+
+        // When / Then - nothing is signed or written
+        assertThrows(ValidationException.class, () -> issuerService.issuePassportCredentials(issues));
+        verifyNoInteractions(credentialSigner, userIdCache, credentialBatchRepository, revocationService, auditService);
+    }
+
+    @Test
+    void testIssuePassportCredentials_FailedLivenessProofRejectsWholeBatch() {
+        // Given - the second credential's liveness proof does not validate
+        LivenessProof live = new LivenessProof(0.95, true, 0.9);
+        LivenessProof spoofed = new LivenessProof(0.2, false, 0.3);
+        when(livenessValidationService.validateLivenessProof(live))
+            .thenReturn(LivenessValidationService.ValidationResult.success("ok"));
+        when(livenessValidationService.validateLivenessProof(spoofed))
+            .thenReturn(LivenessValidationService.ValidationResult.error("Liveness score too low"));
+        List<IssuerService.PassportIssue> issues = List.of(
+                new IssuerService.PassportIssue("did:example:alice", PASSPORT, live),
+                new IssuerService.PassportIssue("did:example:bob", PASSPORT, spoofed));
+
+        // When
+        ValidationException e = assertThrows(ValidationException.class,
+                () -> issuerService.issuePassportCredentials(issues));
+
+        // Then - rejected as /credential would reject it, before anything is signed or written
+        assertEquals("LIVENESS_VALIDATION_FAILED", e.getErrorCode());
+        verifyNoInteractions(credentialSigner, userIdCache, credentialBatchRepository, revocationService, auditService);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void assertCredentialStatus(String credentialJwt, int index) throws Exception {
+        Map<String, Object> vc = SignedJWT.parse(credentialJwt).getJWTClaimsSet().getJSONObjectClaim("vc");
+        List<Map<String, Object>> status = (List<Map<String, Object>>) vc.get("credentialStatus");
+        assertNotNull(status, "credentialStatus should be embedded in the signed credential");
+        assertEquals(List.of("revocation", "suspension"),
+                status.stream().map(entry -> entry.get("statusPurpose")).toList());
+        for (Map<String, Object> entry : status) {
+            String list = ISSUER_URL + "/api/v1/status-lists/" + entry.get("statusPurpose");
+            assertEquals("StatusList2021Entry", entry.get("type"));
+            assertEquals(String.valueOf(index), entry.get("statusListIndex"));
+            assertEquals(list, entry.get("statusListCredential"));
+            assertEquals(list + "#" + index, entry.get("id"));
+        }
+    }
+}
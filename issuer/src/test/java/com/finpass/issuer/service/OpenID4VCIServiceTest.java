@@ -1,79 +1,101 @@
 package com.finpass.issuer.service;
 
 import com.finpass.issuer.dto.*;
+import com.finpass.issuer.repository.DeferredCredentialRepository;
+import com.finpass.issuer.util.Hashing;
 import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.Ed25519Signer;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.jwk.gen.OctetKeyPairGenerator;
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
  * Unit tests for OpenID4VCI Service
+ *
+ * Tokens, c_nonces and proofs are real: the service is built with a real key provider,
+ * access token verifier, nonce store and DID resolver, and wallets sign their proofs with
+ * a did:jwk key. Only issuance and the deferred queue are mocked.
  */
 @ExtendWith(MockitoExtension.class)
 class OpenID4VCIServiceTest {
-    
-    @Mock
-    private IssuerKeyProvider keyProvider;
-    
+
+    private static final String ISSUER_DID = "did:example:issuer";
+    private static final String ISSUER_URL = "http://localhost:8080";
+    private static final String PRE_AUTH_CODE = "valid_pre_auth_code";
+
     @Mock
     private IssuerService issuerService;
-    
-    @InjectMocks
+
+    @Mock
+    private DeferredIssuanceService deferredIssuanceService;
+
+    private CNonceStore cNonceStore;
     private OpenID4VCIService service;
-    
+    private OctetKeyPair walletKey;
+    private String walletDid;
+
     @BeforeEach
-    void setUp() {
-        // Mock key provider
-        when(keyProvider.getAlgorithm()).thenReturn(JWSAlgorithm.EdDSA);
-        when(keyProvider.getKeyId()).thenReturn("test-key-id");
-        
-        // Mock issuer service
-        when(issuerService.issuePassportCredential(anyString(), any()))
-            .thenReturn(new com.finpass.issuer.dto.IssueResponse("test_credential_jwt"));
-    }
-    
+    void setUp() throws Exception {
+        IssuerKeyProvider keyProvider = new IssuerKeyProvider("");
+        cNonceStore = new CNonceStore(300, 1000, 1000);
+        service = new OpenID4VCIService(keyProvider, issuerService, deferredIssuanceService,
+            new AccessTokenVerifier(keyProvider, ISSUER_DID, ISSUER_URL, 100), cNonceStore,
+            new DidVerifierResolver(100), ISSUER_DID, ISSUER_URL, 3, false);
+
+        walletKey = new OctetKeyPairGenerator(Curve.Ed25519).generate();
+        walletDid = didJwk(walletKey);
+    }
+
     @Test
     void testGenerateIssuerMetadata() {
         // Act
         CredentialIssuerMetadata metadata = service.generateIssuerMetadata();
-        
+
         // Assert
         assertNotNull(metadata, "Metadata should not be null");
         assertEquals("http://localhost:8080", metadata.getCredentialIssuer(), "Credential issuer should match");
         assertEquals("http://localhost:8080/credential", metadata.getCredentialEndpoint(), "Credential endpoint should match");
         assertEquals("http://localhost:8080/token", metadata.getTokenEndpoint(), "Token endpoint should match");
-        
+
         assertNotNull(metadata.getDisplay(), "Display should not be null");
         assertFalse(metadata.getDisplay().isEmpty(), "Display should have entries");
         assertEquals("FinPass Passport Issuer", metadata.getDisplay().get(0).getName(), "Display name should match");
-        
+
         assertNotNull(metadata.getCredentialsSupported(), "Credentials supported should not be null");
         assertFalse(metadata.getCredentialsSupported().isEmpty(), "Credentials supported should have entries");
-        
+
         CredentialIssuerMetadata.CredentialSupported credential = metadata.getCredentialsSupported().get(0);
         assertEquals("jwt_vc", credential.getFormat(), "Format should be jwt_vc");
         assertTrue(credential.getTypes().contains("VerifiableCredential"), "Should contain VerifiableCredential type");
         assertTrue(credential.getTypes().contains("PassportCredential"), "Should contain PassportCredential type");
     }
-    
+
     @Test
     void testProcessTokenRequest_Success() {
-        // Arrange
-        TokenRequest request = new TokenRequest();
-        request.setGrantType("urn:ietf:params:oauth:grant-type:pre-authorized_code");
-        request.setPreAuthorizedCode("valid_pre_auth_code");
-        
         // Act
-        TokenResponse response = service.processTokenRequest(request);
-        
+        TokenResponse response = token(PRE_AUTH_CODE);
+
         // Assert
         assertNotNull(response, "Response should not be null");
         assertFalse(response.isError(), "Response should not be an error");
@@ -83,233 +105,495 @@ class OpenID4VCIServiceTest {
         assertNotNull(response.getCNonce(), "C nonce should not be null");
         assertEquals(300L, response.getCNonceExpiresIn(), "C nonce expires in should be 300");
     }
-    
+
     @Test
     void testProcessTokenRequest_UnsupportedGrantType() {
         // Arrange
         TokenRequest request = new TokenRequest();
         request.setGrantType("unsupported_grant_type");
-        request.setPreAuthorizedCode("valid_pre_auth_code");
-        
+        request.setPreAuthorizedCode(PRE_AUTH_CODE);
+
         // Act
         TokenResponse response = service.processTokenRequest(request);
-        
+
         // Assert
         assertNotNull(response, "Response should not be null");
         assertTrue(response.isError(), "Response should be an error");
         assertEquals("unsupported_grant_type", response.getError(), "Error should be unsupported_grant_type");
         assertEquals("Unsupported grant type", response.getErrorDescription(), "Error description should match");
     }
-    
+
     @Test
     void testProcessTokenRequest_MissingPreAuthorizedCode() {
-        // Arrange
-        TokenRequest request = new TokenRequest();
-        request.setGrantType("urn:ietf:params:oauth:grant-type:pre-authorized_code");
-        request.setPreAuthorizedCode("");
-        
         // Act
-        TokenResponse response = service.processTokenRequest(request);
-        
+        TokenResponse response = token("");
+
         // Assert
         assertNotNull(response, "Response should not be null");
         assertTrue(response.isError(), "Response should be an error");
         assertEquals("invalid_grant", response.getError(), "Error should be invalid_grant");
         assertEquals("Invalid pre-authorized code", response.getErrorDescription(), "Error description should match");
     }
-    
+
     @Test
     void testProcessTokenRequest_NullPreAuthorizedCode() {
-        // Arrange
-        TokenRequest request = new TokenRequest();
-        request.setGrantType("urn:ietf:params:oauth:grant-type:pre-authorized_code");
-        request.setPreAuthorizedCode(null);
-        
         // Act
-        TokenResponse response = service.processTokenRequest(request);
-        
+        TokenResponse response = token(null);
+
         // Assert
         assertNotNull(response, "Response should not be null");
         assertTrue(response.isError(), "Response should be an error");
         assertEquals("invalid_grant", response.getError(), "Error should be invalid_grant");
     }
-    
+
     @Test
     void testProcessTokenRequest_ServiceException() {
         // Arrange
         TokenRequest request = new TokenRequest();
         request.setGrantType("urn:ietf:params:oauth:grant-type:pre-authorized_code");
-        request.setPreAuthorizedCode("valid_pre_auth_code");
-        
+        request.setPreAuthorizedCode(PRE_AUTH_CODE);
+
         // Mock service to throw exception
         OpenID4VCIService spyService = spy(service);
         doThrow(new RuntimeException("Service error")).when(spyService).generateAccessToken(anyString());
-        
+
         // Act
         TokenResponse response = spyService.processTokenRequest(request);
-        
+
         // Assert
         assertNotNull(response, "Response should not be null");
         assertTrue(response.isError(), "Response should be an error");
         assertEquals("server_error", response.getError(), "Error should be server_error");
     }
-    
+
     @Test
-    void testProcessCredentialRequest_Success() {
+    void testProcessCredentialRequest_Success() throws Exception {
         // Arrange
-        CredentialRequest request = createValidCredentialRequest();
-        String accessToken = "valid_access_token";
-        
-        // Mock validation methods
-        OpenID4VCIService spyService = spy(service);
-        doReturn(true).when(spyService).validateAccessToken(accessToken);
-        doReturn(true).when(spyService).validateProof(any(CredentialRequest.Proof.class));
-        doReturn("did:example:subject").when(spyService).extractSubjectFromProof(any(CredentialRequest.Proof.class));
-        
+        TokenResponse token = token(PRE_AUTH_CODE);
+        LivenessProof livenessProof = new LivenessProof(0.95, true, 0.9);
+        CredentialRequest request = credentialRequest(proof(walletKey, walletDid, token.getCNonce(), "jti-1"));
+        request.setLivenessProof(livenessProof);
+        when(issuerService.issuePassportCredential(eq(walletDid), any(), eq(livenessProof)))
+            .thenReturn(new IssueResponse("test_credential_jwt"));
+
         // Act
-        CredentialResponse response = spyService.processCredentialRequest(request, accessToken);
-        
+        CredentialResponse response = service.processCredentialRequest(request, token.getAccessToken());
+
         // Assert
         assertNotNull(response, "Response should not be null");
         assertFalse(response.isError(), "Response should not be an error");
         assertEquals("jwt_vc", response.getFormat(), "Format should be jwt_vc");
-        assertNotNull(response.getCredential(), "Credential should not be null");
+        assertEquals("test_credential_jwt", response.getCredential(), "Credential should be the issued one");
         assertNotNull(response.getCNonce(), "C nonce should not be null");
+        assertNotEquals(token.getCNonce(), response.getCNonce(), "A fresh c_nonce should be issued");
         assertEquals(300L, response.getCNonceExpiresIn(), "C nonce expires in should be 300");
     }
-    
+
     @Test
-    void testProcessCredentialRequest_InvalidToken() {
+    void testProcessCredentialRequest_InvalidToken() throws Exception {
         // Arrange
-        CredentialRequest request = createValidCredentialRequest();
-        String invalidToken = "invalid_token";
-        
-        // Mock validation to return false
-        OpenID4VCIService spyService = spy(service);
-        doReturn(false).when(spyService).validateAccessToken(invalidToken);
-        
+        String nonce = token(PRE_AUTH_CODE).getCNonce();
+        CredentialRequest request = credentialRequest(proof(walletKey, walletDid, nonce, "jti-1"));
+
         // Act
-        CredentialResponse response = spyService.processCredentialRequest(request, invalidToken);
-        
+        CredentialResponse response = service.processCredentialRequest(request, "invalid_token");
+
         // Assert
         assertNotNull(response, "Response should not be null");
         assertTrue(response.isError(), "Response should be an error");
         assertEquals("invalid_token", response.getError(), "Error should be invalid_token");
         assertEquals("Invalid or expired access token", response.getErrorDescription(), "Error description should match");
+        verifyNoInteractions(issuerService);
     }
-    
+
     @Test
-    void testProcessCredentialRequest_InvalidProof() {
-        // Arrange
-        CredentialRequest request = createValidCredentialRequest();
-        String accessToken = "valid_access_token";
-        
-        // Mock validation methods
-        OpenID4VCIService spyService = spy(service);
-        doReturn(true).when(spyService).validateAccessToken(accessToken);
-        doReturn(false).when(spyService).validateProof(any(CredentialRequest.Proof.class));
-        
+    void testProcessCredentialRequest_InvalidProof() throws Exception {
+        // Arrange - the proof names the wallet's did:jwk but is signed with another key
+        TokenResponse token = token(PRE_AUTH_CODE);
+        OctetKeyPair otherKey = new OctetKeyPairGenerator(Curve.Ed25519).generate();
+        CredentialRequest request = credentialRequest(proof(otherKey, walletDid, token.getCNonce(), "jti-1"));
+
         // Act
-        CredentialResponse response = spyService.processCredentialRequest(request, accessToken);
-        
+        CredentialResponse response = service.processCredentialRequest(request, token.getAccessToken());
+
         // Assert
         assertNotNull(response, "Response should not be null");
         assertTrue(response.isError(), "Response should be an error");
         assertEquals("invalid_proof", response.getError(), "Error should be invalid_proof");
         assertEquals("Invalid proof", response.getErrorDescription(), "Error description should match");
+        assertTrue(cNonceStore.consume(token.getCNonce()), "A rejected proof should not consume the c_nonce");
+        verifyNoInteractions(issuerService);
     }
-    
+
     @Test
     void testProcessCredentialRequest_NullProof() {
         // Arrange
         CredentialRequest request = new CredentialRequest();
         request.setFormat("jwt_vc");
         request.setProof(null);
-        
-        String accessToken = "valid_access_token";
-        
-        // Mock validation
-        OpenID4VCIService spyService = spy(service);
-        doReturn(true).when(spyService).validateAccessToken(accessToken);
-        
+
         // Act
-        CredentialResponse response = spyService.processCredentialRequest(request, accessToken);
-        
+        CredentialResponse response = service.processCredentialRequest(request, token(PRE_AUTH_CODE).getAccessToken());
+
         // Assert
         assertNotNull(response, "Response should not be null");
         assertTrue(response.isError(), "Response should be an error");
         assertEquals("invalid_proof", response.getError(), "Error should be invalid_proof");
     }
-    
+
     @Test
-    void testProcessCredentialRequest_MissingSubject() {
+    void testProcessCredentialRequest_MissingSubject() throws Exception {
         // Arrange
-        CredentialRequest request = createValidCredentialRequest();
-        String accessToken = "valid_access_token";
-        
-        // Mock validation methods
+        TokenResponse token = token(PRE_AUTH_CODE);
+        CredentialRequest request = credentialRequest(proof(walletKey, walletDid, token.getCNonce(), "jti-1"));
+
+        // Mock subject extraction
         OpenID4VCIService spyService = spy(service);
-        doReturn(true).when(spyService).validateAccessToken(accessToken);
-        doReturn(true).when(spyService).validateProof(any(CredentialRequest.Proof.class));
-        doReturn(null).when(spyService).extractSubjectFromProof(any(CredentialRequest.Proof.class));
-        
+        doReturn(null).when(spyService).extractSubjectFromProof(any());
+
         // Act
-        CredentialResponse response = spyService.processCredentialRequest(request, accessToken);
-        
+        CredentialResponse response = spyService.processCredentialRequest(request, token.getAccessToken());
+
         // Assert
         assertNotNull(response, "Response should not be null");
         assertTrue(response.isError(), "Response should be an error");
         assertEquals("invalid_subject", response.getError(), "Error should be invalid_subject");
         assertEquals("Cannot extract subject from proof", response.getErrorDescription(), "Error description should match");
     }
-    
+
     @Test
-    void testProcessCredentialRequest_ServiceException() {
+    void testProcessCredentialRequest_ServiceException() throws Exception {
         // Arrange
-        CredentialRequest request = createValidCredentialRequest();
-        String accessToken = "valid_access_token";
-        
-        // Mock service to throw exception
-        OpenID4VCIService spyService = spy(service);
-        doThrow(new RuntimeException("Service error")).when(spyService).validateAccessToken(accessToken);
-        
+        TokenResponse token = token(PRE_AUTH_CODE);
+        CredentialRequest request = credentialRequest(proof(walletKey, walletDid, token.getCNonce(), "jti-1"));
+        when(issuerService.issuePassportCredential(anyString(), any(), any()))
+            .thenThrow(new RuntimeException("Service error"));
+
         // Act
-        CredentialResponse response = spyService.processCredentialRequest(request, accessToken);
-        
+        CredentialResponse response = service.processCredentialRequest(request, token.getAccessToken());
+
         // Assert
         assertNotNull(response, "Response should not be null");
         assertTrue(response.isError(), "Response should be an error");
         assertEquals("server_error", response.getError(), "Error should be server_error");
     }
-    
+
+    @Test
+    void testProcessCredentialRequest_ReusedNonceRejectedWithFreshNonce() throws Exception {
+        // Arrange - the first request consumes the token's c_nonce
+        TokenResponse token = token(PRE_AUTH_CODE);
+        when(issuerService.issuePassportCredential(anyString(), any(), any()))
+            .thenReturn(new IssueResponse("test_credential_jwt"));
+        assertFalse(service.processCredentialRequest(
+            credentialRequest(proof(walletKey, walletDid, token.getCNonce(), "jti-1")), token.getAccessToken()).isError());
+
+        // Act - a second proof, new jti, same nonce
+        CredentialResponse response = service.processCredentialRequest(
+            credentialRequest(proof(walletKey, walletDid, token.getCNonce(), "jti-2")), token.getAccessToken());
+
+        // Assert
+        assertEquals("invalid_proof", response.getError(), "Error should be invalid_proof");
+        assertEquals("Invalid or reused c_nonce", response.getErrorDescription(), "Error description should match");
+        assertNotNull(response.getCNonce(), "A fresh c_nonce should be returned to retry with");
+        verify(issuerService, times(1)).issuePassportCredential(anyString(), any(), any());
+    }
+
+    @Test
+    void testProcessCredentialRequest_ReplayedJtiRejected() throws Exception {
+        // Arrange
+        TokenResponse token = token(PRE_AUTH_CODE);
+        when(issuerService.issuePassportCredential(anyString(), any(), any()))
+            .thenReturn(new IssueResponse("test_credential_jwt"));
+        CredentialResponse first = service.processCredentialRequest(
+            credentialRequest(proof(walletKey, walletDid, token.getCNonce(), "jti-1")), token.getAccessToken());
+
+        // Act - a fresh nonce, but the jti of the proof already used
+        CredentialResponse response = service.processCredentialRequest(
+            credentialRequest(proof(walletKey, walletDid, first.getCNonce(), "jti-1")), token.getAccessToken());
+
+        // Assert
+        assertEquals("invalid_proof", response.getError(), "Error should be invalid_proof");
+        verify(issuerService, times(1)).issuePassportCredential(anyString(), any(), any());
+    }
+
+    @Test
+    void testProcessCredentialRequest_NonceMintedBeforeIssuance() throws Exception {
+        // Arrange
+        TokenResponse token = token(PRE_AUTH_CODE);
+        when(issuerService.issuePassportCredential(anyString(), any(), any()))
+            .thenReturn(new IssueResponse("test_credential_jwt"));
+        OpenID4VCIService spyService = spy(service);
+
+        // Act
+        spyService.processCredentialRequest(
+            credentialRequest(proof(walletKey, walletDid, token.getCNonce(), "jti-1")), token.getAccessToken());
+
+        // Assert - nothing after the credential is persisted can fail on the nonce store
+        var inOrder = inOrder(spyService, issuerService);
+        inOrder.verify(spyService).generateCNonce();
+        inOrder.verify(issuerService).issuePassportCredential(anyString(), any(), any());
+    }
+
+    @Test
+    void testProcessBatchCredentialRequest_IssuesAllWithLivenessProofs() throws Exception {
+        // Arrange - two proofs on the token's c_nonce, from two wallet keys
+        TokenResponse token = token(PRE_AUTH_CODE);
+        OctetKeyPair secondKey = new OctetKeyPairGenerator(Curve.Ed25519).generate();
+        String secondDid = didJwk(secondKey);
+        LivenessProof livenessProof = new LivenessProof(0.95, true, 0.9);
+        CredentialRequest first = credentialRequest(proof(walletKey, walletDid, token.getCNonce(), "jti-1"));
+        first.setLivenessProof(livenessProof);
+        CredentialRequest second = credentialRequest(proof(secondKey, secondDid, token.getCNonce(), "jti-2"));
+        when(issuerService.issuePassportCredentials(anyList()))
+            .thenReturn(List.of(new IssueResponse("jwt-1"), new IssueResponse("jwt-2")));
+
+        // Act
+        BatchCredentialResponse response = service.processBatchCredentialRequest(
+            new BatchCredentialRequest(List.of(first, second)), token.getAccessToken());
+
+        // Assert - issued in one call, in order, each with its own liveness proof
+        assertFalse(response.isError(), "Response should not be an error");
+        assertEquals(List.of("jwt-1", "jwt-2"),
+            response.getCredentialResponses().stream().map(CredentialResponse::getCredential).toList());
+        assertNotNull(response.getCNonce(), "C nonce should not be null");
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<IssuerService.PassportIssue>> issues = ArgumentCaptor.forClass(List.class);
+        verify(issuerService).issuePassportCredentials(issues.capture());
+        assertEquals(List.of(walletDid, secondDid),
+            issues.getValue().stream().map(IssuerService.PassportIssue::holderDid).toList());
+        assertSame(livenessProof, issues.getValue().get(0).livenessProof());
+        assertNull(issues.getValue().get(1).livenessProof());
+        assertFalse(cNonceStore.consume(token.getCNonce()), "The batch should consume its c_nonce");
+    }
+
+    @Test
+    void testProcessBatchCredentialRequest_MixedNoncesRejected() throws Exception {
+        // Arrange
+        TokenResponse token = token(PRE_AUTH_CODE);
+        String otherNonce = cNonceStore.issue();
+        BatchCredentialRequest batch = new BatchCredentialRequest(List.of(
+            credentialRequest(proof(walletKey, walletDid, token.getCNonce(), "jti-1")),
+            credentialRequest(proof(walletKey, walletDid, otherNonce, "jti-2"))));
+
+        // Act
+        BatchCredentialResponse response = service.processBatchCredentialRequest(batch, token.getAccessToken());
+
+        // Assert
+        assertEquals("invalid_proof", response.getError(), "Error should be invalid_proof");
+        assertNotNull(response.getCNonce(), "A fresh c_nonce should be returned to retry with");
+        verifyNoInteractions(issuerService);
+    }
+
+    @Test
+    void testProcessBatchCredentialRequest_OneBadProofIssuesNothing() throws Exception {
+        // Arrange - the second proof is signed with a key other than its DID's
+        TokenResponse token = token(PRE_AUTH_CODE);
+        OctetKeyPair otherKey = new OctetKeyPairGenerator(Curve.Ed25519).generate();
+        BatchCredentialRequest batch = new BatchCredentialRequest(List.of(
+            credentialRequest(proof(walletKey, walletDid, token.getCNonce(), "jti-1")),
+            credentialRequest(proof(otherKey, walletDid, token.getCNonce(), "jti-2"))));
+
+        // Act
+        BatchCredentialResponse response = service.processBatchCredentialRequest(batch, token.getAccessToken());
+
+        // Assert
+        assertEquals("invalid_proof", response.getError(), "Error should be invalid_proof");
+        assertEquals("Invalid proof in credential request 1", response.getErrorDescription(), "Error description should match");
+        assertTrue(cNonceStore.consume(token.getCNonce()), "A rejected batch should not consume the c_nonce");
+        verifyNoInteractions(issuerService);
+    }
+
+    @Test
+    void testProcessBatchCredentialRequest_TooManyRequests() throws Exception {
+        // Arrange - max batch size is 3
+        TokenResponse token = token(PRE_AUTH_CODE);
+        CredentialRequest request = credentialRequest(proof(walletKey, walletDid, token.getCNonce(), "jti-1"));
+
+        // Act
+        BatchCredentialResponse response = service.processBatchCredentialRequest(
+            new BatchCredentialRequest(List.of(request, request, request, request)), token.getAccessToken());
+
+        // Assert
+        assertEquals("invalid_request", response.getError(), "Error should be invalid_request");
+        verifyNoInteractions(issuerService);
+    }
+
+    @Test
+    void testProcessBatchCredentialRequest_DeferredModeQueuesUnderTokenSubject() throws Exception {
+        // Arrange
+        TokenResponse token = token(PRE_AUTH_CODE);
+        List<UUID> transactionIds = List.of(UUID.randomUUID(), UUID.randomUUID());
+        when(deferredIssuanceService.isEnabled()).thenReturn(true);
+        when(deferredIssuanceService.enqueueAll(eq(Hashing.sha256Hex(PRE_AUTH_CODE)), anyList(), eq(List.of("jwt_vc", "jwt_vc"))))
+            .thenReturn(transactionIds);
+        BatchCredentialRequest batch = new BatchCredentialRequest(List.of(
+            credentialRequest(proof(walletKey, walletDid, token.getCNonce(), "jti-1")),
+            credentialRequest(proof(walletKey, walletDid, token.getCNonce(), "jti-2"))));
+
+        // Act
+        BatchCredentialResponse response = service.processBatchCredentialRequest(batch, token.getAccessToken());
+
+        // Assert - one transaction id per request, nothing issued in the request
+        assertFalse(response.isError(), "Response should not be an error");
+        assertEquals(transactionIds.stream().map(UUID::toString).toList(),
+            response.getCredentialResponses().stream().map(CredentialResponse::getTransactionId).toList());
+        assertTrue(response.getCredentialResponses().stream().allMatch(r -> r.getCredential() == null));
+        verifyNoInteractions(issuerService);
+    }
+
+    @Test
+    void testProcessDeferredCredentialRequest_OtherTokenSubjectSeesUnknownTransaction() {
+        // Arrange - queued under the first token's subject
+        UUID transactionId = UUID.randomUUID();
+        String otherToken = token("another_pre_auth_code").getAccessToken();
+
+        // Act
+        CredentialResponse response = service.processDeferredCredentialRequest(
+            new DeferredCredentialRequest(transactionId.toString()), otherToken);
+
+        // Assert - looked up under the caller's own subject, which does not own it
+        assertEquals("invalid_transaction_id", response.getError(), "Error should be invalid_transaction_id");
+        assertEquals("Unknown transaction id", response.getErrorDescription(), "Error description should match");
+        verify(deferredIssuanceService).getRequest(transactionId, Hashing.sha256Hex("another_pre_auth_code"));
+        verify(deferredIssuanceService, never()).deliver(any(), any());
+    }
+
+    @Test
+    void testProcessDeferredCredentialRequest_DeliveredOnceToConcurrentPolls() {
+        // Arrange - two polls both read the row as ISSUED; the repository delivers it to one
+        String accessToken = token(PRE_AUTH_CODE).getAccessToken();
+        String subject = Hashing.sha256Hex(PRE_AUTH_CODE);
+        UUID transactionId = UUID.randomUUID();
+        when(deferredIssuanceService.getRequest(transactionId, subject)).thenReturn(request(transactionId, "ISSUED"));
+        when(deferredIssuanceService.deliver(transactionId, subject)).thenReturn("vc-jwt").thenReturn(null);
+        DeferredCredentialRequest poll = new DeferredCredentialRequest(transactionId.toString());
+
+        // Act
+        CredentialResponse winner = service.processDeferredCredentialRequest(poll, accessToken);
+        CredentialResponse loser = service.processDeferredCredentialRequest(poll, accessToken);
+
+        // Assert
+        assertFalse(winner.isError(), "Response should not be an error");
+        assertEquals("vc-jwt", winner.getCredential(), "Credential should be delivered");
+        assertNotNull(winner.getCNonce(), "C nonce should not be null");
+        assertEquals("invalid_transaction_id", loser.getError(), "Error should be invalid_transaction_id");
+        assertEquals("Credential was already delivered", loser.getErrorDescription(), "Error description should match");
+    }
+
+    @Test
+    void testProcessDeferredCredentialRequest_RepeatPollAfterDelivery() {
+        // Arrange - the row was already moved to DELIVERED and its credential cleared
+        String accessToken = token(PRE_AUTH_CODE).getAccessToken();
+        UUID transactionId = UUID.randomUUID();
+        when(deferredIssuanceService.getRequest(transactionId, Hashing.sha256Hex(PRE_AUTH_CODE)))
+            .thenReturn(request(transactionId, "DELIVERED"));
+
+        // Act
+        CredentialResponse response = service.processDeferredCredentialRequest(
+            new DeferredCredentialRequest(transactionId.toString()), accessToken);
+
+        // Assert - same answer as losing the delivery race, without another delivery attempt
+        assertEquals("invalid_transaction_id", response.getError(), "Error should be invalid_transaction_id");
+        assertEquals("Credential was already delivered", response.getErrorDescription(), "Error description should match");
+        assertNull(response.getCredential(), "No credential should be returned");
+        verify(deferredIssuanceService, never()).deliver(any(), any());
+    }
+
+    @Test
+    void testProcessDeferredCredentialRequest_Pending() {
+        // Arrange
+        String accessToken = token(PRE_AUTH_CODE).getAccessToken();
+        UUID transactionId = UUID.randomUUID();
+        when(deferredIssuanceService.getRequest(transactionId, Hashing.sha256Hex(PRE_AUTH_CODE)))
+            .thenReturn(request(transactionId, "PENDING"));
+
+        // Act
+        CredentialResponse response = service.processDeferredCredentialRequest(
+            new DeferredCredentialRequest(transactionId.toString()), accessToken);
+
+        // Assert
+        assertEquals("issuance_pending", response.getError(), "Error should be issuance_pending");
+        assertEquals(5L, response.getInterval(), "Interval should be 5");
+        verify(deferredIssuanceService, never()).deliver(any(), any());
+    }
+
+    @Test
+    void testValidateProof_DidJwkSignatureChecked() throws Exception {
+        // Arrange
+        OctetKeyPair otherKey = new OctetKeyPairGenerator(Curve.Ed25519).generate();
+        String nonce = cNonceStore.issue();
+
+        // Act & Assert
+        assertTrue(service.validateProof(service.parseProof(
+            new CredentialRequest.Proof("jwt", proof(walletKey, walletDid, nonce, "jti-1")))));
+        assertFalse(service.validateProof(service.parseProof(
+            new CredentialRequest.Proof("jwt", proof(otherKey, walletDid, nonce, "jti-1")))));
+        assertFalse(service.validateProof(service.parseProof(
+            new CredentialRequest.Proof("jwt", proof(otherKey, didJwk(otherKey), walletDid, nonce, "jti-1")))),
+            "A kid DID other than the subject should be rejected");
+    }
+
     @Test
     void testGenerateCNonce() {
         // Act
         String nonce1 = service.generateCNonce();
         String nonce2 = service.generateCNonce();
-        
+
         // Assert
         assertNotNull(nonce1, "Nonce should not be null");
         assertNotNull(nonce2, "Nonce should not be null");
         assertNotEquals(nonce1, nonce2, "Nonces should be unique");
-        assertTrue(nonce1.matches("[0-9a-f-]+"), "Nonce should be valid UUID format");
-        assertTrue(nonce2.matches("[0-9a-f-]+"), "Nonce should be valid UUID format");
+        assertTrue(nonce1.matches("[0-9a-f]+"), "Nonce should be hex");
+        assertTrue(nonce2.matches("[0-9a-f]+"), "Nonce should be hex");
     }
-    
+
     // Helper methods
-    private CredentialRequest createValidCredentialRequest() {
+    private TokenResponse token(String preAuthCode) {
+        TokenRequest request = new TokenRequest();
+        request.setGrantType("urn:ietf:params:oauth:grant-type:pre-authorized_code");
+        request.setPreAuthorizedCode(preAuthCode);
+        return service.processTokenRequest(request);
+    }
+
+    private CredentialRequest credentialRequest(String proofJwt) {
         CredentialRequest request = new CredentialRequest();
         request.setFormat("jwt_vc");
-        
-        CredentialRequest.CredentialDefinition definition = 
+
+        CredentialRequest.CredentialDefinition definition =
             new CredentialRequest.CredentialDefinition(
-                java.util.List.of("VerifiableCredential", "PassportCredential")
+                List.of("VerifiableCredential", "PassportCredential")
             );
         request.setCredentialDefinition(definition);
-        
-        CredentialRequest.Proof proof = new CredentialRequest.Proof("jwt", "sample_proof_jwt");
-        request.setProof(proof);
-        
+        request.setProof(new CredentialRequest.Proof("jwt", proofJwt));
+
         return request;
     }
+
+    private static String proof(OctetKeyPair signingKey, String did, String nonce, String jti) throws Exception {
+        return proof(signingKey, did, did, nonce, jti);
+    }
+
+    private static String proof(OctetKeyPair signingKey, String keyDid, String subjectDid, String nonce, String jti)
+            throws Exception {
+        SignedJWT jwt = new SignedJWT(
+            new JWSHeader.Builder(JWSAlgorithm.EdDSA).keyID(keyDid + "#0").build(),
+            new JWTClaimsSet.Builder()
+                .issuer(subjectDid)
+                .subject(subjectDid)
+                .audience(ISSUER_URL)
+                .jwtID(jti)
+                .claim("nonce", nonce)
+                .build());
+        jwt.sign(new Ed25519Signer(signingKey));
+        return jwt.serialize();
+    }
+
+    private static String didJwk(OctetKeyPair key) {
+        return "did:jwk:" + Base64URL.encode(key.toPublicJWK().toJSONString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static DeferredCredentialRepository.DeferredRequest request(UUID transactionId, String status) {
+        return new DeferredCredentialRepository.DeferredRequest(transactionId, "did:example:holder", "jwt_vc",
+            "{}", null, status, 0, null, null, null, null);
+    }
 }
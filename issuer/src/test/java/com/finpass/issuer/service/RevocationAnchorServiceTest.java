@@ -0,0 +1,272 @@
+package com.finpass.issuer.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.finpass.issuer.config.BlockchainConfig;
+import com.finpass.issuer.dto.CredentialStatusChange;
+import com.finpass.issuer.dto.RevocationProof;
+import com.finpass.issuer.entity.CredentialStatusEntity;
+import com.finpass.issuer.repository.CredentialStatusChangeRepository;
+import com.finpass.issuer.repository.RevocationAnchorRepository;
+import com.finpass.issuer.util.MerkleTree;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.web3j.abi.FunctionEncoder;
+import org.web3j.abi.datatypes.Function;
+import org.web3j.abi.datatypes.generated.Bytes32;
+import org.web3j.abi.datatypes.generated.Uint64;
+import org.web3j.crypto.Hash;
+import org.web3j.crypto.SignedRawTransaction;
+import org.web3j.crypto.TransactionDecoder;
+import org.web3j.utils.Numeric;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for RevocationAnchorService; chain calls go to a local JSON-RPC stand-in
+ */
+@ExtendWith(MockitoExtension.class)
+class RevocationAnchorServiceTest {
+
+    private static final String ISSUER_DID = "did:example:issuer";
+
+    @Mock
+    private CredentialStatusChangeRepository statusChangeRepository;
+
+    @Mock
+    private RevocationAnchorRepository anchorRepository;
+
+    @Mock
+    private BlockchainConfig blockchainConfig;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private JsonRpcStandIn chain;
+
+    @AfterEach
+    void tearDown() {
+        if (chain != null) {
+            chain.stop();
+        }
+    }
+
+    @Test
+    void testMerkleTree_IncrementalTreeProvesEveryLeaf() {
+        for (int leafCount : new int[] {1, 2, 3, 5, 8, 13, 31, 33, 10_000}) {
+            // Given - the same leaves appended in uneven chunks and all at once
+            byte[] leaves = new byte[leafCount * MerkleTree.HASH_BYTES];
+            for (int i = 0; i < leafCount; i++) {
+                System.arraycopy(MerkleTree.hashLeaf(Integer.toString(i).getBytes(StandardCharsets.UTF_8)), 0,
+                        leaves, i * MerkleTree.HASH_BYTES, MerkleTree.HASH_BYTES);
+            }
+            MerkleTree.Builder builder = new MerkleTree.Builder();
+            for (int from = 0, chunk = 1; from < leafCount; from += chunk, chunk = chunk * 2 + 1) {
+                int count = Math.min(chunk, leafCount - from);
+                builder.appendLeafHashes(Arrays.copyOfRange(leaves, from * MerkleTree.HASH_BYTES,
+                        (from + count) * MerkleTree.HASH_BYTES), count);
+            }
+
+            // When
+            MerkleTree incremental = builder.build();
+            MerkleTree whole = MerkleTree.build(leaves, leafCount);
+
+            // Then
+            assertArrayEquals(whole.nodes(), incremental.nodes(), "tree of " + leafCount);
+            for (int i = 0; i < leafCount; i += leafCount > 100 ? 97 : 1) {
+                byte[] leaf = whole.node(i);
+                assertTrue(MerkleTree.verify(leaf, i, leafCount, whole.proof(i), whole.root()), "leaf " + i);
+                if (leafCount > 1) {
+                    assertFalse(MerkleTree.verify(leaf, (i + 1) % leafCount, leafCount, whole.proof(i), whole.root()));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testAnchor_RecordsTreeOverFeedAndProvesChanges() {
+        // Given - five changes after the last anchor, seq 3 rolled back
+        RevocationAnchorService service = service(mock(BlockchainService.class));
+        List<CredentialStatusChange> changes = List.of(change(1), change(2), change(4), change(5), change(6));
+        when(anchorRepository.findLastAnchoredSeq()).thenReturn(0L);
+        when(statusChangeRepository.findAfter(eq(0L), anyInt())).thenReturn(changes);
+        when(statusChangeRepository.findAfter(eq(6L), anyInt())).thenReturn(List.of());
+        ArgumentCaptor<MerkleTree> tree = ArgumentCaptor.forClass(MerkleTree.class);
+        ArgumentCaptor<long[]> gaps = ArgumentCaptor.forClass(long[].class);
+        when(anchorRepository.insert(eq(0L), eq(6L), tree.capture(), gaps.capture())).thenReturn(1L);
+
+        // When
+        Long anchorId = service.anchor();
+
+        // Then
+        assertEquals(1L, anchorId);
+        assertEquals(5, tree.getValue().leafCount());
+        assertArrayEquals(new long[] {3, 3}, gaps.getValue());
+
+        // Given - the stored tree serves the proof of seq 5
+        RevocationAnchorRepository.Anchor anchor = new RevocationAnchorRepository.Anchor(1L, 0L, 6L, 5,
+                tree.getValue().root(), gaps.getValue(), "PENDING", null, null, null);
+        CredentialStatusChange proven = changes.get(3);
+        when(anchorRepository.findLatestAnchoredChange(proven.getCredentialId()))
+            .thenReturn(new RevocationAnchorRepository.AnchoredChange(proven, anchor));
+        when(anchorRepository.findNodes(eq(1L), any())).thenAnswer(invocation -> {
+            List<byte[]> nodes = new ArrayList<>();
+            for (int index : invocation.<int[]>getArgument(1)) {
+                nodes.add(tree.getValue().node(index));
+            }
+            return nodes;
+        });
+
+        // When
+        RevocationProof proof = service.getProof(proven.getCredentialId());
+
+        // Then
+        assertEquals(3, proof.getLeafIndex());
+        byte[] leaf = RevocationAnchorService.leafHash(proven);
+        assertEquals(Numeric.toHexString(leaf), proof.getLeafHash());
+        assertTrue(MerkleTree.verify(leaf, proof.getLeafIndex(), proof.getLeafCount(),
+                proof.getProof().stream().map(Numeric::hexStringToByteArray).toList(),
+                Numeric.hexStringToByteArray(proof.getRoot())));
+    }
+
+    @Test
+    void testAnchor_DropsTreeWhenAnotherNodeAnchoredTheRange() {
+        // Given
+        RevocationAnchorService service = service(mock(BlockchainService.class));
+        when(anchorRepository.findLastAnchoredSeq()).thenReturn(0L, 2L);
+        when(statusChangeRepository.findAfter(eq(0L), anyInt())).thenReturn(List.of(change(1), change(2)));
+        when(statusChangeRepository.findAfter(eq(2L), anyInt())).thenReturn(List.of());
+        when(anchorRepository.insert(eq(0L), eq(2L), any(), any())).thenReturn(null);
+
+        // When
+        Long anchorId = service.anchor();
+
+        // Then - tails on from the winner's range
+        assertNull(anchorId);
+        assertEquals(2L, service.getStats().get("anchoredSeq"));
+        assertEquals(0, service.getStats().get("pendingLeaves"));
+    }
+
+    @Test
+    void testPublish_SubmitsRootToJsonRpcStandInAndConfirms() throws Exception {
+        // Given
+        chain = new JsonRpcStandIn();
+        when(blockchainConfig.getRpcUrl()).thenReturn(chain.url());
+        when(blockchainConfig.getPrivateKey()).thenReturn("0x4c0883a69102937d6231471b5dbb6204fe5129617082792ae468d01a3f362318");
+        when(blockchainConfig.getContractAddress()).thenReturn("0x5fbdb2315678afecb367f032d93f642f64180aa3");
+        when(blockchainConfig.getChainId()).thenReturn(31337L);
+        when(blockchainConfig.getGasPrice()).thenReturn(20_000_000_000L);
+        when(blockchainConfig.getGasLimit()).thenReturn(200_000L);
+        BlockchainService blockchainService = new BlockchainService();
+        ReflectionTestUtils.setField(blockchainService, "config", blockchainConfig);
+        RevocationAnchorService service = service(blockchainService);
+
+        byte[] root = MerkleTree.hashLeaf(new byte[] {1});
+        RevocationAnchorRepository.Anchor pending = new RevocationAnchorRepository.Anchor(7L, 100L, 250L, 120,
+                root, new long[0], "PENDING", null, null, null);
+        when(anchorRepository.claimPending()).thenReturn(pending, (RevocationAnchorRepository.Anchor) null);
+        when(anchorRepository.findSubmitted(anyInt())).thenAnswer(invocation -> List.of(
+                new RevocationAnchorRepository.Anchor(7L, 100L, 250L, 120, root, new long[0], "SUBMITTED",
+                        chain.transactionHashes.get(0), null, Instant.now())));
+
+        // When
+        service.publish();
+
+        // Then - one transaction calling anchorRevocationRoot with the root and range
+        assertEquals(1, chain.rawTransactions.size());
+        SignedRawTransaction sent = (SignedRawTransaction) TransactionDecoder.decode(chain.rawTransactions.get(0));
+        assertEquals(31337L, sent.getChainId());
+        assertEquals("0x5fbdb2315678afecb367f032d93f642f64180aa3", sent.getTo());
+        String expectedCall = FunctionEncoder.encode(new Function("anchorRevocationRoot",
+                List.of(new Bytes32(Hash.sha3(ISSUER_DID.getBytes(StandardCharsets.UTF_8))), new Bytes32(root),
+                        new Uint64(100), new Uint64(250)),
+                List.of()));
+        assertEquals(expectedCall, sent.getData().startsWith("0x") ? sent.getData() : "0x" + sent.getData());
+        verify(anchorRepository).markSubmitted(eq(7L), eq(chain.transactionHashes.get(0)), any());
+        verify(anchorRepository).markConfirmed(eq(7L), eq(42L), any());
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    private RevocationAnchorService service(BlockchainService blockchainService) {
+        return new RevocationAnchorService(statusChangeRepository, anchorRepository, blockchainService,
+                transactionManager, ISSUER_DID, true, 500_000, 3_600_000);
+    }
+
+    private static CredentialStatusChange change(long seq) {
+        return new CredentialStatusChange(seq, UUID.randomUUID(), (int) seq, CredentialStatusEntity.Status.REVOKED,
+                CredentialStatusEntity.RevocationReason.COMPROMISED, Instant.parse("2026-01-01T00:00:00.123456Z"));
+    }
+
+    /**
+     * Minimal Ethereum JSON-RPC endpoint: accepts raw transactions and reports them mined in
+     * block 42
+     */
+    private static final class JsonRpcStandIn {
+        private final ObjectMapper objectMapper = new ObjectMapper();
+        private final HttpServer server;
+        private final List<String> rawTransactions = new CopyOnWriteArrayList<>();
+        private final List<String> transactionHashes = new CopyOnWriteArrayList<>();
+
+        private JsonRpcStandIn() throws Exception {
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.createContext("/", exchange -> {
+                JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+                ObjectNode response = objectMapper.createObjectNode()
+                    .put("jsonrpc", "2.0")
+                    .set("id", request.get("id"));
+                switch (request.path("method").asText()) {
+                    case "eth_getTransactionCount" -> response.put("result", "0x0");
+                    case "eth_sendRawTransaction" -> {
+                        String raw = request.path("params").get(0).asText();
+                        rawTransactions.add(raw);
+                        transactionHashes.add(Hash.sha3(raw));
+                        response.put("result", Hash.sha3(raw));
+                    }
+                    case "eth_getTransactionReceipt" -> response.putObject("result")
+                        .put("transactionHash", request.path("params").get(0).asText())
+                        .put("blockNumber", "0x2a")
+                        .put("status", "0x1")
+                        .put("gasUsed", "0xb411")
+                        .put("cumulativeGasUsed", "0xb411")
+                        .putArray("logs");
+                    default -> response.putObject("error").put("code", -32601).put("message", "Method not found");
+                }
+                byte[] body = objectMapper.writeValueAsBytes(response);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+        }
+
+        private String url() {
+            return "http://127.0.0.1:" + server.getAddress().getPort();
+        }
+
+        private void stop() {
+            server.stop(0);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.finpass.issuer.service;
+
+import com.finpass.issuer.dto.CredentialStatusChange;
+import com.finpass.issuer.dto.RevocationFilterPatch;
+import com.finpass.issuer.entity.CredentialStatusEntity;
+import com.finpass.issuer.repository.CredentialStatusChangeRepository;
+import com.finpass.issuer.util.CuckooFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for RevocationFilterService and the cuckoo filter it publishes
+ */
+@ExtendWith(MockitoExtension.class)
+class RevocationFilterServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private CredentialStatusChangeRepository statusChangeRepository;
+
+    private static final int HEADER_BYTES = 20;
+
+    private RevocationFilterService filterService;
+
+    @BeforeEach
+    void setUp() {
+        filterService = new RevocationFilterService(jdbcTemplate, statusChangeRepository, 0.001, 0, 100, 10);
+    }
+
+    @Test
+    void testFilter_NoFalseNegativesAndFalsePositivesNearTarget() {
+        // Given - a filter filled to its capacity
+        int capacity = 100_000;
+        CuckooFilter filter = CuckooFilter.create(capacity, CuckooFilter.fingerprintBitsFor(0.001));
+        List<UUID> added = new ArrayList<>();
+        for (int i = 0; i < capacity; i++) {
+            UUID id = UUID.randomUUID();
+            assertTrue(filter.add(id));
+            added.add(id);
+        }
+
+        // When
+        int falsePositives = 0;
+        for (int i = 0; i < 1_000_000; i++) {
+            if (filter.mightContain(UUID.randomUUID())) {
+                falsePositives++;
+            }
+        }
+        for (int i = 0; i < capacity / 2; i++) {
+            assertTrue(filter.remove(added.get(i)));
+        }
+
+        // Then
+        assertTrue(falsePositives / 1_000_000.0 < 0.001, "false positive rate " + falsePositives / 1_000_000.0);
+        for (int i = capacity / 2; i < capacity; i++) {
+            assertTrue(filter.mightContain(added.get(i)));
+        }
+        assertEquals(capacity / 2, filter.size());
+    }
+
+    @Test
+    void testPatch_BringsDownloadedCopyUpToDate() throws Exception {
+        // Given - two revoked credentials at feed seq 10, downloaded by a verifier
+        UUID revoked = UUID.randomUUID();
+        UUID suspended = UUID.randomUUID();
+        UUID newlyRevoked = UUID.randomUUID();
+        loadMembers(10L, revoked, suspended);
+        RevocationFilterService.Snapshot snapshot = filterService.getSnapshot();
+        CuckooFilter copy = read(snapshot);
+        assertTrue(copy.mightContain(revoked));
+
+        // When - one is reinstated and another credential revoked
+        when(statusChangeRepository.findAfter(10L, RevocationFilterService.REFRESH_BATCH)).thenReturn(List.of(
+                change(11, suspended, CredentialStatusEntity.Status.VALID),
+                change(12, newlyRevoked, CredentialStatusEntity.Status.REVOKED)));
+        filterService.refresh();
+        RevocationFilterPatch patch = filterService.getPatch(snapshot.epoch(), snapshot.version());
+        copy.applyPatch(patch.getSlots(), patch.getValues(), patch.getSize());
+
+        // Then
+        assertEquals(12L, patch.getVersion());
+        assertTrue(copy.mightContain(revoked));
+        assertTrue(copy.mightContain(newlyRevoked));
+        assertFalse(copy.mightContain(suspended));
+        byte[] live = filterService.getSnapshot().bytes();
+        assertArrayEquals(Arrays.copyOfRange(live, HEADER_BYTES, live.length), table(copy));
+    }
+
+    @Test
+    void testPatch_RebuildOrExpiredVersionRequiresDownload() throws Exception {
+        // Given - minimum capacity 100, loaded empty at seq 0
+        loadMembers(0L);
+        RevocationFilterService.Snapshot snapshot = filterService.getSnapshot();
+        List<CredentialStatusChange> revocations = new ArrayList<>();
+        for (int i = 1; i <= 150; i++) {
+            revocations.add(change(i, UUID.randomUUID(), CredentialStatusEntity.Status.REVOKED));
+        }
+        when(statusChangeRepository.findAfter(0L, RevocationFilterService.REFRESH_BATCH)).thenReturn(revocations);
+
+        // When - outgrowing the capacity rebuilds the filter
+        filterService.refresh();
+
+        // Then
+        assertNull(filterService.getPatch(snapshot.epoch(), snapshot.version()));
+        RevocationFilterService.Snapshot rebuilt = filterService.getSnapshot();
+        assertNotEquals(snapshot.epoch(), rebuilt.epoch());
+        assertEquals(0, filterService.getPatch(rebuilt.epoch(), 150L).getSlots().length);
+        assertNull(filterService.getPatch(rebuilt.epoch(), 3L));
+        CuckooFilter copy = read(rebuilt);
+        revocations.forEach(change -> assertTrue(copy.mightContain(change.getCredentialId())));
+        assertEquals(2L, filterService.getStats().get("rebuilds"));
+    }
+
+    private void loadMembers(long feedPosition, UUID... ids) throws Exception {
+        when(statusChangeRepository.findLastSeq()).thenReturn(feedPosition);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (UUID id : ids) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getObject(1, UUID.class)).thenReturn(id);
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(eq(RevocationFilterService.MEMBERS_SQL), any(RowCallbackHandler.class));
+        filterService.load();
+        assertTrue(filterService.isLoaded());
+    }
+
+    private static CuckooFilter read(RevocationFilterService.Snapshot snapshot) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(snapshot.bytes()));
+        assertEquals(RevocationFilterService.MAGIC, in.readInt());
+        assertEquals(snapshot.epoch(), in.readLong());
+        assertEquals(snapshot.version(), in.readLong());
+        return CuckooFilter.readFrom(in);
+    }
+
+    private static byte[] table(CuckooFilter filter) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        filter.writeTo(new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+
+    private static CredentialStatusChange change(long seq, UUID credentialId, CredentialStatusEntity.Status status) {
+        return new CredentialStatusChange(seq, credentialId, (int) seq, status, null, Instant.now());
+    }
+}
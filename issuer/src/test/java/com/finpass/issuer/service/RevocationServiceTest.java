@@ -5,6 +5,7 @@ import com.finpass.issuer.dto.RevocationRequest;
 import com.finpass.issuer.entity.CredentialEntity;
 import com.finpass.issuer.entity.CredentialStatusEntity;
 import com.finpass.issuer.repository.CredentialRepository;
+import com.finpass.issuer.repository.CredentialStatusChangeRepository;
 import com.finpass.issuer.repository.CredentialStatusRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -34,6 +35,15 @@ class RevocationServiceTest {
     @Mock
     private CredentialRepository credentialRepository;
 
+    @Mock
+    private StatusListService statusListService;
+
+    @Mock
+    private CredentialStatusChangeRepository statusChangeRepository;
+
+    @Mock
+    private CredentialStatusIndex statusIndex;
+
     @InjectMocks
     private RevocationService revocationService;
 
@@ -250,27 +260,58 @@ class RevocationServiceTest {
     @Test
     void testIsCredentialValid() {
         // Arrange
-        when(credentialStatusRepository.isCredentialValid(testCredentialId)).thenReturn(true);
+        when(statusIndex.get(testCredentialId)).thenReturn(CredentialStatusIndex.IndexedStatus.VALID);
 
         // Act
         boolean isValid = revocationService.isCredentialValid(testCredentialId);
 
         // Assert
         assertTrue(isValid, "Credential should be valid");
-        verify(credentialStatusRepository).isCredentialValid(testCredentialId);
+        verifyNoInteractions(credentialStatusRepository, credentialRepository);
     }
 
     @Test
     void testIsCredentialRevoked() {
         // Arrange
-        when(credentialStatusRepository.isCredentialRevoked(testCredentialId)).thenReturn(true);
+        when(statusIndex.get(testCredentialId)).thenReturn(CredentialStatusIndex.IndexedStatus.REVOKED);
 
         // Act
         boolean isRevoked = revocationService.isCredentialRevoked(testCredentialId);
 
         // Assert
         assertTrue(isRevoked, "Credential should be revoked");
-        verify(credentialStatusRepository).isCredentialRevoked(testCredentialId);
+        assertFalse(revocationService.isCredentialValid(testCredentialId), "Revoked credential should not be valid");
+        verifyNoInteractions(credentialStatusRepository, credentialRepository);
+    }
+
+    @Test
+    void testIsCredentialRevoked_IndexMissReadsDatabaseOnce() {
+        // Arrange
+        CredentialStatusEntity suspendedStatus = new CredentialStatusEntity(testCredential);
+        suspendedStatus.setStatus(CredentialStatusEntity.Status.SUSPENDED);
+        when(statusIndex.get(testCredentialId)).thenReturn(null);
+        when(credentialRepository.existsById(testCredentialId)).thenReturn(true);
+        when(credentialStatusRepository.findByCredentialId(testCredentialId)).thenReturn(Optional.of(suspendedStatus));
+
+        // Act
+        boolean isRevoked = revocationService.isCredentialRevoked(testCredentialId);
+
+        // Assert
+        assertFalse(isRevoked, "Suspended credential should not be revoked");
+        verify(statusIndex).putIfAbsent(testCredentialId, CredentialStatusIndex.IndexedStatus.SUSPENDED);
+    }
+
+    @Test
+    void testGetCredentialStatus_IndexedValidSkipsDatabase() {
+        // Arrange
+        when(statusIndex.get(testCredentialId)).thenReturn(CredentialStatusIndex.IndexedStatus.VALID);
+
+        // Act
+        CredentialStatusResponse response = revocationService.getCredentialStatus(testCredentialId);
+
+        // Assert
+        assertTrue(response.isValid(), "Credential should be valid");
+        verifyNoInteractions(credentialStatusRepository, credentialRepository);
     }
 
     @Test
@@ -294,7 +335,7 @@ class RevocationServiceTest {
         when(credentialStatusRepository.save(any(CredentialStatusEntity.class))).thenReturn(newStatus);
 
         // Act
-        CredentialStatusEntity result = revocationService.initializeCredentialStatus(testCredential);
+        CredentialStatusEntity result = revocationService.initializeCredentialStatus(testCredential, 0);
 
         // Assert
         assertNotNull(result, "Status should not be null");
@@ -302,6 +343,36 @@ class RevocationServiceTest {
         verify(credentialStatusRepository).save(any(CredentialStatusEntity.class));
     }
 
+    @Test
+    void testInitializeCredentialStatus_UsesIndexAllocatedBeforeSigning() {
+        // Arrange
+        when(credentialStatusRepository.save(any(CredentialStatusEntity.class))).thenAnswer(i -> i.getArgument(0));
+
+        // Act
+        CredentialStatusEntity result = revocationService.initializeCredentialStatus(testCredential, 42);
+
+        // Assert
+        assertEquals(42, result.getStatusListIndex(), "Status list index should be the one embedded in the credential");
+        verify(statusListService, never()).allocateIndex();
+    }
+
+    @Test
+    void testRevokeCredential_RecordsChangeAndUpdatesStatusList() {
+        // Arrange
+        when(credentialRepository.findById(testCredentialId)).thenReturn(Optional.of(testCredential));
+        CredentialStatusEntity existingStatus = new CredentialStatusEntity(testCredential);
+        existingStatus.setStatusListIndex(7);
+        when(credentialStatusRepository.findByCredentialId(testCredentialId)).thenReturn(Optional.of(existingStatus));
+
+        // Act
+        revocationService.revokeCredential(testCredentialId, testRevocationRequest);
+
+        // Assert
+        verify(statusChangeRepository).append(existingStatus);
+        verify(statusListService).statusChanged(7, CredentialStatusEntity.Status.REVOKED);
+        verify(statusIndex).statusChanged(testCredentialId, CredentialStatusEntity.Status.REVOKED);
+    }
+
     @Test
     void testValidateAdminAuthorization_ValidToken() {
         // Act
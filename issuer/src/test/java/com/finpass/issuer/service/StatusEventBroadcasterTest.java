@@ -0,0 +1,154 @@
+package com.finpass.issuer.service;
+
+import com.finpass.issuer.dto.CredentialStatusChange;
+import com.finpass.issuer.entity.CredentialStatusEntity;
+import com.finpass.issuer.repository.CredentialStatusChangeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for StatusEventBroadcaster
+ */
+@ExtendWith(MockitoExtension.class)
+class StatusEventBroadcasterTest {
+
+    @Mock
+    private CredentialStatusChangeRepository statusChangeRepository;
+
+    private StatusEventBroadcaster broadcaster;
+
+    @AfterEach
+    void tearDown() {
+        if (broadcaster != null) {
+            broadcaster.shutdown();
+        }
+    }
+
+    @Test
+    void testSubscribe_ReplaysFromLastEventIdThenStreamsLiveChanges() throws Exception {
+        // Given - the feed is at 42 and the client last saw 40
+        RecordingEmitter emitter = new RecordingEmitter(null);
+        broadcaster = broadcaster(emitter, 10);
+        when(statusChangeRepository.findLastSeq()).thenReturn(42L);
+        when(statusChangeRepository.findAfter(40L, StatusEventBroadcaster.FEED_BATCH)).thenReturn(List.of(change(41), change(42)));
+        when(statusChangeRepository.findAfter(42L, StatusEventBroadcaster.FEED_BATCH)).thenReturn(List.of(change(43)));
+
+        // When
+        broadcaster.subscribe(40L);
+        await(() -> emitter.ids.size() == 2);
+        broadcaster.dispatch();
+
+        // Then
+        await(() -> emitter.ids.size() == 3);
+        assertEquals(List.of("41", "42", "43"), emitter.ids);
+        assertEquals(43L, broadcaster.getStats().get("cursor"));
+    }
+
+    @Test
+    void testDispatch_DisconnectsSubscriberWhoseBufferFills() throws Exception {
+        // Given - a client that never reads, with room for two buffered changes
+        CountDownLatch stuck = new CountDownLatch(1);
+        RecordingEmitter emitter = new RecordingEmitter(stuck);
+        broadcaster = broadcaster(emitter, 2);
+        when(statusChangeRepository.findLastSeq()).thenReturn(0L);
+        when(statusChangeRepository.findAfter(0L, StatusEventBroadcaster.FEED_BATCH))
+            .thenReturn(List.of(change(1), change(2), change(3)));
+        broadcaster.subscribe(null);
+
+        // When
+        broadcaster.dispatch();
+        stuck.countDown();
+
+        // Then
+        assertEquals(0, broadcaster.subscriberCount());
+        assertEquals(1L, broadcaster.getStats().get("slowDisconnects"));
+        await(() -> emitter.completed);
+    }
+
+    @Test
+    void testSubscribe_RejectsBeyondMaxSubscribers() {
+        // Given
+        broadcaster = new StatusEventBroadcaster(statusChangeRepository, 10, 60_000, 60_000, 60_000, 0, 1);
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> broadcaster.subscribe(null));
+        verifyNoInteractions(statusChangeRepository);
+    }
+
+    private StatusEventBroadcaster broadcaster(SseEmitter emitter, int bufferSize) {
+        return new StatusEventBroadcaster(statusChangeRepository, bufferSize, 60_000, 60_000, 60_000, 10, 1) {
+            @Override
+            SseEmitter newEmitter() {
+                return emitter;
+            }
+        };
+    }
+
+    private static CredentialStatusChange change(long seq) {
+        return new CredentialStatusChange(seq, UUID.randomUUID(), (int) seq, CredentialStatusEntity.Status.REVOKED,
+                CredentialStatusEntity.RevocationReason.COMPROMISED, Instant.now());
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met in time");
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Emitter recording the ids of the events sent, optionally blocking every send
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+        private final CountDownLatch block;
+        private final List<String> ids = new CopyOnWriteArrayList<>();
+        private volatile boolean completed;
+
+        private RecordingEmitter(CountDownLatch block) {
+            this.block = block;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (block != null) {
+                try {
+                    block.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            Set<ResponseBodyEmitter.DataWithMediaType> parts = builder.build();
+            for (ResponseBodyEmitter.DataWithMediaType part : parts) {
+                String text = String.valueOf(part.getData());
+                if (text.startsWith("id:")) {
+                    ids.add(text.substring(3, text.indexOf('\n')));
+                }
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.finpass.issuer.service;
+
+import com.finpass.issuer.entity.CredentialStatusEntity;
+import com.finpass.issuer.repository.CredentialStatusRepository;
+import com.finpass.issuer.util.StatusBitmap;
+import com.nimbusds.jose.crypto.Ed25519Verifier;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for StatusListService and the status bitmap behind it
+ */
+@ExtendWith(MockitoExtension.class)
+class StatusListServiceTest {
+
+    @Mock
+    private CredentialStatusRepository credentialStatusRepository;
+
+    private IssuerKeyProvider keyProvider;
+    private StatusListService statusListService;
+
+    @BeforeEach
+    void setUp() {
+        keyProvider = new IssuerKeyProvider("");
+        statusListService = new StatusListService(credentialStatusRepository, keyProvider,
+                "did:example:issuer", "https://issuer.example");
+    }
+
+    @Test
+    void testBitmap_SparseAndDenseChunksMatchReferenceBits() {
+        // Given - one chunk dense enough to switch to a bitmap, another sparse
+        StatusBitmap bitmap = new StatusBitmap();
+        BitSet reference = new BitSet();
+        Random random = new Random(11);
+        for (int i = 0; i < 6000; i++) {
+            int index = random.nextInt(65536);
+            bitmap.set(index, true);
+            reference.set(index);
+        }
+        for (int i = 0; i < 50; i++) {
+            int index = 200_000 + random.nextInt(1000);
+            bitmap.set(index, true);
+            reference.set(index);
+        }
+
+        // When - clear most of the dense chunk again
+        for (int i = 0; i < 60000; i++) {
+            if (i % 10 != 0) {
+                bitmap.set(i, false);
+                reference.clear(i);
+            }
+        }
+
+        // Then
+        assertEquals(reference.cardinality(), bitmap.cardinality());
+        assertEquals(reference.length() - 1, bitmap.highestSetIndex());
+        byte[] bits = bitmap.toBitstring(262144);
+        for (int i = 0; i < 262144; i++) {
+            boolean set = (bits[i / 8] & (0x80 >>> (i % 8))) != 0;
+            assertEquals(reference.get(i), set, "bit " + i);
+            assertEquals(reference.get(i), bitmap.get(i), "bit " + i);
+        }
+    }
+
+    @Test
+    void testGetDocument_SignedGzipBitstringWithRevokedBits() throws Exception {
+        // Given
+        statusListService.statusChanged(3, CredentialStatusEntity.Status.REVOKED);
+        statusListService.statusChanged(9, CredentialStatusEntity.Status.SUSPENDED);
+
+        // When
+        StatusListService.StatusListDocument document = statusListService.getDocument(StatusListService.Purpose.REVOCATION);
+
+        // Then
+        SignedJWT jwt = SignedJWT.parse(document.jwt());
+        assertTrue(jwt.verify(new Ed25519Verifier(OctetKeyPair.parse(keyProvider.exportPublicJwkJson()))));
+        @SuppressWarnings("unchecked")
+        Map<String, Object> subject = (Map<String, Object>) jwt.getJWTClaimsSet().getJSONObjectClaim("vc").get("credentialSubject");
+        assertEquals("StatusList2021", subject.get("type"));
+        assertEquals("revocation", subject.get("statusPurpose"));
+
+        byte[] bits = decode((String) subject.get("encodedList"));
+        assertEquals(2 * StatusListService.MIN_LIST_BITS / 8, bits.length);
+        assertEquals(0x10, bits[0] & 0xFF);
+        assertEquals(0, bits[1]);
+        assertTrue(statusListService.isSet(StatusListService.Purpose.SUSPENSION, 9));
+    }
+
+    @Test
+    void testGetDocument_ResignedOnlyWhenListChanges() {
+        // Given
+        statusListService.statusChanged(8, CredentialStatusEntity.Status.VALID);
+        StatusListService.StatusListDocument first = statusListService.getDocument(StatusListService.Purpose.REVOCATION);
+
+        // When
+        StatusListService.StatusListDocument cached = statusListService.getDocument(StatusListService.Purpose.REVOCATION);
+        statusListService.statusChanged(5, CredentialStatusEntity.Status.REVOKED);
+        StatusListService.StatusListDocument changed = statusListService.getDocument(StatusListService.Purpose.REVOCATION);
+        statusListService.statusChanged(5, CredentialStatusEntity.Status.VALID);
+        StatusListService.StatusListDocument reverted = statusListService.getDocument(StatusListService.Purpose.REVOCATION);
+
+        // Then
+        assertSame(first, cached);
+        assertNotEquals(first.etag(), changed.etag());
+        assertEquals(first.etag(), reverted.etag());
+    }
+
+    @Test
+    void testReload_RebuildsListsAndCoversHighestAllocatedIndex() throws Exception {
+        // Given
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[] {1, "REVOKED"});
+        rows.add(new Object[] {300_000, "SUSPENDED"});
+        when(credentialStatusRepository.findMaxStatusListIndex()).thenReturn(400_000);
+        when(credentialStatusRepository.findNonValidStatusListEntries()).thenReturn(rows);
+
+        // When
+        statusListService.reload();
+
+        // Then
+        assertTrue(statusListService.isSet(StatusListService.Purpose.REVOCATION, 1));
+        assertFalse(statusListService.isSet(StatusListService.Purpose.REVOCATION, 300_000));
+        assertTrue(statusListService.isSet(StatusListService.Purpose.SUSPENSION, 300_000));
+        SignedJWT jwt = SignedJWT.parse(statusListService.getDocument(StatusListService.Purpose.SUSPENSION).jwt());
+        @SuppressWarnings("unchecked")
+        Map<String, Object> subject = (Map<String, Object>) jwt.getJWTClaimsSet().getJSONObjectClaim("vc").get("credentialSubject");
+        // 400000 needs four 16 KB blocks, plus one spare
+        assertEquals(5 * StatusListService.MIN_LIST_BITS / 8, decode((String) subject.get("encodedList")).length);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testAllocateIndexes_OneQueryAndListsCoverHighest() {
+        // Given
+        when(credentialStatusRepository.nextStatusListIndexes(3)).thenReturn(List.of(500_000L, 500_001L, 500_002L));
+
+        // When
+        List<Integer> indexes = statusListService.allocateIndexes(3);
+
+        // Then
+        assertEquals(List.of(500_000, 500_001, 500_002), indexes);
+        verify(credentialStatusRepository, never()).nextStatusListIndex();
+        Map<String, Object> revocation = (Map<String, Object>) statusListService.getStats().get("revocation");
+        assertTrue((int) revocation.get("lengthBits") > 500_002);
+    }
+
+    @Test
+    void testCredentialStatusEntry_PointsAtListBit() {
+        // When
+        Map<String, Object> entry = statusListService.credentialStatusEntry(42, StatusListService.Purpose.REVOCATION);
+
+        // Then
+        assertEquals("https://issuer.example/api/v1/status-lists/revocation#42", entry.get("id"));
+        assertEquals("StatusList2021Entry", entry.get("type"));
+        assertEquals("revocation", entry.get("statusPurpose"));
+        assertEquals("42", entry.get("statusListIndex"));
+        assertEquals("https://issuer.example/api/v1/status-lists/revocation", entry.get("statusListCredential"));
+    }
+
+    private static byte[] decode(String encodedList) throws Exception {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(encodedList)))) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.finpass.issuer.service;
+
+import com.finpass.issuer.repository.UserUpsertRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for UserIdCache
+ */
+@ExtendWith(MockitoExtension.class)
+class UserIdCacheTest {
+
+    @Mock
+    private UserUpsertRepository userUpsertRepository;
+
+    private UserIdCache userIdCache;
+
+    private final Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+    @BeforeEach
+    void setUp() {
+        userIdCache = new UserIdCache(userUpsertRepository, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testResolve_HitNeedsNoQuery() {
+        // Given - an existing user, resolved once
+        UUID userId = UUID.randomUUID();
+        when(userUpsertRepository.upsert("did:example:alice", now))
+            .thenReturn(new UserUpsertRepository.Upserted(userId, false));
+        userIdCache.resolve("did:example:alice", now);
+
+        // When
+        UUID resolved = userIdCache.resolve("did:example:alice", now);
+
+        // Then
+        assertEquals(userId, resolved);
+        verify(userUpsertRepository, times(1)).upsert(anyString(), any());
+        assertEquals(1L, userIdCache.getStats().get("hits"));
+    }
+
+    @Test
+    void testResolve_NewUserCachedOnlyAfterCommit() {
+        // Given - the user is created inside a transaction
+        TransactionSynchronizationManager.initSynchronization();
+        UUID userId = UUID.randomUUID();
+        when(userUpsertRepository.upsert("did:example:alice", now))
+            .thenReturn(new UserUpsertRepository.Upserted(userId, true));
+
+        // When
+        assertEquals(userId, userIdCache.resolve("did:example:alice", now));
+
+        // Then - not cached until commit
+        assertEquals(0, userIdCache.getStats().get("size"));
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        assertEquals(1, userIdCache.getStats().get("size"));
+        assertEquals(userId, userIdCache.resolve("did:example:alice", now));
+        verify(userUpsertRepository, times(1)).upsert(anyString(), any());
+    }
+
+    @Test
+    void testResolveAll_UpsertsOnlyMisses() {
+        // Given - alice is cached, bob is not
+        UUID aliceId = UUID.randomUUID();
+        UUID bobId = UUID.randomUUID();
+        when(userUpsertRepository.upsert("did:example:alice", now))
+            .thenReturn(new UserUpsertRepository.Upserted(aliceId, false));
+        userIdCache.resolve("did:example:alice", now);
+        when(userUpsertRepository.upsertAll(List.of("did:example:bob"), now))
+            .thenReturn(Map.of("did:example:bob", new UserUpsertRepository.Upserted(bobId, true)));
+
+        // When
+        Map<String, UUID> resolved = userIdCache.resolveAll(List.of("did:example:alice", "did:example:bob"), now);
+
+        // Then
+        assertEquals(Map.of("did:example:alice", aliceId, "did:example:bob", bobId), resolved);
+        verify(userUpsertRepository).upsertAll(List.of("did:example:bob"), now);
+    }
+
+    @Test
+    void testResolve_EvictsLeastRecentlyUsed() {
+        // Given - a two-entry cache holding alice and bob, with alice used last
+        when(userUpsertRepository.upsert(anyString(), eq(now)))
+            .thenAnswer(invocation -> new UserUpsertRepository.Upserted(UUID.randomUUID(), false));
+        userIdCache.resolve("did:example:alice", now);
+        userIdCache.resolve("did:example:bob", now);
+        userIdCache.resolve("did:example:alice", now);
+
+        // When
+        userIdCache.resolve("did:example:carol", now);
+
+        // Then - bob was evicted, alice was not
+        userIdCache.resolve("did:example:alice", now);
+        userIdCache.resolve("did:example:bob", now);
+        verify(userUpsertRepository, times(1)).upsert("did:example:alice", now);
+        verify(userUpsertRepository, times(2)).upsert("did:example:bob", now);
+        assertEquals(2, userIdCache.getStats().get("size"));
+    }
+}
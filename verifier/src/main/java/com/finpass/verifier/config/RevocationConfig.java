@@ -0,0 +1,25 @@
+package com.finpass.verifier.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+/**
+ * HTTP client used for revocation checks against the issuer
+ */
+@Configuration
+public class RevocationConfig {
+
+	@Bean
+	public RestTemplate restTemplate(RestTemplateBuilder builder,
+									 @Value("${revocation.http.timeout-ms:5000}") long timeoutMs) {
+		return builder
+				.connectTimeout(Duration.ofMillis(timeoutMs))
+				.readTimeout(Duration.ofMillis(timeoutMs))
+				.build();
+	}
+}
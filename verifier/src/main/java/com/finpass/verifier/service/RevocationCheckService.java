@@ -4,15 +4,21 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Service for checking credential revocation status from issuer
+ * Service for checking credential revocation status from issuer.
+ *
+ * Answers are cached per credential. While the issuer's status event stream is connected
+ * (see {@link RevocationEventSubscriber}) cached answers are kept up to date by pushed
+ * events and live for hours; otherwise they fall back to a short TTL. Credentials missing
+ * from the issuer's revocation filter ({@link RevocationFilterClient}) are known to be
+ * valid without asking the issuer.
  */
 @Service
 public class RevocationCheckService {
@@ -20,20 +26,42 @@ public class RevocationCheckService {
     private static final Logger logger = LoggerFactory.getLogger(RevocationCheckService.class);
 
     private final RestTemplate restTemplate;
+    private final RevocationFilterClient revocationFilter;
     private final String issuerUrl;
+    private final long ttlMillis;
+    private final long fallbackTtlMillis;
+    private final int maxEntries;
+
+    private final Map<UUID, CachedAnswer<Boolean>> revocationCheck = new ConcurrentHashMap<>();
+    private final Map<UUID, CachedAnswer<Map<String, Object>>> credentialStatus = new ConcurrentHashMap<>();
+    private volatile boolean eventStreamConnected;
 
     @Autowired
-    public RevocationCheckService(RestTemplate restTemplate, 
-                                @Value("${issuer.url:http://localhost:8080}") String issuerUrl) {
+    public RevocationCheckService(RestTemplate restTemplate,
+                                RevocationFilterClient revocationFilter,
+                                @Value("${issuer.url:http://localhost:8080}") String issuerUrl,
+                                @Value("${revocation.cache.ttl-seconds:21600}") long ttlSeconds,
+                                @Value("${revocation.cache.fallback-ttl-seconds:60}") long fallbackTtlSeconds,
+                                @Value("${revocation.cache.max-entries:100000}") int maxEntries) {
         this.restTemplate = restTemplate;
+        this.revocationFilter = revocationFilter;
         this.issuerUrl = issuerUrl;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.fallbackTtlMillis = fallbackTtlSeconds * 1000;
+        this.maxEntries = maxEntries;
     }
 
     /**
      * Check if a credential is revoked (with caching)
      */
-    @Cacheable(value = "revocationCheck", key = "#credentialId")
     public boolean isCredentialRevoked(UUID credentialId) {
+        CachedAnswer<Boolean> cached = revocationCheck.get(credentialId);
+        if (isFresh(cached)) {
+            return cached.value;
+        }
+        if (revocationFilter.isDefinitelyNotRevoked(credentialId)) {
+            return false;
+        }
         logger.debug("Checking revocation status for credential {}", credentialId);
 
         try {
@@ -46,7 +74,7 @@ public class RevocationCheckService {
                 boolean isRevoked = isValid == null || !isValid;
                 
                 logger.debug("Credential {} revocation status: {}", credentialId, isRevoked ? "REVOKED" : "VALID");
-                return isRevoked;
+                return cacheFetched(revocationCheck, credentialId, cached, isRevoked);
             }
             
             logger.warn("No response received for credential {} revocation check", credentialId);
@@ -64,8 +92,11 @@ public class RevocationCheckService {
      * Get full credential status
      */
     @SuppressWarnings("unchecked")
-    @Cacheable(value = "credentialStatus", key = "#credentialId")
     public Map<String, Object> getCredentialStatus(UUID credentialId) {
+        CachedAnswer<Map<String, Object>> cached = credentialStatus.get(credentialId);
+        if (isFresh(cached)) {
+            return cached.value;
+        }
         logger.debug("Getting full status for credential {}", credentialId);
 
         try {
@@ -74,7 +105,7 @@ public class RevocationCheckService {
             
             if (response != null) {
                 logger.debug("Credential {} status: {}", credentialId, response.get("status"));
-                return response;
+                return cacheFetched(credentialStatus, credentialId, cached, response);
             }
             
             logger.warn("No status response received for credential {}", credentialId);
@@ -115,11 +146,43 @@ public class RevocationCheckService {
      * Clear cache for a specific credential
      */
     public void clearCredentialCache(UUID credentialId) {
-        // This would be used to manually clear cache if needed
-        // In practice, @CacheEvict would handle this automatically
+        revocationCheck.remove(credentialId);
+        credentialStatus.remove(credentialId);
         logger.info("Cache cleared for credential {}", credentialId);
     }
 
+    /**
+     * Clear every cached answer, e.g. when changes may have been missed
+     */
+    public void clearAllCaches() {
+        revocationCheck.clear();
+        credentialStatus.clear();
+        logger.info("Revocation caches cleared");
+    }
+
+    /**
+     * Apply a status change pushed by the issuer: the revocation answer is replaced in place
+     * (suspended counts as revoked) and the full status is dropped so it is fetched again
+     */
+    public void applyStatusEvent(UUID credentialId, String status) {
+        boolean revoked = "REVOKED".equals(status) || "SUSPENDED".equals(status);
+        evictIfFull(revocationCheck);
+        revocationCheck.put(credentialId, new CachedAnswer<>(revoked, System.currentTimeMillis()));
+        credentialStatus.remove(credentialId);
+        logger.debug("Credential {} status pushed: {}", credentialId, status);
+    }
+
+    /**
+     * Record whether pushed events are keeping the caches current, which decides the TTL
+     */
+    public void setEventStreamConnected(boolean connected) {
+        this.eventStreamConnected = connected;
+    }
+
+    public boolean isEventStreamConnected() {
+        return eventStreamConnected;
+    }
+
     /**
      * Test connectivity to issuer revocation service
      */
@@ -133,4 +196,44 @@ public class RevocationCheckService {
             return false;
         }
     }
+
+    private boolean isFresh(CachedAnswer<?> cached) {
+        long ttl = eventStreamConnected ? ttlMillis : fallbackTtlMillis;
+        return cached != null && System.currentTimeMillis() - cached.cachedAt < ttl;
+    }
+
+    /**
+     * Cache a fetched answer unless a pushed event replaced the entry while the fetch was in
+     * flight, in which case the pushed answer wins
+     */
+    private <T> T cacheFetched(Map<UUID, CachedAnswer<T>> cache, UUID credentialId,
+                               CachedAnswer<T> seen, T value) {
+        evictIfFull(cache);
+        CachedAnswer<T> fetched = new CachedAnswer<>(value, System.currentTimeMillis());
+        CachedAnswer<T> current = cache.compute(credentialId,
+                (id, existing) -> existing == null || existing == seen ? fetched : existing);
+        return current.value;
+    }
+
+    private <T> void evictIfFull(Map<UUID, CachedAnswer<T>> cache) {
+        if (cache.size() >= maxEntries) {
+            cache.values().removeIf(cached -> !isFresh(cached));
+            if (cache.size() >= maxEntries) {
+                cache.clear();
+            }
+        }
+    }
+
+    /**
+     * A cached answer and when it was obtained
+     */
+    private static final class CachedAnswer<T> {
+        private final T value;
+        private final long cachedAt;
+
+        private CachedAnswer(T value, long cachedAt) {
+            this.value = value;
+            this.cachedAt = cachedAt;
+        }
+    }
 }
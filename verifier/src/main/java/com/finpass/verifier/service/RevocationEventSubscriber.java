@@ -0,0 +1,230 @@
+package com.finpass.verifier.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Subscribes to the issuer's credential status event stream (server-sent events) and
+ * applies each pushed change to the {@link RevocationCheckService} caches as it arrives.
+ *
+ * The last event id is remembered so a reconnect resumes where the stream left off; the
+ * caches are only cleared when there is no id to resume from.
+ */
+@Service
+public class RevocationEventSubscriber {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevocationEventSubscriber.class);
+
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    private final RevocationCheckService revocationCheckService;
+    private final ObjectMapper objectMapper;
+    private final String eventsUrl;
+    private final boolean enabled;
+    private final long reconnectDelayMs;
+    private final HttpClient httpClient;
+
+    private volatile boolean running;
+    private volatile Thread thread;
+    private volatile InputStream body;
+    private volatile Long lastEventId;
+
+    // Fields of the event being read
+    private String eventId;
+    private String eventName;
+    private final StringBuilder eventData = new StringBuilder();
+
+    @Autowired
+    public RevocationEventSubscriber(RevocationCheckService revocationCheckService,
+                                     ObjectMapper objectMapper,
+                                     @Value("${issuer.url:http://localhost:8080}") String issuerUrl,
+                                     @Value("${revocation.events.enabled:true}") boolean enabled,
+                                     @Value("${revocation.events.reconnect-delay-ms:1000}") long reconnectDelayMs) {
+        this.revocationCheckService = revocationCheckService;
+        this.objectMapper = objectMapper;
+        this.eventsUrl = issuerUrl + "/api/v1/credentials/events";
+        this.enabled = enabled;
+        this.reconnectDelayMs = reconnectDelayMs;
+        this.httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            logger.info("Revocation event stream disabled; cached answers use the fallback TTL");
+            return;
+        }
+        running = true;
+        Thread subscriber = new Thread(this::run, "revocation-event-subscriber");
+        subscriber.setDaemon(true);
+        thread = subscriber;
+        subscriber.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        closeBody();
+        Thread subscriber = thread;
+        if (subscriber != null) {
+            subscriber.interrupt();
+        }
+    }
+
+    public Long getLastEventId() {
+        return lastEventId;
+    }
+
+    private void run() {
+        long backoff = reconnectDelayMs;
+        while (running) {
+            try {
+                if (stream()) {
+                    backoff = reconnectDelayMs;
+                }
+            } catch (IOException e) {
+                logger.warn("Revocation event stream error: {}", e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                revocationCheckService.setEventStreamConnected(false);
+                closeBody();
+            }
+            if (!running) {
+                break;
+            }
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            backoff = Math.min(backoff * 2, MAX_BACKOFF_MS);
+        }
+    }
+
+    /**
+     * Connect and read events until the stream ends; returns whether the issuer accepted
+     * the subscription
+     */
+    private boolean stream() throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(eventsUrl))
+            .header("Accept", "text/event-stream")
+            .GET();
+        Long resumeFrom = lastEventId;
+        if (resumeFrom != null) {
+            request.header("Last-Event-ID", String.valueOf(resumeFrom));
+        }
+        HttpResponse<InputStream> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        body = response.body();
+        if (response.statusCode() != 200) {
+            logger.warn("Issuer rejected revocation event subscription: HTTP {}", response.statusCode());
+            return false;
+        }
+
+        if (resumeFrom == null) {
+            // Nothing to replay from, so anything cached may already be stale
+            revocationCheckService.clearAllCaches();
+        }
+        revocationCheckService.setEventStreamConnected(true);
+        logger.info("Subscribed to revocation events at {} (resuming after {})", eventsUrl, resumeFrom);
+
+        resetEvent();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+            String line;
+            while (running && (line = reader.readLine()) != null) {
+                handleLine(line);
+            }
+        }
+        logger.info("Revocation event stream ended");
+        return true;
+    }
+
+    /**
+     * Process one line of the event stream, dispatching the event when a blank line ends it
+     */
+    void handleLine(String line) {
+        if (line.isEmpty()) {
+            dispatchEvent();
+            return;
+        }
+        if (line.startsWith(":")) {
+            return;
+        }
+        int colon = line.indexOf(':');
+        String field = colon < 0 ? line : line.substring(0, colon);
+        String value = colon < 0 ? "" : line.substring(colon + 1);
+        if (value.startsWith(" ")) {
+            value = value.substring(1);
+        }
+        switch (field) {
+            case "id" -> eventId = value;
+            case "event" -> eventName = value;
+            case "data" -> {
+                if (eventData.length() > 0) {
+                    eventData.append('\n');
+                }
+                eventData.append(value);
+            }
+            default -> { }
+        }
+    }
+
+    private void dispatchEvent() {
+        try {
+            if (eventData.length() == 0 || !"status".equals(eventName)) {
+                return;
+            }
+            JsonNode change = objectMapper.readTree(eventData.toString());
+            UUID credentialId = UUID.fromString(change.path("credential_id").asText());
+            revocationCheckService.applyStatusEvent(credentialId, change.path("status").asText(null));
+            if (eventId != null) {
+                lastEventId = Long.parseLong(eventId);
+            }
+        } catch (Exception e) {
+            logger.warn("Ignoring malformed revocation event {}: {}", eventId, e.getMessage());
+        } finally {
+            resetEvent();
+        }
+    }
+
+    private void resetEvent() {
+        eventId = null;
+        eventName = null;
+        eventData.setLength(0);
+    }
+
+    private void closeBody() {
+        InputStream stream = body;
+        body = null;
+        if (stream != null) {
+            try {
+                stream.close();
+            } catch (IOException e) {
+                logger.debug("Error closing revocation event stream: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.finpass.verifier.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.finpass.verifier.util.CuckooFilter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Local copy of the issuer's cuckoo filter of revoked and suspended credentials, so most
+ * revocation checks (credentials not in the filter) are answered without calling the
+ * issuer.
+ *
+ * The filter is downloaded once and then kept current with patches of the slots changed
+ * since the version held; it is downloaded again when the issuer rebuilds it or no longer
+ * has a patch from that version.
+ *
+ * The filter only answers while its last successful sync is within max-staleness-ms
+ * (three refresh intervals by default). If the issuer is unreachable for longer, every
+ * check goes to the issuer instead, so revocations made meanwhile are never missed.
+ */
+@Service
+public class RevocationFilterClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevocationFilterClient.class);
+
+    /**
+     * "CKF1", leading the issuer's snapshot format
+     */
+    static final int MAGIC = 0x434B4631;
+
+    private final RestTemplate restTemplate;
+    private final String filterUrl;
+    private final boolean enabled;
+    private final long refreshIntervalMs;
+    private final long maxStalenessMs;
+    private final LongSupplier clock;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "revocation-filter-sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final StampedLock lock = new StampedLock();
+    private CuckooFilter filter;
+    private long epoch;
+    private long version;
+    private long syncedAtMillis;
+    private final AtomicLong negatives = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong staleChecks = new AtomicLong();
+
+    @Autowired
+    public RevocationFilterClient(RestTemplate restTemplate,
+                                  @Value("${issuer.url:http://localhost:8080}") String issuerUrl,
+                                  @Value("${revocation.filter.enabled:true}") boolean enabled,
+                                  @Value("${revocation.filter.refresh-interval-ms:10000}") long refreshIntervalMs,
+                                  @Value("${revocation.filter.max-staleness-ms:30000}") long maxStalenessMs) {
+        this(restTemplate, issuerUrl, enabled, refreshIntervalMs, maxStalenessMs, System::currentTimeMillis);
+    }
+
+    RevocationFilterClient(RestTemplate restTemplate, String issuerUrl, boolean enabled, long refreshIntervalMs,
+                           long maxStalenessMs, LongSupplier clock) {
+        this.restTemplate = restTemplate;
+        this.filterUrl = issuerUrl + "/api/v1/revocation-filter";
+        this.enabled = enabled;
+        this.refreshIntervalMs = refreshIntervalMs;
+        this.maxStalenessMs = maxStalenessMs;
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (enabled) {
+            scheduler.scheduleWithFixedDelay(this::syncSafely, 0, refreshIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * True only when the filter is loaded, synced within max-staleness-ms, and the credential
+     * is definitely not revoked or suspended (as of the filter's version); false means ask
+     * the issuer
+     */
+    public boolean isDefinitelyNotRevoked(UUID credentialId) {
+        boolean maybeRevoked;
+        long stamp = lock.readLock();
+        try {
+            if (filter == null) {
+                return false;
+            }
+            if (clock.getAsLong() - syncedAtMillis > maxStalenessMs) {
+                staleChecks.incrementAndGet();
+                return false;
+            }
+            maybeRevoked = filter.mightContain(credentialId);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        (maybeRevoked ? hits : negatives).incrementAndGet();
+        return !maybeRevoked;
+    }
+
+    /**
+     * Download the filter if none is held, otherwise apply the changes since its version
+     */
+    void sync() throws IOException {
+        long heldEpoch;
+        long heldVersion;
+        long stamp = lock.readLock();
+        try {
+            heldEpoch = filter == null ? -1 : epoch;
+            heldVersion = version;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        if (heldEpoch < 0) {
+            download();
+            return;
+        }
+
+        JsonNode patch;
+        try {
+            patch = restTemplate.getForObject(filterUrl + "/patch?epoch={epoch}&since={since}",
+                    JsonNode.class, heldEpoch, heldVersion);
+        } catch (HttpClientErrorException e) {
+            if (e.getStatusCode() == HttpStatus.GONE) {
+                download();
+                return;
+            }
+            throw e;
+        }
+        if (patch == null) {
+            return;
+        }
+        if (patch.path("version").asLong() == heldVersion) {
+            markSynced(heldEpoch, heldVersion);
+            return;
+        }
+        int[] slots = new int[patch.path("slots").size()];
+        long[] values = new long[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = patch.path("slots").get(i).asInt();
+            values[i] = patch.path("values").get(i).asLong();
+        }
+        stamp = lock.writeLock();
+        try {
+            if (filter != null && epoch == heldEpoch && version == heldVersion) {
+                filter.applyPatch(slots, values, patch.path("size").asInt());
+                version = patch.path("version").asLong();
+                syncedAtMillis = clock.getAsLong();
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        logger.debug("Applied revocation filter patch {} -> {} ({} slots)", heldVersion, version, slots.length);
+    }
+
+    /**
+     * Filter size, false positive rate and how many checks it answered, for monitoring
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("negatives", negatives.get());
+        stats.put("hits", hits.get());
+        stats.put("staleChecks", staleChecks.get());
+        stats.put("maxStalenessMs", maxStalenessMs);
+        long stamp = lock.readLock();
+        try {
+            stats.put("loaded", filter != null);
+            if (filter != null) {
+                long ageMs = clock.getAsLong() - syncedAtMillis;
+                stats.put("ageMs", ageMs);
+                stats.put("stale", ageMs > maxStalenessMs);
+                stats.put("epoch", epoch);
+                stats.put("version", version);
+                stats.put("entries", filter.size());
+                stats.put("bytes", filter.sizeInBytes());
+                stats.put("fingerprintBits", filter.fingerprintBits());
+                stats.put("expectedFalsePositiveRate", filter.falsePositiveRate());
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        return stats;
+    }
+
+    private boolean isStale() {
+        long stamp = lock.readLock();
+        try {
+            return filter != null && clock.getAsLong() - syncedAtMillis > maxStalenessMs;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private void download() throws IOException {
+        byte[] body = restTemplate.getForObject(filterUrl, byte[].class);
+        if (body == null) {
+            return;
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a revocation filter");
+        }
+        long newEpoch = in.readLong();
+        long newVersion = in.readLong();
+        CuckooFilter downloaded = CuckooFilter.readFrom(in);
+        long stamp = lock.writeLock();
+        try {
+            filter = downloaded;
+            epoch = newEpoch;
+            version = newVersion;
+            syncedAtMillis = clock.getAsLong();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        logger.info("Downloaded revocation filter: {} entries, {} bytes, expected false positive rate {}",
+                downloaded.size(), downloaded.sizeInBytes(), String.format("%.5f", downloaded.falsePositiveRate()));
+    }
+
+    /**
+     * The issuer confirmed the held version is current
+     */
+    private void markSynced(long heldEpoch, long heldVersion) {
+        long stamp = lock.writeLock();
+        try {
+            if (filter != null && epoch == heldEpoch && version == heldVersion) {
+                syncedAtMillis = clock.getAsLong();
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private void syncSafely() {
+        try {
+            sync();
+        } catch (Exception e) {
+            logger.warn("Failed to sync revocation filter: {}", e.getMessage());
+            if (isStale()) {
+                logger.warn("Revocation filter is stale; revocation checks go to the issuer until a sync succeeds");
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.finpass.verifier.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for RevocationEventSubscriber and the caches it keeps current
+ */
+@ExtendWith(MockitoExtension.class)
+class RevocationEventSubscriberTest {
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    @Mock
+    private RevocationFilterClient revocationFilter;
+
+    private RevocationCheckService revocationCheckService;
+    private RevocationEventSubscriber subscriber;
+
+    @BeforeEach
+    void setUp() {
+        revocationCheckService = new RevocationCheckService(restTemplate, revocationFilter, "http://issuer", 21600, 60, 1000);
+        subscriber = new RevocationEventSubscriber(revocationCheckService, new ObjectMapper(),
+                "http://issuer", false, 1000);
+    }
+
+    @Test
+    void testStatusEvent_UpdatesCachedAnswerWithoutRefetching() {
+        // Arrange - a valid answer cached while the stream is connected
+        UUID credentialId = UUID.randomUUID();
+        revocationCheckService.setEventStreamConnected(true);
+        when(restTemplate.getForObject(anyString(), eq(Map.class))).thenReturn(Map.of("is_valid", true));
+        assertFalse(revocationCheckService.isCredentialRevoked(credentialId));
+
+        // Act
+        stream(": keepalive",
+                "id: 42",
+                "event: status",
+                "data: {\"seq\":42,\"credential_id\":\"" + credentialId + "\",\"status\":\"REVOKED\"}",
+                "");
+
+        // Assert
+        assertTrue(revocationCheckService.isCredentialRevoked(credentialId));
+        assertEquals(42L, subscriber.getLastEventId());
+        verify(restTemplate, times(1)).getForObject(anyString(), eq(Map.class));
+    }
+
+    @Test
+    void testStatusEvent_ReinstatementAndMalformedEvents() {
+        // Arrange
+        UUID credentialId = UUID.randomUUID();
+        revocationCheckService.setEventStreamConnected(true);
+
+        // Act - a suspension, a reinstatement, then an event that cannot be parsed
+        stream("id: 7", "event: status", "data: {\"credential_id\":\"" + credentialId + "\",\"status\":\"SUSPENDED\"}", "");
+        assertTrue(revocationCheckService.isCredentialRevoked(credentialId));
+        stream("id: 8", "event: status", "data: {\"credential_id\":\"" + credentialId + "\",\"status\":\"VALID\"}", "");
+        stream("id: 9", "event: status", "data: {\"credential_id\":\"not-a-uuid\"}", "");
+
+        // Assert
+        assertFalse(revocationCheckService.isCredentialRevoked(credentialId));
+        assertEquals(8L, subscriber.getLastEventId());
+        verifyNoInteractions(restTemplate);
+    }
+
+    @Test
+    void testDisconnectedStream_FallsBackToShortTtl() {
+        // Arrange - the fallback TTL is zero, so nothing cached is reused while disconnected
+        revocationCheckService = new RevocationCheckService(restTemplate, revocationFilter, "http://issuer", 21600, 0, 1000);
+        UUID credentialId = UUID.randomUUID();
+        when(restTemplate.getForObject(anyString(), eq(Map.class))).thenReturn(Map.of("is_valid", true));
+
+        // Act
+        revocationCheckService.isCredentialRevoked(credentialId);
+        revocationCheckService.isCredentialRevoked(credentialId);
+        revocationCheckService.setEventStreamConnected(true);
+        revocationCheckService.isCredentialRevoked(credentialId);
+        revocationCheckService.isCredentialRevoked(credentialId);
+
+        // Assert - refetched while disconnected, then served from the cache
+        verify(restTemplate, times(2)).getForObject(anyString(), eq(Map.class));
+    }
+
+    private void stream(String... lines) {
+        for (String line : lines) {
+            subscriber.handleLine(line);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.finpass.verifier.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finpass.verifier.util.CuckooFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for RevocationFilterClient
+ */
+@ExtendWith(MockitoExtension.class)
+class RevocationFilterClientTest {
+
+    private static final String FILTER_URL = "http://issuer/api/v1/revocation-filter";
+    private static final String PATCH_URL = FILTER_URL + "/patch?epoch={epoch}&since={since}";
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    private final AtomicLong clock = new AtomicLong(1_700_000_000_000L);
+
+    private RevocationFilterClient filterClient;
+
+    @BeforeEach
+    void setUp() {
+        filterClient = new RevocationFilterClient(restTemplate, "http://issuer", false, 10_000, 30_000, clock::get);
+    }
+
+    @Test
+    void testSync_DownloadsThenAppliesPatches() throws Exception {
+        // Arrange - the issuer's filter holds one revoked credential at version 5
+        UUID revoked = UUID.randomUUID();
+        UUID newlyRevoked = UUID.randomUUID();
+        CuckooFilter published = CuckooFilter.create(1000, 16);
+        published.add(revoked);
+        published.drainDirty();
+        when(restTemplate.getForObject(FILTER_URL, byte[].class)).thenReturn(snapshot(published, 7L, 5L));
+        filterClient.sync();
+        assertFalse(filterClient.isDefinitelyNotRevoked(revoked));
+        assertTrue(filterClient.isDefinitelyNotRevoked(newlyRevoked));
+
+        // Act - another credential is revoked at version 6
+        published.add(newlyRevoked);
+        when(restTemplate.getForObject(PATCH_URL, JsonNode.class, 7L, 5L)).thenReturn(patch(published, 5L, 6L));
+        filterClient.sync();
+
+        // Assert
+        assertFalse(filterClient.isDefinitelyNotRevoked(newlyRevoked));
+        assertEquals(6L, filterClient.getStats().get("version"));
+        assertEquals(2, filterClient.getStats().get("entries"));
+    }
+
+    @Test
+    void testSync_DownloadsAgainWhenPatchIsGone() throws Exception {
+        // Arrange
+        UUID revoked = UUID.randomUUID();
+        CuckooFilter rebuilt = CuckooFilter.create(1000, 16);
+        rebuilt.add(revoked);
+        when(restTemplate.getForObject(FILTER_URL, byte[].class))
+            .thenReturn(snapshot(CuckooFilter.create(1000, 16), 7L, 5L), snapshot(rebuilt, 8L, 9L));
+        filterClient.sync();
+        when(restTemplate.getForObject(PATCH_URL, JsonNode.class, 7L, 5L))
+            .thenThrow(new HttpClientErrorException(HttpStatus.GONE));
+
+        // Act
+        filterClient.sync();
+
+        // Assert
+        assertEquals(8L, filterClient.getStats().get("epoch"));
+        assertFalse(filterClient.isDefinitelyNotRevoked(revoked));
+    }
+
+    @Test
+    void testIsDefinitelyNotRevoked_StopsAnsweringWhenSyncKeepsFailing() throws Exception {
+        // Arrange - a loaded filter, then the issuer goes away
+        UUID credentialId = UUID.randomUUID();
+        when(restTemplate.getForObject(FILTER_URL, byte[].class)).thenReturn(snapshot(CuckooFilter.create(1000, 16), 7L, 5L));
+        filterClient.sync();
+        when(restTemplate.getForObject(PATCH_URL, JsonNode.class, 7L, 5L))
+            .thenThrow(new ResourceAccessException("Connection refused"));
+
+        // Act & Assert - still answers within max-staleness-ms
+        clock.addAndGet(20_000);
+        assertThrows(ResourceAccessException.class, filterClient::sync);
+        assertTrue(filterClient.isDefinitelyNotRevoked(credentialId));
+        assertEquals(20_000L, filterClient.getStats().get("ageMs"));
+
+        // Act & Assert - past it, every check goes to the issuer
+        clock.addAndGet(10_001);
+        assertThrows(ResourceAccessException.class, filterClient::sync);
+        assertFalse(filterClient.isDefinitelyNotRevoked(credentialId));
+        assertEquals(30_001L, filterClient.getStats().get("ageMs"));
+        assertEquals(true, filterClient.getStats().get("stale"));
+        assertEquals(1L, filterClient.getStats().get("staleChecks"));
+    }
+
+    @Test
+    void testSync_UnchangedPatchKeepsFilterFresh() throws Exception {
+        // Arrange
+        CuckooFilter published = CuckooFilter.create(1000, 16);
+        when(restTemplate.getForObject(FILTER_URL, byte[].class)).thenReturn(snapshot(published, 7L, 5L));
+        filterClient.sync();
+        when(restTemplate.getForObject(PATCH_URL, JsonNode.class, 7L, 5L)).thenReturn(patch(published, 5L, 5L));
+
+        // Act - nothing changed at the issuer, but it answered
+        clock.addAndGet(40_000);
+        filterClient.sync();
+
+        // Assert
+        assertEquals(0L, filterClient.getStats().get("ageMs"));
+        assertTrue(filterClient.isDefinitelyNotRevoked(UUID.randomUUID()));
+    }
+
+    @Test
+    void testRevocationCheck_FilterNegativeSkipsIssuer() throws Exception {
+        // Arrange
+        when(restTemplate.getForObject(FILTER_URL, byte[].class)).thenReturn(snapshot(CuckooFilter.create(1000, 16), 1L, 1L));
+        filterClient.sync();
+        RevocationCheckService revocationCheckService =
+                new RevocationCheckService(restTemplate, filterClient, "http://issuer", 21600, 60, 1000);
+
+        // Act
+        boolean revoked = revocationCheckService.isCredentialRevoked(UUID.randomUUID());
+
+        // Assert
+        assertFalse(revoked);
+        verify(restTemplate, never()).getForObject(anyString(), eq(Map.class));
+        assertEquals(1L, filterClient.getStats().get("negatives"));
+    }
+
+    private static byte[] snapshot(CuckooFilter filter, long epoch, long version) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(RevocationFilterClient.MAGIC);
+        out.writeLong(epoch);
+        out.writeLong(version);
+        filter.writeTo(out);
+        return bytes.toByteArray();
+    }
+
+    private static JsonNode patch(CuckooFilter filter, long fromVersion, long version) {
+        int[] slots = filter.drainDirty();
+        long[] values = new long[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            values[i] = filter.get(slots[i]);
+        }
+        return new ObjectMapper().valueToTree(Map.of("epoch", 7L, "from_version", fromVersion, "version", version,
+                "size", filter.size(), "slots", slots, "values", values));
+    }
+}